@@ -0,0 +1,26 @@
+package org.example.voicecampaign.config;
+
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+/**
+ * Factory for Lua scripts returning an array reply, typed by the element the caller reads.
+ */
+public final class RedisScripts {
+
+    private RedisScripts() {
+    }
+
+    /**
+     * Creates a script whose array reply is read as a {@code List<T>}. With a
+     * {@code StringRedisTemplate}, bulk strings come back as {@link String} and nested arrays as
+     * {@link List}.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> RedisScript<List<T>> listScript(String script) {
+        Class<List<T>> resultType = (Class<List<T>>) (Class<?>) List.class;
+        return new DefaultRedisScript<>(script, resultType);
+    }
+}
@@ -4,14 +4,18 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.voicecampaign.dto.CallResponse;
+import org.example.voicecampaign.dto.CallbackBatchRequest;
 import org.example.voicecampaign.dto.CallbackRequest;
 import org.example.voicecampaign.dto.TriggerCallRequest;
 import org.example.voicecampaign.service.CallService;
+import org.example.voicecampaign.service.CallbackBuffer;
 import org.example.voicecampaign.service.CampaignService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -22,6 +26,7 @@ public class CallController {
 
     private final CallService callService;
     private final CampaignService campaignService;
+    private final CallbackBuffer callbackBuffer;
 
     @PostMapping
     public ResponseEntity<CallResponse> triggerCall(@Valid @RequestBody TriggerCallRequest request) {
@@ -38,7 +43,29 @@ public class CallController {
     public ResponseEntity<Void> handleCallback(@Valid @RequestBody CallbackRequest request) {
         log.info("Received callback request: externalCallId={}, status={}", 
                 request.getExternalCallId(), request.getStatus());
+        if (callbackBuffer.isEnabled()) {
+            return buffer(List.of(request));
+        }
         callService.handleCallback(request);
         return ResponseEntity.ok().build();
     }
+
+    @PostMapping("/callbacks")
+    public ResponseEntity<Void> handleCallbacks(@Valid @RequestBody CallbackBatchRequest request) {
+        log.info("Received batch of {} callbacks", request.getCallbacks().size());
+        if (callbackBuffer.isEnabled()) {
+            return buffer(request.getCallbacks());
+        }
+        callService.handleCallbacks(request.getCallbacks());
+        return ResponseEntity.ok().build();
+    }
+
+    private ResponseEntity<Void> buffer(List<CallbackRequest> callbacks) {
+        if (!callbackBuffer.submit(callbacks)) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(callbackBuffer.getRetryAfterSeconds()))
+                    .build();
+        }
+        return ResponseEntity.accepted().build();
+    }
 }
@@ -0,0 +1,28 @@
+package org.example.voicecampaign.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.voicecampaign.telephony.SimulatedTelephonyProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Fault injection for load tests, exposed only while the simulator is the active telephony provider.
+ */
+@RestController
+@RequestMapping("/api/v1/simulator")
+@ConditionalOnProperty(name = "voice-campaign.telephony.provider", havingValue = "simulator")
+@RequiredArgsConstructor
+public class SimulatorController {
+
+    private final SimulatedTelephonyProvider simulator;
+
+    @PostMapping("/brownout")
+    public ResponseEntity<Void> injectBrownout(@RequestParam(defaultValue = "60000") long durationMs) {
+        simulator.injectBrownout(durationMs);
+        return ResponseEntity.accepted().build();
+    }
+}
@@ -16,6 +16,7 @@ import java.util.UUID;
 @Entity
 @Table(name = "call_requests", indexes = {
     @Index(name = "idx_call_campaign_status", columnList = "campaign_id, status"),
+    @Index(name = "idx_call_campaign_status_created", columnList = "campaign_id, status, created_at, id"),
     @Index(name = "idx_call_status_retry", columnList = "status, retry_count, next_retry_at"),
     @Index(name = "idx_call_expected_callback", columnList = "status, expected_callback_by"),
     @Index(name = "idx_call_external_id", columnList = "externalCallId"),
@@ -74,14 +75,6 @@ public class CallRequest {
         updatedAt = Instant.now();
     }
 
-    public void markInProgress(String externalCallId, Instant expectedCallbackBy) {
-        this.status = CallStatus.IN_PROGRESS;
-        this.externalCallId = externalCallId;
-        this.lastAttemptedAt = Instant.now();
-        this.expectedCallbackBy = expectedCallbackBy;
-        this.nextRetryAt = null;
-    }
-
     public void markCompleted(Integer durationSeconds) {
         this.status = CallStatus.COMPLETED;
         this.callDurationSeconds = durationSeconds;
@@ -96,6 +89,13 @@ public class CallRequest {
         this.expectedCallbackBy = null;
     }
 
+    public void markDeferred(String reason, Instant nextRetryAt) {
+        this.status = CallStatus.PENDING;
+        this.failureReason = reason;
+        this.nextRetryAt = nextRetryAt;
+        this.expectedCallbackBy = null;
+    }
+
     public void markPermanentlyFailed(String reason) {
         this.status = CallStatus.PERMANENTLY_FAILED;
         this.failureReason = reason;
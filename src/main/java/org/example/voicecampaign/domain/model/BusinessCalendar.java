@@ -0,0 +1,192 @@
+package org.example.voicecampaign.domain.model;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Immutable, pre-compiled form of {@link BusinessHours}.
+ *
+ * <p>The zone, window bounds and allowed days are resolved once, so {@link #isOpen(Instant)} is
+ * plain arithmetic with no allocation. {@link #nextOpen(Instant)} and {@link #nextClose(Instant)}
+ * compute the next window transitions so callers can skip evaluating a campaign until its state
+ * can actually change.</p>
+ *
+ * <p>Semantics match the original {@code BusinessHours} check: the window end is inclusive, an
+ * overnight window (end before start) is open after start or before end on an allowed day, a
+ * 00:00-23:59 window is open around the clock, and an unparseable configuration fails open.</p>
+ */
+public final class BusinessCalendar {
+
+    private static final BusinessCalendar ALWAYS_OPEN = new BusinessCalendar(null, 0, 0, 0, true);
+    private static final LocalTime FULL_DAY_END = LocalTime.of(23, 59);
+    private static final int DEFAULT_DAY_MASK = dayBit(DayOfWeek.MONDAY) | dayBit(DayOfWeek.TUESDAY)
+            | dayBit(DayOfWeek.WEDNESDAY) | dayBit(DayOfWeek.THURSDAY) | dayBit(DayOfWeek.FRIDAY);
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final int LOOKAHEAD_DAYS = 8;
+
+    private final ZoneId zone;
+    private final ZoneRules rules;
+    private final ZoneOffset fixedOffset;
+    private final long startMillis;
+    private final long endMillis;
+    private final int dayMask;
+    private final boolean alwaysOpen;
+
+    private BusinessCalendar(ZoneId zone, long startMillis, long endMillis, int dayMask, boolean alwaysOpen) {
+        this.zone = zone;
+        this.rules = zone != null ? zone.getRules() : null;
+        this.fixedOffset = rules != null && rules.isFixedOffset() ? rules.getOffset(Instant.EPOCH) : null;
+        this.startMillis = startMillis;
+        this.endMillis = endMillis;
+        this.dayMask = dayMask;
+        this.alwaysOpen = alwaysOpen;
+    }
+
+    /**
+     * Compiles business hours into a calendar. A null or invalid configuration yields a calendar
+     * that is always open.
+     */
+    public static BusinessCalendar compile(BusinessHours hours) {
+        if (hours == null || hours.getStartTime() == null || hours.getEndTime() == null) {
+            return ALWAYS_OPEN;
+        }
+        LocalTime start = hours.getStartTime();
+        LocalTime end = hours.getEndTime();
+        if (start.equals(LocalTime.MIDNIGHT) && end.equals(FULL_DAY_END)) {
+            return ALWAYS_OPEN;
+        }
+        try {
+            ZoneId zone = ZoneId.of(hours.getTimezone() != null ? hours.getTimezone() : "UTC");
+            return new BusinessCalendar(zone, start.toNanoOfDay() / 1_000_000, end.toNanoOfDay() / 1_000_000,
+                    parseDayMask(hours.getAllowedDays()), false);
+        } catch (Exception e) {
+            // Invalid timezone or day name - default to allowing calls (fail-open)
+            return ALWAYS_OPEN;
+        }
+    }
+
+    public boolean isAlwaysOpen() {
+        return alwaysOpen;
+    }
+
+    /**
+     * Returns whether calls are allowed at the given instant. Allocation-free.
+     */
+    public boolean isOpen(Instant instant) {
+        if (alwaysOpen) {
+            return true;
+        }
+        int offsetSeconds = fixedOffset != null
+                ? fixedOffset.getTotalSeconds()
+                : rules.getOffset(instant).getTotalSeconds();
+        long localMillis = instant.toEpochMilli() + offsetSeconds * 1000L;
+        long epochDay = Math.floorDiv(localMillis, MILLIS_PER_DAY);
+        long millisOfDay = Math.floorMod(localMillis, MILLIS_PER_DAY);
+        // 1970-01-01 was a Thursday; DayOfWeek ordinals start at Monday = 0
+        int dayOrdinal = (int) Math.floorMod(epochDay + 3, 7L);
+
+        if ((dayMask & (1 << dayOrdinal)) == 0) {
+            return false;
+        }
+        if (endMillis < startMillis) {
+            return millisOfDay >= startMillis || millisOfDay <= endMillis;
+        }
+        return millisOfDay >= startMillis && millisOfDay <= endMillis;
+    }
+
+    /**
+     * Returns the first instant at or after {@code from} at which calls are allowed, or null if the
+     * calendar never opens (no allowed days).
+     */
+    public Instant nextOpen(Instant from) {
+        if (alwaysOpen || isOpen(from)) {
+            return from;
+        }
+        for (long[] window : windows(from)) {
+            if (window[1] > from.toEpochMilli()) {
+                return Instant.ofEpochMilli(Math.max(window[0], from.toEpochMilli()));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the first instant after {@code from} at which calls are no longer allowed, or null if
+     * the calendar never closes. If the calendar is closed at {@code from}, returns {@code from}.
+     */
+    public Instant nextClose(Instant from) {
+        if (alwaysOpen) {
+            return null;
+        }
+        if (!isOpen(from)) {
+            return from;
+        }
+        for (long[] window : windows(from)) {
+            if (window[0] <= from.toEpochMilli() && window[1] > from.toEpochMilli()) {
+                return Instant.ofEpochMilli(window[1]);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Builds the merged, time-ordered open windows [start, endExclusive) in epoch millis from the day
+     * before {@code from} up to {@value #LOOKAHEAD_DAYS} days ahead.
+     */
+    private List<long[]> windows(Instant from) {
+        LocalDate today = LocalDate.ofInstant(from, zone);
+        List<long[]> windows = new ArrayList<>();
+        for (int i = -1; i <= LOOKAHEAD_DAYS; i++) {
+            LocalDate date = today.plusDays(i);
+            if ((dayMask & dayBit(date.getDayOfWeek())) == 0) {
+                continue;
+            }
+            if (endMillis < startMillis) {
+                addWindow(windows, epochMillis(date, 0), epochMillis(date, endMillis) + 1);
+                addWindow(windows, epochMillis(date, startMillis), epochMillis(date.plusDays(1), 0));
+            } else {
+                addWindow(windows, epochMillis(date, startMillis), epochMillis(date, endMillis) + 1);
+            }
+        }
+        return windows;
+    }
+
+    private static void addWindow(List<long[]> windows, long start, long end) {
+        if (!windows.isEmpty()) {
+            long[] last = windows.get(windows.size() - 1);
+            if (start <= last[1]) {
+                last[1] = Math.max(last[1], end);
+                return;
+            }
+        }
+        windows.add(new long[]{start, end});
+    }
+
+    private long epochMillis(LocalDate date, long millisOfDay) {
+        LocalTime time = LocalTime.ofNanoOfDay(millisOfDay * 1_000_000);
+        return ZonedDateTime.of(date, time, zone).toInstant().toEpochMilli();
+    }
+
+    private static int parseDayMask(String allowedDays) {
+        if (allowedDays == null || allowedDays.isEmpty()) {
+            return DEFAULT_DAY_MASK;
+        }
+        int mask = 0;
+        for (String day : allowedDays.split(",")) {
+            mask |= dayBit(DayOfWeek.valueOf(day.trim().toUpperCase()));
+        }
+        return mask;
+    }
+
+    private static int dayBit(DayOfWeek day) {
+        return 1 << (day.getValue() - 1);
+    }
+}
@@ -1,11 +1,22 @@
 package org.example.voicecampaign.domain.model;
 
+import java.util.List;
+
 public enum CallStatus {
     PENDING,
     SCHEDULED,
+    /**
+     * Claimed by a worker, which is initiating it; moved to IN_PROGRESS once the provider accepted it.
+     */
+    DIALING,
     IN_PROGRESS,
     COMPLETED,
     FAILED,
     PERMANENTLY_FAILED,
-    CANCELLED
+    CANCELLED;
+
+    /**
+     * Statuses of calls their campaign still has to finish; a campaign without any is complete.
+     */
+    public static final List<CallStatus> OUTSTANDING = List.of(PENDING, SCHEDULED, DIALING, IN_PROGRESS, FAILED);
 }
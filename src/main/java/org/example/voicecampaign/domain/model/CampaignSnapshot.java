@@ -0,0 +1,44 @@
+package org.example.voicecampaign.domain.model;
+
+import org.example.voicecampaign.domain.entity.Campaign;
+
+import java.util.UUID;
+
+/**
+ * Immutable view of the campaign settings needed to dispatch calls and handle their outcomes.
+ *
+ * <p>{@code version} is the campaign's {@code updatedAt} in epoch milliseconds, so a snapshot can be
+ * compared against a later change of the same campaign.</p>
+ */
+public record CampaignSnapshot(
+        UUID id,
+        CampaignStatus status,
+        int concurrencyLimit,
+        int maxRetries,
+        long syncInitialBackoffMs,
+        double syncBackoffMultiplier,
+        long callbackRetryDelayMs,
+        long callbackTimeoutMs,
+        long version) {
+
+    public static CampaignSnapshot of(Campaign campaign) {
+        RetryConfig retryConfig = campaign.getRetryConfig() != null ? campaign.getRetryConfig() : RetryConfig.builder().build();
+        return new CampaignSnapshot(
+                campaign.getId(),
+                campaign.getStatus(),
+                campaign.getConcurrencyLimit(),
+                retryConfig.getMaxRetries(),
+                retryConfig.getSyncInitialBackoffMs(),
+                retryConfig.getSyncBackoffMultiplier(),
+                retryConfig.getCallbackRetryDelayMs(),
+                retryConfig.getCallbackTimeoutMs(),
+                campaign.getUpdatedAt().toEpochMilli());
+    }
+
+    /**
+     * Same as {@link RetryConfig#calculateSyncBackoff(int)}.
+     */
+    public long calculateSyncBackoff(int attemptNumber) {
+        return (long) (syncInitialBackoffMs * Math.pow(syncBackoffMultiplier, attemptNumber - 1));
+    }
+}
@@ -0,0 +1,22 @@
+package org.example.voicecampaign.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CallbackBatchRequest {
+
+    @NotEmpty(message = "Callbacks list cannot be empty")
+    @Size(max = 1000, message = "Cannot exceed 1,000 callbacks per request")
+    private List<@Valid CallbackRequest> callbacks;
+}
@@ -63,5 +63,6 @@ public class CampaignResponse {
         private long failedCalls;
         private long permanentlyFailedCalls;
         private long totalRetries;
+        private long queueDepth;
     }
 }
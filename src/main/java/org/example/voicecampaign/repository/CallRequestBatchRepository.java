@@ -0,0 +1,44 @@
+package org.example.voicecampaign.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Batched writes of {@link org.example.voicecampaign.domain.entity.CallRequest}s that JPQL cannot
+ * express as one statement, because every row gets its own values.
+ */
+public interface CallRequestBatchRepository {
+
+    /**
+     * Claims dequeued calls for dialing by moving them from SCHEDULED to DIALING, as one JDBC batch of
+     * a single UPDATE statement. A call no longer SCHEDULED, because another worker claimed it first
+     * or it was released meanwhile, is left untouched and must not be dialed.
+     *
+     * @param expectedCallbackBy deadline of each call by ID, after which the watchdog fails a call
+     *                           whose worker never got it to IN_PROGRESS
+     * @return IDs of the calls claimed
+     */
+    Set<UUID> markDialing(Map<UUID, Instant> expectedCallbackBy);
+
+    /**
+     * Moves initiated calls from DIALING to IN_PROGRESS with their external call IDs, as one JDBC
+     * batch of a single UPDATE statement. A call no longer DIALING is left untouched.
+     *
+     * @param calls the initiated calls
+     * @return IDs of the calls updated
+     */
+    Set<UUID> markInProgress(List<InitiatedCall> calls);
+
+    /**
+     * A call accepted by the telephony provider.
+     *
+     * @param callRequestId      the call
+     * @param externalCallId     the provider's ID of the call
+     * @param expectedCallbackBy when the watchdog treats the callback as lost
+     */
+    record InitiatedCall(UUID callRequestId, String externalCallId, Instant expectedCallbackBy) {
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.voicecampaign.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+@RequiredArgsConstructor
+class CallRequestBatchRepositoryImpl implements CallRequestBatchRepository {
+
+    private static final String MARK_DIALING_SQL =
+            "UPDATE call_requests SET status = 'DIALING', expected_callback_by = ?, updated_at = ? " +
+            "WHERE id = ? AND status = 'SCHEDULED'";
+
+    private static final String MARK_IN_PROGRESS_SQL =
+            "UPDATE call_requests SET status = 'IN_PROGRESS', external_call_id = ?, expected_callback_by = ?, " +
+            "last_attempted_at = ?, next_retry_at = NULL, updated_at = ? " +
+            "WHERE id = ? AND status = 'DIALING'";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public Set<UUID> markDialing(Map<UUID, Instant> expectedCallbackBy) {
+        if (expectedCallbackBy.isEmpty()) {
+            return Set.of();
+        }
+        OffsetDateTime now = OffsetDateTime.ofInstant(Instant.now(), ZoneOffset.UTC);
+        List<Map.Entry<UUID, Instant>> calls = List.copyOf(expectedCallbackBy.entrySet());
+        int[][] counts = jdbcTemplate.batchUpdate(MARK_DIALING_SQL, calls, calls.size(), (ps, call) -> {
+            ps.setObject(1, OffsetDateTime.ofInstant(call.getValue(), ZoneOffset.UTC));
+            ps.setObject(2, now);
+            ps.setObject(3, call.getKey());
+        });
+        return updated(counts, calls.stream().map(Map.Entry::getKey).toList());
+    }
+
+    @Override
+    @Transactional
+    public Set<UUID> markInProgress(List<InitiatedCall> calls) {
+        if (calls.isEmpty()) {
+            return Set.of();
+        }
+        OffsetDateTime now = OffsetDateTime.ofInstant(Instant.now(), ZoneOffset.UTC);
+        int[][] counts = jdbcTemplate.batchUpdate(MARK_IN_PROGRESS_SQL, calls, calls.size(), (ps, call) -> {
+            ps.setString(1, call.externalCallId());
+            ps.setObject(2, OffsetDateTime.ofInstant(call.expectedCallbackBy(), ZoneOffset.UTC));
+            ps.setObject(3, now);
+            ps.setObject(4, now);
+            ps.setObject(5, call.callRequestId());
+        });
+        return updated(counts, calls.stream().map(InitiatedCall::callRequestId).toList());
+    }
+
+    private static Set<UUID> updated(int[][] counts, List<UUID> ids) {
+        Set<UUID> updated = new HashSet<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            int count = counts[0][i];
+            // Drivers may report success without a row count
+            if (count > 0 || count == Statement.SUCCESS_NO_INFO) {
+                updated.add(ids.get(i));
+            }
+        }
+        return updated;
+    }
+}
@@ -1,46 +1,284 @@
 package org.example.voicecampaign.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.example.voicecampaign.domain.entity.CallRequest;
 import org.example.voicecampaign.domain.model.CallStatus;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface CallRequestRepository extends JpaRepository<CallRequest, UUID> {
+public interface CallRequestRepository extends JpaRepository<CallRequest, UUID>, CallRequestBatchRepository {
     
     List<CallRequest> findByCampaignId(UUID campaignId);
     
     List<CallRequest> findByCampaignIdAndStatus(UUID campaignId, CallStatus status);
     
     Optional<CallRequest> findByExternalCallId(String externalCallId);
+
+    List<CallRequest> findByExternalCallIdIn(Collection<String> externalCallIds);
     
-    @Query("SELECT cr FROM CallRequest cr JOIN FETCH cr.campaign WHERE cr.campaign.id = :campaignId " +
-           "AND cr.status = 'FAILED' AND cr.nextRetryAt <= :now " +
+    /**
+     * Locks due retries of a campaign for claiming: FAILED calls, and PENDING calls deferred by their
+     * route, whose {@code nextRetryAt} has passed. Rows already locked by another transaction are
+     * skipped ({@code FOR UPDATE SKIP LOCKED} on PostgreSQL; lock timeout -2 is Hibernate's SKIP_LOCKED).
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT cr FROM CallRequest cr WHERE cr.campaign.id = :campaignId " +
+           "AND cr.status IN ('FAILED', 'PENDING') AND cr.nextRetryAt <= :now " +
            "ORDER BY cr.retryCount DESC, cr.createdAt ASC")
-    List<CallRequest> findRetryableCallsForCampaign(
-            @Param("campaignId") UUID campaignId, 
+    List<CallRequest> lockRetryableCallsForCampaign(
+            @Param("campaignId") UUID campaignId,
             @Param("now") Instant now,
             Pageable pageable);
-    
-    @Query("SELECT cr FROM CallRequest cr JOIN FETCH cr.campaign WHERE cr.campaign.id = :campaignId " +
-           "AND cr.status = 'PENDING' " +
+
+    /**
+     * Locks the given calls for claiming if they are still due retries, skipping rows locked elsewhere.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT cr FROM CallRequest cr WHERE cr.id IN :ids " +
+           "AND cr.status IN ('FAILED', 'PENDING') AND cr.nextRetryAt <= :now")
+    List<CallRequest> lockRetryableCallsByIds(
+            @Param("ids") Collection<UUID> ids,
+            @Param("now") Instant now);
+
+    /**
+     * Returns which of the given calls are still due retries, without locking them.
+     */
+    @Query("SELECT cr.id FROM CallRequest cr WHERE cr.id IN :ids " +
+           "AND cr.status IN ('FAILED', 'PENDING') AND cr.nextRetryAt <= :now")
+    List<UUID> findDueRetryIds(
+            @Param("ids") Collection<UUID> ids,
+            @Param("now") Instant now);
+
+    /**
+     * Locks the given calls for claiming if they are still pending and not deferred past {@code now},
+     * skipping rows locked elsewhere, in {@code (createdAt, id)} order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT cr FROM CallRequest cr WHERE cr.id IN :ids AND cr.status = 'PENDING' " +
+           "AND (cr.nextRetryAt IS NULL OR cr.nextRetryAt <= :now) " +
+           "ORDER BY cr.createdAt ASC, cr.id ASC")
+    List<CallRequest> lockPendingCallsByIds(@Param("ids") Collection<UUID> ids, @Param("now") Instant now);
+
+    /**
+     * Returns which of the given calls are still pending and not deferred past {@code now}, without
+     * locking them.
+     */
+    @Query("SELECT cr.id FROM CallRequest cr WHERE cr.id IN :ids AND cr.status = 'PENDING' " +
+           "AND (cr.nextRetryAt IS NULL OR cr.nextRetryAt <= :now)")
+    List<UUID> findPendingIds(@Param("ids") Collection<UUID> ids, @Param("now") Instant now);
+
+    /**
+     * Returns {@code [id, createdAt]} of a campaign's pending calls not deferred past {@code now}
+     * after the keyset cursor {@code (afterCreatedAt, afterId)}, in {@code (createdAt, id)} order.
+     */
+    @Query("SELECT cr.id, cr.createdAt FROM CallRequest cr WHERE cr.campaign.id = :campaignId " +
+           "AND cr.status = 'PENDING' AND (cr.nextRetryAt IS NULL OR cr.nextRetryAt <= :now) " +
+           "AND (cr.createdAt > :afterCreatedAt OR (cr.createdAt = :afterCreatedAt AND cr.id > :afterId)) " +
+           "ORDER BY cr.createdAt ASC, cr.id ASC")
+    List<Object[]> findPendingKeysetPage(
+            @Param("campaignId") UUID campaignId,
+            @Param("afterCreatedAt") Instant afterCreatedAt,
+            @Param("afterId") UUID afterId,
+            @Param("now") Instant now,
+            Pageable pageable);
+
+    /**
+     * Returns {@code [id, campaignId, nextRetryAt]} of retries, and of calls deferred by their route,
+     * of running campaigns that were due before {@code cutoff}, for reconciling the Redis retry timer.
+     */
+    @Query("SELECT cr.id, cr.campaign.id, cr.nextRetryAt FROM CallRequest cr " +
+           "WHERE cr.status IN ('FAILED', 'PENDING') AND cr.nextRetryAt <= :cutoff " +
+           "AND cr.campaign.status = org.example.voicecampaign.domain.model.CampaignStatus.IN_PROGRESS")
+    List<Object[]> findOverdueRetries(@Param("cutoff") Instant cutoff, Pageable pageable);
+
+    /**
+     * Locks the oldest pending calls of a campaign not deferred past {@code now} for claiming,
+     * skipping rows locked elsewhere.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT cr FROM CallRequest cr WHERE cr.campaign.id = :campaignId " +
+           "AND cr.status = 'PENDING' AND (cr.nextRetryAt IS NULL OR cr.nextRetryAt <= :now) " +
            "ORDER BY cr.createdAt ASC")
-    List<CallRequest> findPendingCallsForCampaign(
+    List<CallRequest> lockPendingCallsForCampaign(
             @Param("campaignId") UUID campaignId,
+            @Param("now") Instant now,
             Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE CallRequest cr SET cr.status = :status, cr.updatedAt = :now WHERE cr.id IN :ids")
+    int updateStatusByIds(
+            @Param("ids") Collection<UUID> ids,
+            @Param("status") CallStatus status,
+            @Param("now") Instant now);
+
+    /**
+     * Completes an IN_PROGRESS call by primary key if it is still waiting for this external call's
+     * callback.
+     *
+     * @return 1 if the call was completed, 0 if it had already moved on
+     */
+    @Modifying
+    @Query("UPDATE CallRequest cr SET cr.status = org.example.voicecampaign.domain.model.CallStatus.COMPLETED, " +
+           "cr.callDurationSeconds = :durationSeconds, cr.expectedCallbackBy = NULL, cr.updatedAt = :now " +
+           "WHERE cr.id = :id AND cr.externalCallId = :externalCallId " +
+           "AND cr.status = org.example.voicecampaign.domain.model.CallStatus.IN_PROGRESS")
+    int completeInProgress(
+            @Param("id") UUID id,
+            @Param("externalCallId") String externalCallId,
+            @Param("durationSeconds") Integer durationSeconds,
+            @Param("now") Instant now);
+
+    /**
+     * Fails an IN_PROGRESS call by primary key for a retry at {@code nextRetryAt}, counting the
+     * attempt, if it is still waiting for this external call's callback.
+     *
+     * @return 1 if the call was failed, 0 if it had already moved on
+     */
+    @Modifying
+    @Query("UPDATE CallRequest cr SET cr.status = org.example.voicecampaign.domain.model.CallStatus.FAILED, " +
+           "cr.retryCount = cr.retryCount + 1, cr.failureReason = :reason, cr.nextRetryAt = :nextRetryAt, " +
+           "cr.expectedCallbackBy = NULL, cr.updatedAt = :now " +
+           "WHERE cr.id = :id AND cr.externalCallId = :externalCallId " +
+           "AND cr.status = org.example.voicecampaign.domain.model.CallStatus.IN_PROGRESS")
+    int failInProgress(
+            @Param("id") UUID id,
+            @Param("externalCallId") String externalCallId,
+            @Param("reason") String reason,
+            @Param("nextRetryAt") Instant nextRetryAt,
+            @Param("now") Instant now);
+
+    /**
+     * Fails an IN_PROGRESS call permanently by primary key if it is still waiting for this external
+     * call's callback.
+     *
+     * @return 1 if the call was failed, 0 if it had already moved on
+     */
+    @Modifying
+    @Query("UPDATE CallRequest cr SET " +
+           "cr.status = org.example.voicecampaign.domain.model.CallStatus.PERMANENTLY_FAILED, " +
+           "cr.failureReason = :reason, cr.nextRetryAt = NULL, cr.expectedCallbackBy = NULL, cr.updatedAt = :now " +
+           "WHERE cr.id = :id AND cr.externalCallId = :externalCallId " +
+           "AND cr.status = org.example.voicecampaign.domain.model.CallStatus.IN_PROGRESS")
+    int failPermanentlyInProgress(
+            @Param("id") UUID id,
+            @Param("externalCallId") String externalCallId,
+            @Param("reason") String reason,
+            @Param("now") Instant now);
+
+    /**
+     * Returns calls to PENDING until {@code nextRetryAt} without counting an attempt, e.g. while
+     * their telephony route is unavailable. They are claimed again as due retries.
+     */
+    @Modifying
+    @Query("UPDATE CallRequest cr SET cr.status = org.example.voicecampaign.domain.model.CallStatus.PENDING, " +
+           "cr.nextRetryAt = :nextRetryAt, cr.updatedAt = :now WHERE cr.id IN :ids")
+    int deferByIds(
+            @Param("ids") Collection<UUID> ids,
+            @Param("nextRetryAt") Instant nextRetryAt,
+            @Param("now") Instant now);
+
+    /**
+     * Returns SCHEDULED calls to the state they were claimed from: FAILED if they had already been
+     * attempted, PENDING otherwise.
+     */
+    @Modifying
+    @Query("UPDATE CallRequest cr SET cr.status = CASE WHEN cr.retryCount > 0 " +
+           "THEN org.example.voicecampaign.domain.model.CallStatus.FAILED " +
+           "ELSE org.example.voicecampaign.domain.model.CallStatus.PENDING END, cr.updatedAt = :now " +
+           "WHERE cr.status = org.example.voicecampaign.domain.model.CallStatus.SCHEDULED")
+    int releaseAllScheduled(@Param("now") Instant now);
+
+    @Modifying
+    @Query("UPDATE CallRequest cr SET cr.status = CASE WHEN cr.retryCount > 0 " +
+           "THEN org.example.voicecampaign.domain.model.CallStatus.FAILED " +
+           "ELSE org.example.voicecampaign.domain.model.CallStatus.PENDING END, cr.updatedAt = :now " +
+           "WHERE cr.id IN :ids AND cr.status = org.example.voicecampaign.domain.model.CallStatus.SCHEDULED")
+    int releaseScheduledByIds(@Param("ids") Collection<UUID> ids, @Param("now") Instant now);
     
-    @Query("SELECT cr FROM CallRequest cr JOIN FETCH cr.campaign WHERE cr.status = 'IN_PROGRESS' " +
-           "AND cr.expectedCallbackBy < :now")
-    List<CallRequest> findTimedOutCalls(@Param("now") Instant now);
+    /**
+     * Returns {@code [id, campaignId, externalCallId, retryCount, expectedCallbackBy]} of IN_PROGRESS
+     * calls whose callback was due before {@code now}, longest overdue first, ties by ID. Calls left
+     * DIALING past that deadline are included, with no external call ID: their worker stopped before
+     * saving the initiation.
+     */
+    @Query("SELECT cr.id, cr.campaign.id, cr.externalCallId, cr.retryCount, cr.expectedCallbackBy FROM CallRequest cr " +
+           "WHERE cr.status IN (org.example.voicecampaign.domain.model.CallStatus.DIALING, " +
+           "org.example.voicecampaign.domain.model.CallStatus.IN_PROGRESS) " +
+           "AND cr.expectedCallbackBy < :now ORDER BY cr.expectedCallbackBy, cr.id")
+    List<Object[]> findTimedOutCalls(@Param("now") Instant now, Pageable pageable);
+
+    /**
+     * Continues {@link #findTimedOutCalls} after the call {@code (afterDeadline, afterId)}, so calls
+     * that could not be failed are not returned again by the next page.
+     */
+    @Query("SELECT cr.id, cr.campaign.id, cr.externalCallId, cr.retryCount, cr.expectedCallbackBy FROM CallRequest cr " +
+           "WHERE cr.status IN (org.example.voicecampaign.domain.model.CallStatus.DIALING, " +
+           "org.example.voicecampaign.domain.model.CallStatus.IN_PROGRESS) " +
+           "AND cr.expectedCallbackBy < :now " +
+           "AND (cr.expectedCallbackBy > :afterDeadline OR (cr.expectedCallbackBy = :afterDeadline AND cr.id > :afterId)) " +
+           "ORDER BY cr.expectedCallbackBy, cr.id")
+    List<Object[]> findTimedOutCallsAfter(
+            @Param("now") Instant now,
+            @Param("afterDeadline") Instant afterDeadline,
+            @Param("afterId") UUID afterId,
+            Pageable pageable);
+
+    /**
+     * Fails the given calls for a retry at {@code nextRetryAt}, counting the attempt, if they are still
+     * IN_PROGRESS (or DIALING) past their callback deadline and have retries left.
+     *
+     * @return the number of calls failed
+     */
+    @Modifying
+    @Query("UPDATE CallRequest cr SET cr.status = org.example.voicecampaign.domain.model.CallStatus.FAILED, " +
+           "cr.retryCount = cr.retryCount + 1, cr.failureReason = :reason, cr.nextRetryAt = :nextRetryAt, " +
+           "cr.expectedCallbackBy = NULL, cr.updatedAt = :now " +
+           "WHERE cr.id IN :ids AND cr.status IN (org.example.voicecampaign.domain.model.CallStatus.DIALING, " +
+           "org.example.voicecampaign.domain.model.CallStatus.IN_PROGRESS) " +
+           "AND cr.expectedCallbackBy < :now AND cr.retryCount < :maxRetries")
+    int failTimedOut(
+            @Param("ids") Collection<UUID> ids,
+            @Param("maxRetries") int maxRetries,
+            @Param("reason") String reason,
+            @Param("nextRetryAt") Instant nextRetryAt,
+            @Param("now") Instant now);
+
+    /**
+     * Fails the given calls permanently if they are still IN_PROGRESS (or DIALING) past their callback
+     * deadline and have no retries left.
+     *
+     * @return the number of calls failed
+     */
+    @Modifying
+    @Query("UPDATE CallRequest cr SET " +
+           "cr.status = org.example.voicecampaign.domain.model.CallStatus.PERMANENTLY_FAILED, " +
+           "cr.failureReason = :reason, cr.nextRetryAt = NULL, cr.expectedCallbackBy = NULL, cr.updatedAt = :now " +
+           "WHERE cr.id IN :ids AND cr.status IN (org.example.voicecampaign.domain.model.CallStatus.DIALING, " +
+           "org.example.voicecampaign.domain.model.CallStatus.IN_PROGRESS) " +
+           "AND cr.expectedCallbackBy < :now AND cr.retryCount >= :maxRetries")
+    int failPermanentlyTimedOut(
+            @Param("ids") Collection<UUID> ids,
+            @Param("maxRetries") int maxRetries,
+            @Param("reason") String reason,
+            @Param("now") Instant now);
     
     @Query("SELECT cr.status, COUNT(cr) FROM CallRequest cr " +
            "WHERE cr.campaign.id = :campaignId GROUP BY cr.status")
@@ -48,9 +286,17 @@ public interface CallRequestRepository extends JpaRepository<CallRequest, UUID>
     
     @Query("SELECT COUNT(cr) FROM CallRequest cr WHERE cr.campaign.id = :campaignId")
     long countByCampaignId(@Param("campaignId") UUID campaignId);
-    
+
+    long countByCampaignIdAndStatusIn(UUID campaignId, Collection<CallStatus> statuses);
+
     @Query("SELECT COUNT(cr) FROM CallRequest cr WHERE cr.campaign.id = :campaignId AND cr.status = :status")
     long countByCampaignIdAndStatus(@Param("campaignId") UUID campaignId, @Param("status") CallStatus status);
+
+    @Query("SELECT cr.campaign.id, COUNT(cr) FROM CallRequest cr " +
+           "WHERE cr.campaign.id IN :campaignIds AND cr.status IN :statuses GROUP BY cr.campaign.id")
+    List<Object[]> countByCampaignIdsAndStatuses(
+            @Param("campaignIds") Collection<UUID> campaignIds,
+            @Param("statuses") Collection<CallStatus> statuses);
     
     @Modifying
     @Query("UPDATE CallRequest cr SET cr.status = :status, cr.updatedAt = :now " +
@@ -70,6 +316,9 @@ public interface CallRequestRepository extends JpaRepository<CallRequest, UUID>
 
     long countByStatus(CallStatus status);
 
+    @Query("SELECT cr.id FROM CallRequest cr WHERE cr.status = :status")
+    List<UUID> findIdsByStatus(@Param("status") CallStatus status);
+
     @Query("SELECT cr FROM CallRequest cr JOIN FETCH cr.campaign WHERE cr.id = :id")
     Optional<CallRequest> findByIdWithCampaign(@Param("id") UUID id);
 
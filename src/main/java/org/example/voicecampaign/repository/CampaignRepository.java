@@ -4,8 +4,10 @@ import org.example.voicecampaign.domain.entity.Campaign;
 import org.example.voicecampaign.domain.model.CampaignStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -20,6 +22,9 @@ public interface CampaignRepository extends JpaRepository<Campaign, UUID> {
     @Query("SELECT c FROM Campaign c WHERE c.status = 'IN_PROGRESS' OR c.status = 'PENDING' ORDER BY c.priority DESC, c.createdAt ASC")
     List<Campaign> findSchedulableCampaigns();
 
+    @Query("SELECT c FROM Campaign c WHERE (c.status = 'IN_PROGRESS' OR c.status = 'PENDING') AND c.id NOT IN :excludedIds ORDER BY c.priority DESC, c.createdAt ASC")
+    List<Campaign> findSchedulableCampaignsExcluding(@Param("excludedIds") Collection<UUID> excludedIds);
+
     long countByStatus(CampaignStatus status);
 
     @Query("SELECT SUM(c.concurrencyLimit) FROM Campaign c WHERE c.status = 'IN_PROGRESS'")
@@ -0,0 +1,114 @@
+package org.example.voicecampaign.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.voicecampaign.domain.entity.Campaign;
+import org.example.voicecampaign.domain.model.BusinessCalendar;
+import org.example.voicecampaign.domain.model.BusinessHours;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Caches a compiled {@link BusinessCalendar} per campaign together with the instant its open/closed
+ * state next changes, and keeps a time-ordered index of when closed campaigns reopen.
+ *
+ * <p>Between transitions {@link #isOpen(Campaign, Instant)} is a map lookup and an instant
+ * comparison. Closed campaigns are reported by {@link #closedCampaigns(Instant)} so the scheduler can
+ * leave them out of its campaign query entirely, and a wake-up is armed for their next open so the
+ * event-driven scheduler fills them as soon as their window starts.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BusinessHoursIndex {
+
+    private final SchedulerWakeup wakeup;
+
+    private final Map<UUID, Window> windows = new ConcurrentHashMap<>();
+    private final Map<UUID, Instant> closedUntil = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Instant, Set<UUID>> reopenings = new ConcurrentSkipListMap<>();
+
+    /**
+     * Returns whether the campaign is within its business hours, re-evaluating the compiled calendar
+     * only when the cached state has expired or the campaign's hours changed.
+     */
+    public boolean isOpen(Campaign campaign, Instant now) {
+        UUID campaignId = campaign.getId();
+        BusinessHours hours = campaign.getBusinessHours();
+        Window window = windows.get(campaignId);
+        if (window != null && Objects.equals(window.hours(), hours) && now.isBefore(window.validUntil())) {
+            return window.open();
+        }
+
+        BusinessCalendar calendar = window != null && Objects.equals(window.hours(), hours)
+                ? window.calendar()
+                : BusinessCalendar.compile(hours);
+        boolean open = calendar.isOpen(now);
+        Instant transition = open ? calendar.nextClose(now) : calendar.nextOpen(now);
+        Instant validUntil = transition != null ? transition : Instant.MAX;
+        windows.put(campaignId, new Window(hours, calendar, open, validUntil));
+
+        if (!open) {
+            markClosed(campaignId, validUntil);
+        }
+        return open;
+    }
+
+    /**
+     * Returns the campaigns known to be outside their business hours at {@code now}. Campaigns whose
+     * reopen instant has passed are dropped from the index first.
+     */
+    public Set<UUID> closedCampaigns(Instant now) {
+        ConcurrentNavigableMap<Instant, Set<UUID>> due = reopenings.headMap(now, true);
+        for (Map.Entry<Instant, Set<UUID>> entry : due.entrySet()) {
+            for (UUID campaignId : entry.getValue()) {
+                closedUntil.remove(campaignId, entry.getKey());
+            }
+            reopenings.remove(entry.getKey(), entry.getValue());
+        }
+        return new HashSet<>(closedUntil.keySet());
+    }
+
+    /**
+     * Returns whether the campaign is known to be closed at {@code now}, without loading it.
+     */
+    public boolean isKnownClosed(UUID campaignId, Instant now) {
+        Instant reopenAt = closedUntil.get(campaignId);
+        return reopenAt != null && now.isBefore(reopenAt);
+    }
+
+    /**
+     * Drops cached calendars for campaigns that are neither schedulable nor indexed as closed, e.g.
+     * completed or cancelled campaigns.
+     */
+    public void retain(Collection<UUID> schedulableCampaignIds) {
+        windows.keySet().removeIf(id -> !schedulableCampaignIds.contains(id) && !closedUntil.containsKey(id));
+    }
+
+    private void markClosed(UUID campaignId, Instant reopenAt) {
+        Instant previous = closedUntil.put(campaignId, reopenAt);
+        if (reopenAt.equals(previous)) {
+            return;
+        }
+        reopenings.computeIfAbsent(reopenAt, k -> ConcurrentHashMap.newKeySet()).add(campaignId);
+        if (!Instant.MAX.equals(reopenAt)) {
+            wakeup.signalAt(campaignId, reopenAt);
+            log.debug("Campaign {} is outside business hours until {}", campaignId, reopenAt);
+        } else {
+            log.debug("Campaign {} has no upcoming business hours", campaignId);
+        }
+    }
+
+    private record Window(BusinessHours hours, BusinessCalendar calendar, boolean open, Instant validUntil) {
+    }
+}
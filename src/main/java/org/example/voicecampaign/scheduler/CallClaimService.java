@@ -0,0 +1,213 @@
+package org.example.voicecampaign.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.voicecampaign.domain.entity.CallRequest;
+import org.example.voicecampaign.domain.model.CallStatus;
+import org.example.voicecampaign.repository.CallRequestRepository;
+import org.example.voicecampaign.scheduler.DelayedRetryQueue.DueRetry;
+import org.example.voicecampaign.service.TelephonyRouteGuards;
+import org.example.voicecampaign.worker.queue.CallQueueFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Atomically claims calls for dispatch by moving them to {@link CallStatus#SCHEDULED}.
+ *
+ * <p>Each claim locks candidate rows with {@code FOR UPDATE SKIP LOCKED} and flips them to
+ * SCHEDULED with a single set-based UPDATE in the same transaction. Claimed rows are no longer
+ * PENDING/FAILED, so later ticks never rescan them, and two scheduler instances can never claim
+ * (and therefore enqueue) the same call.</p>
+ *
+ * <p>Candidates bound for a telephony route whose circuit breaker is open are not claimed: they are
+ * returned to PENDING until the route may have recovered, without counting an attempt, so they do
+ * not burn retries or count as failed and do not hold up the calls behind them. Once due they are
+ * claimed like retries.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CallClaimService {
+
+    private final CallRequestRepository callRequestRepository;
+    private final CallQueueFactory callQueueFactory;
+    private final DelayedRetryQueue delayedRetryQueue;
+    private final PendingCallBuffer pendingCallBuffer;
+    private final TelephonyRouteGuards routeGuards;
+
+    /**
+     * Claims up to {@code maxCalls} due retries of a campaign. Calls deferred by their route count as
+     * retries once their deferral is over. With the {@link DelayedRetryQueue} enabled, only the calls
+     * it reports as due are looked up, by ID; otherwise due retries are queried from the database.
+     *
+     * @return IDs of the claimed calls, earliest due (Redis) or highest retry count (database) first
+     */
+    @Transactional
+    public List<UUID> claimRetries(UUID campaignId, int maxCalls) {
+        Instant now = Instant.now();
+        if (delayedRetryQueue.isEnabled()) {
+            List<DueRetry> due = delayedRetryQueue.takeDue(campaignId, maxCalls);
+            if (due.isEmpty()) {
+                return List.of();
+            }
+            List<DueRetry> busy = new ArrayList<>();
+            putBackUnsettled(campaignId, due, busy);
+            List<UUID> dueIds = due.stream().map(DueRetry::callId).toList();
+            List<CallRequest> locked = callRequestRepository.lockRetryableCallsByIds(dueIds, now);
+            if (locked.size() < due.size()) {
+                // Rows locked by another transaction are still due; the other entries are stale
+                Set<UUID> lockedIds = locked.stream().map(CallRequest::getId).collect(Collectors.toSet());
+                List<UUID> skipped = dueIds.stream().filter(id -> !lockedIds.contains(id)).toList();
+                Set<UUID> stillDue = new HashSet<>(callRequestRepository.findDueRetryIds(skipped, now));
+                due.stream().filter(retry -> stillDue.contains(retry.callId())).forEach(busy::add);
+            }
+            return markScheduled(locked, now);
+        }
+        List<CallRequest> locked = callRequestRepository.lockRetryableCallsForCampaign(
+                campaignId, now, PageRequest.of(0, maxCalls));
+        return markScheduled(locked, now);
+    }
+
+    /**
+     * Claims up to {@code maxCalls} pending calls of a campaign, oldest first. With the
+     * {@link PendingCallBuffer} enabled, the calls are taken from the prefetched IDs and claimed by ID;
+     * taken IDs the claim does not settle are put back.
+     *
+     * @return IDs of the claimed calls
+     */
+    @Transactional
+    public List<UUID> claimPending(UUID campaignId, int maxCalls) {
+        Instant now = Instant.now();
+        if (pendingCallBuffer.isEnabled()) {
+            List<UUID> buffered = pendingCallBuffer.take(campaignId, maxCalls);
+            if (buffered.isEmpty()) {
+                return List.of();
+            }
+            List<UUID> busy = new ArrayList<>();
+            putBackUnsettledPending(campaignId, buffered, busy);
+            List<CallRequest> locked = callRequestRepository.lockPendingCallsByIds(buffered, now);
+            if (locked.size() < buffered.size()) {
+                // Rows locked by another transaction are still pending; the other IDs are stale, or
+                // deferred and left to the retry path
+                Set<UUID> lockedIds = locked.stream().map(CallRequest::getId).collect(Collectors.toSet());
+                List<UUID> skipped = buffered.stream().filter(id -> !lockedIds.contains(id)).toList();
+                Set<UUID> stillPending = new HashSet<>(callRequestRepository.findPendingIds(skipped, now));
+                skipped.stream().filter(stillPending::contains).forEach(busy::add);
+            }
+            return markScheduled(locked, now);
+        }
+        List<CallRequest> locked = callRequestRepository.lockPendingCallsForCampaign(
+                campaignId, now, PageRequest.of(0, maxCalls));
+        return markScheduled(locked, now);
+    }
+
+    /**
+     * Releases every outstanding claim, e.g. after the queue holding the claimed IDs was cleared.
+     *
+     * @return the number of calls returned to PENDING/FAILED
+     */
+    @Transactional
+    public int releaseAllClaims() {
+        pendingCallBuffer.invalidateAll();
+        return callRequestRepository.releaseAllScheduled(Instant.now());
+    }
+
+    /**
+     * Releases the claims on specific calls, e.g. when their enqueue was rejected.
+     *
+     * @return the number of calls returned to PENDING/FAILED
+     */
+    @Transactional
+    public int releaseClaims(List<UUID> callIds) {
+        if (callIds.isEmpty()) {
+            return 0;
+        }
+        return callRequestRepository.releaseScheduledByIds(callIds, Instant.now());
+    }
+
+    /**
+     * Removes a campaign's calls from the dispatch queue and releases their claims, e.g. when the
+     * campaign is paused. Calls already taken by a worker are released by the worker instead.
+     *
+     * @return the number of calls returned to PENDING/FAILED
+     */
+    @Transactional
+    public int withdrawQueued(UUID campaignId) {
+        List<UUID> drained = callQueueFactory.getQueue().drain(campaignId);
+        pendingCallBuffer.invalidate(campaignId);
+        int released = releaseClaims(drained);
+        if (!drained.isEmpty()) {
+            log.info("Withdrew {} queued calls of campaign {} ({} released)", drained.size(), campaignId, released);
+        }
+        return released;
+    }
+
+    /**
+     * Puts back due retries taken by a claim once it completes: all of them if it rolls back, only
+     * the {@code busy} ones (filled in by the claim) if it commits.
+     */
+    private void putBackUnsettled(UUID campaignId, List<DueRetry> due, List<DueRetry> busy) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                delayedRetryQueue.putBack(campaignId, status == STATUS_COMMITTED ? busy : due);
+            }
+        });
+    }
+
+    /**
+     * Puts back pending call IDs taken by a claim once it completes: all of them if it rolls back,
+     * only the {@code busy} ones (filled in by the claim) if it commits.
+     */
+    private void putBackUnsettledPending(UUID campaignId, List<UUID> taken, List<UUID> busy) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                pendingCallBuffer.putBack(campaignId, status == STATUS_COMMITTED ? busy : taken);
+            }
+        });
+    }
+
+    private List<UUID> markScheduled(List<CallRequest> locked, Instant now) {
+        if (locked.isEmpty()) {
+            return List.of();
+        }
+        List<UUID> ids = new ArrayList<>(locked.size());
+        List<CallRequest> routeOpen = new ArrayList<>();
+        for (CallRequest callRequest : locked) {
+            if (routeGuards.isOpen(callRequest.getPhoneNumber())) {
+                routeOpen.add(callRequest);
+            } else {
+                ids.add(callRequest.getId());
+            }
+        }
+        if (!routeOpen.isEmpty()) {
+            defer(routeOpen, now);
+        }
+        if (!ids.isEmpty()) {
+            callRequestRepository.updateStatusByIds(ids, CallStatus.SCHEDULED, now);
+        }
+        return ids;
+    }
+
+    private void defer(List<CallRequest> callRequests, Instant now) {
+        Instant nextRetryAt = routeGuards.deferUntil();
+        List<UUID> ids = callRequests.stream().map(CallRequest::getId).toList();
+        callRequestRepository.deferByIds(ids, nextRetryAt, now);
+        for (CallRequest callRequest : callRequests) {
+            delayedRetryQueue.schedule(callRequest.getCampaign().getId(), callRequest.getId(), nextRetryAt);
+        }
+        log.debug("Deferred {} calls bound for open telephony routes until {}", ids.size(), nextRetryAt);
+    }
+}
@@ -0,0 +1,317 @@
+package org.example.voicecampaign.scheduler;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.voicecampaign.service.CallService;
+import org.example.voicecampaign.service.CallService.TimedOutCall;
+import org.example.voicecampaign.telephony.HashedTimingWheel;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.example.voicecampaign.config.RedisScripts.listScript;
+
+/**
+ * Callback deadlines of IN_PROGRESS calls, so a lost callback frees its slot about a second after
+ * its deadline instead of on the next {@link CallbackWatchdog} scan.
+ *
+ * <p>A call is armed once it is saved as IN_PROGRESS and disarmed when its callback is applied. Each
+ * node keeps the deadlines of the calls it dialed in a {@link HashedTimingWheel}; expired ones are
+ * handed to a handler thread that fails them in batches with {@link CallService#handleTimedOutCalls},
+ * whose updates re-check that each call is still waiting for its callback.</p>
+ *
+ * <p>Deadlines are also kept in the Redis sorted set {@code call:deadlines}, scored by deadline, so
+ * the calls of a node that stopped are not forgotten: the {@link LeaderRole#WATCHDOG} leader fails
+ * entries still there {@code orphan-grace-ms} past their deadline. A callback may be applied on
+ * another node than the one that dialed, which can only remove the entry, so an expired deadline is
+ * handled only if removing its entry succeeds: a deadline whose callback won, or that another node
+ * already took, is dropped. Neither structure is the source of truth; the watchdog's database scan
+ * remains as a low-frequency safety net.</p>
+ */
+@Component
+@Slf4j
+public class CallDeadlineTimer {
+
+    private static final String DEADLINES_KEY = "call:deadlines";
+
+    /**
+     * Removes each of the members ARGV from the deadline set KEYS[1] and returns those that were
+     * still there, so exactly one node handles each deadline.
+     */
+    private static final RedisScript<List<String>> CLAIM_SCRIPT = listScript("""
+            local claimed = {}
+            for i = 1, #ARGV do
+                if redis.call('ZREM', KEYS[1], ARGV[i]) == 1 then
+                    claimed[#claimed + 1] = ARGV[i]
+                end
+            end
+            return claimed
+            """);
+
+    /**
+     * The callback deadline of a dialed call.
+     *
+     * @param attempt the call's retry count when it was dialed
+     */
+    public record Deadline(UUID callRequestId, UUID campaignId, int attempt, String externalCallId) {
+
+        private String member() {
+            return campaignId + ":" + callRequestId + ":" + attempt + ":" + externalCallId;
+        }
+
+        private static Deadline parse(String member) {
+            String[] parts = member.split(":", 4);
+            return new Deadline(UUID.fromString(parts[1]), UUID.fromString(parts[0]), Integer.parseInt(parts[2]), parts[3]);
+        }
+    }
+
+    private final StringRedisTemplate redisTemplate;
+    private final CallService callService;
+    private final LeaderElection leaderElection;
+    private final MeterRegistry meterRegistry;
+    // Armed timeouts of this node by external call ID, to disarm them on callback
+    private final Map<String, HashedTimingWheel.Timeout> armed = new ConcurrentHashMap<>();
+    private final LinkedBlockingQueue<Deadline> expired = new LinkedBlockingQueue<>();
+    private HashedTimingWheel<Deadline> wheel;
+    private Thread handler;
+    private volatile boolean running;
+
+    @Value("${voice-campaign.watchdog.deadline-timer.enabled:false}")
+    private boolean enabled;
+
+    @Value("${voice-campaign.watchdog.deadline-timer.tick-ms:100}")
+    private long tickMs;
+
+    @Value("${voice-campaign.watchdog.deadline-timer.wheel-size:4096}")
+    private int wheelSize;
+
+    @Value("${voice-campaign.watchdog.deadline-timer.batch-size:500}")
+    private int batchSize;
+
+    @Value("${voice-campaign.watchdog.deadline-timer.orphan-grace-ms:5000}")
+    private long orphanGraceMs;
+
+    @Value("${voice-campaign.scheduler.enabled:true}")
+    private boolean schedulerEnabled;
+
+    public CallDeadlineTimer(
+            StringRedisTemplate redisTemplate,
+            @Lazy CallService callService,
+            LeaderElection leaderElection,
+            MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.callService = callService;
+        this.leaderElection = leaderElection;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        wheel = new HashedTimingWheel<>("call-deadlines", tickMs, wheelSize, this::onExpiry, Runnable::run);
+        Gauge.builder("voice.campaign.calls.deadlines.armed", wheel, HashedTimingWheel::pending)
+                .description("In-progress calls of this node waiting for their callback deadline")
+                .register(meterRegistry);
+        running = true;
+        handler = new Thread(this::handleExpired, "call-deadline-handler");
+        handler.setDaemon(true);
+        handler.start();
+        log.info("Call deadline timer enabled: {}ms ticks, orphans failed after {}ms", tickMs, orphanGraceMs);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (!enabled) {
+            return;
+        }
+        running = false;
+        wheel.close();
+        try {
+            handler.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Arms the deadlines of calls saved as IN_PROGRESS. Inside a transaction they are armed after
+     * commit, so a deadline never fires for a call whose save rolled back.
+     */
+    public void arm(Map<Deadline, Instant> deadlines) {
+        if (!enabled || deadlines.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(deadlines);
+                }
+            });
+        } else {
+            add(deadlines);
+        }
+    }
+
+    /**
+     * Drops the deadlines of calls whose callback was applied or that were failed as timed out. Call
+     * after commit: an entry removed for a rollback is not found by the deadline's own node.
+     */
+    public void disarm(Collection<Deadline> deadlines) {
+        if (!enabled || deadlines.isEmpty()) {
+            return;
+        }
+        for (Deadline deadline : deadlines) {
+            HashedTimingWheel.Timeout timeout = armed.remove(deadline.externalCallId());
+            if (timeout != null) {
+                timeout.cancel();
+            }
+        }
+        try {
+            redisTemplate.opsForZSet().remove(DEADLINES_KEY, deadlines.stream().map(Deadline::member).toArray());
+        } catch (Exception e) {
+            // A leftover entry only makes the leader re-check a call that has moved on
+            log.debug("Failed to remove {} call deadlines: {}", deadlines.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Fails calls whose deadline passed more than {@code orphan-grace-ms} ago without their node
+     * handling them, typically because that node stopped. Only the watchdog leader sweeps.
+     */
+    @Scheduled(fixedDelayString = "${voice-campaign.watchdog.deadline-timer.orphan-sweep-interval-ms:1000}")
+    public void sweepOrphans() {
+        if (!enabled || !schedulerEnabled || !leaderElection.isLeader(LeaderRole.WATCHDOG)) {
+            return;
+        }
+        try {
+            Set<String> overdue = redisTemplate.opsForZSet().rangeByScore(DEADLINES_KEY,
+                    Double.NEGATIVE_INFINITY, System.currentTimeMillis() - orphanGraceMs, 0, batchSize);
+            if (overdue == null || overdue.isEmpty()) {
+                return;
+            }
+            List<Deadline> deadlines = new ArrayList<>(overdue.size());
+            for (String member : overdue) {
+                try {
+                    deadlines.add(Deadline.parse(member));
+                } catch (RuntimeException e) {
+                    log.warn("Invalid call deadline: {}", member);
+                    redisTemplate.opsForZSet().remove(DEADLINES_KEY, member);
+                }
+            }
+            log.info("Failing {} calls whose deadline was not handled by their node", deadlines.size());
+            handle(deadlines);
+        } catch (Exception e) {
+            log.warn("Call deadline sweep failed: {}", e.getMessage());
+        }
+    }
+
+    private void add(Map<Deadline, Instant> deadlines) {
+        long now = System.currentTimeMillis();
+        Set<ZSetOperations.TypedTuple<String>> entries = new HashSet<>(deadlines.size());
+        deadlines.forEach((deadline, expiresAt) -> {
+            armed.put(deadline.externalCallId(),
+                    wheel.schedule(deadline, expiresAt.toEpochMilli() - now, TimeUnit.MILLISECONDS));
+            entries.add(ZSetOperations.TypedTuple.of(deadline.member(), (double) expiresAt.toEpochMilli()));
+        });
+        try {
+            redisTemplate.opsForZSet().add(DEADLINES_KEY, entries);
+        } catch (Exception e) {
+            // Still armed on this node; only lost if it stops, and then found by the database scan
+            log.warn("Failed to record {} call deadlines: {}", deadlines.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Removes the entries of the given deadlines and returns those whose entry this call removed. If
+     * Redis cannot be reached all are returned: the updates re-check each call, so handling one twice
+     * costs a query, while dropping it would leave it to the database scan.
+     */
+    private List<Deadline> claim(List<Deadline> deadlines) {
+        List<String> claimed;
+        try {
+            claimed = redisTemplate.execute(CLAIM_SCRIPT, List.of(DEADLINES_KEY),
+                    deadlines.stream().map(Deadline::member).toArray());
+        } catch (Exception e) {
+            log.warn("Failed to claim {} call deadlines, handling them unclaimed: {}", deadlines.size(), e.getMessage());
+            return deadlines;
+        }
+        if (claimed == null || claimed.size() == deadlines.size()) {
+            return claimed == null ? List.of() : deadlines;
+        }
+        Set<String> members = new HashSet<>(claimed);
+        return deadlines.stream().filter(deadline -> members.contains(deadline.member())).toList();
+    }
+
+    private void onExpiry(Deadline deadline) {
+        armed.remove(deadline.externalCallId());
+        expired.add(deadline);
+    }
+
+    private void handleExpired() {
+        List<Deadline> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Deadline first = expired.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                expired.drainTo(batch, batchSize - 1);
+                handle(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Error handling expired call deadlines: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void handle(List<Deadline> deadlines) {
+        Map<UUID, List<Deadline>> byCampaign = new LinkedHashMap<>();
+        for (Deadline deadline : claim(deadlines)) {
+            byCampaign.computeIfAbsent(deadline.campaignId(), id -> new ArrayList<>()).add(deadline);
+        }
+        Instant now = Instant.now();
+        byCampaign.forEach((campaignId, campaignDeadlines) -> {
+            List<TimedOutCall> calls = campaignDeadlines.stream()
+                    .map(deadline -> new TimedOutCall(deadline.callRequestId(), deadline.externalCallId(), deadline.attempt()))
+                    .toList();
+            try {
+                // Disarms the handled deadlines once committed
+                callService.handleTimedOutCalls(campaignId, calls, now);
+            } catch (Exception e) {
+                // Left to the database scan rather than retried every sweep
+                log.error("Error failing {} timed out calls of campaign {}: {}", calls.size(), campaignId, e.getMessage());
+                disarm(campaignDeadlines);
+            }
+        });
+    }
+}
@@ -1,28 +1,32 @@
 package org.example.voicecampaign.scheduler;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.example.voicecampaign.domain.entity.CallRequest;
 import org.example.voicecampaign.domain.entity.Campaign;
-import org.example.voicecampaign.domain.model.CallStatus;
 import org.example.voicecampaign.domain.model.CampaignStatus;
-import org.example.voicecampaign.repository.CallRequestRepository;
 import org.example.voicecampaign.repository.CampaignRepository;
 import org.example.voicecampaign.scheduler.strategy.SchedulingContext;
 import org.example.voicecampaign.scheduler.strategy.SchedulingStrategy;
 import org.example.voicecampaign.scheduler.strategy.SchedulingStrategyFactory;
-import org.example.voicecampaign.service.CampaignMetricsService;
+import org.example.voicecampaign.service.CampaignSnapshotCache;
 import org.example.voicecampaign.worker.CallWorkerPool;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * Scheduler that enqueues pending and retryable calls to the Redis queue for processing.
@@ -33,21 +37,54 @@ import java.util.UUID;
  * <p>Key responsibilities:</p>
  * <ul>
  *   <li>Query DB for active campaigns within business hours</li>
- *   <li>Fetch PENDING and FAILED (retryable) calls</li>
+ *   <li>Claim PENDING and FAILED (retryable) calls by moving them to SCHEDULED</li>
  *   <li>Push call IDs to Redis queue for worker consumption</li>
  *   <li>Track queued counts per campaign to respect concurrency limits</li>
  * </ul>
+ *
+ * <p>Calls allocated to a campaign are pushed in a single batch per cycle, and the number of Redis
+ * round trips issued by each cycle is recorded in the
+ * {@code voice.campaign.scheduler.redis.commands} distribution summary.</p>
+ *
+ * <p>In event-driven mode ({@code voice-campaign.scheduler.event-driven.enabled}) a dedicated thread
+ * waits on {@link SchedulerWakeup} and runs a targeted fill for just the signalled campaigns, e.g.
+ * as soon as a callback releases a slot. The fixed-rate tick then only runs a full cycle every
+ * {@code fallback-rate-ms} as a safety net.</p>
+ *
+ * <p>Business hours are evaluated through {@link BusinessHoursIndex}: campaigns known to be outside
+ * their window are excluded from the campaign query until their next open instant.</p>
+ *
+ * <p>When several instances share Redis and the database, only the holder of the
+ * {@link LeaderRole#SCHEDULER} lease runs cycles, and each enqueue carries the lease's fencing
+ * token so a superseded leader cannot push calls; its claims are released instead.</p>
+ *
+ * <p>With {@code voice-campaign.scheduler.delayed-retries.enabled}, due retries come from the
+ * {@link DelayedRetryQueue} rather than a per-campaign database query every cycle.</p>
  */
 @Service
 @Slf4j
 public class CallQueueService {
 
+    private static final int MAX_EXCLUDED_CAMPAIGNS = 1000;
+
     private final CampaignRepository campaignRepository;
-    private final CallRequestRepository callRequestRepository;
-    private final CampaignMetricsService metricsService;
     private final CallWorkerPool workerPool;
-    private final StringRedisTemplate redisTemplate;
     private final SchedulingStrategyFactory strategyFactory;
+    private final SchedulingSnapshotProvider snapshotProvider;
+    private final CallClaimService claimService;
+    private final DistributionSummary redisCommandsPerCycle;
+    private final SchedulerWakeup wakeup;
+    private final BusinessHoursIndex businessHoursIndex;
+    private final LeaderElection leaderElection;
+    private final DelayedRetryQueue delayedRetryQueue;
+    private final CampaignSnapshotCache campaignSnapshots;
+    private final AtomicInteger cycleRedisCommands = new AtomicInteger();
+    private final ReentrantLock cycleLock = new ReentrantLock();
+    private volatile boolean running;
+    private volatile long lastFullCycleAt;
+    private volatile long lastFullCycleToken;
+    private long cycleFencingToken;
+    private Thread wakeupThread;
 
     @Value("${voice-campaign.scheduler.enabled:true}")
     private boolean schedulerEnabled;
@@ -58,35 +95,137 @@ public class CallQueueService {
     @Value("${voice-campaign.worker.max-queue-depth:1000}")
     private int maxQueueDepth;
 
-    private static final String CAMPAIGN_QUEUED_KEY = "campaign:%s:queued";
+    @Value("${voice-campaign.scheduler.event-driven.enabled:false}")
+    private boolean eventDriven;
+
+    @Value("${voice-campaign.scheduler.event-driven.fallback-rate-ms:2000}")
+    private long fallbackRateMs;
 
     public CallQueueService(
             CampaignRepository campaignRepository,
-            CallRequestRepository callRequestRepository,
-            CampaignMetricsService metricsService,
             CallWorkerPool workerPool,
-            StringRedisTemplate redisTemplate,
-            SchedulingStrategyFactory strategyFactory) {
+            SchedulingStrategyFactory strategyFactory,
+            SchedulingSnapshotProvider snapshotProvider,
+            CallClaimService claimService,
+            SchedulerWakeup wakeup,
+            BusinessHoursIndex businessHoursIndex,
+            LeaderElection leaderElection,
+            DelayedRetryQueue delayedRetryQueue,
+            CampaignSnapshotCache campaignSnapshots,
+            MeterRegistry meterRegistry) {
         this.campaignRepository = campaignRepository;
-        this.callRequestRepository = callRequestRepository;
-        this.metricsService = metricsService;
         this.workerPool = workerPool;
-        this.redisTemplate = redisTemplate;
         this.strategyFactory = strategyFactory;
+        this.snapshotProvider = snapshotProvider;
+        this.claimService = claimService;
+        this.wakeup = wakeup;
+        this.businessHoursIndex = businessHoursIndex;
+        this.leaderElection = leaderElection;
+        this.delayedRetryQueue = delayedRetryQueue;
+        this.campaignSnapshots = campaignSnapshots;
+        this.redisCommandsPerCycle = DistributionSummary.builder("voice.campaign.scheduler.redis.commands")
+                .description("Redis round trips issued per enqueue cycle")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void startWakeupListener() {
+        if (!schedulerEnabled || !eventDriven) {
+            return;
+        }
+        running = true;
+        wakeupThread = new Thread(this::runWakeupListener, "scheduler-wakeup");
+        wakeupThread.setDaemon(true);
+        wakeupThread.start();
+        log.info("Event-driven scheduling enabled (fallback full cycle every {}ms)", fallbackRateMs);
+    }
+
+    @PreDestroy
+    public void stopWakeupListener() {
+        running = false;
+        if (wakeupThread != null) {
+            wakeupThread.interrupt();
+        }
     }
 
     /**
      * Scheduled task that enqueues calls from active campaigns to the Redis queue.
-     * Runs at a fixed rate configured by {@code voice-campaign.scheduler.fixed-rate-ms}.
+     * Runs at a fixed rate configured by {@code voice-campaign.scheduler.fixed-rate-ms}; in
+     * event-driven mode a full cycle only runs every {@code fallback-rate-ms}.
      */
     @Scheduled(fixedRateString = "${voice-campaign.scheduler.fixed-rate-ms:1000}")
     public void enqueueCallsForActiveCampaigns() {
-        if (!schedulerEnabled) {
+        if (!schedulerEnabled || !leaderElection.isLeader(LeaderRole.SCHEDULER)) {
+            return;
+        }
+        // A newly elected leader runs a full cycle straight away instead of waiting for the fallback
+        long token = leaderElection.fencingToken(LeaderRole.SCHEDULER);
+        if (eventDriven && token == lastFullCycleToken
+                && System.currentTimeMillis() - lastFullCycleAt < fallbackRateMs) {
             return;
         }
 
+        lastFullCycleAt = System.currentTimeMillis();
+        lastFullCycleToken = token;
+        runCycle(this::findSchedulableWithinHours, false);
+    }
+
+    private void runWakeupListener() {
+        while (running) {
+            try {
+                if (!wakeup.await(fallbackRateMs)) {
+                    continue;
+                }
+                Set<UUID> campaignIds = wakeup.drain();
+                if (!campaignIds.isEmpty() && leaderElection.isLeader(LeaderRole.SCHEDULER)) {
+                    runCycle(() -> findSchedulable(campaignIds), true);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Error in targeted scheduler fill: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    private List<Campaign> findSchedulableWithinHours() {
+        Set<UUID> closed = businessHoursIndex.closedCampaigns(Instant.now());
+        // Keep the NOT IN list bounded; past that, the in-memory check filters just as well
+        List<Campaign> campaigns = closed.isEmpty() || closed.size() > MAX_EXCLUDED_CAMPAIGNS
+                ? campaignRepository.findSchedulableCampaigns()
+                : campaignRepository.findSchedulableCampaignsExcluding(closed);
+        businessHoursIndex.retain(campaigns.stream().map(Campaign::getId).collect(Collectors.toSet()));
+        return campaigns;
+    }
+
+    private List<Campaign> findSchedulable(Set<UUID> campaignIds) {
+        Instant now = Instant.now();
+        campaignIds.removeIf(id -> businessHoursIndex.isKnownClosed(id, now));
+        if (campaignIds.isEmpty()) {
+            return List.of();
+        }
+        return campaignRepository.findAllById(campaignIds).stream()
+                .filter(c -> c.getStatus() == CampaignStatus.IN_PROGRESS || c.getStatus() == CampaignStatus.PENDING)
+                .toList();
+    }
+
+    private void runCycle(Supplier<List<Campaign>> campaignLoader, boolean targeted) {
+        cycleLock.lock();
+        cycleRedisCommands.set(0);
+        cycleFencingToken = leaderElection.fencingToken(LeaderRole.SCHEDULER);
+        try {
+            runEnqueueCycle(campaignLoader, targeted);
+        } finally {
+            redisCommandsPerCycle.record(cycleRedisCommands.get());
+            cycleLock.unlock();
+        }
+    }
+
+    private void runEnqueueCycle(Supplier<List<Campaign>> campaignLoader, boolean targeted) {
         // Check current queue depth - don't over-fill the queue
         long currentQueueDepth = workerPool.getQueueDepth();
+        cycleRedisCommands.incrementAndGet();
         if (currentQueueDepth >= maxQueueDepth) {
             log.debug("Queue is full ({}/{}), skipping enqueue cycle", currentQueueDepth, maxQueueDepth);
             return;
@@ -94,16 +233,22 @@ public class CallQueueService {
 
         int slotsToFill = (int) Math.min(batchSize, maxQueueDepth - currentQueueDepth);
 
-        List<Campaign> activeCampaigns = campaignRepository.findSchedulableCampaigns();
+        // Move retries that have come due into their campaigns' due sets
+        if (delayedRetryQueue.isEnabled()) {
+            cycleRedisCommands.addAndGet(delayedRetryQueue.promoteDue());
+        }
+
+        List<Campaign> activeCampaigns = campaignLoader.get();
         
         if (activeCampaigns.isEmpty()) {
             return;
         }
 
         // Filter campaigns within business hours - even IN_PROGRESS campaigns must respect business hours
+        Instant now = Instant.now();
         List<Campaign> eligibleCampaigns = activeCampaigns.stream()
                 .filter(c -> {
-                    boolean withinHours = c.getBusinessHours() == null || c.getBusinessHours().isWithinBusinessHours();
+                    boolean withinHours = businessHoursIndex.isOpen(c, now);
                     if (!withinHours) {
                         log.debug("Campaign {} is outside business hours (timezone: {}), skipping", 
                                 c.getId(), c.getBusinessHours() != null ? c.getBusinessHours().getTimezone() : "N/A");
@@ -119,8 +264,9 @@ public class CallQueueService {
             return;
         }
 
-        // Build scheduling context with metrics for each campaign
-        SchedulingContext context = buildSchedulingContext(eligibleCampaigns);
+        // Build scheduling context with metrics for all campaigns in O(1) round trips
+        SchedulingContext context = snapshotProvider.snapshot(eligibleCampaigns, targeted);
+        cycleRedisCommands.addAndGet(SchedulingSnapshotProvider.REDIS_COMMANDS_PER_SNAPSHOT);
 
         // Use pluggable strategy for slot distribution
         SchedulingStrategy strategy = strategyFactory.getStrategy();
@@ -130,66 +276,64 @@ public class CallQueueService {
             Campaign campaign = entry.getKey();
             int allocatedSlots = entry.getValue();
             try {
-                enqueueCallsForCampaign(campaign, allocatedSlots);
+                enqueueCallsForCampaign(campaign, allocatedSlots, context);
             } catch (Exception e) {
                 log.error("Error enqueuing calls for campaign {}: {}", campaign.getId(), e.getMessage());
             }
         }
     }
 
-    private SchedulingContext buildSchedulingContext(List<Campaign> campaigns) {
-        Map<UUID, Long> remainingCalls = new HashMap<>();
-        Map<UUID, Integer> activeSlots = new HashMap<>();
-        Map<UUID, Integer> queuedCounts = new HashMap<>();
-
-        for (Campaign campaign : campaigns) {
-            UUID id = campaign.getId();
-            
-            // Count remaining calls (PENDING + FAILED that can be retried)
-            long pending = callRequestRepository.countByCampaignIdAndStatus(id, CallStatus.PENDING);
-            long failed = callRequestRepository.countByCampaignIdAndStatus(id, CallStatus.FAILED);
-            remainingCalls.put(id, pending + failed);
-            
-            activeSlots.put(id, metricsService.getActiveSlots(id));
-            queuedCounts.put(id, getQueuedCount(id));
-        }
-
-        return SchedulingContext.builder()
-                .remainingCallsPerCampaign(remainingCalls)
-                .activeSlotsPerCampaign(activeSlots)
-                .queuedCountPerCampaign(queuedCounts)
-                .build();
-    }
-
     @org.springframework.transaction.annotation.Transactional
-    protected void enqueueCallsForCampaign(Campaign campaign, int maxCalls) {
+    protected void enqueueCallsForCampaign(Campaign campaign, int maxCalls, SchedulingContext context) {
         UUID campaignId = campaign.getId();
         
-        // Check concurrency limit
-        int currentSlots = metricsService.getActiveSlots(campaignId);
-        int queuedCount = getQueuedCount(campaignId);
-        int availableSlots = campaign.getConcurrencyLimit() - currentSlots - queuedCount;
+        // Check concurrency limit against the cycle snapshot
+        int availableSlots = context.getAvailableSlots(campaign);
 
         if (availableSlots <= 0) {
             log.debug("Campaign {} has no available slots (active={}, queued={}, limit={})", 
-                    campaignId, currentSlots, queuedCount, campaign.getConcurrencyLimit());
+                    campaignId, context.getActiveSlots(campaign), context.getQueuedCount(campaign),
+                    campaign.getConcurrencyLimit());
             return;
         }
 
         int toEnqueue = Math.min(maxCalls, availableSlots);
-        int enqueued = 0;
+        List<UUID> callIds = new ArrayList<>(toEnqueue);
 
-        // Prioritize retries over new calls
-        enqueued += enqueueRetries(campaign, toEnqueue);
+        // Prioritize retries over new calls; claimed rows move to SCHEDULED so no other
+        // tick or scheduler instance can pick them up again
+        callIds.addAll(claimService.claimRetries(campaignId, toEnqueue));
+        if (delayedRetryQueue.isEnabled()) {
+            cycleRedisCommands.incrementAndGet();
+        }
         
-        if (enqueued < toEnqueue) {
-            enqueued += enqueuePendingCalls(campaign, toEnqueue - enqueued);
+        if (callIds.size() < toEnqueue) {
+            callIds.addAll(claimService.claimPending(campaignId, toEnqueue - callIds.size()));
         }
 
+        if (callIds.isEmpty()) {
+            return;
+        }
+        cycleRedisCommands.incrementAndGet();
+        boolean enqueuedAll;
+        try {
+            enqueuedAll = workerPool.enqueueCalls(campaignId, callIds, cycleFencingToken);
+        } catch (RuntimeException e) {
+            // The claims are already committed; left SCHEDULED, nothing would queue them again
+            claimService.releaseClaims(callIds);
+            throw e;
+        }
+        if (!enqueuedAll) {
+            // Another node took over scheduling; hand the claimed calls back to it
+            claimService.releaseClaims(callIds);
+            return;
+        }
+        int enqueued = callIds.size();
+
         // Update campaign status if needed
         if (enqueued > 0 && campaign.getStatus() == CampaignStatus.PENDING) {
             campaign.setStatus(CampaignStatus.IN_PROGRESS);
-            campaignRepository.save(campaign);
+            campaignSnapshots.invalidate(campaignRepository.save(campaign));
         }
 
         if (enqueued > 0) {
@@ -197,53 +341,4 @@ public class CallQueueService {
         }
     }
 
-    private int enqueueRetries(Campaign campaign, int maxCalls) {
-        Instant now = Instant.now();
-        List<CallRequest> retryableCalls = callRequestRepository.findRetryableCallsForCampaign(
-                campaign.getId(), now, PageRequest.of(0, maxCalls));
-
-        int enqueued = 0;
-        for (CallRequest callRequest : retryableCalls) {
-            enqueue(campaign.getId(), callRequest.getId());
-            enqueued++;
-        }
-        return enqueued;
-    }
-
-    private int enqueuePendingCalls(Campaign campaign, int maxCalls) {
-        List<CallRequest> pendingCalls = callRequestRepository.findPendingCallsForCampaign(
-                campaign.getId(), PageRequest.of(0, maxCalls));
-
-        int enqueued = 0;
-        for (CallRequest callRequest : pendingCalls) {
-            enqueue(campaign.getId(), callRequest.getId());
-            enqueued++;
-        }
-        return enqueued;
-    }
-
-    private void enqueue(UUID campaignId, UUID callRequestId) {
-        incrementQueuedCount(campaignId);
-        workerPool.enqueueCall(callRequestId);
-    }
-
-    private int getQueuedCount(UUID campaignId) {
-        String key = String.format(CAMPAIGN_QUEUED_KEY, campaignId);
-        String value = redisTemplate.opsForValue().get(key);
-        if (value == null) {
-            return 0;
-        }
-        try {
-            return Integer.parseInt(value);
-        } catch (NumberFormatException e) {
-            log.warn("Invalid queued count value for campaign {}: {}", campaignId, value);
-            return 0;
-        }
-    }
-
-    private void incrementQueuedCount(UUID campaignId) {
-        String key = String.format(CAMPAIGN_QUEUED_KEY, campaignId);
-        redisTemplate.opsForValue().increment(key);
-    }
-
 }
@@ -2,16 +2,20 @@ package org.example.voicecampaign.scheduler;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.example.voicecampaign.domain.entity.CallRequest;
-import org.example.voicecampaign.dto.CallbackRequest;
 import org.example.voicecampaign.repository.CallRequestRepository;
 import org.example.voicecampaign.service.CallService;
+import org.example.voicecampaign.service.CallService.TimedOutCall;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 /**
  * Monitors for calls that have not received a callback within the expected timeout.
@@ -25,6 +29,17 @@ import java.util.List;
  *   <li>Callback is lost due to network issues</li>
  *   <li>Application restarts while calls are in progress</li>
  * </ul>
+ *
+ * <p>Timed-out calls are taken in pages of {@code page-size}, longest overdue first, and each page
+ * is failed with {@link CallService#handleTimedOutCalls}: a couple of set-based updates and one slot
+ * release per campaign instead of a transaction per call. Pages follow a keyset cursor on
+ * {@code (expectedCallbackBy, id)}, so calls of a campaign that cannot be failed are passed over
+ * instead of being read again ahead of everyone else's. A run handles at most {@code max-pages}
+ * pages, so the backlog after an outage is worked off over several runs rather than in one
+ * unbounded sweep.</p>
+ *
+ * <p>Only the holder of the {@link LeaderRole#WATCHDOG} lease runs the check, and it stops midway
+ * if the lease lapses, so timed-out calls are not handled twice when several instances run.</p>
  */
 @Component
 @RequiredArgsConstructor
@@ -33,48 +48,75 @@ public class CallbackWatchdog {
 
     private final CallRequestRepository callRequestRepository;
     private final CallService callService;
+    private final LeaderElection leaderElection;
 
     @Value("${voice-campaign.scheduler.enabled:true}")
     private boolean schedulerEnabled;
 
+    @Value("${voice-campaign.watchdog.page-size:1000}")
+    private int pageSize;
+
+    @Value("${voice-campaign.watchdog.max-pages:20}")
+    private int maxPages;
+
     /**
      * Scheduled task that checks for and handles timed-out calls.
      */
     @Scheduled(fixedRateString = "${voice-campaign.watchdog.fixed-rate-ms:30000}")
     public void checkForTimedOutCalls() {
-        if (!schedulerEnabled) {
+        if (!schedulerEnabled || !leaderElection.isLeader(LeaderRole.WATCHDOG)) {
             return;
         }
 
         Instant now = Instant.now();
-        List<CallRequest> timedOutCalls = callRequestRepository.findTimedOutCalls(now);
+        int handled = 0;
+        int skipped = 0;
+        Object[] last = null;
+        for (int page = 0; page < maxPages; page++) {
+            if (!leaderElection.isLeader(LeaderRole.WATCHDOG)) {
+                log.warn("Watchdog leadership lapsed, leaving remaining timed out calls to the new leader");
+                break;
+            }
+            List<Object[]> timedOut = last == null
+                    ? callRequestRepository.findTimedOutCalls(now, PageRequest.of(0, pageSize))
+                    : callRequestRepository.findTimedOutCallsAfter(
+                            now, (Instant) last[4], (UUID) last[0], PageRequest.of(0, pageSize));
+            if (timedOut.isEmpty()) {
+                break;
+            }
+            int failed = handlePage(timedOut, now);
+            handled += failed;
+            skipped += timedOut.size() - failed;
+            if (timedOut.size() < pageSize) {
+                break;
+            }
+            last = timedOut.get(timedOut.size() - 1);
+        }
 
-        if (timedOutCalls.isEmpty()) {
-            return;
+        if (handled > 0) {
+            log.info("Handled {} timed out calls", handled);
         }
+        if (skipped > 0) {
+            log.warn("{} timed out calls were not failed, those still overdue are retried on the next run", skipped);
+        }
+    }
 
-        log.info("Found {} timed out calls", timedOutCalls.size());
+    private int handlePage(List<Object[]> timedOut, Instant now) {
+        Map<UUID, List<TimedOutCall>> byCampaign = new LinkedHashMap<>();
+        for (Object[] row : timedOut) {
+            byCampaign.computeIfAbsent((UUID) row[1], id -> new ArrayList<>())
+                    .add(new TimedOutCall((UUID) row[0], (String) row[2], (Integer) row[3]));
+        }
 
-        for (CallRequest callRequest : timedOutCalls) {
+        int failed = 0;
+        for (Map.Entry<UUID, List<TimedOutCall>> campaign : byCampaign.entrySet()) {
             try {
-                handleTimedOutCall(callRequest);
+                failed += callService.handleTimedOutCalls(campaign.getKey(), campaign.getValue(), now);
             } catch (Exception e) {
-                log.error("Error handling timed out call {}: {}", callRequest.getId(), e.getMessage());
+                log.error("Error handling {} timed out calls of campaign {}: {}",
+                        campaign.getValue().size(), campaign.getKey(), e.getMessage());
             }
         }
-    }
-
-    private void handleTimedOutCall(CallRequest callRequest) {
-        log.warn("Call {} timed out (expected callback by {})", 
-                callRequest.getId(), callRequest.getExpectedCallbackBy());
-
-        // Treat timeout as a failure and trigger retry logic
-        CallbackRequest syntheticCallback = CallbackRequest.builder()
-                .externalCallId(callRequest.getExternalCallId())
-                .status(CallbackRequest.CallbackStatus.FAILED)
-                .failureReason("Callback timeout - no response from telephony provider")
-                .build();
-
-        callService.handleCallback(syntheticCallback);
+        return failed;
     }
 }
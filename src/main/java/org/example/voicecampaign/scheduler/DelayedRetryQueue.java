@@ -0,0 +1,289 @@
+package org.example.voicecampaign.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.voicecampaign.repository.CallRequestRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis sorted-set timer for call retries, so the scheduler no longer polls the database for due
+ * retries of every campaign on every cycle.
+ *
+ * <p>A retry scheduled by {@code CallService} is added to {@code call:retry:delayed} scored by its
+ * {@code nextRetryAt}. At the start of each scheduler cycle the leader reads the due entries and
+ * promotes them, in one Lua round trip, into per-campaign due sets ({@code campaign:{id}:retry:due}),
+ * from which {@link CallClaimService#claimRetries} takes IDs and claims exactly those rows. Taken
+ * entries the claim does not settle, because it rolled back or another transaction held the row,
+ * are {@linkplain #putBack put back}.</p>
+ *
+ * <p>Redis is not the source of truth: an entry may be lost (Redis restart, a crash before the
+ * after-commit add) or refer to a call that is no longer FAILED. Claims therefore re-check the row,
+ * and a slow reconciliation periodically re-adds overdue FAILED calls of running campaigns. Adds
+ * are idempotent, so reconciliation never duplicates an entry.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DelayedRetryQueue {
+
+    private static final String DELAYED_KEY = "call:retry:delayed";
+    private static final String DUE_KEY = "campaign:%s:retry:due";
+    private static final long DUE_KEY_TTL_MS = TimeUnit.DAYS.toMillis(1);
+    private static final long RECONCILE_GRACE_MS = 5000;
+    private static final int MAX_PROMOTE_ROUNDS = 10;
+
+    /**
+     * Moves the delayed entries read beforehand into their campaign's due set, skipping those removed
+     * or rescheduled past ARGV[1] since. ARGV[2] is the due set TTL so due sets of finished campaigns
+     * expire. From ARGV[3] on come pairs of a member ({@code campaignId:callId}) and the index of its
+     * campaign's due set in KEYS.
+     */
+    private static final RedisScript<Long> PROMOTE_SCRIPT = new DefaultRedisScript<>("""
+            local moved = 0
+            for i = 3, #ARGV, 2 do
+                local score = redis.call('ZSCORE', KEYS[1], ARGV[i])
+                if score and tonumber(score) <= tonumber(ARGV[1]) then
+                    local dueKey = KEYS[tonumber(ARGV[i + 1])]
+                    local sep = string.find(ARGV[i], ':', 1, true)
+                    redis.call('ZADD', dueKey, score, string.sub(ARGV[i], sep + 1))
+                    redis.call('PEXPIRE', dueKey, ARGV[2])
+                    redis.call('ZREM', KEYS[1], ARGV[i])
+                    moved = moved + 1
+                end
+            end
+            return moved
+            """, Long.class);
+
+    /**
+     * A retry taken from its campaign's due set.
+     *
+     * @param dueAtMillis when it became due, its score in the set
+     */
+    public record DueRetry(UUID callId, long dueAtMillis) {
+    }
+
+    private final StringRedisTemplate redisTemplate;
+    private final CallRequestRepository callRequestRepository;
+    private final LeaderElection leaderElection;
+
+    @Value("${voice-campaign.scheduler.delayed-retries.enabled:false}")
+    private boolean enabled;
+
+    @Value("${voice-campaign.scheduler.delayed-retries.promote-batch-size:1000}")
+    private int promoteBatchSize;
+
+    @Value("${voice-campaign.scheduler.delayed-retries.reconcile-batch-size:5000}")
+    private int reconcileBatchSize;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Schedules a retry. Inside a transaction the entry is added after commit, so it is never
+     * promoted before the FAILED row is visible to the claim.
+     *
+     * @param campaignId the campaign the call belongs to
+     * @param callId     the call to retry
+     * @param dueAt      when the retry becomes due
+     */
+    public void schedule(UUID campaignId, UUID callId, Instant dueAt) {
+        if (!enabled) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(campaignId, callId, dueAt);
+                }
+            });
+        } else {
+            add(campaignId, callId, dueAt);
+        }
+    }
+
+    /**
+     * Schedules retries of several calls of a campaign due at the same time, added in one round trip.
+     */
+    public void schedule(UUID campaignId, Collection<UUID> callIds, Instant dueAt) {
+        if (!enabled || callIds.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addAll(campaignId, callIds, dueAt);
+                }
+            });
+        } else {
+            addAll(campaignId, callIds, dueAt);
+        }
+    }
+
+    /**
+     * Moves every retry that is due into its campaign's due set.
+     *
+     * @return the number of Redis round trips issued
+     */
+    public int promoteDue() {
+        long now = System.currentTimeMillis();
+        int rounds = 0;
+        int roundTrips = 0;
+        Set<String> due;
+        do {
+            due = redisTemplate.opsForZSet().rangeByScore(DELAYED_KEY, Double.NEGATIVE_INFINITY, now, 0,
+                    promoteBatchSize);
+            roundTrips++;
+            if (due == null || due.isEmpty()) {
+                break;
+            }
+            Long promoted = redisTemplate.execute(PROMOTE_SCRIPT, promoteKeys(due), promoteArgs(now, due));
+            roundTrips++;
+            rounds++;
+            if (promoted != null && promoted > 0) {
+                log.debug("Promoted {} due retries", promoted);
+            }
+        } while (due.size() >= promoteBatchSize && rounds < MAX_PROMOTE_ROUNDS);
+        return roundTrips;
+    }
+
+    /**
+     * The delayed set followed by the due set of every campaign among {@code members}, in order of
+     * first appearance.
+     */
+    private static List<String> promoteKeys(Set<String> members) {
+        Set<String> keys = new LinkedHashSet<>();
+        keys.add(DELAYED_KEY);
+        for (String member : members) {
+            keys.add(String.format(DUE_KEY, member.substring(0, member.indexOf(':'))));
+        }
+        return new ArrayList<>(keys);
+    }
+
+    private static Object[] promoteArgs(long now, Set<String> members) {
+        Map<String, Integer> keyIndex = new HashMap<>();
+        List<Object> args = new ArrayList<>(members.size() * 2 + 2);
+        args.add(String.valueOf(now));
+        args.add(String.valueOf(DUE_KEY_TTL_MS));
+        for (String member : members) {
+            String campaignId = member.substring(0, member.indexOf(':'));
+            // Lua indexes KEYS from 1 and KEYS[1] is the delayed set
+            int index = keyIndex.computeIfAbsent(campaignId, c -> keyIndex.size() + 2);
+            args.add(member);
+            args.add(String.valueOf(index));
+        }
+        return args.toArray();
+    }
+
+    /**
+     * Removes and returns up to {@code maxCalls} due retries of a campaign, earliest due first.
+     */
+    public List<DueRetry> takeDue(UUID campaignId, int maxCalls) {
+        Set<ZSetOperations.TypedTuple<String>> due = redisTemplate.opsForZSet()
+                .popMin(String.format(DUE_KEY, campaignId), maxCalls);
+        if (due == null || due.isEmpty()) {
+            return List.of();
+        }
+        return due.stream()
+                .map(t -> new DueRetry(UUID.fromString(t.getValue()), t.getScore() != null ? t.getScore().longValue() : 0))
+                .toList();
+    }
+
+    /**
+     * Returns retries taken with {@link #takeDue} to their campaign's due set, keeping their due
+     * times, so they are claimed again on the next cycle.
+     */
+    public void putBack(UUID campaignId, Collection<DueRetry> retries) {
+        if (retries.isEmpty()) {
+            return;
+        }
+        String dueKey = String.format(DUE_KEY, campaignId);
+        Set<ZSetOperations.TypedTuple<String>> entries = new HashSet<>(retries.size());
+        for (DueRetry retry : retries) {
+            entries.add(ZSetOperations.TypedTuple.of(retry.callId().toString(), (double) retry.dueAtMillis()));
+        }
+        try {
+            redisTemplate.opsForZSet().add(dueKey, entries);
+            redisTemplate.expire(dueKey, DUE_KEY_TTL_MS, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            // Picked up again by reconciliation
+            log.warn("Failed to put back {} due retries of campaign {}: {}", retries.size(), campaignId, e.getMessage());
+        }
+    }
+
+    /**
+     * Re-adds overdue FAILED and deferred PENDING calls of running campaigns that Redis has lost
+     * track of. Only the scheduler leader reconciles; a call that is still tracked keeps its entry.
+     */
+    @Scheduled(fixedDelayString = "${voice-campaign.scheduler.delayed-retries.reconcile-interval-ms:30000}")
+    public void reconcile() {
+        if (!enabled || !leaderElection.isLeader(LeaderRole.SCHEDULER)) {
+            return;
+        }
+        try {
+            Instant cutoff = Instant.now().minusMillis(RECONCILE_GRACE_MS);
+            List<Object[]> overdue = callRequestRepository.findOverdueRetries(cutoff, PageRequest.of(0, reconcileBatchSize));
+            if (overdue.isEmpty()) {
+                return;
+            }
+            Set<ZSetOperations.TypedTuple<String>> entries = new HashSet<>(overdue.size());
+            for (Object[] row : overdue) {
+                entries.add(ZSetOperations.TypedTuple.of(member((UUID) row[1], (UUID) row[0]),
+                        (double) ((Instant) row[2]).toEpochMilli()));
+            }
+            Long added = redisTemplate.opsForZSet().addIfAbsent(DELAYED_KEY, entries);
+            log.debug("Retry reconciliation: {} overdue, {} re-added", overdue.size(), added);
+        } catch (Exception e) {
+            log.warn("Retry reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    private void add(UUID campaignId, UUID callId, Instant dueAt) {
+        try {
+            redisTemplate.opsForZSet().add(DELAYED_KEY, member(campaignId, callId), dueAt.toEpochMilli());
+        } catch (Exception e) {
+            // Picked up again by reconciliation
+            log.warn("Failed to schedule retry of call {}: {}", callId, e.getMessage());
+        }
+    }
+
+    private void addAll(UUID campaignId, Collection<UUID> callIds, Instant dueAt) {
+        Set<ZSetOperations.TypedTuple<String>> entries = new HashSet<>(callIds.size());
+        for (UUID callId : callIds) {
+            entries.add(ZSetOperations.TypedTuple.of(member(campaignId, callId), (double) dueAt.toEpochMilli()));
+        }
+        try {
+            redisTemplate.opsForZSet().add(DELAYED_KEY, entries);
+        } catch (Exception e) {
+            // Picked up again by reconciliation
+            log.warn("Failed to schedule retries of {} calls: {}", callIds.size(), e.getMessage());
+        }
+    }
+
+    private static String member(UUID campaignId, UUID callId) {
+        return campaignId + ":" + callId;
+    }
+}
@@ -0,0 +1,207 @@
+package org.example.voicecampaign.scheduler;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis lease based leader election for the {@link LeaderRole singleton roles}, so that several
+ * service instances can share one Redis and database without duplicate enqueues or duplicate
+ * timeout handling. Call workers are unaffected and consume on every instance.
+ *
+ * <p>Each role has a lease key holding the owning node's ID with a short TTL, renewed every
+ * {@code renew-interval-ms} by a background thread. Acquiring a free lease increments the role's
+ * fencing token; the scheduler passes its token to the enqueue script, which rejects writes from a
+ * node whose term has been superseded. Locally, leadership is only assumed until the lease's TTL
+ * (measured from the start of the last successful renewal) minus a drift margin has elapsed, so a
+ * stalled node stops acting before a standby can take over.</p>
+ *
+ * <p>A leader that dies leaves its lease to expire at most one TTL after its last renewal, and a
+ * standby contends every renewal interval, so failover takes at most TTL plus the renewal interval
+ * (750ms with the defaults of 600ms and 150ms), plus Redis round trips. A stalled leader stops
+ * acting a drift margin before its lease expires. A leader shutting down gracefully releases its
+ * leases immediately.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LeaderElection {
+
+    /** Token passed to fenced writes when leader election is disabled; skips the fence check. */
+    public static final long NO_FENCING = 0;
+
+    private static final String LEASE_KEY = "leader:%s:lease";
+    private static final String FENCE_KEY = "leader:%s:fence";
+    private static final long CLOCK_DRIFT_MARGIN_MS = 100;
+
+    /**
+     * Renews the lease if this node holds it, otherwise takes it if free. Returns the fencing token
+     * of the current term, or 0 if another node holds the lease.
+     */
+    private static final RedisScript<Long> ACQUIRE_OR_RENEW_SCRIPT = new DefaultRedisScript<>("""
+            local holder = redis.call('GET', KEYS[1])
+            if holder == ARGV[1] then
+                redis.call('PEXPIRE', KEYS[1], ARGV[2])
+                local fence = redis.call('GET', KEYS[2])
+                if fence then
+                    return tonumber(fence)
+                end
+                return redis.call('INCR', KEYS[2])
+            end
+            if holder then
+                return 0
+            end
+            redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+            return redis.call('INCR', KEYS[2])
+            """, Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+                return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName() + ":" + UUID.randomUUID();
+    private final Map<LeaderRole, Term> terms = new ConcurrentHashMap<>();
+    private ScheduledExecutorService renewer;
+
+    @Value("${voice-campaign.leader-election.enabled:false}")
+    private boolean enabled;
+
+    @Value("${voice-campaign.leader-election.lease-ttl-ms:600}")
+    private long leaseTtlMs;
+
+    @Value("${voice-campaign.leader-election.renew-interval-ms:150}")
+    private long renewIntervalMs;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        // Open the connection first: a slow first round trip would use up the lease's local validity.
+        // Then contend once synchronously so a sole instance leads from the first tick.
+        redisTemplate.hasKey(leaseKey(LeaderRole.SCHEDULER));
+        renewAll();
+        renewer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "leader-lease");
+            thread.setDaemon(true);
+            return thread;
+        });
+        renewer.scheduleAtFixedRate(this::renewAll, renewIntervalMs, renewIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("Leader election enabled for node {} (lease TTL {}ms, renewal every {}ms)",
+                nodeId, leaseTtlMs, renewIntervalMs);
+    }
+
+    /**
+     * Hands leadership over on shutdown. Runs on context close, before the Redis connection factory
+     * is stopped, so the leases can still be released.
+     */
+    @EventListener(ContextClosedEvent.class)
+    public void stop() {
+        if (renewer == null) {
+            return;
+        }
+        renewer.shutdownNow();
+        for (LeaderRole role : LeaderRole.values()) {
+            if (terms.remove(role) != null) {
+                try {
+                    redisTemplate.execute(RELEASE_SCRIPT, List.of(leaseKey(role)), nodeId);
+                    log.info("Released {} leadership", role);
+                } catch (Exception e) {
+                    log.warn("Failed to release {} lease: {}", role, e.getMessage());
+                }
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns whether this node may currently perform the role. Always true when leader election is
+     * disabled.
+     */
+    public boolean isLeader(LeaderRole role) {
+        if (!enabled) {
+            return true;
+        }
+        Term term = terms.get(role);
+        return term != null && System.nanoTime() < term.validUntilNanos();
+    }
+
+    /**
+     * Returns the fencing token of this node's current term for the role, {@link #NO_FENCING} when
+     * leader election is disabled, or -1 (which every fenced write rejects) when not the leader.
+     */
+    public long fencingToken(LeaderRole role) {
+        if (!enabled) {
+            return NO_FENCING;
+        }
+        Term term = terms.get(role);
+        return term != null && System.nanoTime() < term.validUntilNanos() ? term.token() : -1;
+    }
+
+    private void renewAll() {
+        for (LeaderRole role : LeaderRole.values()) {
+            try {
+                renew(role);
+            } catch (Exception e) {
+                // Keep the current term; it lapses locally once the lease TTL has passed
+                log.debug("Failed to renew {} lease: {}", role, e.getMessage());
+            }
+        }
+        for (LeaderRole role : LeaderRole.values()) {
+            Term term = terms.get(role);
+            if (term != null && System.nanoTime() >= term.validUntilNanos() && terms.remove(role, term)) {
+                log.warn("Lost {} leadership (term {}): lease could not be renewed", role, term.token());
+            }
+        }
+    }
+
+    private void renew(LeaderRole role) {
+        long startedAt = System.nanoTime();
+        Long token = redisTemplate.execute(ACQUIRE_OR_RENEW_SCRIPT,
+                List.of(leaseKey(role), String.format(FENCE_KEY, role.name().toLowerCase())),
+                nodeId, String.valueOf(leaseTtlMs));
+        if (token == null || token <= 0) {
+            Term lost = terms.remove(role);
+            if (lost != null) {
+                log.warn("Lost {} leadership (term {}) to another node", role, lost.token());
+            }
+            return;
+        }
+        long validUntil = startedAt + TimeUnit.MILLISECONDS.toNanos(leaseTtlMs - CLOCK_DRIFT_MARGIN_MS);
+        Term previous = terms.put(role, new Term(token, validUntil));
+        if (previous == null || previous.token() != token) {
+            log.info("Acquired {} leadership (term {})", role, token);
+        }
+    }
+
+    private static String leaseKey(LeaderRole role) {
+        return String.format(LEASE_KEY, role.name().toLowerCase());
+    }
+
+    private record Term(long token, long validUntilNanos) {
+    }
+}
@@ -0,0 +1,10 @@
+package org.example.voicecampaign.scheduler;
+
+/**
+ * Singleton roles that only one service instance may perform at a time. Each role has its own
+ * Redis lease and fencing token, see {@link LeaderElection}.
+ */
+public enum LeaderRole {
+    SCHEDULER,
+    WATCHDOG
+}
@@ -0,0 +1,101 @@
+package org.example.voicecampaign.scheduler;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Presence of the running service instances, so a starting node can tell a cold start of the whole
+ * cluster from joining (or rejoining) a running one.
+ *
+ * <p>Every node records a heartbeat in the sorted set {@code cluster:nodes}, scored by wall-clock
+ * time, every {@code heartbeat-interval-ms} from a background thread, and removes itself on shutdown.
+ * Nodes not seen for {@code node-ttl-ms} count as gone and are pruned on the next heartbeat.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class NodeRegistry {
+
+    private static final String NODES_KEY = "cluster:nodes";
+
+    /**
+     * Records node ARGV[1] as seen at ARGV[2] ms and prunes nodes last seen before ARGV[3] ms.
+     * Returns the number of nodes other than ARGV[1] still live.
+     */
+    private static final RedisScript<Long> HEARTBEAT_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', '(' .. ARGV[3])
+            redis.call('ZADD', KEYS[1], ARGV[2], ARGV[1])
+            return redis.call('ZCARD', KEYS[1]) - 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName() + ":" + UUID.randomUUID();
+    private ScheduledExecutorService heartbeats;
+
+    @Value("${voice-campaign.cluster.heartbeat-interval-ms:1000}")
+    private long heartbeatIntervalMs;
+
+    @Value("${voice-campaign.cluster.node-ttl-ms:5000}")
+    private long nodeTtlMs;
+
+    @PostConstruct
+    public void start() {
+        heartbeats = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "node-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeats.scheduleAtFixedRate(this::heartbeat, heartbeatIntervalMs, heartbeatIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @EventListener(ContextClosedEvent.class)
+    public void stop() {
+        if (heartbeats == null) {
+            return;
+        }
+        heartbeats.shutdownNow();
+        try {
+            redisTemplate.opsForZSet().remove(NODES_KEY, nodeId);
+        } catch (Exception e) {
+            // Pruned by the other nodes once node-ttl-ms has passed
+            log.debug("Failed to deregister node {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    /**
+     * Registers this node and returns how many other nodes have been seen within {@code node-ttl-ms}.
+     * A node restarted within that time still sees its previous incarnation.
+     *
+     * @throws org.springframework.dao.DataAccessException if Redis cannot be reached
+     */
+    public long otherLiveNodes() {
+        long now = System.currentTimeMillis();
+        Long others = redisTemplate.execute(HEARTBEAT_SCRIPT, List.of(NODES_KEY),
+                nodeId, String.valueOf(now), String.valueOf(now - nodeTtlMs));
+        return others != null ? others : 0;
+    }
+
+    private void heartbeat() {
+        try {
+            otherLiveNodes();
+        } catch (Exception e) {
+            log.debug("Failed to record node heartbeat: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.voicecampaign.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.voicecampaign.domain.entity.Campaign;
+import org.example.voicecampaign.domain.model.CallStatus;
+import org.example.voicecampaign.domain.model.CampaignStatus;
+import org.example.voicecampaign.repository.CallRequestRepository;
+import org.example.voicecampaign.repository.CampaignRepository;
+import org.example.voicecampaign.service.CallService;
+import org.example.voicecampaign.service.CampaignMetricsService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keeps the per-campaign outstanding call counts in line with the database.
+ *
+ * <p>Campaign completion is detected when a campaign's count of outstanding calls (PENDING,
+ * SCHEDULED, DIALING, IN_PROGRESS or FAILED) reaches zero, rather than by counting rows on every
+ * callback. The count lives in Redis and can drift: a lost key, a crash between a commit and its
+ * after-commit decrement, a bulk status change. Periodically the scheduler leader recounts the outstanding calls
+ * of every running campaign with one grouped query per {@value #CHUNK_SIZE} campaigns, corrects the
+ * counts that differ and completes campaigns that have none left.</p>
+ *
+ * <p>A correction is applied only if the count did not change while the database was counted, so a
+ * reconciliation racing live callbacks leaves it to the next round instead of losing their updates.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutstandingCallsReconciler {
+
+    private static final int CHUNK_SIZE = 1000;
+
+    private final CampaignRepository campaignRepository;
+    private final CallRequestRepository callRequestRepository;
+    private final CampaignMetricsService metricsService;
+    private final CallService callService;
+    private final LeaderElection leaderElection;
+
+    @Value("${voice-campaign.scheduler.enabled:true}")
+    private boolean schedulerEnabled;
+
+    @Scheduled(fixedDelayString = "${voice-campaign.campaign-completion.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        if (!schedulerEnabled || !leaderElection.isLeader(LeaderRole.SCHEDULER)) {
+            return;
+        }
+        try {
+            List<Campaign> campaigns = campaignRepository.findActiveCampaigns(
+                    List.of(CampaignStatus.IN_PROGRESS, CampaignStatus.PENDING, CampaignStatus.PAUSED));
+            int corrected = 0;
+            for (int from = 0; from < campaigns.size(); from += CHUNK_SIZE) {
+                corrected += reconcile(campaigns.subList(from, Math.min(from + CHUNK_SIZE, campaigns.size())));
+            }
+            if (corrected > 0) {
+                log.info("Outstanding call reconciliation corrected {} of {} campaigns", corrected, campaigns.size());
+            }
+        } catch (Exception e) {
+            log.warn("Outstanding call reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    private int reconcile(List<Campaign> campaigns) {
+        List<UUID> campaignIds = campaigns.stream().map(Campaign::getId).toList();
+        // Read before counting, so a count that moves meanwhile is not overwritten
+        List<String> observed = metricsService.getOutstanding(campaignIds);
+
+        Map<UUID, Long> actual = new HashMap<>();
+        for (Object[] row : callRequestRepository.countByCampaignIdsAndStatuses(campaignIds, CallStatus.OUTSTANDING)) {
+            actual.put((UUID) row[0], (Long) row[1]);
+        }
+
+        int corrected = 0;
+        for (int i = 0; i < campaigns.size(); i++) {
+            Campaign campaign = campaigns.get(i);
+            UUID campaignId = campaign.getId();
+            long outstanding = actual.getOrDefault(campaignId, 0L);
+            String current = observed != null ? observed.get(i) : null;
+            if (!String.valueOf(outstanding).equals(current)
+                    && metricsService.reconcileOutstanding(campaignId, current, outstanding)) {
+                log.debug("Campaign {} outstanding calls corrected from {} to {}", campaignId, current, outstanding);
+                corrected++;
+            }
+            if (outstanding == 0 && campaign.getStatus() == CampaignStatus.IN_PROGRESS) {
+                callService.checkCampaignCompletion(campaignId);
+            }
+        }
+        return corrected;
+    }
+}
@@ -0,0 +1,149 @@
+package org.example.voicecampaign.scheduler;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.example.voicecampaign.repository.CallRequestRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-campaign in-memory prefetch of pending call IDs, so the scheduler claims pending calls by ID
+ * instead of running an ordered {@code LIMIT} query for every campaign on every cycle.
+ *
+ * <p>Each buffer is refilled in chunks of {@code chunk-size} IDs with keyset pagination on
+ * {@code (createdAt, id)}, and only once it holds fewer IDs than requested or than the low
+ * watermark. Buffered IDs are hints: the claim re-checks that each row is still PENDING, and
+ * {@linkplain #putBack puts back} the IDs it took but could not claim while they are still
+ * pending, so they keep their turn.</p>
+ *
+ * <p>Calls returned to PENDING behind the cursor (released claims) are found again when the cursor
+ * reaches the end of the campaign's pending calls and wraps around to the start. Calls deferred by
+ * their route are skipped until due; the retry claim picks them up then. Once a campaign's
+ * pending calls are exhausted it is not queried again for {@value #EXHAUSTED_RECHECK_MS}ms, so a
+ * campaign with only retries left does not cost a query per cycle. Buffers of campaigns that have
+ * not been scheduled for a while are evicted.</p>
+ */
+@Component
+@Slf4j
+public class PendingCallBuffer {
+
+    private static final long EXHAUSTED_RECHECK_MS = 1000;
+    private static final Instant CURSOR_START = Instant.EPOCH;
+    private static final UUID CURSOR_START_ID = new UUID(0, 0);
+
+    private final CallRequestRepository callRequestRepository;
+    private final Cache<UUID, Buffer> buffers = Caffeine.newBuilder()
+            .expireAfterAccess(10, TimeUnit.MINUTES)
+            .maximumSize(10_000)
+            .build();
+
+    @Value("${voice-campaign.scheduler.pending-prefetch.enabled:false}")
+    private boolean enabled;
+
+    @Value("${voice-campaign.scheduler.pending-prefetch.chunk-size:2000}")
+    private int chunkSize;
+
+    @Value("${voice-campaign.scheduler.pending-prefetch.low-watermark:500}")
+    private int lowWatermark;
+
+    public PendingCallBuffer(CallRequestRepository callRequestRepository) {
+        this.callRequestRepository = callRequestRepository;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Removes and returns up to {@code maxCalls} buffered pending call IDs of a campaign, oldest
+     * first, refilling the buffer from the database if it is running low.
+     */
+    public List<UUID> take(UUID campaignId, int maxCalls) {
+        Buffer buffer = buffers.get(campaignId, id -> new Buffer());
+        synchronized (buffer) {
+            if (buffer.ids.size() < Math.max(maxCalls, lowWatermark)) {
+                refill(campaignId, buffer);
+            }
+            List<UUID> taken = new ArrayList<>(Math.min(maxCalls, buffer.ids.size()));
+            Iterator<UUID> it = buffer.ids.iterator();
+            while (taken.size() < maxCalls && it.hasNext()) {
+                taken.add(it.next());
+                it.remove();
+            }
+            return taken;
+        }
+    }
+
+    /**
+     * Returns taken IDs a claim did not settle to the front of a campaign's buffer, in the given
+     * order. Nothing is put back into a buffer that was dropped meanwhile.
+     */
+    public void putBack(UUID campaignId, List<UUID> callIds) {
+        if (callIds.isEmpty()) {
+            return;
+        }
+        Buffer buffer = buffers.getIfPresent(campaignId);
+        if (buffer == null) {
+            return;
+        }
+        synchronized (buffer) {
+            LinkedHashSet<UUID> ids = new LinkedHashSet<>(callIds);
+            ids.addAll(buffer.ids);
+            buffer.ids = ids;
+        }
+    }
+
+    /**
+     * Drops a campaign's buffer, e.g. after its claims were released.
+     */
+    public void invalidate(UUID campaignId) {
+        buffers.invalidate(campaignId);
+    }
+
+    /**
+     * Drops all buffers.
+     */
+    public void invalidateAll() {
+        buffers.invalidateAll();
+    }
+
+    private void refill(UUID campaignId, Buffer buffer) {
+        if (buffer.exhaustedAt > 0 && System.currentTimeMillis() - buffer.exhaustedAt < EXHAUSTED_RECHECK_MS) {
+            return;
+        }
+        List<Object[]> rows = callRequestRepository.findPendingKeysetPage(campaignId,
+                buffer.cursorCreatedAt, buffer.cursorId, Instant.now(), PageRequest.of(0, chunkSize));
+        for (Object[] row : rows) {
+            buffer.ids.add((UUID) row[0]);
+        }
+        if (rows.size() < chunkSize) {
+            // End of the pending calls: next refill wraps around to pick up released calls
+            buffer.cursorCreatedAt = CURSOR_START;
+            buffer.cursorId = CURSOR_START_ID;
+            buffer.exhaustedAt = System.currentTimeMillis();
+        } else {
+            Object[] last = rows.get(rows.size() - 1);
+            buffer.cursorId = (UUID) last[0];
+            buffer.cursorCreatedAt = (Instant) last[1];
+            buffer.exhaustedAt = 0;
+        }
+        log.debug("Prefetched {} pending calls of campaign {} ({} buffered)", rows.size(), campaignId, buffer.ids.size());
+    }
+
+    private static final class Buffer {
+        private LinkedHashSet<UUID> ids = new LinkedHashSet<>();
+        private Instant cursorCreatedAt = CURSOR_START;
+        private UUID cursorId = CURSOR_START_ID;
+        private long exhaustedAt;
+    }
+}
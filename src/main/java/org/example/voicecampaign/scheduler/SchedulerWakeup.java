@@ -0,0 +1,168 @@
+package org.example.voicecampaign.scheduler;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects per-campaign wake-up signals for the event-driven scheduler.
+ *
+ * <p>Producers (slot release, campaign start/resume, import completion, retry due-times) call
+ * {@link #signal(UUID)} or {@link #signalAt(UUID, Instant)}; the scheduler blocks in
+ * {@link #await(long)} and drains the set of signalled campaigns for a targeted fill. Signals
+ * raised inside a transaction are delivered after commit, so the scheduler always sees the
+ * committed state. Repeated signals for the same campaign coalesce until the next drain.</p>
+ *
+ * <p>With leader election enabled, signals raised on a node that is not the scheduler leader are
+ * published on a Redis channel that every node subscribes to, so slot releases handled by any
+ * instance still wake the leader.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SchedulerWakeup {
+
+    private static final long DELAYED_SIGNAL_GRANULARITY_MS = 100;
+    private static final String WAKEUP_CHANNEL = "scheduler:wakeup";
+
+    private final LeaderElection leaderElection;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private final Set<UUID> signalled = ConcurrentHashMap.newKeySet();
+    private final Set<String> armedTimers = ConcurrentHashMap.newKeySet();
+    private final Semaphore pending = new Semaphore(0);
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "scheduler-wakeup-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void subscribe() {
+        if (!leaderElection.isEnabled()) {
+            return;
+        }
+        listenerContainer.addMessageListener((message, pattern) -> {
+            if (leaderElection.isLeader(LeaderRole.SCHEDULER)) {
+                deliverLocally(UUID.fromString(new String(message.getBody(), StandardCharsets.UTF_8)));
+            }
+        }, new ChannelTopic(WAKEUP_CHANNEL));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+
+    /**
+     * Signals that a campaign may have work to dispatch now.
+     *
+     * @param campaignId the campaign to fill
+     */
+    public void signal(UUID campaignId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deliver(campaignId);
+                }
+            });
+        } else {
+            deliver(campaignId);
+        }
+    }
+
+    /**
+     * Signals a campaign at a future instant, e.g. when a retry becomes due. Signals are bucketed
+     * to {@value #DELAYED_SIGNAL_GRANULARITY_MS}ms so a burst of retries arms a single timer.
+     *
+     * @param campaignId the campaign to fill
+     * @param at         when the campaign should be signalled
+     */
+    public void signalAt(UUID campaignId, Instant at) {
+        long delayMs = Duration.between(Instant.now(), at).toMillis();
+        if (delayMs <= 0) {
+            signal(campaignId);
+            return;
+        }
+        long bucket = at.toEpochMilli() / DELAYED_SIGNAL_GRANULARITY_MS + 1;
+        String timerKey = campaignId + ":" + bucket;
+        if (!armedTimers.add(timerKey)) {
+            return;
+        }
+        long fireAtMs = bucket * DELAYED_SIGNAL_GRANULARITY_MS;
+        timer.schedule(() -> {
+            armedTimers.remove(timerKey);
+            deliver(campaignId);
+        }, Math.max(0, fireAtMs - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Blocks until at least one campaign has been signalled or the timeout elapses.
+     *
+     * @param timeoutMs maximum time to wait
+     * @return true if signals are pending
+     */
+    public boolean await(long timeoutMs) throws InterruptedException {
+        if (!pending.tryAcquire(timeoutMs, TimeUnit.MILLISECONDS)) {
+            return false;
+        }
+        pending.drainPermits();
+        return true;
+    }
+
+    /**
+     * Removes and returns all campaigns signalled since the previous drain.
+     *
+     * @return the signalled campaign IDs
+     */
+    public Set<UUID> drain() {
+        Set<UUID> drained = new HashSet<>();
+        Iterator<UUID> it = signalled.iterator();
+        while (it.hasNext()) {
+            drained.add(it.next());
+            it.remove();
+        }
+        return drained;
+    }
+
+    private void deliver(UUID campaignId) {
+        if (leaderElection.isEnabled() && !leaderElection.isLeader(LeaderRole.SCHEDULER)) {
+            try {
+                redisTemplate.convertAndSend(WAKEUP_CHANNEL, campaignId.toString());
+            } catch (Exception e) {
+                // The leader's fallback cycle still picks the campaign up
+                log.debug("Failed to forward wake-up for campaign {}: {}", campaignId, e.getMessage());
+            }
+            return;
+        }
+        deliverLocally(campaignId);
+    }
+
+    private void deliverLocally(UUID campaignId) {
+        if (signalled.add(campaignId)) {
+            pending.release();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.voicecampaign.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.voicecampaign.domain.entity.Campaign;
+import org.example.voicecampaign.domain.model.CallStatus;
+import org.example.voicecampaign.repository.CallRequestRepository;
+import org.example.voicecampaign.scheduler.strategy.SchedulingContext;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Builds the {@link SchedulingContext} for a scheduler cycle in a constant number of round trips.
+ *
+ * <p>Remaining-call counts for all campaigns are loaded with one grouped query, and the
+ * {@code active_slots} and {@code queued} counters of every campaign are read with a single MGET,
+ * regardless of how many campaigns are eligible.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SchedulingSnapshotProvider {
+
+    private final CallRequestRepository callRequestRepository;
+    private final StringRedisTemplate redisTemplate;
+
+    private static final String ACTIVE_SLOTS_KEY = "campaign:%s:active_slots";
+    private static final String CAMPAIGN_QUEUED_KEY = "campaign:%s:queued";
+    private static final List<CallStatus> REMAINING_STATUSES = List.of(CallStatus.PENDING, CallStatus.FAILED);
+
+    /**
+     * Number of Redis round trips issued by each {@link #snapshot(List, boolean)} call.
+     */
+    public static final int REDIS_COMMANDS_PER_SNAPSHOT = 1;
+
+    /**
+     * Loads remaining-call counts and slot counters for the given campaigns.
+     *
+     * @param campaigns the campaigns eligible in this cycle
+     * @param targeted  true for a targeted fill of just the campaigns that were woken up, false for a
+     *                  full cycle; passed on as {@link SchedulingContext#isTargeted()} so strategies
+     *                  keep the full cycle's turn order
+     * @return the scheduling context for the strategies
+     */
+    public SchedulingContext snapshot(List<Campaign> campaigns, boolean targeted) {
+        List<UUID> campaignIds = campaigns.stream().map(Campaign::getId).toList();
+
+        Map<UUID, Long> remainingCalls = new HashMap<>();
+        for (Object[] row : callRequestRepository.countByCampaignIdsAndStatuses(campaignIds, REMAINING_STATUSES)) {
+            remainingCalls.put((UUID) row[0], (Long) row[1]);
+        }
+
+        // One MGET for both counters: [active_0..active_n-1, queued_0..queued_n-1]
+        List<String> keys = new ArrayList<>(campaignIds.size() * 2);
+        for (UUID id : campaignIds) {
+            keys.add(String.format(ACTIVE_SLOTS_KEY, id));
+        }
+        for (UUID id : campaignIds) {
+            keys.add(String.format(CAMPAIGN_QUEUED_KEY, id));
+        }
+        List<String> values = redisTemplate.opsForValue().multiGet(keys);
+
+        Map<UUID, Integer> activeSlots = new HashMap<>();
+        Map<UUID, Integer> queuedCounts = new HashMap<>();
+        int n = campaignIds.size();
+        for (int i = 0; i < n; i++) {
+            UUID id = campaignIds.get(i);
+            activeSlots.put(id, parseCounter(values, i, keys));
+            queuedCounts.put(id, parseCounter(values, n + i, keys));
+        }
+
+        return SchedulingContext.builder()
+                .remainingCallsPerCampaign(remainingCalls)
+                .activeSlotsPerCampaign(activeSlots)
+                .queuedCountPerCampaign(queuedCounts)
+                .targeted(targeted)
+                .build();
+    }
+
+    private int parseCounter(List<String> values, int index, List<String> keys) {
+        if (values == null || values.get(index) == null) {
+            return 0;
+        }
+        try {
+            return Math.max(0, Integer.parseInt(values.get(index)));
+        } catch (NumberFormatException e) {
+            log.warn("Invalid counter value for {}: {}", keys.get(index), values.get(index));
+            return 0;
+        }
+    }
+}
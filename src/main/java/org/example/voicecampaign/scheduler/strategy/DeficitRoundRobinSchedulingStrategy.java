@@ -0,0 +1,176 @@
+package org.example.voicecampaign.scheduler.strategy;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.voicecampaign.domain.entity.Campaign;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Weighted deficit round-robin distribution strategy.
+ *
+ * <p>Each tick, every campaign with pending work earns credit proportional to its priority
+ * ({@code totalSlots * priority / sumOfPriorities}) and receives as many whole slots as its
+ * accumulated credit covers, bounded by its available capacity. Fractional and unused credit
+ * carries over to later ticks, so with more campaigns than slots every campaign still gets its
+ * weighted share over time instead of being rounded up to one slot each tick.</p>
+ *
+ * <ul>
+ *   <li>Credit is capped at the campaign's concurrency limit, so a campaign held back by its
+ *       limit is compensated once it frees up, without an unbounded burst.</li>
+ *   <li>Slots left over from rounding go to campaigns holding fractional credit, charged against
+ *       it. The scan starts from a cursor that persists across ticks and resumes where the last
+ *       tick ran out of slots, so equal campaigns take turns.</li>
+ *   <li>Capacity no campaign has credit for (e.g. the share of a campaign held back by its limit)
+ *       is handed out free of charge rather than wasted.</li>
+ *   <li>A campaign with no remaining calls forfeits its credit, as in classic DRR.</li>
+ *   <li>A {@linkplain SchedulingContext#isTargeted() targeted fill} of a few woken campaigns earns
+ *       them only their share of the total weight of the last full cycle, not the whole quantum, and
+ *       hands out no free capacity: the campaigns left out of it still have a claim on those slots.</li>
+ * </ul>
+ *
+ * <p>Allocation is three linear passes over the campaigns, O(n) per tick. Credit for campaigns that
+ * have not been scheduled for a while (completed, paused, outside business hours) is dropped.</p>
+ */
+@Component
+@Slf4j
+public class DeficitRoundRobinSchedulingStrategy implements SchedulingStrategy {
+
+    private static final long STALE_DEFICIT_NANOS = TimeUnit.MINUTES.toNanos(10);
+    private static final long PRUNE_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final double EPSILON = 1e-9;
+
+    private final Map<UUID, Deficit> deficits = new ConcurrentHashMap<>();
+    private int cursor;
+    private long fullCycleWeight;
+    private long lastPrunedAt = System.nanoTime();
+
+    @Override
+    public String getName() {
+        return "deficit-round-robin";
+    }
+
+    @Override
+    public synchronized Map<Campaign, Integer> distribute(List<Campaign> campaigns, int totalSlots,
+                                                          SchedulingContext context) {
+        Map<Campaign, Integer> allocation = new HashMap<>();
+        long now = System.nanoTime();
+        pruneStaleDeficits(now);
+
+        if (campaigns.isEmpty() || totalSlots <= 0) {
+            return allocation;
+        }
+
+        int n = campaigns.size();
+        int[] demand = new int[n];
+        Deficit[] state = new Deficit[n];
+        long totalWeight = 0;
+
+        for (int i = 0; i < n; i++) {
+            Campaign campaign = campaigns.get(i);
+            Deficit deficit = deficits.computeIfAbsent(campaign.getId(), id -> new Deficit());
+            deficit.lastSeenAt = now;
+            state[i] = deficit;
+
+            long remaining = context.getRemainingCalls(campaign);
+            if (remaining <= 0) {
+                deficit.credit = 0;
+                continue;
+            }
+            demand[i] = (int) Math.min(context.getAvailableSlots(campaign), remaining);
+            totalWeight += weight(campaign);
+        }
+
+        if (totalWeight == 0) {
+            return allocation;
+        }
+
+        if (!context.isTargeted()) {
+            fullCycleWeight = totalWeight;
+        }
+        double quantum = (double) totalSlots / Math.max(totalWeight, fullCycleWeight);
+        int start = cursor % n;
+        int nextCursor = -1;
+        int remainingSlots = totalSlots;
+
+        // Pass 1: every campaign earns credit by weight and spends whole slots of it
+        for (int k = 0; k < n; k++) {
+            int i = (start + k) % n;
+            Campaign campaign = campaigns.get(i);
+            if (context.getRemainingCalls(campaign) <= 0) {
+                continue;
+            }
+            Deficit deficit = state[i];
+            deficit.credit = Math.min(campaign.getConcurrencyLimit(), deficit.credit + quantum * weight(campaign));
+
+            int earned = (int) Math.floor(deficit.credit + EPSILON);
+            int granted = Math.min(Math.min(demand[i], remainingSlots), earned);
+            if (granted < Math.min(demand[i], earned) && nextCursor < 0) {
+                // Ran out of slots: resume here next tick
+                nextCursor = i;
+            }
+            if (granted > 0) {
+                deficit.credit -= granted;
+                demand[i] -= granted;
+                remainingSlots -= granted;
+                allocation.put(campaign, granted);
+            }
+        }
+
+        // Pass 2: slots left over from rounding go one each to campaigns holding fractional credit
+        for (int k = 0; k < n && remainingSlots > 0; k++) {
+            int i = (start + k) % n;
+            if (demand[i] > 0 && state[i].credit > EPSILON) {
+                state[i].credit -= 1;
+                demand[i]--;
+                remainingSlots--;
+                allocation.merge(campaigns.get(i), 1, Integer::sum);
+                nextCursor = i + 1;
+            }
+        }
+
+        // Pass 3: capacity no one has credit for (e.g. the share of capped campaigns) is handed out
+        // free of charge, so it is not wasted and does not count against anyone's share
+        for (int k = 0; k < n && remainingSlots > 0 && !context.isTargeted(); k++) {
+            int i = (start + k) % n;
+            if (demand[i] > 0) {
+                int granted = Math.min(demand[i], remainingSlots);
+                remainingSlots -= granted;
+                allocation.merge(campaigns.get(i), granted, Integer::sum);
+                nextCursor = i + 1;
+            }
+        }
+
+        // A targeted fill sees only part of the campaigns, so the turn order is the full cycle's
+        if (!context.isTargeted()) {
+            cursor = nextCursor >= 0 ? nextCursor % n : start;
+        }
+
+        log.debug("DeficitRoundRobin: distributed {} of {} slots across {} campaigns",
+                totalSlots - remainingSlots, totalSlots, allocation.size());
+
+        return allocation;
+    }
+
+    private void pruneStaleDeficits(long now) {
+        if (now - lastPrunedAt < PRUNE_INTERVAL_NANOS) {
+            return;
+        }
+        lastPrunedAt = now;
+        deficits.values().removeIf(deficit -> now - deficit.lastSeenAt > STALE_DEFICIT_NANOS);
+    }
+
+    private static int weight(Campaign campaign) {
+        return Math.max(1, campaign.getPriority());
+    }
+
+    private static final class Deficit {
+        private double credit;
+        private long lastSeenAt;
+    }
+}
@@ -18,6 +18,12 @@ public class SchedulingContext {
     private final Map<UUID, Integer> activeSlotsPerCampaign;
     private final Map<UUID, Integer> queuedCountPerCampaign;
 
+    /**
+     * True for a targeted fill of just the campaigns that were woken up, false for a full cycle over
+     * every schedulable campaign.
+     */
+    private final boolean targeted;
+
     public long getRemainingCalls(Campaign campaign) {
         return remainingCallsPerCampaign.getOrDefault(campaign.getId(), 0L);
     }
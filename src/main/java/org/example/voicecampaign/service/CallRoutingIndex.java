@@ -0,0 +1,149 @@
+package org.example.voicecampaign.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Redis index from a provider's external call ID to the call it belongs to, so a callback can be
+ * applied with a primary-key update instead of a lookup by external ID.
+ *
+ * <p>An entry {@code call:route:{externalCallId}} holds {@code callRequestId:campaignId:attempt},
+ * where the attempt is the call's retry count when it was dialed. Entries are written once the call
+ * is saved as IN_PROGRESS, expire after {@code ttl-ms} and are removed once their callback is
+ * applied. The index is a shortcut, not the source of truth: a missing entry (Redis restart, expiry,
+ * a callback racing the save) only sends the callback down the lookup path, and every update it
+ * routes re-checks the row's status and external ID.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CallRoutingIndex {
+
+    private static final String ROUTE_KEY = "call:route:%s";
+
+    /**
+     * Sets every KEYS[i] to ARGV[i], expiring after ARGV[#KEYS + 1] milliseconds.
+     */
+    private static final RedisScript<Long> PUT_SCRIPT = new DefaultRedisScript<>("""
+            local ttl = ARGV[#KEYS + 1]
+            for i = 1, #KEYS do
+                redis.call('SET', KEYS[i], ARGV[i], 'PX', ttl)
+            end
+            return #KEYS
+            """, Long.class);
+
+    /**
+     * Where a dialed call's callback goes.
+     *
+     * @param attempt the call's retry count when it was dialed
+     */
+    public record CallRoute(UUID callRequestId, UUID campaignId, int attempt) {
+    }
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${voice-campaign.callbacks.routing-index.enabled:false}")
+    private boolean enabled;
+
+    @Value("${voice-campaign.callbacks.routing-index.ttl-ms:3600000}")
+    private long ttlMs;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Indexes dialed calls by external call ID, in one round trip.
+     */
+    public void put(Map<String, CallRoute> routes) {
+        if (!enabled || routes.isEmpty()) {
+            return;
+        }
+        List<String> keys = new ArrayList<>(routes.size());
+        List<String> values = new ArrayList<>(routes.size() + 1);
+        routes.forEach((externalCallId, route) -> {
+            keys.add(key(externalCallId));
+            values.add(route.callRequestId() + ":" + route.campaignId() + ":" + route.attempt());
+        });
+        values.add(String.valueOf(ttlMs));
+        try {
+            redisTemplate.execute(PUT_SCRIPT, keys, values.toArray());
+        } catch (Exception e) {
+            // Their callbacks take the lookup path instead
+            log.warn("Failed to index {} dialed calls: {}", routes.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the indexed routes of the given external call IDs; IDs without an entry are absent.
+     */
+    public Map<String, CallRoute> get(Collection<String> externalCallIds) {
+        if (!enabled || externalCallIds.isEmpty()) {
+            return Map.of();
+        }
+        List<String> ids = List.copyOf(externalCallIds);
+        List<String> values;
+        try {
+            values = redisTemplate.opsForValue().multiGet(ids.stream().map(CallRoutingIndex::key).toList());
+        } catch (Exception e) {
+            log.warn("Failed to read call routes, falling back to lookups: {}", e.getMessage());
+            return Map.of();
+        }
+        Map<String, CallRoute> routes = new HashMap<>();
+        for (int i = 0; values != null && i < ids.size(); i++) {
+            CallRoute route = parse(values.get(i));
+            if (route != null) {
+                routes.put(ids.get(i), route);
+            }
+        }
+        return routes;
+    }
+
+    /**
+     * Drops the entries of callbacks that have been applied.
+     */
+    public void remove(Collection<String> externalCallIds) {
+        if (!enabled || externalCallIds.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.delete(externalCallIds.stream().map(CallRoutingIndex::key).toList());
+        } catch (Exception e) {
+            // Left to expire
+            log.debug("Failed to remove {} call routes: {}", externalCallIds.size(), e.getMessage());
+        }
+    }
+
+    private static String key(String externalCallId) {
+        return String.format(ROUTE_KEY, externalCallId);
+    }
+
+    private static CallRoute parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        String[] parts = value.split(":");
+        if (parts.length != 3) {
+            log.warn("Invalid call route: {}", value);
+            return null;
+        }
+        try {
+            return new CallRoute(UUID.fromString(parts[0]), UUID.fromString(parts[1]), Integer.parseInt(parts[2]));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid call route: {}", value);
+            return null;
+        }
+    }
+}
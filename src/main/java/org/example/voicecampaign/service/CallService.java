@@ -4,29 +4,76 @@ import lombok.extern.slf4j.Slf4j;
 import org.example.voicecampaign.domain.entity.CallRequest;
 import org.example.voicecampaign.domain.entity.Campaign;
 import org.example.voicecampaign.domain.model.CallStatus;
+import org.example.voicecampaign.domain.model.CampaignSnapshot;
 import org.example.voicecampaign.domain.model.CampaignStatus;
 import org.example.voicecampaign.dto.CallResponse;
 import org.example.voicecampaign.dto.CallbackRequest;
+import org.example.voicecampaign.repository.CallRequestBatchRepository;
 import org.example.voicecampaign.repository.CallRequestRepository;
 import org.example.voicecampaign.repository.CampaignRepository;
+import org.example.voicecampaign.scheduler.CallDeadlineTimer;
+import org.example.voicecampaign.scheduler.CallDeadlineTimer.Deadline;
+import org.example.voicecampaign.scheduler.DelayedRetryQueue;
+import org.example.voicecampaign.scheduler.SchedulerWakeup;
+import org.example.voicecampaign.service.CallRoutingIndex.CallRoute;
+import org.example.voicecampaign.telephony.CallInitiation;
+import org.example.voicecampaign.telephony.RouteUnavailableException;
+import org.example.voicecampaign.worker.AdaptiveConcurrencyLimiter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.example.voicecampaign.exception.CallNotFoundException;
+import org.example.voicecampaign.exception.CampaignNotFoundException;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class CallService {
 
+    private static final String CALLBACK_TIMEOUT_REASON = "Callback timeout - no response from telephony provider";
+
+    /**
+     * An IN_PROGRESS call whose callback deadline has passed, or a DIALING one without an external
+     * call ID whose worker never saved its initiation.
+     */
+    public record TimedOutCall(UUID callRequestId, String externalCallId, int retryCount) {
+    }
+
     private final CallRequestRepository callRequestRepository;
     private final CampaignRepository campaignRepository;
     private final CampaignMetricsService metricsService;
     private final TelephonyService telephonyService;
+    private final SchedulerWakeup schedulerWakeup;
+    private final DelayedRetryQueue delayedRetryQueue;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final CampaignSnapshotCache campaignSnapshots;
+    private final TelephonyRouteGuards routeGuards;
+    private final CallRoutingIndex routingIndex;
+    private final CallDeadlineTimer deadlineTimer;
+    // Completion found after a commit must run in a transaction of its own
+    private final TransactionTemplate completionTransaction;
 
     @Value("${voice-campaign.defaults.callback-timeout-ms:120000}")
     private long defaultCallbackTimeoutMs;
@@ -35,11 +82,28 @@ public class CallService {
             CallRequestRepository callRequestRepository,
             CampaignRepository campaignRepository,
             CampaignMetricsService metricsService,
-            @Lazy TelephonyService telephonyService) {
+            @Lazy TelephonyService telephonyService,
+            SchedulerWakeup schedulerWakeup,
+            DelayedRetryQueue delayedRetryQueue,
+            AdaptiveConcurrencyLimiter concurrencyLimiter,
+            CampaignSnapshotCache campaignSnapshots,
+            TelephonyRouteGuards routeGuards,
+            CallRoutingIndex routingIndex,
+            CallDeadlineTimer deadlineTimer,
+            PlatformTransactionManager transactionManager) {
         this.callRequestRepository = callRequestRepository;
         this.campaignRepository = campaignRepository;
         this.metricsService = metricsService;
         this.telephonyService = telephonyService;
+        this.schedulerWakeup = schedulerWakeup;
+        this.delayedRetryQueue = delayedRetryQueue;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.campaignSnapshots = campaignSnapshots;
+        this.routeGuards = routeGuards;
+        this.routingIndex = routingIndex;
+        this.deadlineTimer = deadlineTimer;
+        this.completionTransaction = new TransactionTemplate(transactionManager);
+        this.completionTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     @Transactional
@@ -52,81 +116,239 @@ public class CallService {
                 .build();
         campaign = campaignRepository.save(campaign);
 
+        // Dialed right away rather than dequeued, so it is created already claimed
         CallRequest callRequest = CallRequest.builder()
                 .campaign(campaign)
                 .phoneNumber(phoneNumber)
-                .status(CallStatus.PENDING)
+                .status(CallStatus.DIALING)
+                .expectedCallbackBy(Instant.now().plusMillis(defaultCallbackTimeoutMs))
                 .build();
         callRequest = callRequestRepository.save(callRequest);
-
-        // Trigger the call
-        executeCall(callRequest);
+        metricsService.addOutstanding(campaign.getId(), 1);
+
+        // Trigger the call once committed: its outcome is saved from another thread
+        CallRequest created = callRequest;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                executeCall(created);
+            }
+        });
 
         return mapToCallResponse(callRequest);
     }
 
-    public void executeCall(CallRequest callRequest) {
-        Campaign campaign = callRequest.getCampaign();
-        long callbackTimeoutMs = campaign.getRetryConfig() != null 
-                ? campaign.getRetryConfig().getCallbackTimeoutMs() 
-                : defaultCallbackTimeoutMs;
+    /**
+     * Claims dequeued calls for dialing, moving them from SCHEDULED to DIALING with one guarded UPDATE
+     * each in a single batch. Only claimed calls may be dialed: a call dequeued twice, such as a queue
+     * entry redelivered while its first delivery is still being dialed, is claimed by one worker at
+     * most. A claimed call that never reaches IN_PROGRESS is failed by the watchdog at its callback
+     * deadline.
+     *
+     * @param callRequests the dequeued calls
+     * @param campaigns    snapshots of their campaigns by campaign ID
+     * @return IDs of the calls claimed
+     */
+    public Set<UUID> claimForDialing(List<CallRequest> callRequests, Map<UUID, CampaignSnapshot> campaigns) {
+        Instant now = Instant.now();
+        Map<UUID, Instant> deadlines = new HashMap<>();
+        for (CallRequest callRequest : callRequests) {
+            CampaignSnapshot campaign = campaigns.get(callRequest.getCampaign().getId());
+            deadlines.put(callRequest.getId(), now.plusMillis(callbackTimeoutMs(campaign)));
+        }
+        return callRequestRepository.markDialing(deadlines);
+    }
 
-        String externalCallId = null;
+    public CompletionStage<Void> executeCall(CallRequest callRequest) {
+        UUID campaignId = callRequest.getCampaign().getId();
+        return executeCall(callRequest, campaignSnapshots.get(campaignId)
+                .orElseThrow(() -> new CampaignNotFoundException(campaignId)));
+    }
+
+    /**
+     * Initiates a call claimed with {@link #claimForDialing} using an already resolved snapshot of its
+     * campaign, so the campaign is not loaded again.
+     *
+     * <p>Returns once the initiation is in flight. The returned stage completes after the call is
+     * saved as IN_PROGRESS, or its failure handled, on a telephony completion thread; it completes
+     * exceptionally only if that handling failed.</p>
+     */
+    public CompletionStage<Void> executeCall(CallRequest callRequest, CampaignSnapshot campaign) {
+        long initiateStart = System.nanoTime();
+        CompletionStage<String> initiation;
         try {
-            externalCallId = telephonyService.initiateCall(
-                    callRequest.getPhoneNumber(), 
-                    callRequest.getId()
-            );
+            initiation = telephonyService.initiateCall(callRequest.getPhoneNumber(), callRequest.getId());
+        } catch (Exception e) {
+            initiation = CompletableFuture.failedFuture(e);
+        }
 
+        return initiation.handle((externalCallId, error) -> {
+            concurrencyLimiter.recordLatency(System.nanoTime() - initiateStart);
+            if (error != null) {
+                handleInitiationFailure(callRequest.getId(), campaign.id(), error);
+                return null;
+            }
             // Save the external call ID immediately in a separate transaction
             // to ensure it's committed before any callback arrives
-            saveCallInProgress(callRequest.getId(), externalCallId, callbackTimeoutMs);
+            saveCallsInProgress(
+                    List.of(new CallRequestBatchRepository.InitiatedCall(callRequest.getId(), externalCallId,
+                            Instant.now().plusMillis(callbackTimeoutMs(campaign)))),
+                    Map.of(callRequest.getId(),
+                            new CallRoute(callRequest.getId(), campaign.id(), callRequest.getRetryCount())));
+            return null;
+        });
+    }
 
-            log.info("Call initiated: {} -> external: {}", callRequest.getId(), externalCallId);
+    /**
+     * Initiates several calls with one batch request to the provider, like {@link #executeCall} for
+     * each, and saves the accepted ones as IN_PROGRESS with a single batched UPDATE.
+     *
+     * @param callRequests the calls, all claimed with {@link #claimForDialing}
+     * @param campaigns    snapshots of their campaigns by campaign ID
+     * @return a stage completing once every call is saved or its failure handled
+     */
+    public CompletionStage<Void> executeCalls(List<CallRequest> callRequests, Map<UUID, CampaignSnapshot> campaigns) {
+        if (callRequests.size() == 1) {
+            CallRequest callRequest = callRequests.get(0);
+            return executeCall(callRequest, campaigns.get(callRequest.getCampaign().getId()));
+        }
+
+        long initiateStart = System.nanoTime();
+        List<CallInitiation> initiations = callRequests.stream()
+                .map(callRequest -> new CallInitiation(callRequest.getId(), callRequest.getPhoneNumber()))
+                .toList();
+        List<CompletableFuture<String>> results;
+        try {
+            results = telephonyService.initiateCalls(initiations).stream()
+                    .map(CompletionStage::toCompletableFuture)
+                    .toList();
+        } catch (Exception e) {
+            results = callRequests.stream()
+                    .<CompletableFuture<String>>map(callRequest -> CompletableFuture.failedFuture(e))
+                    .toList();
+        }
+
+        List<CompletableFuture<String>> outcomes = results;
+        return CompletableFuture.allOf(outcomes.toArray(CompletableFuture[]::new)).handle((ignored, batchError) -> {
+            long latency = System.nanoTime() - initiateStart;
+            Instant now = Instant.now();
+            List<CallRequestBatchRepository.InitiatedCall> accepted = new ArrayList<>(callRequests.size());
+            Map<UUID, CallRoute> routes = new HashMap<>();
+            RuntimeException handlingError = null;
+            for (int i = 0; i < callRequests.size(); i++) {
+                CallRequest callRequest = callRequests.get(i);
+                CampaignSnapshot campaign = campaigns.get(callRequest.getCampaign().getId());
+                concurrencyLimiter.recordLatency(latency);
+                try {
+                    String externalCallId = outcomes.get(i).join();
+                    accepted.add(new CallRequestBatchRepository.InitiatedCall(
+                            callRequest.getId(), externalCallId, now.plusMillis(callbackTimeoutMs(campaign))));
+                    routes.put(callRequest.getId(),
+                            new CallRoute(callRequest.getId(), campaign.id(), callRequest.getRetryCount()));
+                } catch (CompletionException e) {
+                    Throwable error = e.getCause() != null ? e.getCause() : e;
+                    try {
+                        handleInitiationFailure(callRequest.getId(), campaign.id(), error);
+                    } catch (RuntimeException handling) {
+                        // Accepted calls of the batch must still be saved
+                        handlingError = handling;
+                    }
+                }
+            }
+            saveCallsInProgress(accepted, routes);
+            if (handlingError != null) {
+                throw handlingError;
+            }
+            return null;
+        });
+    }
 
+    /**
+     * Saves initiated calls with one batched UPDATE and indexes the saved ones for their callbacks.
+     * A call that could not be saved stays DIALING and keeps its slot, since it may well be ringing,
+     * until the watchdog fails it at its callback deadline.
+     */
+    private void saveCallsInProgress(List<CallRequestBatchRepository.InitiatedCall> accepted, Map<UUID, CallRoute> routes) {
+        if (accepted.isEmpty()) {
+            return;
+        }
+        Set<UUID> saved;
+        try {
+            saved = callRequestRepository.markInProgress(accepted);
         } catch (Exception e) {
-            log.error("Failed to initiate call {}: {}", callRequest.getId(), e.getMessage());
-            // If call was initiated but saveCallInProgress failed, we still need to handle it
-            // The callback will arrive but we need to release the slot now
-            if (externalCallId != null) {
-                log.error("Call was initiated (external: {}) but failed to save state - releasing slot", externalCallId);
-                metricsService.releaseSlot(campaign.getId());
+            log.error("Failed to save {} initiated calls: {}", accepted.size(), e.getMessage());
+            saved = Set.of();
+        }
+        Map<String, CallRoute> savedRoutes = new HashMap<>();
+        Map<Deadline, Instant> deadlines = new HashMap<>();
+        for (CallRequestBatchRepository.InitiatedCall call : accepted) {
+            CallRoute route = routes.get(call.callRequestId());
+            if (saved.contains(call.callRequestId())) {
+                log.info("Call initiated: {} -> external: {}", call.callRequestId(), call.externalCallId());
+                savedRoutes.put(call.externalCallId(), route);
+                deadlines.put(new Deadline(call.callRequestId(), route.campaignId(), route.attempt(), call.externalCallId()),
+                        call.expectedCallbackBy());
             } else {
-                // Call initiation failed - handle as sync failure (which releases slot)
-                handleSyncFailure(callRequest.getId(), campaign.getId(), e.getMessage());
+                log.error("Call {} was initiated (external: {}) but could not be saved as IN_PROGRESS - "
+                        + "left to the watchdog", call.callRequestId(), call.externalCallId());
             }
         }
+        routingIndex.put(savedRoutes);
+        deadlineTimer.arm(deadlines);
+    }
+
+    private long callbackTimeoutMs(CampaignSnapshot campaign) {
+        return campaign.callbackTimeoutMs() > 0 ? campaign.callbackTimeoutMs() : defaultCallbackTimeoutMs;
+    }
+
+    private void handleInitiationFailure(UUID callRequestId, UUID campaignId, Throwable error) {
+        if (error instanceof RouteUnavailableException unavailable) {
+            // Never attempted: postpone without spending a retry (releases slot)
+            log.warn("Call {} deferred: {}", callRequestId, error.getMessage());
+            deferCall(callRequestId, campaignId, unavailable.getMessage());
+            return;
+        }
+        log.error("Failed to initiate call {}: {}", callRequestId, error.getMessage());
+        // Call initiation failed - handle as sync failure (which releases slot)
+        handleSyncFailure(callRequestId, campaignId, error.getMessage());
     }
 
+    /**
+     * Returns a call refused by its telephony route to PENDING until the route may have recovered,
+     * without counting an attempt or a failure.
+     */
     @Transactional
-    public void saveCallInProgress(UUID callRequestId, String externalCallId, long callbackTimeoutMs) {
+    public void deferCall(UUID callRequestId, UUID campaignId, String reason) {
         CallRequest callRequest = callRequestRepository.findById(callRequestId)
                 .orElseThrow(() -> new CallNotFoundException(callRequestId));
-        Instant expectedCallbackBy = Instant.now().plusMillis(callbackTimeoutMs);
-        callRequest.markInProgress(externalCallId, expectedCallbackBy);
+        Instant nextRetryAt = routeGuards.deferUntil();
+        callRequest.markDeferred(reason, nextRetryAt);
+        delayedRetryQueue.schedule(campaignId, callRequestId, nextRetryAt);
+        afterCommit(() -> schedulerWakeup.signalAt(campaignId, nextRetryAt));
+
+        metricsService.releaseSlot(campaignId);
         callRequestRepository.save(callRequest);
     }
 
     @Transactional
     public void handleSyncFailure(UUID callRequestId, UUID campaignId, String reason) {
         // Re-fetch entity to ensure it's attached to the current persistence context
-        CallRequest callRequest = callRequestRepository.findByIdWithCampaign(callRequestId)
+        CallRequest callRequest = callRequestRepository.findById(callRequestId)
                 .orElseThrow(() -> new CallNotFoundException(callRequestId));
-        Campaign campaign = callRequest.getCampaign();
-        
-        int maxRetries = campaign.getRetryConfig() != null 
-                ? campaign.getRetryConfig().getMaxRetries() 
-                : 3;
+        CampaignSnapshot campaign = campaignSnapshots.get(campaignId)
+                .orElseThrow(() -> new CampaignNotFoundException(campaignId));
 
-        if (callRequest.getRetryCount() < maxRetries) {
+        if (callRequest.getRetryCount() < campaign.maxRetries()) {
             // Calculate exponential backoff for sync failures
-            long backoffMs = campaign.getRetryConfig() != null
-                    ? campaign.getRetryConfig().calculateSyncBackoff(callRequest.getRetryCount() + 1)
-                    : 1000L * (long) Math.pow(2, callRequest.getRetryCount());
+            long backoffMs = campaign.calculateSyncBackoff(callRequest.getRetryCount() + 1);
 
             Instant nextRetryAt = Instant.now().plusMillis(backoffMs);
             callRequest.markFailed(reason, nextRetryAt);
-            metricsService.incrementMetric(campaign.getId(), "retries");
+            delayedRetryQueue.schedule(campaignId, callRequest.getId(), nextRetryAt);
+            afterCommit(() -> {
+                metricsService.incrementMetric(campaignId, "retries");
+                schedulerWakeup.signalAt(campaignId, nextRetryAt);
+            });
             log.info("Call {} scheduled for retry at {} (attempt {})", 
                     callRequest.getId(), nextRetryAt, callRequest.getRetryCount());
         } else {
@@ -137,6 +359,9 @@ public class CallService {
 
         metricsService.releaseSlot(campaignId);
         callRequestRepository.save(callRequest);
+        if (isFinished(callRequest.getStatus())) {
+            callsFinished(campaignId, 1);
+        }
     }
 
     @Transactional
@@ -144,6 +369,26 @@ public class CallService {
         log.info("Received callback for external call: {} with status: {}", 
                 callback.getExternalCallId(), callback.getStatus());
 
+        String externalCallId = callback.getExternalCallId();
+        CallbackEffects effects = new CallbackEffects();
+        afterCommit(effects::apply);
+        CallRoute route = routingIndex.get(List.of(externalCallId)).get(externalCallId);
+        if (route != null) {
+            CallStatus status = applyRoutedCallback(route, callback, effects);
+            if (status != null) {
+                metricsService.releaseSlot(route.campaignId());
+                Deadline deadline = new Deadline(route.callRequestId(), route.campaignId(), route.attempt(), externalCallId);
+                afterCommit(() -> {
+                    routingIndex.remove(List.of(externalCallId));
+                    deadlineTimer.disarm(List.of(deadline));
+                });
+                if (isFinished(status)) {
+                    callsFinished(route.campaignId(), 1);
+                }
+            }
+            return;
+        }
+
         Optional<CallRequest> optionalCallRequest = callRequestRepository
                 .findByExternalCallId(callback.getExternalCallId());
 
@@ -155,7 +400,8 @@ public class CallService {
         }
 
         CallRequest callRequest = optionalCallRequest.get();
-        Campaign campaign = callRequest.getCampaign();
+        // The campaign proxy is never initialized: its ID is known, the rest comes from the snapshot
+        UUID campaignId = callRequest.getCampaign().getId();
 
         if (callRequest.getStatus() != CallStatus.IN_PROGRESS) {
             log.warn("Callback received for call {} in unexpected status: {} - slot may already be released", 
@@ -164,48 +410,249 @@ public class CallService {
             return;
         }
 
+        Deadline deadline = new Deadline(callRequest.getId(), campaignId, callRequest.getRetryCount(), externalCallId);
         try {
-            switch (callback.getStatus()) {
-                case COMPLETED -> handleCallCompleted(callRequest, callback.getDurationSeconds());
-                case FAILED, NO_ANSWER, BUSY, REJECTED -> 
-                        handleCallFailed(callRequest, callback.getFailureReason());
-            }
+            applyCallback(callRequest, campaignId, callback, effects);
         } finally {
             // Always release the slot when processing a callback for an IN_PROGRESS call
-            metricsService.releaseSlot(campaign.getId());
+            metricsService.releaseSlot(campaignId);
+        }
+        afterCommit(() -> deadlineTimer.disarm(List.of(deadline)));
+
+        if (isFinished(callRequest.getStatus())) {
+            callsFinished(campaignId, 1);
+        }
+    }
+
+    /**
+     * Applies a batch of callbacks in one transaction: calls found in the {@link CallRoutingIndex}
+     * are updated by primary key, the others loaded with one query, and the freed slots and finished
+     * calls are counted off per campaign after commit, together with the metrics, retry timers and
+     * scheduler wake-ups of the applied callbacks, so a batch that rolls back and is replayed
+     * counts each callback once. Callbacks are
+     * otherwise handled like {@link #handleCallback}; one that cannot be applied is logged and skipped.
+     */
+    @Transactional
+    public void handleCallbacks(List<CallbackRequest> callbacks) {
+        Map<String, CallRoute> routes = routingIndex.get(
+                callbacks.stream().map(CallbackRequest::getExternalCallId).collect(Collectors.toSet()));
+
+        Map<UUID, Integer> freedSlots = new LinkedHashMap<>();
+        Map<UUID, Integer> finished = new LinkedHashMap<>();
+        List<String> routed = new ArrayList<>();
+        List<Deadline> answered = new ArrayList<>();
+        List<CallbackRequest> unrouted = new ArrayList<>();
+        CallbackEffects effects = new CallbackEffects();
+        for (CallbackRequest callback : callbacks) {
+            CallRoute route = routes.get(callback.getExternalCallId());
+            if (route == null) {
+                unrouted.add(callback);
+                continue;
+            }
+            try {
+                CallStatus status = applyRoutedCallback(route, callback, effects);
+                if (status != null) {
+                    freedSlots.merge(route.campaignId(), 1, Integer::sum);
+                    routed.add(callback.getExternalCallId());
+                    answered.add(new Deadline(route.callRequestId(), route.campaignId(), route.attempt(),
+                            callback.getExternalCallId()));
+                    if (isFinished(status)) {
+                        finished.merge(route.campaignId(), 1, Integer::sum);
+                    }
+                }
+            } catch (RuntimeException e) {
+                log.error("Failed to apply callback for call {}: {}", route.callRequestId(), e.getMessage());
+            }
         }
 
-        // Check if campaign is complete
-        checkCampaignCompletion(campaign);
+        Map<String, CallRequest> callRequests = unrouted.isEmpty() ? Map.of() : callRequestRepository.findByExternalCallIdIn(
+                        unrouted.stream().map(CallbackRequest::getExternalCallId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(CallRequest::getExternalCallId, Function.identity(), (first, second) -> first));
+        for (CallbackRequest callback : unrouted) {
+            CallRequest callRequest = callRequests.get(callback.getExternalCallId());
+            if (callRequest == null) {
+                log.warn("No call request found for external call ID: {}", callback.getExternalCallId());
+                continue;
+            }
+            UUID campaignId = callRequest.getCampaign().getId();
+            // Also drops a repeated callback of the same batch: the first one moved the call on
+            if (callRequest.getStatus() != CallStatus.IN_PROGRESS) {
+                log.warn("Callback received for call {} in unexpected status: {} - slot may already be released",
+                        callRequest.getId(), callRequest.getStatus());
+                continue;
+            }
+            freedSlots.merge(campaignId, 1, Integer::sum);
+            answered.add(new Deadline(callRequest.getId(), campaignId, callRequest.getRetryCount(),
+                    callback.getExternalCallId()));
+            try {
+                applyCallback(callRequest, campaignId, callback, effects);
+            } catch (RuntimeException e) {
+                log.error("Failed to apply callback for call {}: {}", callRequest.getId(), e.getMessage());
+            }
+            if (isFinished(callRequest.getStatus())) {
+                finished.merge(campaignId, 1, Integer::sum);
+            }
+        }
+
+        // Slots are freed only once the batch is committed, so a failed batch can be replayed
+        afterCommit(() -> {
+            freedSlots.forEach(metricsService::releaseSlots);
+            routingIndex.remove(routed);
+            deadlineTimer.disarm(answered);
+            effects.apply();
+        });
+        finished.forEach(this::callsFinished);
     }
 
-    private void handleCallCompleted(CallRequest callRequest, Integer durationSeconds) {
+    /**
+     * Fails timed-out calls of one campaign as if a failed callback had arrived for each: calls with
+     * retries left are failed for a retry in one UPDATE, the others permanently in another, and the
+     * slots of both are released in one step after commit. The updates re-check that each call is
+     * still IN_PROGRESS (or DIALING) past its deadline, so a callback that arrives meanwhile wins.
+     *
+     * @return the number of calls failed
+     */
+    @Transactional
+    public int handleTimedOutCalls(UUID campaignId, List<TimedOutCall> calls, Instant now) {
+        CampaignSnapshot campaign = campaignSnapshots.get(campaignId)
+                .orElseThrow(() -> new CampaignNotFoundException(campaignId));
+
+        List<UUID> retryIds = new ArrayList<>();
+        List<UUID> exhaustedIds = new ArrayList<>();
+        for (TimedOutCall call : calls) {
+            (call.retryCount() < campaign.maxRetries() ? retryIds : exhaustedIds).add(call.callRequestId());
+        }
+
+        // Fixed delay, as for callback-triggered retries
+        Instant nextRetryAt = now.plusMillis(campaign.callbackRetryDelayMs());
+        int retried = retryIds.isEmpty() ? 0 : callRequestRepository.failTimedOut(
+                retryIds, campaign.maxRetries(), CALLBACK_TIMEOUT_REASON, nextRetryAt, now);
+        int failed = exhaustedIds.isEmpty() ? 0 : callRequestRepository.failPermanentlyTimedOut(
+                exhaustedIds, campaign.maxRetries(), CALLBACK_TIMEOUT_REASON, now);
+
+        if (retried > 0) {
+            // Entries of calls a callback got to first are dropped when claimed
+            delayedRetryQueue.schedule(campaignId, retryIds, nextRetryAt);
+        }
+        if (failed > 0) {
+            callsFinished(campaignId, failed);
+        }
+
+        int released = retried + failed;
+        List<TimedOutCall> initiated = calls.stream().filter(call -> call.externalCallId() != null).toList();
+        List<String> externalCallIds = initiated.stream().map(TimedOutCall::externalCallId).toList();
+        List<Deadline> deadlines = initiated.stream()
+                .map(call -> new Deadline(call.callRequestId(), campaignId, call.retryCount(), call.externalCallId()))
+                .toList();
+        afterCommit(() -> {
+            metricsService.releaseSlots(campaignId, released);
+            routingIndex.remove(externalCallIds);
+            deadlineTimer.disarm(deadlines);
+            if (retried > 0) {
+                metricsService.incrementMetric(campaignId, "retries", retried);
+                schedulerWakeup.signalAt(campaignId, nextRetryAt);
+            }
+            if (failed > 0) {
+                metricsService.incrementMetric(campaignId, "permanently_failed", failed);
+            }
+        });
+        if (released > 0) {
+            log.warn("{} calls of campaign {} timed out waiting for a callback: {} to retry at {}, {} permanently failed",
+                    released, campaignId, retried, nextRetryAt, failed);
+        }
+        return released;
+    }
+
+    /**
+     * Applies a callback to an indexed call with a primary-key update guarded on the call still
+     * being IN_PROGRESS for this external call, without loading it. Effects outside the database
+     * are left to {@code effects}.
+     *
+     * @return the status the call was moved to, freeing its slot, or null if it was not moved
+     */
+    private CallStatus applyRoutedCallback(CallRoute route, CallbackRequest callback, CallbackEffects effects) {
+        UUID callRequestId = route.callRequestId();
+        UUID campaignId = route.campaignId();
+        String externalCallId = callback.getExternalCallId();
+        Instant now = Instant.now();
+        int updated;
+        CallStatus status;
+        switch (callback.getStatus()) {
+            case COMPLETED -> {
+                status = CallStatus.COMPLETED;
+                updated = callRequestRepository.completeInProgress(
+                        callRequestId, externalCallId, callback.getDurationSeconds(), now);
+                if (updated > 0) {
+                    effects.count(campaignId, "completed");
+                    log.info("Call {} completed with duration {}s", callRequestId, callback.getDurationSeconds());
+                }
+            }
+            default -> {
+                CampaignSnapshot campaign = campaignSnapshots.get(campaignId)
+                        .orElseThrow(() -> new CampaignNotFoundException(campaignId));
+                String reason = callback.getFailureReason();
+                // The retry count cannot change while the call is IN_PROGRESS
+                if (route.attempt() < campaign.maxRetries()) {
+                    // Fixed delay for callback-triggered retries
+                    Instant nextRetryAt = now.plusMillis(campaign.callbackRetryDelayMs());
+                    status = CallStatus.FAILED;
+                    updated = callRequestRepository.failInProgress(callRequestId, externalCallId, reason, nextRetryAt, now);
+                    if (updated > 0) {
+                        effects.count(campaignId, "retries");
+                        effects.retry(campaignId, callRequestId, nextRetryAt);
+                        log.info("Call {} failed, scheduled for retry at {} (attempt {})",
+                                callRequestId, nextRetryAt, route.attempt() + 1);
+                    }
+                } else {
+                    status = CallStatus.PERMANENTLY_FAILED;
+                    updated = callRequestRepository.failPermanentlyInProgress(callRequestId, externalCallId, reason, now);
+                    if (updated > 0) {
+                        effects.count(campaignId, "permanently_failed");
+                        log.warn("Call {} permanently failed after {} retries: {}", callRequestId, route.attempt(), reason);
+                    }
+                }
+            }
+        }
+        if (updated == 0) {
+            log.warn("Callback received for call {} that is no longer IN_PROGRESS - slot may already be released",
+                    callRequestId);
+        }
+        return updated > 0 ? status : null;
+    }
+
+    private void applyCallback(CallRequest callRequest, UUID campaignId, CallbackRequest callback,
+                               CallbackEffects effects) {
+        switch (callback.getStatus()) {
+            case COMPLETED -> handleCallCompleted(callRequest, campaignId, callback.getDurationSeconds(), effects);
+            case FAILED, NO_ANSWER, BUSY, REJECTED ->
+                    handleCallFailed(callRequest, campaignId, callback.getFailureReason(), effects);
+        }
+    }
+
+    private void handleCallCompleted(CallRequest callRequest, UUID campaignId, Integer durationSeconds,
+                                     CallbackEffects effects) {
         callRequest.markCompleted(durationSeconds);
         callRequestRepository.save(callRequest);
-        metricsService.incrementMetric(callRequest.getCampaign().getId(), "completed");
+        effects.count(campaignId, "completed");
         log.info("Call {} completed with duration {}s", callRequest.getId(), durationSeconds);
     }
 
-    private void handleCallFailed(CallRequest callRequest, String reason) {
-        Campaign campaign = callRequest.getCampaign();
-        int maxRetries = campaign.getRetryConfig() != null 
-                ? campaign.getRetryConfig().getMaxRetries() 
-                : 3;
+    private void handleCallFailed(CallRequest callRequest, UUID campaignId, String reason, CallbackEffects effects) {
+        CampaignSnapshot campaign = campaignSnapshots.get(campaignId)
+                .orElseThrow(() -> new CampaignNotFoundException(campaignId));
 
-        if (callRequest.getRetryCount() < maxRetries) {
+        if (callRequest.getRetryCount() < campaign.maxRetries()) {
             // Fixed delay for callback-triggered retries
-            long retryDelayMs = campaign.getRetryConfig() != null
-                    ? campaign.getRetryConfig().getCallbackRetryDelayMs()
-                    : 30000L;
-
-            Instant nextRetryAt = Instant.now().plusMillis(retryDelayMs);
+            Instant nextRetryAt = Instant.now().plusMillis(campaign.callbackRetryDelayMs());
             callRequest.markFailed(reason, nextRetryAt);
-            metricsService.incrementMetric(campaign.getId(), "retries");
+            effects.count(campaignId, "retries");
+            effects.retry(campaignId, callRequest.getId(), nextRetryAt);
             log.info("Call {} failed, scheduled for retry at {} (attempt {})", 
                     callRequest.getId(), nextRetryAt, callRequest.getRetryCount());
         } else {
             callRequest.markPermanentlyFailed(reason);
-            metricsService.incrementMetric(campaign.getId(), "permanently_failed");
+            effects.count(campaignId, "permanently_failed");
             log.warn("Call {} permanently failed after {} retries: {}", 
                     callRequest.getId(), callRequest.getRetryCount(), reason);
         }
@@ -213,19 +660,102 @@ public class CallService {
         callRequestRepository.save(callRequest);
     }
 
+    /**
+     * Completes a campaign once it has no outstanding calls left. Called when its outstanding count
+     * reaches zero or cannot be trusted, so the database has the final word: a count that turns out
+     * wrong is corrected from it.
+     */
     @Transactional
-    public void checkCampaignCompletion(Campaign campaign) {
-        long pendingCount = callRequestRepository.countByCampaignIdAndStatus(
-                campaign.getId(), CallStatus.PENDING);
-        long failedCount = callRequestRepository.countByCampaignIdAndStatus(
-                campaign.getId(), CallStatus.FAILED);
-        long inProgressCount = callRequestRepository.countByCampaignIdAndStatus(
-                campaign.getId(), CallStatus.IN_PROGRESS);
-
-        if (pendingCount == 0 && failedCount == 0 && inProgressCount == 0) {
-            campaign.setStatus(CampaignStatus.COMPLETED);
-            campaignRepository.save(campaign);
-            log.info("Campaign {} completed", campaign.getId());
+    public void checkCampaignCompletion(UUID campaignId) {
+        long outstanding = callRequestRepository.countByCampaignIdAndStatusIn(campaignId, CallStatus.OUTSTANDING);
+        if (outstanding > 0) {
+            log.debug("Campaign {} still has {} outstanding calls", campaignId, outstanding);
+            metricsService.setOutstanding(campaignId, outstanding);
+            return;
+        }
+
+        campaignRepository.findById(campaignId)
+                .filter(campaign -> campaign.getStatus() != CampaignStatus.COMPLETED
+                        && campaign.getStatus() != CampaignStatus.CANCELLED)
+                .ifPresent(campaign -> {
+                    campaign.setStatus(CampaignStatus.COMPLETED);
+                    campaignRepository.save(campaign);
+                    campaignSnapshots.invalidate(campaign);
+                    metricsService.clearOutstanding(campaignId);
+                    log.info("Campaign {} completed", campaignId);
+                });
+    }
+
+    private static boolean isFinished(CallStatus status) {
+        return status == CallStatus.COMPLETED || status == CallStatus.PERMANENTLY_FAILED;
+    }
+
+    /**
+     * Counts calls that reached a final status off their campaign once the transaction commits, and
+     * checks the campaign for completion if they were its last.
+     */
+    private void callsFinished(UUID campaignId, int count) {
+        afterCommit(() -> {
+            try {
+                if (metricsService.callsFinished(campaignId, count) > 0) {
+                    return;
+                }
+                CampaignStatus status = campaignSnapshots.get(campaignId).map(CampaignSnapshot::status).orElse(null);
+                if (status == CampaignStatus.COMPLETED || status == CampaignStatus.CANCELLED) {
+                    return;
+                }
+                completionTransaction.executeWithoutResult(tx -> checkCampaignCompletion(campaignId));
+            } catch (Exception e) {
+                // The calls are committed; the reconciler catches up with the count and the completion
+                log.warn("Failed to count {} finished calls off campaign {}: {}", count, campaignId, e.getMessage());
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Metrics, retry timers and scheduler wake-ups of the callbacks applied in a transaction,
+     * collected while it runs and performed once it commits.
+     */
+    private final class CallbackEffects {
+
+        private final Map<UUID, Map<String, Long>> metrics = new LinkedHashMap<>();
+        private final Map<UUID, NavigableMap<Instant, List<UUID>>> retries = new LinkedHashMap<>();
+
+        void count(UUID campaignId, String metricName) {
+            metrics.computeIfAbsent(campaignId, id -> new HashMap<>()).merge(metricName, 1L, Long::sum);
+        }
+
+        void retry(UUID campaignId, UUID callRequestId, Instant nextRetryAt) {
+            retries.computeIfAbsent(campaignId, id -> new TreeMap<>())
+                    .computeIfAbsent(nextRetryAt, at -> new ArrayList<>())
+                    .add(callRequestId);
+        }
+
+        void apply() {
+            try {
+                metrics.forEach((campaignId, counts) ->
+                        counts.forEach((metricName, count) -> metricsService.incrementMetric(campaignId, metricName, count)));
+                retries.forEach((campaignId, byDueAt) -> {
+                    byDueAt.forEach((dueAt, callIds) -> delayedRetryQueue.schedule(campaignId, callIds, dueAt));
+                    schedulerWakeup.signalAt(campaignId, byDueAt.firstKey());
+                });
+            } catch (Exception e) {
+                // The calls are committed; lost retry entries are re-added by reconciliation
+                log.warn("Failed to apply callback effects: {}", e.getMessage());
+            }
         }
     }
 
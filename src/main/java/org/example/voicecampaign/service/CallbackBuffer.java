@@ -0,0 +1,170 @@
+package org.example.voicecampaign.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.voicecampaign.dto.CallbackRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded in-process buffer between the callback endpoints and the database.
+ *
+ * <p>Callbacks are accepted into the buffer and acknowledged straight away; {@code drainer-threads}
+ * threads take up to {@code batch-size} at a time and apply each batch with
+ * {@link CallService#handleCallbacks} in one transaction. A batch that fails as a whole is replayed
+ * callback by callback with {@link CallService#handleCallback}, so one bad row does not lose the rest.</p>
+ *
+ * <p>Requests are admitted whole or not at all: once {@code capacity} callbacks are waiting,
+ * {@link #submit} refuses, and the endpoints answer 503 with {@code Retry-After} so the provider
+ * retries later. Buffered callbacks are lost if the process dies; their calls are then failed by the
+ * {@link org.example.voicecampaign.scheduler.CallbackWatchdog} once their callback timeout passes.
+ * On shutdown the buffer stops admitting and is drained.</p>
+ */
+@Component
+@Slf4j
+public class CallbackBuffer {
+
+    private final CallService callService;
+    private final LinkedBlockingQueue<CallbackRequest> queue = new LinkedBlockingQueue<>();
+    // Admitted callbacks not yet taken by a drainer; reserved before they are queued
+    private final AtomicInteger buffered = new AtomicInteger();
+    private final Counter rejected;
+    private final List<Thread> drainers = new ArrayList<>();
+    private volatile boolean running;
+
+    @Value("${voice-campaign.callbacks.buffer.enabled:false}")
+    private boolean enabled;
+
+    @Value("${voice-campaign.callbacks.buffer.capacity:50000}")
+    private int capacity;
+
+    @Value("${voice-campaign.callbacks.buffer.batch-size:500}")
+    private int batchSize;
+
+    @Value("${voice-campaign.callbacks.buffer.drainer-threads:2}")
+    private int drainerThreads;
+
+    @Value("${voice-campaign.callbacks.buffer.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+
+    public CallbackBuffer(CallService callService, MeterRegistry meterRegistry) {
+        this.callService = callService;
+        this.rejected = Counter.builder("voice.campaign.callbacks.rejected")
+                .description("Callbacks refused because the callback buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("voice.campaign.callbacks.buffered", buffered, AtomicInteger::get)
+                .description("Callbacks accepted and waiting to be applied")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        for (int i = 0; i < drainerThreads; i++) {
+            Thread drainer = new Thread(this::drain, "callback-drainer-" + i);
+            drainer.setDaemon(true);
+            drainer.start();
+            drainers.add(drainer);
+        }
+        log.info("Callback buffer enabled: capacity {}, batches of {}, {} drainers", capacity, batchSize, drainerThreads);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        for (Thread drainer : drainers) {
+            try {
+                drainer.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        if (buffered.get() > 0) {
+            log.warn("Callback buffer stopped with {} callbacks not applied", buffered.get());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns how long a refused sender should wait before retrying.
+     */
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    /**
+     * Admits callbacks for asynchronous processing, all of them or none.
+     *
+     * @return false if the buffer has no room for all of them, or is shutting down
+     */
+    public boolean submit(List<CallbackRequest> callbacks) {
+        int count = callbacks.size();
+        while (true) {
+            int current = buffered.get();
+            if (!running || current + count > capacity) {
+                rejected.increment(count);
+                return false;
+            }
+            if (buffered.compareAndSet(current, current + count)) {
+                break;
+            }
+        }
+        queue.addAll(callbacks);
+        return true;
+    }
+
+    private void drain() {
+        List<CallbackRequest> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                CallbackRequest first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                buffered.addAndGet(-batch.size());
+                apply(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Error draining callback buffer: {}", e.getMessage(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void apply(List<CallbackRequest> batch) {
+        try {
+            callService.handleCallbacks(batch);
+        } catch (Exception e) {
+            log.warn("Batch of {} callbacks failed ({}), applying them one by one", batch.size(), e.getMessage());
+            for (CallbackRequest callback : batch) {
+                try {
+                    callService.handleCallback(callback);
+                } catch (Exception single) {
+                    log.error("Error applying callback for {}: {}", callback.getExternalCallId(), single.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -5,8 +5,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.example.voicecampaign.domain.model.CallStatus;
 import org.example.voicecampaign.dto.CampaignResponse.CampaignMetrics;
 import org.example.voicecampaign.repository.CallRequestRepository;
+import org.example.voicecampaign.scheduler.SchedulerWakeup;
+import org.example.voicecampaign.worker.queue.CallQueueFactory;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.UUID;
@@ -19,12 +25,87 @@ public class CampaignMetricsService {
 
     private final StringRedisTemplate redisTemplate;
     private final CallRequestRepository callRequestRepository;
+    private final SchedulerWakeup schedulerWakeup;
+    private final CallQueueFactory callQueueFactory;
 
     @org.springframework.beans.factory.annotation.Value("${voice-campaign.metrics.ttl-hours:24}")
     private long metricsTtlHours;
 
     private static final String ACTIVE_SLOTS_KEY = "campaign:%s:active_slots";
+    private static final String QUEUED_KEY = "campaign:%s:queued";
+    private static final String WORKER_ACTIVE_COUNT_KEY = "worker:active_count";
     private static final String METRICS_KEY = "campaign:%s:metrics:%s";
+    private static final String OUTSTANDING_KEY = "campaign:%s:outstanding";
+
+    /**
+     * Dequeued transition: decrements the campaign's queued count (clamped at 0) and, if ARGV[1] is
+     * 1, takes an active slot and counts the dialing worker.
+     */
+    private static final RedisScript<Long> DEQUEUED_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('DECR', KEYS[1]) < 0 then
+                redis.call('SET', KEYS[1], 0)
+            end
+            if ARGV[1] == '1' then
+                redis.call('INCR', KEYS[3])
+                return redis.call('INCR', KEYS[2])
+            end
+            return 0
+            """, Long.class);
+
+    /**
+     * Released transition: if ARGV[1] is 1, frees an active slot (clamped at 0); if ARGV[2] is 1,
+     * stops counting the dialing worker (clamped at 0).
+     */
+    private static final RedisScript<Long> RELEASED_SCRIPT = new DefaultRedisScript<>("""
+            if ARGV[1] == '1' and redis.call('DECR', KEYS[1]) < 0 then
+                redis.call('SET', KEYS[1], 0)
+            end
+            if ARGV[2] == '1' and redis.call('DECR', KEYS[2]) < 0 then
+                redis.call('SET', KEYS[2], 0)
+            end
+            return 0
+            """, Long.class);
+
+    /**
+     * Frees ARGV[1] active slots at once (clamped at 0).
+     */
+    private static final RedisScript<Long> SLOTS_RELEASED_SCRIPT = new DefaultRedisScript<>("""
+            local left = redis.call('DECRBY', KEYS[1], ARGV[1])
+            if left < 0 then
+                redis.call('SET', KEYS[1], 0)
+            end
+            return left
+            """, Long.class);
+
+    /**
+     * Finished transition: takes ARGV[1] calls off the campaign's outstanding count (clamped at 0).
+     * Returns the count left, 0 only for the decrement that reached zero, and -1 if the count is
+     * missing or was already zero, i.e. not to be trusted.
+     */
+    private static final RedisScript<Long> FINISHED_SCRIPT = new DefaultRedisScript<>("""
+            local current = tonumber(redis.call('GET', KEYS[1]))
+            if not current or current <= 0 then
+                return -1
+            end
+            local left = redis.call('DECRBY', KEYS[1], ARGV[1])
+            if left <= 0 then
+                redis.call('SET', KEYS[1], 0)
+                return 0
+            end
+            return left
+            """, Long.class);
+
+    /**
+     * Sets the outstanding count to ARGV[2] only if it still reads ARGV[1] (empty for missing), so a
+     * reconciliation never overwrites transitions that happened while it was counting.
+     */
+    private static final RedisScript<Long> RECONCILE_OUTSTANDING_SCRIPT = new DefaultRedisScript<>("""
+            if (redis.call('GET', KEYS[1]) or '') ~= ARGV[1] then
+                return 0
+            end
+            redis.call('SET', KEYS[1], ARGV[2])
+            return 1
+            """, Long.class);
 
     public int getActiveSlots(UUID campaignId) {
         String key = String.format(ACTIVE_SLOTS_KEY, campaignId);
@@ -40,16 +121,33 @@ public class CampaignMetricsService {
         }
     }
 
-    public void incrementActiveSlots(UUID campaignId) {
-        String key = String.format(ACTIVE_SLOTS_KEY, campaignId);
-        redisTemplate.opsForValue().increment(key);
+    /**
+     * Records that a worker took a call of the campaign off the queue, in one round trip. A call that
+     * will be dialed also takes an active slot and counts as an active worker until
+     * {@link #callDispatched} or {@link #releaseSlot}.
+     *
+     * @param campaignId the call's campaign
+     * @param dialing    whether the worker goes on to dial the call
+     */
+    public void callDequeued(UUID campaignId, boolean dialing) {
+        redisTemplate.execute(DEQUEUED_SCRIPT, List.of(
+                String.format(QUEUED_KEY, campaignId),
+                String.format(ACTIVE_SLOTS_KEY, campaignId),
+                WORKER_ACTIVE_COUNT_KEY), dialing ? "1" : "0");
     }
 
-    public void decrementActiveSlots(UUID campaignId) {
-        String key = String.format(ACTIVE_SLOTS_KEY, campaignId);
-        Long newValue = redisTemplate.opsForValue().decrement(key);
-        if (newValue != null && newValue < 0) {
-            redisTemplate.opsForValue().set(key, "0");
+    /**
+     * Records that a worker finished dialing a call, in one round trip. The slot stays taken until
+     * the callback arrives, unless {@code failed} is set because the call could not be handed to
+     * the provider.
+     *
+     * @param campaignId the call's campaign
+     * @param failed     whether the slot is to be freed right away
+     */
+    public void callDispatched(UUID campaignId, boolean failed) {
+        releaseCounters(campaignId, failed, true);
+        if (failed) {
+            schedulerWakeup.signal(campaignId);
         }
     }
 
@@ -64,6 +162,12 @@ public class CampaignMetricsService {
         redisTemplate.expire(key, metricsTtlHours, TimeUnit.HOURS);
     }
 
+    public void incrementMetric(UUID campaignId, String metricName, long delta) {
+        String key = String.format(METRICS_KEY, campaignId, metricName);
+        redisTemplate.opsForValue().increment(key, delta);
+        redisTemplate.expire(key, metricsTtlHours, TimeUnit.HOURS);
+    }
+
     public long getMetric(UUID campaignId, String metricName) {
         String key = String.format(METRICS_KEY, campaignId, metricName);
         String value = redisTemplate.opsForValue().get(key);
@@ -95,7 +199,7 @@ public class CampaignMetricsService {
             
             switch (status) {
                 case PENDING, SCHEDULED -> pendingCalls += count;
-                case IN_PROGRESS -> inProgressCalls = count;
+                case DIALING, IN_PROGRESS -> inProgressCalls += count;
                 case COMPLETED -> completedCalls = count;
                 case FAILED -> failedCalls = count;
                 case PERMANENTLY_FAILED -> permanentlyFailedCalls = count;
@@ -113,10 +217,92 @@ public class CampaignMetricsService {
                 .failedCalls(failedCalls)
                 .permanentlyFailedCalls(permanentlyFailedCalls)
                 .totalRetries(totalRetries)
+                .queueDepth(callQueueFactory.getQueue().depth(campaignId))
                 .build();
     }
 
     public void releaseSlot(UUID campaignId) {
-        decrementActiveSlots(campaignId);
+        releaseCounters(campaignId, true, false);
+        // A freed slot can be refilled immediately instead of on the next tick
+        schedulerWakeup.signal(campaignId);
+    }
+
+    /**
+     * Frees several active slots of a campaign in one round trip, e.g. for a batch of callbacks.
+     */
+    public void releaseSlots(UUID campaignId, int count) {
+        if (count <= 0) {
+            return;
+        }
+        redisTemplate.execute(SLOTS_RELEASED_SCRIPT, List.of(String.format(ACTIVE_SLOTS_KEY, campaignId)),
+                String.valueOf(count));
+        schedulerWakeup.signal(campaignId);
+    }
+
+    /**
+     * Adds newly created calls to a campaign's outstanding count, once their transaction commits.
+     */
+    public void addOutstanding(UUID campaignId, long count) {
+        if (count <= 0) {
+            return;
+        }
+        String key = String.format(OUTSTANDING_KEY, campaignId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    redisTemplate.opsForValue().increment(key, count);
+                }
+            });
+        } else {
+            redisTemplate.opsForValue().increment(key, count);
+        }
+    }
+
+    /**
+     * Takes calls that reached a final status off a campaign's outstanding count.
+     *
+     * @return the calls still outstanding; 0 only for the one caller whose calls were the last, and
+     *         -1 if the count is unknown and the database must be asked
+     */
+    public long callsFinished(UUID campaignId, int count) {
+        Long left = redisTemplate.execute(FINISHED_SCRIPT, List.of(String.format(OUTSTANDING_KEY, campaignId)),
+                String.valueOf(count));
+        return left != null ? left : -1;
+    }
+
+    /**
+     * Returns the raw outstanding counts of campaigns, null where missing, for {@link #reconcileOutstanding}.
+     */
+    public List<String> getOutstanding(List<UUID> campaignIds) {
+        return redisTemplate.opsForValue().multiGet(
+                campaignIds.stream().map(id -> String.format(OUTSTANDING_KEY, id)).toList());
+    }
+
+    /**
+     * Replaces a campaign's outstanding count with a count from the database, unless it changed since
+     * it was read as {@code observed}.
+     *
+     * @return whether the count was replaced
+     */
+    public boolean reconcileOutstanding(UUID campaignId, String observed, long actual) {
+        Long replaced = redisTemplate.execute(RECONCILE_OUTSTANDING_SCRIPT,
+                List.of(String.format(OUTSTANDING_KEY, campaignId)),
+                observed != null ? observed : "", String.valueOf(actual));
+        return replaced != null && replaced == 1;
+    }
+
+    public void setOutstanding(UUID campaignId, long count) {
+        redisTemplate.opsForValue().set(String.format(OUTSTANDING_KEY, campaignId), String.valueOf(count));
+    }
+
+    public void clearOutstanding(UUID campaignId) {
+        redisTemplate.delete(String.format(OUTSTANDING_KEY, campaignId));
+    }
+
+    private void releaseCounters(UUID campaignId, boolean slot, boolean worker) {
+        redisTemplate.execute(RELEASED_SCRIPT, List.of(
+                String.format(ACTIVE_SLOTS_KEY, campaignId),
+                WORKER_ACTIVE_COUNT_KEY), slot ? "1" : "0", worker ? "1" : "0");
     }
 }
@@ -17,6 +17,8 @@ import org.example.voicecampaign.exception.CampaignNotFoundException;
 import org.example.voicecampaign.exception.InvalidOperationException;
 import org.example.voicecampaign.repository.CallRequestRepository;
 import org.example.voicecampaign.repository.CampaignRepository;
+import org.example.voicecampaign.scheduler.CallClaimService;
+import org.example.voicecampaign.scheduler.SchedulerWakeup;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -37,6 +39,9 @@ public class CampaignService {
     private final CampaignRepository campaignRepository;
     private final CallRequestRepository callRequestRepository;
     private final CampaignMetricsService metricsService;
+    private final SchedulerWakeup schedulerWakeup;
+    private final CallClaimService claimService;
+    private final CampaignSnapshotCache campaignSnapshots;
 
     @org.springframework.beans.factory.annotation.Value("${voice-campaign.import.batch-size:1000}")
     private int batchSize;
@@ -113,8 +118,11 @@ public class CampaignService {
             callRequestRepository.saveAll(callRequests);
         }
 
+        metricsService.addOutstanding(campaign.getId(), seenPhones.size());
+
         log.info("Created campaign {} with {} valid phone numbers (skipped {} invalid, {} duplicates)", 
                 campaign.getId(), seenPhones.size(), invalidCount, duplicateCount);
+        schedulerWakeup.signal(campaign.getId());
 
         return mapToResponse(campaign);
     }
@@ -170,8 +178,10 @@ public class CampaignService {
         campaign.setStatus(CampaignStatus.IN_PROGRESS);
         metricsService.resetActiveSlots(campaignId);
         campaign = campaignRepository.save(campaign);
+        campaignSnapshots.invalidate(campaign);
 
         log.info("Started campaign: {}", campaignId);
+        schedulerWakeup.signal(campaignId);
         return mapToResponse(campaign);
     }
 
@@ -186,6 +196,8 @@ public class CampaignService {
 
         campaign.setStatus(CampaignStatus.PAUSED);
         campaign = campaignRepository.save(campaign);
+        campaignSnapshots.invalidate(campaign);
+        claimService.withdrawQueued(campaignId);
 
         log.info("Paused campaign: {}", campaignId);
         return mapToResponse(campaign);
@@ -211,6 +223,9 @@ public class CampaignService {
         );
 
         campaign = campaignRepository.save(campaign);
+        campaignSnapshots.invalidate(campaign);
+        claimService.withdrawQueued(campaignId);
+        metricsService.clearOutstanding(campaignId);
 
         log.info("Cancelled campaign: {}", campaignId);
         return mapToResponse(campaign);
@@ -391,6 +406,10 @@ public class CampaignService {
         int totalImported = totalReceived - duplicatesSkipped - invalidSkipped;
         log.info("Imported {} phone numbers for campaign {} (duplicates: {}, invalid: {})",
                 totalImported, campaignId, duplicatesSkipped, invalidSkipped);
+        if (totalImported > 0) {
+            metricsService.addOutstanding(campaignId, totalImported);
+            schedulerWakeup.signal(campaignId);
+        }
 
         return BatchImportResponse.builder()
                 .totalReceived(totalReceived)
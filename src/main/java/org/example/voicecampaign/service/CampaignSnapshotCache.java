@@ -0,0 +1,134 @@
+package org.example.voicecampaign.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.example.voicecampaign.domain.entity.Campaign;
+import org.example.voicecampaign.domain.model.CampaignSnapshot;
+import org.example.voicecampaign.repository.CampaignRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches {@link CampaignSnapshot}s for the dispatch and callback paths, so they no longer load or
+ * join the campaigns table per call.
+ *
+ * <p>Every campaign change goes through {@link #invalidate(Campaign)}, which evicts snapshots not
+ * newer than the change once the transaction commits, on this node directly and on every other
+ * node through a Redis channel. A snapshot loaded after a later change survives a late invalidation
+ * message. Entries also expire after {@code ttl-ms}, which bounds staleness should an invalidation
+ * message be lost.</p>
+ */
+@Component
+@Slf4j
+public class CampaignSnapshotCache {
+
+    private static final String INVALIDATION_CHANNEL = "campaign:snapshot:invalidate";
+
+    private final CampaignRepository campaignRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final Cache<UUID, CampaignSnapshot> snapshots;
+
+    public CampaignSnapshotCache(
+            CampaignRepository campaignRepository,
+            StringRedisTemplate redisTemplate,
+            RedisMessageListenerContainer listenerContainer,
+            @Value("${voice-campaign.campaign-cache.ttl-ms:30000}") long ttlMs,
+            @Value("${voice-campaign.campaign-cache.max-size:10000}") long maxSize) {
+        this.campaignRepository = campaignRepository;
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.snapshots = Caffeine.newBuilder()
+                .expireAfterWrite(ttlMs, TimeUnit.MILLISECONDS)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split(":");
+            evictUpTo(UUID.fromString(parts[0]), Long.parseLong(parts[1]));
+        }, new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    /**
+     * Returns the snapshot of a campaign, loading it on a miss.
+     *
+     * @param campaignId the campaign
+     * @return the snapshot, empty if the campaign does not exist
+     */
+    public Optional<CampaignSnapshot> get(UUID campaignId) {
+        return Optional.ofNullable(snapshots.get(campaignId,
+                id -> campaignRepository.findById(id).map(CampaignSnapshot::of).orElse(null)));
+    }
+
+    /**
+     * Returns the snapshots of several campaigns, loading all misses with one query.
+     *
+     * @param campaignIds the campaigns
+     * @return the snapshots by campaign ID; campaigns that do not exist are absent
+     */
+    public Map<UUID, CampaignSnapshot> getAll(Collection<UUID> campaignIds) {
+        return snapshots.getAll(campaignIds, missing -> {
+            Map<UUID, CampaignSnapshot> loaded = new HashMap<>();
+            for (Campaign campaign : campaignRepository.findAllById(List.copyOf(missing))) {
+                loaded.put(campaign.getId(), CampaignSnapshot.of(campaign));
+            }
+            return loaded;
+        });
+    }
+
+    /**
+     * Evicts snapshots of a campaign not newer than its given state, after the current transaction
+     * commits (immediately if there is none), on every node.
+     *
+     * @param campaign the changed campaign
+     */
+    public void invalidate(Campaign campaign) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(campaign);
+                }
+            });
+        } else {
+            publish(campaign);
+        }
+    }
+
+    private void publish(Campaign campaign) {
+        // updatedAt is final here: @PreUpdate ran when the change was flushed
+        long version = campaign.getUpdatedAt().toEpochMilli();
+        evictUpTo(campaign.getId(), version);
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, campaign.getId() + ":" + version);
+        } catch (Exception e) {
+            // Other nodes pick the change up when their entry expires
+            log.warn("Failed to publish snapshot invalidation for campaign {}: {}", campaign.getId(), e.getMessage());
+        }
+    }
+
+    private void evictUpTo(UUID campaignId, long version) {
+        // Two changes can share a millisecond, so an equal version may still be the older state
+        snapshots.asMap().computeIfPresent(campaignId,
+                (id, snapshot) -> snapshot.version() <= version ? null : snapshot);
+    }
+}
@@ -34,7 +34,8 @@ public class GlobalMetricsService {
         // Call counts by status
         long totalCalls = callRequestRepository.count();
         long pendingCalls = callRequestRepository.countByStatus(CallStatus.PENDING);
-        long inProgressCalls = callRequestRepository.countByStatus(CallStatus.IN_PROGRESS);
+        long inProgressCalls = callRequestRepository.countByStatus(CallStatus.DIALING)
+                + callRequestRepository.countByStatus(CallStatus.IN_PROGRESS);
         long completedCalls = callRequestRepository.countByStatus(CallStatus.COMPLETED);
         long failedCalls = callRequestRepository.countByStatus(CallStatus.FAILED);
         long permanentlyFailedCalls = callRequestRepository.countByStatus(CallStatus.PERMANENTLY_FAILED);
@@ -7,21 +7,41 @@ import org.example.voicecampaign.domain.entity.Campaign;
 import org.example.voicecampaign.domain.model.CallStatus;
 import org.example.voicecampaign.repository.CallRequestRepository;
 import org.example.voicecampaign.repository.CampaignRepository;
+import org.example.voicecampaign.scheduler.CallClaimService;
+import org.example.voicecampaign.scheduler.LeaderElection;
+import org.example.voicecampaign.scheduler.LeaderRole;
+import org.example.voicecampaign.scheduler.NodeRegistry;
+import org.example.voicecampaign.worker.queue.CallQueue;
+import org.example.voicecampaign.worker.queue.CallQueueFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 
 import org.example.voicecampaign.domain.model.CampaignStatus;
 
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.UUID;
 
 /**
  * Synchronizes Redis state with PostgreSQL on application startup.
  * This ensures resumability after restarts by:
- * 1. Clearing stale Redis queue entries
- * 2. Syncing active slot counts with actual DB IN_PROGRESS counts
+ * 1. Clearing stale Redis queue entries and releasing their SCHEDULED claims
+ * 2. Syncing active slot counts with actual DB DIALING and IN_PROGRESS counts
  * 3. Resetting queued counts to 0 (scheduler will re-enqueue)
+ *
+ * <p>A {@linkplain CallQueue#isDurable() durable} queue is kept instead: only claims of calls missing
+ * from it are released, and queued counts are rebuilt from its entries.</p>
+ *
+ * <p>This reset is destructive to shared Redis state, so it only runs on a verified cold start: no
+ * other node is live in the {@link NodeRegistry}, or {@code startup-sync.force-reset} is set. A node
+ * that starts while others are working only releases the claims of SCHEDULED calls missing from the
+ * queue; workers dial a call only after claiming it from SCHEDULED, so releasing one that was just
+ * dequeued merely makes its worker skip it. When leader election is enabled, only the node holding
+ * the scheduler lease at startup synchronizes at all.</p>
  */
 @Service
 @RequiredArgsConstructor
@@ -31,22 +51,39 @@ public class StartupSyncService {
     private final CampaignRepository campaignRepository;
     private final CallRequestRepository callRequestRepository;
     private final StringRedisTemplate redisTemplate;
+    private final CallClaimService claimService;
+    private final LeaderElection leaderElection;
+    private final CallQueueFactory callQueueFactory;
+    private final NodeRegistry nodeRegistry;
+
+    @Value("${voice-campaign.startup-sync.force-reset:false}")
+    private boolean forceReset;
 
-    private static final String CALL_QUEUE_KEY = "call:queue";
     private static final String ACTIVE_SLOTS_KEY_PATTERN = "campaign:%s:active_slots";
+    private static final String QUEUED_KEY_PATTERN = "campaign:%s:queued";
     private static final String QUEUED_KEYS_GLOB = "campaign:*:queued";
     private static final String ACTIVE_SLOTS_KEYS_GLOB = "campaign:*:active_slots";
 
     @PostConstruct
     public void syncOnStartup() {
+        if (!leaderElection.isLeader(LeaderRole.SCHEDULER)) {
+            log.info("Another node holds the scheduler lease, skipping Redis-PostgreSQL synchronization");
+            return;
+        }
         log.info("Starting Redis-PostgreSQL synchronization...");
         
         try {
-            // 1. Clear the call queue (stale entries from previous run)
-            Long queueSize = redisTemplate.opsForList().size(CALL_QUEUE_KEY);
-            if (queueSize != null && queueSize > 0) {
-                redisTemplate.delete(CALL_QUEUE_KEY);
-                log.info("Cleared {} stale entries from call queue", queueSize);
+            CallQueue activeQueue = callQueueFactory.getQueue();
+            if (!isColdStart()) {
+                releaseOrphanedClaims(activeQueue);
+                return;
+            }
+
+            // 1. Clear the call queues (stale entries from previous run), whichever topology wrote them
+            for (CallQueue callQueue : callQueueFactory.getAllQueues()) {
+                if (callQueue != activeQueue || !activeQueue.isDurable()) {
+                    callQueue.clear();
+                }
             }
 
             // 2. Clear all queued counts (will be re-populated by scheduler)
@@ -56,14 +93,24 @@ public class StartupSyncService {
                 log.info("Cleared {} queued count keys", queuedKeys.size());
             }
 
-            // 3. Sync active slots with actual DB IN_PROGRESS counts
+            if (activeQueue.isDurable()) {
+                recoverDurableQueue(activeQueue);
+            } else {
+                // Calls claimed for the cleared queue go back to PENDING/FAILED for the scheduler
+                int released = claimService.releaseAllClaims();
+                if (released > 0) {
+                    log.info("Released {} SCHEDULED calls back to the scheduler", released);
+                }
+            }
+
+            // 3. Sync active slots with actual DB DIALING and IN_PROGRESS counts
             List<Campaign> activeCampaigns = campaignRepository.findActiveCampaigns(
                     List.of(CampaignStatus.IN_PROGRESS, CampaignStatus.PENDING, CampaignStatus.PAUSED));
             int syncedCampaigns = 0;
             
             for (Campaign campaign : activeCampaigns) {
-                long inProgressCount = callRequestRepository.countByCampaignIdAndStatus(
-                        campaign.getId(), CallStatus.IN_PROGRESS);
+                long inProgressCount = callRequestRepository.countByCampaignIdAndStatusIn(
+                        campaign.getId(), List.of(CallStatus.DIALING, CallStatus.IN_PROGRESS));
                 
                 String key = String.format(ACTIVE_SLOTS_KEY_PATTERN, campaign.getId());
                 redisTemplate.opsForValue().set(key, String.valueOf(inProgressCount));
@@ -92,4 +139,61 @@ public class StartupSyncService {
             // Don't fail startup - system can still work, just might have stale data
         }
     }
+
+    /**
+     * Returns whether this node starts the cluster, so nothing live depends on the Redis state about
+     * to be reset. Unknown liveness counts as a warm start.
+     */
+    private boolean isColdStart() {
+        if (forceReset) {
+            log.info("Forced reset of Redis state on startup");
+            return true;
+        }
+        try {
+            long others = nodeRegistry.otherLiveNodes();
+            if (others > 0) {
+                log.info("{} other nodes are live, keeping Redis state and releasing orphaned claims only", others);
+                return false;
+            }
+            return true;
+        } catch (Exception e) {
+            log.warn("Could not check for live nodes, keeping Redis state: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Keeps the entries of a durable queue, rebuilds queued counts from them and releases only the
+     * claims of calls that never made it into the queue.
+     */
+    private void recoverDurableQueue(CallQueue callQueue) {
+        // Read claims before the queue, so a call claimed and queued in between is never released
+        List<UUID> scheduled = callRequestRepository.findIdsByStatus(CallStatus.SCHEDULED);
+        Map<UUID, UUID> queued = callQueue.queuedCalls();
+
+        Map<UUID, Long> queuedPerCampaign = new HashMap<>();
+        for (UUID campaignId : queued.values()) {
+            queuedPerCampaign.merge(campaignId, 1L, Long::sum);
+        }
+        queuedPerCampaign.forEach((campaignId, count) ->
+                redisTemplate.opsForValue().set(String.format(QUEUED_KEY_PATTERN, campaignId), String.valueOf(count)));
+
+        releaseMissing(scheduled, queued.keySet(), callQueue);
+    }
+
+    /**
+     * Releases the claims of SCHEDULED calls missing from the queue without touching any other Redis
+     * state, for a node joining a running cluster.
+     */
+    private void releaseOrphanedClaims(CallQueue callQueue) {
+        List<UUID> scheduled = callRequestRepository.findIdsByStatus(CallStatus.SCHEDULED);
+        releaseMissing(scheduled, callQueue.queuedCallIds(), callQueue);
+    }
+
+    private void releaseMissing(List<UUID> scheduled, Set<UUID> queued, CallQueue callQueue) {
+        List<UUID> orphaned = scheduled.stream().filter(id -> !queued.contains(id)).toList();
+        int released = claimService.releaseClaims(orphaned);
+        log.info("Kept {} queued calls in the {} queue, released {} SCHEDULED calls missing from it",
+                queued.size(), callQueue.getName(), released);
+    }
 }
@@ -0,0 +1,137 @@
+package org.example.voicecampaign.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.voicecampaign.telephony.RouteTable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breakers and rate limiters keyed by destination route, so a failing carrier or country
+ * route stops dialing only the calls bound for it.
+ *
+ * <p>Routes are resolved with a {@link RouteTable} built from {@code voice-campaign.telephony.routes.table}
+ * and {@code prefix-digits}. Each route gets its own breaker and limiter, configured from the
+ * {@code telephonyRoute} entries under {@code resilience4j.circuitbreaker.configs} and
+ * {@code resilience4j.ratelimiter.configs}. They are kept outside the Resilience4j registries, which
+ * never forget an instance, in a cache bounded by {@code max-routes} that drops routes not dialed for
+ * {@code idle-expiry-ms}.</p>
+ *
+ * <p>With routes disabled, every call is guarded by the global {@code telephonyService} breaker and
+ * limiter instead.</p>
+ */
+@Component
+@Slf4j
+public class TelephonyRouteGuards {
+
+    static final String GLOBAL_INSTANCE = "telephonyService";
+    private static final String ROUTE_CONFIG = "telephonyRoute";
+
+    /**
+     * The breaker and rate limiter of one route.
+     */
+    public record RouteGuard(String route, CircuitBreaker circuitBreaker, RateLimiter rateLimiter) {
+    }
+
+    private final boolean enabled;
+    private final RouteTable routeTable;
+    private final long deferMs;
+    private final RouteGuard global;
+    private final CircuitBreakerConfig circuitBreakerConfig;
+    private final RateLimiterConfig rateLimiterConfig;
+    private final Cache<String, RouteGuard> guards;
+
+    public TelephonyRouteGuards(
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            RateLimiterRegistry rateLimiterRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${voice-campaign.telephony.routes.enabled:false}") boolean enabled,
+            @Value("${voice-campaign.telephony.routes.table:}") String table,
+            @Value("${voice-campaign.telephony.routes.prefix-digits:2}") int prefixDigits,
+            @Value("${voice-campaign.telephony.routes.max-routes:10000}") long maxRoutes,
+            @Value("${voice-campaign.telephony.routes.idle-expiry-ms:600000}") long idleExpiryMs,
+            @Value("${voice-campaign.telephony.routes.defer-ms:5000}") long deferMs) {
+        this.enabled = enabled;
+        this.routeTable = RouteTable.parse(table, prefixDigits);
+        this.deferMs = deferMs;
+        this.global = new RouteGuard(GLOBAL_INSTANCE,
+                circuitBreakerRegistry.circuitBreaker(GLOBAL_INSTANCE),
+                rateLimiterRegistry.rateLimiter(GLOBAL_INSTANCE));
+        this.circuitBreakerConfig = circuitBreakerRegistry.getConfiguration(ROUTE_CONFIG)
+                .orElseGet(circuitBreakerRegistry::getDefaultConfig);
+        this.rateLimiterConfig = rateLimiterRegistry.getConfiguration(ROUTE_CONFIG)
+                .orElseGet(rateLimiterRegistry::getDefaultConfig);
+        this.guards = Caffeine.newBuilder()
+                .expireAfterAccess(idleExpiryMs, TimeUnit.MILLISECONDS)
+                .maximumSize(maxRoutes)
+                .build();
+        Gauge.builder("voice.campaign.telephony.routes.tracked", guards, Cache::estimatedSize)
+                .description("Routes with a live circuit breaker and rate limiter")
+                .register(meterRegistry);
+        Gauge.builder("voice.campaign.telephony.routes.open", this, TelephonyRouteGuards::openRoutes)
+                .description("Routes whose circuit breaker is open")
+                .register(meterRegistry);
+        if (enabled) {
+            log.info("Per-route telephony guards enabled: {} prefix digits, up to {} routes", prefixDigits, maxRoutes);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the guard of the route a number is dialed through, creating it on first use.
+     */
+    public RouteGuard forNumber(String phoneNumber) {
+        if (!enabled) {
+            return global;
+        }
+        return guards.get(routeTable.routeOf(phoneNumber), this::createGuard);
+    }
+
+    /**
+     * Returns whether calls to a number are currently refused by their route's open breaker. Routes
+     * not dialed recently are reported as available without creating their guard.
+     */
+    public boolean isOpen(String phoneNumber) {
+        RouteGuard guard = enabled ? guards.getIfPresent(routeTable.routeOf(phoneNumber)) : global;
+        if (guard == null) {
+            return false;
+        }
+        CircuitBreaker.State state = guard.circuitBreaker().getState();
+        return state == CircuitBreaker.State.OPEN || state == CircuitBreaker.State.FORCED_OPEN;
+    }
+
+    /**
+     * Returns when a call refused by its route should be tried again.
+     */
+    public Instant deferUntil() {
+        return Instant.now().plusMillis(deferMs);
+    }
+
+    private RouteGuard createGuard(String route) {
+        CircuitBreaker circuitBreaker = CircuitBreaker.of(ROUTE_CONFIG + "-" + route, circuitBreakerConfig);
+        circuitBreaker.getEventPublisher().onStateTransition(event ->
+                log.warn("Telephony route {} circuit breaker: {}", route, event.getStateTransition()));
+        return new RouteGuard(route, circuitBreaker, RateLimiter.of(ROUTE_CONFIG + "-" + route, rateLimiterConfig));
+    }
+
+    private long openRoutes() {
+        return guards.asMap().values().stream()
+                .filter(guard -> guard.circuitBreaker().getState() == CircuitBreaker.State.OPEN)
+                .count();
+    }
+}
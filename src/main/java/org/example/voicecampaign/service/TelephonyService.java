@@ -1,151 +1,215 @@
 package org.example.voicecampaign.service;
 
-import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
 import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.example.voicecampaign.dto.CallbackRequest;
+import org.example.voicecampaign.service.TelephonyRouteGuards.RouteGuard;
+import org.example.voicecampaign.telephony.CallInitiation;
+import org.example.voicecampaign.telephony.RouteUnavailableException;
+import org.example.voicecampaign.telephony.TelephonyProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+/**
+ * Places calls through the configured {@link TelephonyProvider}, guarded by the circuit breaker and
+ * rate limiter of each call's route (see {@link TelephonyRouteGuards}).
+ *
+ * <p>Initiation is asynchronous end to end. Each call needs a permission from its route's breaker, a
+ * permit from its route's rate limiter and, with routes enabled, one from the global
+ * {@code telephonyService} rate limiter, which caps the provider account as a whole. None of them
+ * waits: a call refused by its route or by the global rate limiter fails with
+ * {@link RouteUnavailableException} without reaching the provider. The route's breaker records the outcome when the stage completes. With routes
+ * enabled, the global {@code telephonyService} breaker records every outcome too, without refusing
+ * calls, so its health indicator and metrics describe the provider overall. Stages complete on a
+ * small {@code completion-threads} pool, so callers can persist the result without stalling the
+ * provider's I/O threads.</p>
+ *
+ * <p>{@link #initiateCalls} sends the permitted calls of a batch as one provider request; calls
+ * refused by their route fail alone.</p>
+ */
 @Service
 @Slf4j
 public class TelephonyService {
 
-    private final CallService callService;
-    private final ScheduledExecutorService callbackExecutor;
-    
-    @Value("${voice-campaign.telephony.mock-enabled:true}")
-    private boolean mockEnabled;
-    
+    private final TelephonyProvider provider;
+    private final ExecutorService completionExecutor;
+    private final TelephonyRouteGuards routeGuards;
+    private final CircuitBreaker circuitBreaker;
+    private final RateLimiter rateLimiter;
+
     public TelephonyService(
-            CallService callService,
-            @Value("${voice-campaign.telephony.callback-executor-threads:200}") int callbackExecutorThreads) {
-        this.callService = callService;
-        this.callbackExecutor = Executors.newScheduledThreadPool(callbackExecutorThreads);
-        log.info("TelephonyService initialized with {} callback executor threads", callbackExecutorThreads);
+            List<TelephonyProvider> providers,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            RateLimiterRegistry rateLimiterRegistry,
+            TelephonyRouteGuards routeGuards,
+            @Value("${voice-campaign.telephony.provider:mock}") String providerName,
+            @Value("${voice-campaign.telephony.completion-threads:16}") int completionThreads) {
+        Map<String, TelephonyProvider> byName = providers.stream()
+                .collect(Collectors.toMap(TelephonyProvider::getName, Function.identity()));
+        TelephonyProvider selected = byName.get(providerName);
+        if (selected == null) {
+            log.warn("Telephony provider '{}' not found, falling back to mock", providerName);
+            selected = byName.get("mock");
+        }
+        this.provider = selected;
+        this.completionExecutor = Executors.newFixedThreadPool(completionThreads);
+        this.routeGuards = routeGuards;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(TelephonyRouteGuards.GLOBAL_INSTANCE);
+        this.rateLimiter = rateLimiterRegistry.rateLimiter(TelephonyRouteGuards.GLOBAL_INSTANCE);
+        log.info("Telephony provider: {} (available: {}), {} completion threads",
+                provider.getName(), byName.keySet(), completionThreads);
     }
-    
+
     @PreDestroy
     public void shutdown() {
-        log.info("Shutting down TelephonyService callback executor...");
-        callbackExecutor.shutdown();
+        completionExecutor.shutdown();
         try {
-            if (!callbackExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
-                log.warn("Callback executor did not terminate in time, forcing shutdown");
-                callbackExecutor.shutdownNow();
+            if (!completionExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Telephony completion executor did not terminate in time, forcing shutdown");
+                completionExecutor.shutdownNow();
             }
         } catch (InterruptedException e) {
-            callbackExecutor.shutdownNow();
+            completionExecutor.shutdownNow();
             Thread.currentThread().interrupt();
         }
-        log.info("TelephonyService callback executor shutdown complete");
     }
-    
-    @Value("${voice-campaign.telephony.mock-min-duration-ms:5000}")
-    private long mockMinDurationMs;
-    
-    @Value("${voice-campaign.telephony.mock-max-duration-ms:15000}")
-    private long mockMaxDurationMs;
-    
-    @Value("${voice-campaign.telephony.mock-callback-failure-rate:0.05}")
-    private double mockCallbackFailureRate;
 
-    @Value("${voice-campaign.telephony.mock-no-callback-rate:0.01}")
-    private double mockNoCallbackRate;
+    /**
+     * Asks the provider to place a call.
+     *
+     * @return a stage completing, on the completion executor, with the external call ID, or
+     *         exceptionally if the call was not placed
+     */
+    public CompletionStage<String> initiateCall(String phoneNumber, UUID callRequestId) {
+        log.info("Initiating call to {} for request {}", phoneNumber, callRequestId);
+        return initiate(List.of(new CallInitiation(callRequestId, phoneNumber))).get(0);
+    }
 
-    @Value("${voice-campaign.telephony.mock-sync-failure-rate:0.005}")
-    private double mockSyncFailureRate;
+    /**
+     * Asks the provider to place several calls with one batch request.
+     *
+     * @return one stage per call, in the order of {@code calls}, completing like those of
+     *         {@link #initiateCall}
+     */
+    public List<CompletionStage<String>> initiateCalls(List<CallInitiation> calls) {
+        log.info("Initiating batch of {} calls", calls.size());
+        return initiate(calls);
+    }
 
-    @CircuitBreaker(name = "telephonyService", fallbackMethod = "initiateCallFallback")
-    @RateLimiter(name = "telephonyService")
-    public String initiateCall(String phoneNumber, UUID callRequestId) {
-        log.info("Initiating call to {} for request {}", phoneNumber, callRequestId);
-        
-        if (mockEnabled) {
-            return initiateMockCall(phoneNumber, callRequestId);
+    private List<CompletionStage<String>> initiate(List<CallInitiation> calls) {
+        List<CompletionStage<String>> results = new ArrayList<>(calls.size());
+        List<CallInitiation> permitted = new ArrayList<>(calls.size());
+        List<CircuitBreaker> breakers = new ArrayList<>(calls.size());
+        List<Integer> positions = new ArrayList<>(calls.size());
+        for (CallInitiation call : calls) {
+            RouteGuard route = routeGuards.forNumber(call.phoneNumber());
+            Exception refusal = acquire(route);
+            if (refusal != null) {
+                results.add(CompletableFuture.failedFuture(refusal));
+            } else {
+                positions.add(results.size());
+                results.add(null);
+                permitted.add(call);
+                breakers.add(route.circuitBreaker());
+            }
+        }
+        if (permitted.isEmpty()) {
+            return results;
         }
-        
-        // Real telephony integration would go here
-        throw new UnsupportedOperationException("Real telephony not implemented");
-    }
 
-    private String initiateMockCall(String phoneNumber, UUID callRequestId) {
-        ThreadLocalRandom random = ThreadLocalRandom.current();
-        
-        // Simulate rare sync failures (1 in 200 = 0.5%)
-        if (random.nextDouble() < mockSyncFailureRate) {
-            throw new RuntimeException("Mock sync failure: Network timeout");
+        long start = System.nanoTime();
+        List<CompletionStage<String>> initiations;
+        try {
+            initiations = provider.initiateCalls(permitted);
+        } catch (Exception e) {
+            initiations = permitted.stream()
+                    .<CompletionStage<String>>map(call -> CompletableFuture.failedFuture(e))
+                    .toList();
         }
-        
-        String externalCallId = "mock-" + UUID.randomUUID();
-        log.debug("Mock call initiated: {} -> {}", callRequestId, externalCallId);
-        
-        // Schedule async callback using dedicated executor to avoid ForkJoinPool saturation
-        long duration = random.nextLong(mockMinDurationMs, mockMaxDurationMs + 1);
-        log.debug("Mock call {} will complete in {}ms", externalCallId, duration);
-        
-        // Use scheduled executor with delay instead of Thread.sleep
-        callbackExecutor.schedule(() -> {
-            try {
-                ThreadLocalRandom callbackRandom = ThreadLocalRandom.current();
-                double outcome = callbackRandom.nextDouble();
-                
-                // 1% chance: No callback at all (simulates timeout - watchdog will handle)
-                if (outcome < mockNoCallbackRate) {
-                    log.debug("Mock call {} - simulating no callback (timeout scenario)", externalCallId);
-                    return; // Don't send callback, let watchdog handle timeout
-                }
-                
-                // 5% chance: Failed callback
-                CallbackRequest callback;
-                if (outcome < mockNoCallbackRate + mockCallbackFailureRate) {
-                    CallbackRequest.CallbackStatus failureStatus = getRandomFailureStatus(callbackRandom);
-                    callback = CallbackRequest.builder()
-                            .externalCallId(externalCallId)
-                            .status(failureStatus)
-                            .failureReason("Mock failure: " + failureStatus)
-                            .build();
-                    log.debug("Mock call {} failed with status {}", externalCallId, failureStatus);
-                } else {
-                    // 94% chance: Success
-                    int callDuration = 10 + callbackRandom.nextInt(180);
-                    callback = CallbackRequest.builder()
-                            .externalCallId(externalCallId)
-                            .status(CallbackRequest.CallbackStatus.COMPLETED)
-                            .durationSeconds(callDuration)
-                            .build();
-                    log.debug("Mock call {} completed with duration {}s", externalCallId, callDuration);
+        for (int i = 0; i < permitted.size(); i++) {
+            CircuitBreaker routeBreaker = breakers.get(i);
+            CompletionStage<String> initiation = initiations.get(i).whenComplete((externalCallId, error) -> {
+                long duration = System.nanoTime() - start;
+                record(routeBreaker, duration, error);
+                if (routeBreaker != circuitBreaker) {
+                    record(circuitBreaker, duration, error);
                 }
-                
-                callService.handleCallback(callback);
-                
-            } catch (Exception e) {
-                log.error("Error in mock callback for {}: {}", externalCallId, e.getMessage());
-            }
-        }, duration + 1000, TimeUnit.MILLISECONDS);
-        
-        return externalCallId;
+            });
+            results.set(positions.get(i), handOver(initiation));
+        }
+        return results;
+    }
+
+    /**
+     * Takes the permissions a call on a route needs, returning why it is refused, or null if it may
+     * be placed.
+     */
+    private Exception acquire(RouteGuard route) {
+        CircuitBreaker routeBreaker = route.circuitBreaker();
+        if (!routeBreaker.tryAcquirePermission()) {
+            return new RouteUnavailableException(route.route(),
+                    CallNotPermittedException.createCallNotPermittedException(routeBreaker));
+        }
+        if (!route.rateLimiter().acquirePermission()) {
+            routeBreaker.releasePermission();
+            return new RouteUnavailableException(route.route(),
+                    RequestNotPermitted.createRequestNotPermitted(route.rateLimiter()));
+        }
+        if (route.rateLimiter() != rateLimiter && !rateLimiter.acquirePermission()) {
+            // Not attempted either, so deferred like a route refusal instead of spending a retry
+            routeBreaker.releasePermission();
+            return new RouteUnavailableException(route.route(), RequestNotPermitted.createRequestNotPermitted(rateLimiter));
+        }
+        return null;
+    }
+
+    private static void record(CircuitBreaker breaker, long durationNanos, Throwable error) {
+        if (error != null) {
+            breaker.onError(durationNanos, TimeUnit.NANOSECONDS, unwrap(error));
+        } else {
+            breaker.onSuccess(durationNanos, TimeUnit.NANOSECONDS);
+        }
     }
 
-    private CallbackRequest.CallbackStatus getRandomFailureStatus(ThreadLocalRandom random) {
-        CallbackRequest.CallbackStatus[] failures = {
-                CallbackRequest.CallbackStatus.FAILED,
-                CallbackRequest.CallbackStatus.NO_ANSWER,
-                CallbackRequest.CallbackStatus.BUSY,
-                CallbackRequest.CallbackStatus.REJECTED
-        };
-        return failures[random.nextInt(failures.length)];
+    /**
+     * Completes a provider stage again on the completion executor.
+     */
+    private CompletionStage<String> handOver(CompletionStage<String> initiation) {
+        CompletableFuture<String> result = new CompletableFuture<>();
+        initiation.whenCompleteAsync((externalCallId, error) -> {
+            if (error != null) {
+                result.completeExceptionally(unwrap(error));
+            } else {
+                result.complete(externalCallId);
+            }
+        }, completionExecutor).whenComplete((ignored, error) -> {
+            // Only still pending if the completion executor rejected the hand-over on shutdown
+            if (error != null) {
+                result.completeExceptionally(unwrap(error));
+            }
+        });
+        return result;
     }
 
-    public String initiateCallFallback(String phoneNumber, UUID callRequestId, Throwable t) {
-        log.warn("Circuit breaker fallback for call to {}: {}", phoneNumber, t.getMessage());
-        throw new RuntimeException("Telephony service unavailable: " + t.getMessage(), t);
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
     }
 }
@@ -0,0 +1,12 @@
+package org.example.voicecampaign.telephony;
+
+import java.util.UUID;
+
+/**
+ * One call of a batch initiation.
+ *
+ * @param callRequestId the call request, passed to the provider as a reference
+ * @param phoneNumber   the number to dial
+ */
+public record CallInitiation(UUID callRequestId, String phoneNumber) {
+}
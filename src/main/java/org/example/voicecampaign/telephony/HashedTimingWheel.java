@@ -0,0 +1,222 @@
+package org.example.voicecampaign.telephony;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel: a timer for very large numbers of pending timeouts at coarse resolution.
+ *
+ * <p>Timeouts hash into {@code wheelSize} buckets by their deadline tick. A single thread advances one
+ * bucket per {@code tickMs} and expires the entries of the current round, so scheduling and expiring
+ * are O(1) and a pending timeout costs one small node, without a thread or a heap position each.
+ * Deadlines are honoured to within one tick.</p>
+ *
+ * <p>Expired payloads are handed to {@code onExpiry} on the given executor; pass {@code Runnable::run}
+ * to run cheap handlers on the wheel thread itself.</p>
+ *
+ * @param <T> the payload carried by each timeout
+ */
+@Slf4j
+public class HashedTimingWheel<T> implements AutoCloseable {
+
+    /** Upper bound of newly scheduled timeouts moved into the wheel per tick, to keep ticks short. */
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private final long tickNanos;
+    private final int mask;
+    private final Entry<T>[] buckets;
+    private final Queue<Entry<T>> scheduled = new ConcurrentLinkedQueue<>();
+    private final Consumer<T> onExpiry;
+    private final Executor expiryExecutor;
+    private final AtomicLong pending = new AtomicLong();
+    private final long startNanos = System.nanoTime();
+    private final Thread worker;
+    private volatile boolean running = true;
+    private long tick;
+
+    /**
+     * Creates and starts a wheel.
+     *
+     * @param name           name of the wheel thread
+     * @param tickMs         resolution of the wheel
+     * @param wheelSize      number of buckets, rounded up to a power of two
+     * @param onExpiry       handler of expired payloads
+     * @param expiryExecutor executor running {@code onExpiry}
+     */
+    public HashedTimingWheel(String name, long tickMs, int wheelSize, Consumer<T> onExpiry, Executor expiryExecutor) {
+        if (tickMs <= 0 || wheelSize <= 0) {
+            throw new IllegalArgumentException("tickMs and wheelSize must be positive");
+        }
+        int size = Integer.highestOneBit(wheelSize - 1 | 1) << 1;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMs);
+        this.mask = size - 1;
+        this.buckets = newBuckets(size);
+        this.onExpiry = onExpiry;
+        this.expiryExecutor = expiryExecutor;
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Entry<T>[] newBuckets(int size) {
+        return (Entry<T>[]) new Entry<?>[size];
+    }
+
+    /**
+     * Schedules a payload to expire after a delay.
+     *
+     * @return a handle to cancel the timeout
+     */
+    public Timeout schedule(T payload, long delay, TimeUnit unit) {
+        if (!running) {
+            throw new IllegalStateException("Timing wheel is stopped");
+        }
+        Entry<T> entry = new Entry<>(this, payload, System.nanoTime() - startNanos + unit.toNanos(Math.max(0, delay)));
+        pending.incrementAndGet();
+        scheduled.add(entry);
+        return entry;
+    }
+
+    /**
+     * Returns the number of timeouts scheduled and neither expired nor cancelled.
+     */
+    public long pending() {
+        return pending.get();
+    }
+
+    /**
+     * Stops the wheel thread; pending timeouts are dropped.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(worker);
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            long sleepNanos = tickNanos * (tick + 1) - (System.nanoTime() - startNanos);
+            if (sleepNanos > 0) {
+                LockSupport.parkNanos(this, sleepNanos);
+                continue;
+            }
+            try {
+                transferScheduled();
+                expire(tick & mask);
+            } catch (Throwable t) {
+                log.error("Timing wheel {} tick failed: {}", worker.getName(), t.getMessage(), t);
+            }
+            tick++;
+        }
+    }
+
+    private void transferScheduled() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            Entry<T> entry = scheduled.poll();
+            if (entry == null) {
+                return;
+            }
+            if (entry.state == Entry.CANCELLED) {
+                continue;
+            }
+            long deadlineTick = entry.deadlineNanos / tickNanos;
+            entry.remainingRounds = Math.max(0, (deadlineTick - tick) / buckets.length);
+            // Already overdue: expire in the current tick
+            int index = (int) (Math.max(deadlineTick, tick) & mask);
+            entry.next = buckets[index];
+            buckets[index] = entry;
+        }
+    }
+
+    private void expire(long index) {
+        int bucket = (int) index;
+        Entry<T> previous = null;
+        Entry<T> entry = buckets[bucket];
+        while (entry != null) {
+            Entry<T> next = entry.next;
+            if (entry.state == Entry.CANCELLED || entry.remainingRounds <= 0) {
+                if (previous == null) {
+                    buckets[bucket] = next;
+                } else {
+                    previous.next = next;
+                }
+                entry.next = null;
+                if (entry.expire()) {
+                    pending.decrementAndGet();
+                    fire(entry.payload);
+                }
+            } else {
+                entry.remainingRounds--;
+                previous = entry;
+            }
+            entry = next;
+        }
+    }
+
+    private void fire(T payload) {
+        try {
+            expiryExecutor.execute(() -> onExpiry.accept(payload));
+        } catch (RuntimeException e) {
+            log.warn("Timing wheel {} could not run an expired timeout: {}", worker.getName(), e.getMessage());
+        }
+    }
+
+    /**
+     * Handle of a scheduled timeout.
+     */
+    public interface Timeout {
+
+        /**
+         * Cancels the timeout unless it already expired.
+         */
+        void cancel();
+    }
+
+    private static final class Entry<T> implements Timeout {
+
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<Entry> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Entry.class, "state");
+
+        private final HashedTimingWheel<T> wheel;
+        private final T payload;
+        private final long deadlineNanos;
+        private long remainingRounds;
+        private Entry<T> next;
+        private volatile int state;
+
+        private Entry(HashedTimingWheel<T> wheel, T payload, long deadlineNanos) {
+            this.wheel = wheel;
+            this.payload = payload;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        private boolean expire() {
+            return STATE.compareAndSet(this, PENDING, EXPIRED);
+        }
+
+        @Override
+        public void cancel() {
+            if (STATE.compareAndSet(this, PENDING, CANCELLED)) {
+                wheel.pending.decrementAndGet();
+            }
+        }
+    }
+}
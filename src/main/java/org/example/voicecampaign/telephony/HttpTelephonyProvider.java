@@ -0,0 +1,125 @@
+package org.example.voicecampaign.telephony;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Provider speaking a plain JSON-over-HTTP API with the JDK's non-blocking {@link HttpClient}.
+ *
+ * <p>A call is placed with {@code POST {base-url}/v1/calls} and the body
+ * {@code {"to": ..., "reference": ..., "callbackUrl": ...}}; a 2xx answer must carry
+ * {@code {"callId": ...}}, the external call ID later callbacks refer to. Any other status fails the
+ * initiation with a {@link TelephonyException} carrying it.</p>
+ *
+ * <p>Requests are sent with {@code sendAsync}: no thread waits on a response, and the client's
+ * {@code io-threads} only parse them, so the number of initiations in flight is bounded by the
+ * worker pool and the rate limiter rather than by threads.</p>
+ *
+ * <p>Only created with {@code provider: http}, so other providers start no I/O threads.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "voice-campaign.telephony.provider", havingValue = "http")
+@Slf4j
+public class HttpTelephonyProvider implements TelephonyProvider {
+
+    private final ObjectMapper objectMapper;
+    private final ExecutorService ioExecutor;
+    private final HttpClient httpClient;
+    private final URI callsUri;
+    private final String apiKey;
+    private final String callbackUrl;
+    private final Duration requestTimeout;
+
+    public HttpTelephonyProvider(
+            ObjectMapper objectMapper,
+            @Value("${voice-campaign.telephony.http.base-url:http://localhost:9090}") String baseUrl,
+            @Value("${voice-campaign.telephony.http.api-key:}") String apiKey,
+            @Value("${voice-campaign.telephony.http.callback-url:http://localhost:8081/api/v1/calls/callback}") String callbackUrl,
+            @Value("${voice-campaign.telephony.http.connect-timeout-ms:2000}") long connectTimeoutMs,
+            @Value("${voice-campaign.telephony.http.request-timeout-ms:5000}") long requestTimeoutMs,
+            @Value("${voice-campaign.telephony.http.io-threads:4}") int ioThreads) {
+        this.objectMapper = objectMapper;
+        this.ioExecutor = Executors.newFixedThreadPool(ioThreads);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .executor(ioExecutor)
+                .build();
+        this.callsUri = URI.create(baseUrl.replaceAll("/+$", "") + "/v1/calls");
+        this.apiKey = apiKey;
+        this.callbackUrl = callbackUrl;
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ioExecutor.shutdown();
+    }
+
+    @Override
+    public String getName() {
+        return "http";
+    }
+
+    @Override
+    public CompletionStage<String> initiateCall(String phoneNumber, UUID callRequestId) {
+        HttpRequest request;
+        try {
+            request = buildRequest(phoneNumber, callRequestId);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> parseCallId(response, callRequestId));
+    }
+
+    private HttpRequest buildRequest(String phoneNumber, UUID callRequestId) throws IOException {
+        ObjectNode body = objectMapper.createObjectNode()
+                .put("to", phoneNumber)
+                .put("reference", callRequestId.toString())
+                .put("callbackUrl", callbackUrl);
+        HttpRequest.Builder builder = HttpRequest.newBuilder(callsUri)
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        if (!apiKey.isEmpty()) {
+            builder.header("Authorization", "Bearer " + apiKey);
+        }
+        return builder.build();
+    }
+
+    private String parseCallId(HttpResponse<String> response, UUID callRequestId) {
+        int status = response.statusCode();
+        if (status < 200 || status >= 300) {
+            throw new TelephonyException("Provider rejected call " + callRequestId + " with HTTP " + status, status);
+        }
+        JsonNode callId;
+        try {
+            callId = objectMapper.readTree(response.body()).get("callId");
+        } catch (IOException e) {
+            throw new TelephonyException("Unreadable provider response for call " + callRequestId, e);
+        }
+        if (callId == null || !callId.isTextual() || callId.asText().isEmpty()) {
+            throw new TelephonyException("Provider response for call " + callRequestId + " has no callId", status);
+        }
+        log.debug("Provider accepted call {} as {}", callRequestId, callId.asText());
+        return callId.asText();
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.voicecampaign.telephony;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Distribution of a simulated duration, in milliseconds.
+ *
+ * <ul>
+ *   <li>{@code fixed}: always {@code medianMs}</li>
+ *   <li>{@code lognormal}: {@code medianMs * e^(sigma * N(0,1))}, the long right tail of real network
+ *       and call-handling times</li>
+ *   <li>{@code bimodal}: a mixture of two lognormals with the same {@code sigma}, the second mode around
+ *       {@code secondMedianMs} drawn with probability {@code secondWeight}; e.g. short unanswered
+ *       attempts next to long conversations</li>
+ * </ul>
+ *
+ * @param type           {@code fixed}, {@code lognormal} or {@code bimodal}
+ * @param medianMs       median of the (first) mode
+ * @param sigma          spread of the underlying normal distribution
+ * @param secondMedianMs median of the second mode ({@code bimodal} only)
+ * @param secondWeight   probability of the second mode ({@code bimodal} only)
+ */
+public record LatencyDistribution(String type, double medianMs, double sigma, double secondMedianMs,
+                                  double secondWeight) {
+
+    public LatencyDistribution {
+        type = type.toLowerCase(Locale.ROOT);
+        if (!type.equals("fixed") && !type.equals("lognormal") && !type.equals("bimodal")) {
+            throw new IllegalArgumentException("Unknown latency distribution: " + type);
+        }
+    }
+
+    /**
+     * Draws one duration.
+     *
+     * @return the duration in milliseconds, never negative
+     */
+    public long sample() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double median = type.equals("bimodal") && random.nextDouble() < secondWeight ? secondMedianMs : medianMs;
+        if (type.equals("fixed")) {
+            return Math.max(0, Math.round(median));
+        }
+        return Math.max(0, Math.round(median * Math.exp(sigma * random.nextGaussian())));
+    }
+}
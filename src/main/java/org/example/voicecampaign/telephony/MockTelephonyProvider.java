@@ -0,0 +1,201 @@
+package org.example.voicecampaign.telephony;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.voicecampaign.dto.CallbackRequest;
+import org.example.voicecampaign.service.CallService;
+import org.example.voicecampaign.service.CallbackBuffer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mock provider: accepts calls after a simulated round trip and reports their outcome after a random
+ * call duration, with configurable failure rates. Outcomes go through the {@link CallbackBuffer} like
+ * those posted to the callback endpoints, and are sent again after its {@code Retry-After} when it is
+ * full; without the buffer they are applied with {@link CallService#handleCallback}.
+ */
+@Component
+@Slf4j
+public class MockTelephonyProvider implements TelephonyProvider {
+
+    private final CallService callService;
+    private final CallbackBuffer callbackBuffer;
+    private final ScheduledExecutorService callbackExecutor;
+
+    @Value("${voice-campaign.telephony.mock-min-duration-ms:5000}")
+    private long mockMinDurationMs;
+
+    @Value("${voice-campaign.telephony.mock-max-duration-ms:15000}")
+    private long mockMaxDurationMs;
+
+    @Value("${voice-campaign.telephony.mock-callback-failure-rate:0.05}")
+    private double mockCallbackFailureRate;
+
+    @Value("${voice-campaign.telephony.mock-no-callback-rate:0.01}")
+    private double mockNoCallbackRate;
+
+    @Value("${voice-campaign.telephony.mock-sync-failure-rate:0.005}")
+    private double mockSyncFailureRate;
+
+    /** Simulated round trip of the provider's initiate API; no thread waits for it. */
+    @Value("${voice-campaign.telephony.mock-initiate-latency-ms:0}")
+    private long mockInitiateLatencyMs;
+
+    public MockTelephonyProvider(
+            CallService callService,
+            CallbackBuffer callbackBuffer,
+            @Value("${voice-campaign.telephony.callback-executor-threads:200}") int callbackExecutorThreads) {
+        this.callService = callService;
+        this.callbackBuffer = callbackBuffer;
+        this.callbackExecutor = Executors.newScheduledThreadPool(callbackExecutorThreads);
+        log.info("MockTelephonyProvider initialized with {} callback executor threads", callbackExecutorThreads);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.info("Shutting down mock telephony callback executor...");
+        callbackExecutor.shutdown();
+        try {
+            if (!callbackExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Callback executor did not terminate in time, forcing shutdown");
+                callbackExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            callbackExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        log.info("Mock telephony callback executor shutdown complete");
+    }
+
+    @Override
+    public String getName() {
+        return "mock";
+    }
+
+    @Override
+    public CompletionStage<String> initiateCall(String phoneNumber, UUID callRequestId) {
+        return initiateCalls(List.of(new CallInitiation(callRequestId, phoneNumber))).get(0);
+    }
+
+    /**
+     * Accepts or refuses each call after a single simulated round trip for the whole batch.
+     */
+    @Override
+    public List<CompletionStage<String>> initiateCalls(List<CallInitiation> calls) {
+        List<CompletableFuture<String>> initiations = new ArrayList<>(calls.size());
+        for (int i = 0; i < calls.size(); i++) {
+            initiations.add(new CompletableFuture<>());
+        }
+        Runnable acceptAll = () -> {
+            for (int i = 0; i < calls.size(); i++) {
+                try {
+                    initiations.get(i).complete(accept(calls.get(i).callRequestId()));
+                } catch (Exception e) {
+                    initiations.get(i).completeExceptionally(e);
+                }
+            }
+        };
+        if (mockInitiateLatencyMs <= 0) {
+            acceptAll.run();
+        } else {
+            callbackExecutor.schedule(acceptAll, mockInitiateLatencyMs, TimeUnit.MILLISECONDS);
+        }
+        return List.copyOf(initiations);
+    }
+
+    private String accept(UUID callRequestId) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        // Simulate rare sync failures (1 in 200 = 0.5%)
+        if (random.nextDouble() < mockSyncFailureRate) {
+            throw new TelephonyException("Mock sync failure: Network timeout");
+        }
+
+        String externalCallId = "mock-" + UUID.randomUUID();
+        log.debug("Mock call initiated: {} -> {}", callRequestId, externalCallId);
+
+        long duration = random.nextLong(mockMinDurationMs, mockMaxDurationMs + 1);
+        log.debug("Mock call {} will complete in {}ms", externalCallId, duration);
+
+        // Use scheduled executor with delay instead of Thread.sleep
+        callbackExecutor.schedule(() -> sendCallback(externalCallId), duration + 1000, TimeUnit.MILLISECONDS);
+
+        return externalCallId;
+    }
+
+    private void sendCallback(String externalCallId) {
+        try {
+            ThreadLocalRandom callbackRandom = ThreadLocalRandom.current();
+            double outcome = callbackRandom.nextDouble();
+
+            // 1% chance: No callback at all (simulates timeout - watchdog will handle)
+            if (outcome < mockNoCallbackRate) {
+                log.debug("Mock call {} - simulating no callback (timeout scenario)", externalCallId);
+                return; // Don't send callback, let watchdog handle timeout
+            }
+
+            // 5% chance: Failed callback
+            CallbackRequest callback;
+            if (outcome < mockNoCallbackRate + mockCallbackFailureRate) {
+                CallbackRequest.CallbackStatus failureStatus = getRandomFailureStatus(callbackRandom);
+                callback = CallbackRequest.builder()
+                        .externalCallId(externalCallId)
+                        .status(failureStatus)
+                        .failureReason("Mock failure: " + failureStatus)
+                        .build();
+                log.debug("Mock call {} failed with status {}", externalCallId, failureStatus);
+            } else {
+                // 94% chance: Success
+                int callDuration = 10 + callbackRandom.nextInt(180);
+                callback = CallbackRequest.builder()
+                        .externalCallId(externalCallId)
+                        .status(CallbackRequest.CallbackStatus.COMPLETED)
+                        .durationSeconds(callDuration)
+                        .build();
+                log.debug("Mock call {} completed with duration {}s", externalCallId, callDuration);
+            }
+
+            deliver(callback);
+
+        } catch (Exception e) {
+            log.error("Error in mock callback for {}: {}", externalCallId, e.getMessage());
+        }
+    }
+
+    private void deliver(CallbackRequest callback) {
+        if (!callbackBuffer.isEnabled()) {
+            callService.handleCallback(callback);
+            return;
+        }
+        if (!callbackBuffer.submit(List.of(callback))) {
+            // Refused like a 503: send it again after the Retry-After the endpoint would answer
+            callbackExecutor.schedule(() -> {
+                try {
+                    deliver(callback);
+                } catch (Exception e) {
+                    log.error("Error in mock callback for {}: {}", callback.getExternalCallId(), e.getMessage());
+                }
+            }, callbackBuffer.getRetryAfterSeconds(), TimeUnit.SECONDS);
+        }
+    }
+
+    private CallbackRequest.CallbackStatus getRandomFailureStatus(ThreadLocalRandom random) {
+        CallbackRequest.CallbackStatus[] failures = {
+                CallbackRequest.CallbackStatus.FAILED,
+                CallbackRequest.CallbackStatus.NO_ANSWER,
+                CallbackRequest.CallbackStatus.BUSY,
+                CallbackRequest.CallbackStatus.REJECTED
+        };
+        return failures[random.nextInt(failures.length)];
+    }
+}
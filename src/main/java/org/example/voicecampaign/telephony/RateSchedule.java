@@ -0,0 +1,70 @@
+package org.example.voicecampaign.telephony;
+
+import java.util.Arrays;
+
+/**
+ * A rate that varies over time, interpolated linearly between points and repeating.
+ *
+ * <p>Parsed from {@code "0.05"} (constant) or a list of {@code offsetMs:rate} points starting at 0,
+ * e.g. {@code "0:0.05,300000:0.40,600000:0.05"}: the rate climbs from 5% to 40% over five minutes,
+ * falls back over the next five, and the cycle restarts after the last offset.</p>
+ */
+public final class RateSchedule {
+
+    private final long[] offsetsMs;
+    private final double[] rates;
+
+    private RateSchedule(long[] offsetsMs, double[] rates) {
+        this.offsetsMs = offsetsMs;
+        this.rates = rates;
+    }
+
+    public static RateSchedule parse(String spec) {
+        String[] points = spec.trim().split("\\s*,\\s*");
+        if (points.length == 1 && !points[0].contains(":")) {
+            return new RateSchedule(new long[] {0}, new double[] {rate(points[0], spec)});
+        }
+        long[] offsets = new long[points.length];
+        double[] rates = new double[points.length];
+        for (int i = 0; i < points.length; i++) {
+            String[] point = points[i].split(":");
+            if (point.length != 2) {
+                throw new IllegalArgumentException("Invalid rate schedule point '" + points[i] + "' in " + spec);
+            }
+            offsets[i] = Long.parseLong(point[0].trim());
+            rates[i] = rate(point[1], spec);
+            if (i == 0 ? offsets[i] != 0 : offsets[i] <= offsets[i - 1]) {
+                throw new IllegalArgumentException("Rate schedule offsets must start at 0 and increase: " + spec);
+            }
+        }
+        return new RateSchedule(offsets, rates);
+    }
+
+    private static double rate(String value, String spec) {
+        double rate = Double.parseDouble(value.trim());
+        if (rate < 0 || rate > 1) {
+            throw new IllegalArgumentException("Rates must be between 0 and 1: " + spec);
+        }
+        return rate;
+    }
+
+    /**
+     * Returns the rate at a point in time.
+     *
+     * @param elapsedMs time since the schedule started
+     */
+    public double rateAt(long elapsedMs) {
+        if (rates.length == 1) {
+            return rates[0];
+        }
+        long t = elapsedMs % offsetsMs[offsetsMs.length - 1];
+        int index = Arrays.binarySearch(offsetsMs, t);
+        if (index >= 0) {
+            return rates[index];
+        }
+        int upper = -index - 1;
+        int lower = upper - 1;
+        double fraction = (double) (t - offsetsMs[lower]) / (offsetsMs[upper] - offsetsMs[lower]);
+        return rates[lower] + fraction * (rates[upper] - rates[lower]);
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.voicecampaign.telephony;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps phone numbers to the carrier or country route they are dialed through.
+ *
+ * <p>Parsed from a list of {@code prefix:route} entries, e.g. {@code "1:nanp,44:uk,4420:uk-london"};
+ * prefixes are E.164 digits without the leading {@code +}, and the longest matching prefix wins.
+ * Numbers matching no entry are routed by their first {@code prefixDigits} digits, e.g. {@code +91}
+ * with two digits.</p>
+ */
+public final class RouteTable {
+
+    private final Map<String, String> routes;
+    private final int longestPrefix;
+    private final int prefixDigits;
+
+    private RouteTable(Map<String, String> routes, int prefixDigits) {
+        this.routes = routes;
+        this.longestPrefix = routes.keySet().stream().mapToInt(String::length).max().orElse(0);
+        this.prefixDigits = prefixDigits;
+    }
+
+    public static RouteTable parse(String spec, int prefixDigits) {
+        if (prefixDigits < 1) {
+            throw new IllegalArgumentException("Route prefix digits must be at least 1: " + prefixDigits);
+        }
+        Map<String, String> routes = new HashMap<>();
+        if (spec != null && !spec.isBlank()) {
+            for (String entry : spec.trim().split("\\s*,\\s*")) {
+                String[] parts = entry.split(":");
+                String prefix = parts.length == 2 ? digits(parts[0].trim()) : "";
+                if (prefix.isEmpty() || parts[1].isBlank()) {
+                    throw new IllegalArgumentException("Invalid route table entry '" + entry + "' in " + spec);
+                }
+                routes.put(prefix, parts[1].trim());
+            }
+        }
+        return new RouteTable(Map.copyOf(routes), prefixDigits);
+    }
+
+    /**
+     * Returns the route a number is dialed through.
+     */
+    public String routeOf(String phoneNumber) {
+        String digits = digits(phoneNumber);
+        for (int length = Math.min(longestPrefix, digits.length()); length > 0; length--) {
+            String route = routes.get(digits.substring(0, length));
+            if (route != null) {
+                return route;
+            }
+        }
+        return "+" + digits.substring(0, Math.min(prefixDigits, digits.length()));
+    }
+
+    private static String digits(String phoneNumber) {
+        return phoneNumber.startsWith("+") ? phoneNumber.substring(1) : phoneNumber;
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.voicecampaign.telephony;
+
+/**
+ * Thrown when a call is refused before reaching the provider because its route's circuit breaker is
+ * open, or its route's or the provider account's rate limit is exhausted. The call was not attempted,
+ * so it should be deferred rather than counted as a failed attempt.
+ */
+public class RouteUnavailableException extends TelephonyException {
+
+    private final String route;
+
+    public RouteUnavailableException(String route, Throwable cause) {
+        super("Route " + route + " unavailable: " + cause.getMessage(), cause);
+        this.route = route;
+    }
+
+    public String getRoute() {
+        return route;
+    }
+}
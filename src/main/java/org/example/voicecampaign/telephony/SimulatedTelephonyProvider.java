@@ -0,0 +1,314 @@
+package org.example.voicecampaign.telephony;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.voicecampaign.dto.CallbackRequest;
+import org.example.voicecampaign.service.CallService;
+import org.example.voicecampaign.service.CallbackBuffer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load-test provider simulating a carrier at scale ({@code voice-campaign.telephony.provider: simulator}).
+ *
+ * <p>Initiations (one entry per batch) and callbacks wait on two {@link HashedTimingWheel}s rather than a scheduled thread
+ * pool, so millions of calls can be pending at once for a few dozen bytes each: a pending callback is
+ * an entry holding the external call ID's two longs, its status and duration. Only due callbacks
+ * occupy one of the {@code callback-threads}.</p>
+ *
+ * <p>Each call is shaped as follows:</p>
+ * <ul>
+ *   <li>initiation takes {@code initiate-latency} and is refused with {@code sync-failure-rate}</li>
+ *   <li>an accepted call fails ({@code FAILED}/{@code REJECTED}) with {@code failure-rate} after
+ *       {@code ring-duration}, or is answered with {@code answer-rate} and completes after ringing plus
+ *       {@code call-duration}; otherwise it ends {@code NO_ANSWER}/{@code BUSY} after ringing</li>
+ *   <li>with {@code no-callback-rate} the callback is lost, leaving the call to the watchdog</li>
+ * </ul>
+ *
+ * <p>Callbacks go through the {@link CallbackBuffer} like those posted to the callback endpoints;
+ * one the full buffer refuses goes back on the wheel for its {@code Retry-After}. Without the buffer
+ * they are applied with {@link CallService#handleCallback}.</p>
+ *
+ * <p>Durations follow a {@link LatencyDistribution}; the three rates are {@link RateSchedule}s, so
+ * they can vary over the run. During a brown-out, every {@code brownout.interval-ms} for
+ * {@code brownout.duration-ms} or when {@linkplain #injectBrownout injected}, initiations are slowed
+ * by {@code brownout.latency-multiplier} and refused with {@code brownout.sync-failure-rate}.</p>
+ */
+@Component
+@ConditionalOnProperty(name = "voice-campaign.telephony.provider", havingValue = "simulator")
+@Slf4j
+public class SimulatedTelephonyProvider implements TelephonyProvider {
+
+    private static final CallbackRequest.CallbackStatus[] STATUSES = CallbackRequest.CallbackStatus.values();
+
+    private final CallService callService;
+    private final CallbackBuffer callbackBuffer;
+    private final MeterRegistry meterRegistry;
+    private final long startMillis = System.currentTimeMillis();
+
+    @Value("${voice-campaign.telephony.simulator.wheel-tick-ms:10}")
+    private long wheelTickMs;
+
+    @Value("${voice-campaign.telephony.simulator.wheel-size:8192}")
+    private int wheelSize;
+
+    @Value("${voice-campaign.telephony.simulator.callback-threads:32}")
+    private int callbackThreads;
+
+    @Value("${voice-campaign.telephony.simulator.initiate-latency.distribution:lognormal}")
+    private String initiateLatencyType;
+    @Value("${voice-campaign.telephony.simulator.initiate-latency.median-ms:150}")
+    private double initiateLatencyMedianMs;
+    @Value("${voice-campaign.telephony.simulator.initiate-latency.sigma:0.5}")
+    private double initiateLatencySigma;
+    @Value("${voice-campaign.telephony.simulator.initiate-latency.second-median-ms:0}")
+    private double initiateLatencySecondMedianMs;
+    @Value("${voice-campaign.telephony.simulator.initiate-latency.second-weight:0}")
+    private double initiateLatencySecondWeight;
+
+    @Value("${voice-campaign.telephony.simulator.ring-duration.distribution:lognormal}")
+    private String ringDurationType;
+    @Value("${voice-campaign.telephony.simulator.ring-duration.median-ms:8000}")
+    private double ringDurationMedianMs;
+    @Value("${voice-campaign.telephony.simulator.ring-duration.sigma:0.6}")
+    private double ringDurationSigma;
+    @Value("${voice-campaign.telephony.simulator.ring-duration.second-median-ms:0}")
+    private double ringDurationSecondMedianMs;
+    @Value("${voice-campaign.telephony.simulator.ring-duration.second-weight:0}")
+    private double ringDurationSecondWeight;
+
+    @Value("${voice-campaign.telephony.simulator.call-duration.distribution:bimodal}")
+    private String callDurationType;
+    @Value("${voice-campaign.telephony.simulator.call-duration.median-ms:15000}")
+    private double callDurationMedianMs;
+    @Value("${voice-campaign.telephony.simulator.call-duration.sigma:0.5}")
+    private double callDurationSigma;
+    @Value("${voice-campaign.telephony.simulator.call-duration.second-median-ms:120000}")
+    private double callDurationSecondMedianMs;
+    @Value("${voice-campaign.telephony.simulator.call-duration.second-weight:0.3}")
+    private double callDurationSecondWeight;
+
+    @Value("${voice-campaign.telephony.simulator.sync-failure-rate:0.005}")
+    private String syncFailureRateSpec;
+
+    @Value("${voice-campaign.telephony.simulator.failure-rate:0.05}")
+    private String failureRateSpec;
+
+    @Value("${voice-campaign.telephony.simulator.answer-rate:0.8}")
+    private String answerRateSpec;
+
+    @Value("${voice-campaign.telephony.simulator.no-callback-rate:0.01}")
+    private double noCallbackRate;
+
+    @Value("${voice-campaign.telephony.simulator.brownout.interval-ms:0}")
+    private long brownoutIntervalMs;
+
+    @Value("${voice-campaign.telephony.simulator.brownout.duration-ms:60000}")
+    private long brownoutDurationMs;
+
+    @Value("${voice-campaign.telephony.simulator.brownout.latency-multiplier:10}")
+    private double brownoutLatencyMultiplier;
+
+    @Value("${voice-campaign.telephony.simulator.brownout.sync-failure-rate:0.5}")
+    private double brownoutSyncFailureRate;
+
+    private LatencyDistribution initiateLatency;
+    private LatencyDistribution ringDuration;
+    private LatencyDistribution callDuration;
+    private RateSchedule syncFailureRate;
+    private RateSchedule failureRate;
+    private RateSchedule answerRate;
+    private ExecutorService callbackExecutor;
+    private HashedTimingWheel<List<PendingInitiation>> initiations;
+    private HashedTimingWheel<PendingCallback> callbacks;
+    private volatile long injectedBrownoutUntil;
+
+    public SimulatedTelephonyProvider(CallService callService, CallbackBuffer callbackBuffer,
+                                      MeterRegistry meterRegistry) {
+        this.callService = callService;
+        this.callbackBuffer = callbackBuffer;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        initiateLatency = new LatencyDistribution(initiateLatencyType, initiateLatencyMedianMs,
+                initiateLatencySigma, initiateLatencySecondMedianMs, initiateLatencySecondWeight);
+        ringDuration = new LatencyDistribution(ringDurationType, ringDurationMedianMs,
+                ringDurationSigma, ringDurationSecondMedianMs, ringDurationSecondWeight);
+        callDuration = new LatencyDistribution(callDurationType, callDurationMedianMs,
+                callDurationSigma, callDurationSecondMedianMs, callDurationSecondWeight);
+        syncFailureRate = RateSchedule.parse(syncFailureRateSpec);
+        failureRate = RateSchedule.parse(failureRateSpec);
+        answerRate = RateSchedule.parse(answerRateSpec);
+        callbackExecutor = Executors.newFixedThreadPool(callbackThreads);
+        // Completing an initiation only hands it over to the telephony completion pool
+        initiations = new HashedTimingWheel<>("telephony-sim-initiate", wheelTickMs, wheelSize,
+                batch -> batch.forEach(this::completeInitiation), Runnable::run);
+        callbacks = new HashedTimingWheel<>("telephony-sim-callback", wheelTickMs, wheelSize,
+                this::sendCallback, callbackExecutor);
+        Gauge.builder("voice.campaign.simulator.pending-callbacks", callbacks, HashedTimingWheel::pending)
+                .description("Simulated calls waiting for their callback")
+                .register(meterRegistry);
+        log.info("Telephony simulator started: initiate {}, ring {}, call {}, wheel {} x {}ms",
+                initiateLatency, ringDuration, callDuration, wheelSize, wheelTickMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (callbacks != null) {
+            initiations.close();
+            callbacks.close();
+            callbackExecutor.shutdown();
+            log.info("Telephony simulator stopped with {} callbacks pending", callbacks.pending());
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "simulator";
+    }
+
+    @Override
+    public CompletionStage<String> initiateCall(String phoneNumber, UUID callRequestId) {
+        return initiateCalls(List.of(new CallInitiation(callRequestId, phoneNumber))).get(0);
+    }
+
+    /**
+     * Simulates one batch origination request: a single initiate latency for the whole batch, with
+     * each call refused or accepted on its own.
+     */
+    @Override
+    public List<CompletionStage<String>> initiateCalls(List<CallInitiation> calls) {
+        long elapsedMs = System.currentTimeMillis() - startMillis;
+        boolean brownout = isBrownout(elapsedMs);
+        long latencyMs = initiateLatency.sample();
+        double refusalRate = syncFailureRate.rateAt(elapsedMs);
+        if (brownout) {
+            latencyMs = Math.round(latencyMs * brownoutLatencyMultiplier);
+            refusalRate = Math.max(refusalRate, brownoutSyncFailureRate);
+        }
+
+        List<PendingInitiation> batch = new ArrayList<>(calls.size());
+        List<CompletionStage<String>> results = new ArrayList<>(calls.size());
+        for (int i = 0; i < calls.size(); i++) {
+            PendingInitiation initiation = ThreadLocalRandom.current().nextDouble() < refusalRate
+                    ? new PendingInitiation(null, 0, new CompletableFuture<>())
+                    : plan(elapsedMs);
+            batch.add(initiation);
+            results.add(initiation.result());
+        }
+        initiations.schedule(batch, latencyMs, TimeUnit.MILLISECONDS);
+        return results;
+    }
+
+    /**
+     * Draws the outcome of a call to be accepted and when its callback is due after acceptance.
+     */
+    private PendingInitiation plan(long elapsedMs) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        UUID externalId = UUID.randomUUID();
+        long ringMs = ringDuration.sample();
+
+        CallbackRequest.CallbackStatus status;
+        long delayMs = ringMs;
+        int durationSeconds = 0;
+        if (random.nextDouble() < failureRate.rateAt(elapsedMs)) {
+            status = random.nextBoolean() ? CallbackRequest.CallbackStatus.FAILED : CallbackRequest.CallbackStatus.REJECTED;
+        } else if (random.nextDouble() < answerRate.rateAt(elapsedMs)) {
+            long talkMs = callDuration.sample();
+            status = CallbackRequest.CallbackStatus.COMPLETED;
+            delayMs += talkMs;
+            durationSeconds = (int) Math.min(Integer.MAX_VALUE, TimeUnit.MILLISECONDS.toSeconds(talkMs));
+        } else {
+            status = random.nextBoolean() ? CallbackRequest.CallbackStatus.NO_ANSWER : CallbackRequest.CallbackStatus.BUSY;
+        }
+
+        PendingCallback callback = new PendingCallback(externalId.getMostSignificantBits(),
+                externalId.getLeastSignificantBits(), (byte) status.ordinal(), durationSeconds);
+        return new PendingInitiation(callback, random.nextDouble() < noCallbackRate ? -1 : delayMs,
+                new CompletableFuture<>());
+    }
+
+    private void completeInitiation(PendingInitiation initiation) {
+        if (initiation.callback() == null) {
+            initiation.result().completeExceptionally(new TelephonyException("Simulated provider refused the call"));
+            return;
+        }
+        if (initiation.callbackDelayMs() >= 0) {
+            callbacks.schedule(initiation.callback(), initiation.callbackDelayMs(), TimeUnit.MILLISECONDS);
+        }
+        initiation.result().complete(initiation.callback().externalCallId());
+    }
+
+    private boolean isBrownout(long elapsedMs) {
+        if (System.currentTimeMillis() < injectedBrownoutUntil) {
+            return true;
+        }
+        return brownoutIntervalMs > 0 && elapsedMs % brownoutIntervalMs >= brownoutIntervalMs - brownoutDurationMs;
+    }
+
+    /**
+     * Starts a brown-out now, lasting the given time on top of any scheduled ones.
+     */
+    public void injectBrownout(long durationMs) {
+        injectedBrownoutUntil = System.currentTimeMillis() + durationMs;
+        log.warn("Telephony simulator brown-out injected for {}ms", durationMs);
+    }
+
+    private void sendCallback(PendingCallback pending) {
+        String externalCallId = pending.externalCallId();
+        try {
+            CallbackRequest.CallbackStatus status = STATUSES[pending.status];
+            CallbackRequest.CallbackRequestBuilder callback = CallbackRequest.builder()
+                    .externalCallId(externalCallId)
+                    .status(status);
+            if (status == CallbackRequest.CallbackStatus.COMPLETED) {
+                callback.durationSeconds(pending.durationSeconds);
+            } else {
+                callback.failureReason("Simulated " + status);
+            }
+            if (!callbackBuffer.isEnabled()) {
+                callService.handleCallback(callback.build());
+            } else if (!callbackBuffer.submit(List.of(callback.build()))) {
+                // Refused like a 503: send it again after the Retry-After the endpoint would answer
+                callbacks.schedule(pending, callbackBuffer.getRetryAfterSeconds(), TimeUnit.SECONDS);
+            }
+        } catch (Exception e) {
+            log.error("Error in simulated callback for {}: {}", externalCallId, e.getMessage());
+        }
+    }
+
+    /**
+     * Outcome of one accepted call: the external call ID as two longs, the callback status ordinal
+     * and the talk time.
+     */
+    private record PendingCallback(long idMsb, long idLsb, byte status, int durationSeconds) {
+
+        String externalCallId() {
+            return "sim-" + new UUID(idMsb, idLsb);
+        }
+    }
+
+    /**
+     * An initiation in flight. It is refused if it has no callback; a negative delay means its callback
+     * is lost.
+     */
+    private record PendingInitiation(PendingCallback callback, long callbackDelayMs,
+                                     CompletableFuture<String> result) {
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.voicecampaign.telephony;
+
+/**
+ * A telephony provider refused or failed to place a call.
+ */
+public class TelephonyException extends RuntimeException {
+
+    private final int statusCode;
+
+    public TelephonyException(String message) {
+        this(message, 0);
+    }
+
+    public TelephonyException(String message, int statusCode) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    public TelephonyException(String message, Throwable cause) {
+        super(message, cause);
+        this.statusCode = 0;
+    }
+
+    /**
+     * Returns the HTTP status the provider answered with, 0 if the failure was not an HTTP response.
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+}
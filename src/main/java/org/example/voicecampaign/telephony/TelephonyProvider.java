@@ -0,0 +1,48 @@
+package org.example.voicecampaign.telephony;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * SPI of a telephony provider placing outbound calls.
+ *
+ * <p>Initiation is asynchronous: implementations must return without waiting for the provider, so a
+ * handful of threads can keep thousands of initiations in flight. The outcome of a placed call arrives
+ * later through the callback endpoint, keyed by the returned external call ID.</p>
+ *
+ * <p>The active provider is selected by {@code voice-campaign.telephony.provider}, matched against
+ * {@link #getName()}.</p>
+ */
+public interface TelephonyProvider {
+
+    /**
+     * Returns the name this provider is selected by.
+     */
+    String getName();
+
+    /**
+     * Asks the provider to place a call.
+     *
+     * @param phoneNumber   the number to dial
+     * @param callRequestId the call request, passed to the provider as a reference
+     * @return a stage completing with the provider's external call ID once the provider accepted the
+     *         call, or exceptionally if it did not
+     */
+    CompletionStage<String> initiateCall(String phoneNumber, UUID callRequestId);
+
+    /**
+     * Asks the provider to place several calls, in one request where the provider supports batch
+     * origination. Each call is accepted or refused on its own.
+     *
+     * <p>The default places each call with {@link #initiateCall}.</p>
+     *
+     * @param calls the calls to place
+     * @return one stage per call, in the order of {@code calls}, as returned by {@link #initiateCall}
+     */
+    default List<CompletionStage<String>> initiateCalls(List<CallInitiation> calls) {
+        return calls.stream()
+                .map(call -> initiateCall(call.phoneNumber(), call.callRequestId()))
+                .toList();
+    }
+}
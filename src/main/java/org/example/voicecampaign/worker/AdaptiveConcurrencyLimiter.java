@@ -0,0 +1,245 @@
+package org.example.voicecampaign.worker;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Caps the number of calls the worker pool dispatches at once, adapting the cap to downstream health
+ * with additive-increase/multiplicative-decrease (AIMD).
+ *
+ * <p>Every {@code adjust-interval-ms} the limit is multiplied by {@code decrease-ratio} if any of the
+ * following held over the last interval, and otherwise raised by {@code increase-step} if dispatch
+ * was held back by the limit:</p>
+ * <ul>
+ *   <li>the telephony circuit breaker is open, or its failure rate exceeds {@code max-failure-rate}</li>
+ *   <li>more than {@code max-pending-connections} threads wait for a Hikari connection</li>
+ *   <li>the average {@code initiateCall} latency exceeds {@code target-latency-ms}</li>
+ * </ul>
+ *
+ * <p>The limit stays between {@code min-limit} and the worker pool's capacity, and is exported as the
+ * {@code voice.campaign.dispatch.concurrency.limit} gauge. When disabled, {@link #acquire} grants
+ * everything asked for and the pool is bounded by its capacity alone.</p>
+ */
+@Component
+@Slf4j
+public class AdaptiveConcurrencyLimiter {
+
+    private static final String TELEPHONY_CIRCUIT_BREAKER = "telephonyService";
+
+    private final CircuitBreaker circuitBreaker;
+    private final DataSource dataSource;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition belowLimit = lock.newCondition();
+    private final LongAdder latencySamples = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+
+    @Value("${voice-campaign.worker.adaptive-concurrency.enabled:false}")
+    private boolean enabled;
+
+    @Value("${voice-campaign.worker.adaptive-concurrency.initial-limit:0}")
+    private int initialLimit;
+
+    @Value("${voice-campaign.worker.adaptive-concurrency.min-limit:4}")
+    private int minLimit;
+
+    @Value("${voice-campaign.worker.adaptive-concurrency.increase-step:2}")
+    private int increaseStep;
+
+    @Value("${voice-campaign.worker.adaptive-concurrency.decrease-ratio:0.7}")
+    private double decreaseRatio;
+
+    @Value("${voice-campaign.worker.adaptive-concurrency.target-latency-ms:1000}")
+    private long targetLatencyMs;
+
+    @Value("${voice-campaign.worker.adaptive-concurrency.max-failure-rate:25}")
+    private float maxFailureRate;
+
+    @Value("${voice-campaign.worker.adaptive-concurrency.max-pending-connections:0}")
+    private int maxPendingConnections;
+
+    private int maxLimit = Integer.MAX_VALUE;
+    private volatile int limit = Integer.MAX_VALUE;
+    private int inFlight;
+    private boolean saturated;
+
+    public AdaptiveConcurrencyLimiter(
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            DataSource dataSource,
+            MeterRegistry meterRegistry) {
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(TELEPHONY_CIRCUIT_BREAKER);
+        this.dataSource = dataSource;
+        Gauge.builder("voice.campaign.dispatch.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive limit on concurrently dispatched calls")
+                .register(meterRegistry);
+        Gauge.builder("voice.campaign.dispatch.concurrency.in-flight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Calls currently dispatched under the adaptive limit")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sets the upper bound of the limit to the worker pool's capacity and starts from
+     * {@code initial-limit}, or from the capacity if none is configured.
+     *
+     * @param capacity the maximum number of calls the worker pool can process at once
+     */
+    public void configure(int capacity) {
+        lock.lock();
+        try {
+            maxLimit = capacity;
+            limit = initialLimit > 0 ? Math.min(initialLimit, capacity) : capacity;
+        } finally {
+            lock.unlock();
+        }
+        if (enabled) {
+            log.info("Adaptive dispatch concurrency enabled: limit {} (min {}, max {})", limit, minLimit, maxLimit);
+        }
+    }
+
+    /**
+     * Waits until the limit leaves room, then takes up to {@code max} dispatch permits.
+     *
+     * @param max       the number of permits wanted
+     * @param timeoutMs maximum time to wait for room
+     * @return the permits taken, 0 if there was no room within the timeout
+     */
+    public int acquire(int max, long timeoutMs) throws InterruptedException {
+        if (!enabled) {
+            return max;
+        }
+        lock.lock();
+        try {
+            long remainingNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+            while (inFlight >= limit) {
+                saturated = true;
+                if (remainingNanos <= 0) {
+                    return 0;
+                }
+                remainingNanos = belowLimit.awaitNanos(remainingNanos);
+            }
+            int granted = Math.min(max, limit - inFlight);
+            if (granted < max) {
+                saturated = true;
+            }
+            inFlight += granted;
+            return granted;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns dispatch permits taken with {@link #acquire}.
+     */
+    public void release(int permits) {
+        if (!enabled || permits <= 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            inFlight -= permits;
+            belowLimit.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records the duration of one telephony {@code initiateCall}, successful or not.
+     */
+    public void recordLatency(long nanos) {
+        if (enabled) {
+            latencySamples.increment();
+            latencyNanos.add(nanos);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${voice-campaign.worker.adaptive-concurrency.adjust-interval-ms:1000}")
+    public void adjust() {
+        if (!enabled) {
+            return;
+        }
+        long samples = latencySamples.sumThenReset();
+        long totalNanos = latencyNanos.sumThenReset();
+        String overload = detectOverload(samples, totalNanos);
+
+        lock.lock();
+        try {
+            int previous = limit;
+            if (overload != null) {
+                limit = Math.max(minLimit, (int) (limit * decreaseRatio));
+            } else if (saturated) {
+                limit = Math.min(maxLimit, limit + increaseStep);
+                belowLimit.signalAll();
+            }
+            saturated = false;
+            if (limit < previous) {
+                log.info("Dispatch concurrency limit {} -> {}: {}", previous, limit, overload);
+            } else if (limit > previous) {
+                log.debug("Dispatch concurrency limit {} -> {}", previous, limit);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private String detectOverload(long samples, long totalNanos) {
+        if (circuitBreaker.getState() == CircuitBreaker.State.OPEN) {
+            return "telephony circuit breaker open";
+        }
+        // -1 until the breaker has seen its minimum number of calls
+        float failureRate = circuitBreaker.getMetrics().getFailureRate();
+        if (failureRate > maxFailureRate) {
+            return String.format("telephony failure rate %.1f%%", failureRate);
+        }
+        int pendingConnections = pendingConnections();
+        if (pendingConnections > maxPendingConnections) {
+            return pendingConnections + " threads waiting for a database connection";
+        }
+        if (samples > 0) {
+            long averageMs = TimeUnit.NANOSECONDS.toMillis(totalNanos / samples);
+            if (averageMs > targetLatencyMs) {
+                return "initiate latency " + averageMs + "ms";
+            }
+        }
+        return null;
+    }
+
+    private int pendingConnections() {
+        if (dataSource instanceof HikariDataSource hikari && hikari.getHikariPoolMXBean() != null) {
+            return hikari.getHikariPoolMXBean().getThreadsAwaitingConnection();
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the current limit on concurrently dispatched calls.
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Returns the number of calls currently dispatched under the limit.
+     */
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -5,33 +5,77 @@ import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.voicecampaign.domain.entity.CallRequest;
+import org.example.voicecampaign.domain.model.CallStatus;
+import org.example.voicecampaign.domain.model.CampaignSnapshot;
+import org.example.voicecampaign.domain.model.CampaignStatus;
 import org.example.voicecampaign.repository.CallRequestRepository;
+import org.example.voicecampaign.scheduler.CallClaimService;
 import org.example.voicecampaign.service.CallService;
 import org.example.voicecampaign.service.CampaignMetricsService;
+import org.example.voicecampaign.service.CampaignSnapshotCache;
+import org.example.voicecampaign.worker.queue.CallQueue;
+import org.example.voicecampaign.worker.queue.CallQueueFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 /**
- * Fixed-size thread pool that processes calls from the Redis queue.
+ * Worker pool that processes calls from the Redis queue.
  * 
- * <p>Workers continuously poll the Redis queue for call IDs, fetch call details from the database,
+ * <p>Workers continuously poll the configured {@link CallQueue} for call IDs, fetch call details from the database,
  * and execute calls via the telephony service. Supports graceful shutdown with configurable
  * drain timeout.</p>
+ *
+ * <p>Three modes are available ({@code voice-campaign.worker.mode}):</p>
+ * <ul>
+ *   <li>{@code fixed}: {@code pool-size} platform threads, each polling the queue and processing one
+ *       call at a time.</li>
+ *   <li>{@code virtual}: {@code dispatcher-threads} threads poll the queue and start one virtual thread
+ *       per call, with at most {@code max-concurrent-calls} in flight. Requires a Java 21 runtime; on
+ *       the Java 17 runtime this project targets it runs as {@code async} instead.</li>
+ *   <li>{@code async}: {@code dispatcher-threads} threads poll the queue and start each call on a pool
+ *       of as many threads. A call holds no thread while its initiation is in flight, so up to
+ *       {@code max-concurrent-calls} initiations are outstanding at once.</li>
+ * </ul>
+ *
+ * <p>With {@code dequeue-batch-size} above 1, dispatchers pop up to that many IDs at once, load them
+ * with a single query and fan them out to the call executor. Fixed mode then runs the same
+ * dispatchers in front of a {@code pool-size} thread pool instead of polling per worker.</p>
+ *
+ * <p>With {@code initiate-batch-size} above 1, dispatchers hand calls to the executor in micro-batches
+ * of that size instead of one by one; each micro-batch is initiated with one provider request and
+ * persisted with one batched UPDATE.</p>
+ *
+ * <p>All modes dispatch no more calls at once than {@link AdaptiveConcurrencyLimiter} allows.</p>
+ *
+ * <p>A call keeps its capacity until its initiation completes, and is
+ * {@linkplain CallQueue#acknowledge acknowledged} then, i.e. after its new state is persisted; a call
+ * whose processing failed is left for a durable queue to redeliver.</p>
  * 
  * <p>Key responsibilities:</p>
  * <ul>
  *   <li>Maintain a pool of worker threads for concurrent call processing</li>
  *   <li>Track active worker count for metrics and graceful shutdown</li>
- *   <li>Manage per-campaign queued counts and active slots</li>
+ *   <li>Manage per-campaign queued counts and active slots, one Redis script per call transition</li>
  * </ul>
  */
 @Component
@@ -43,10 +87,29 @@ public class CallWorkerPool {
     private final CampaignMetricsService metricsService;
     private final CallRequestRepository callRequestRepository;
     private final StringRedisTemplate redisTemplate;
+    private final CallQueueFactory callQueueFactory;
+    private final CallClaimService claimService;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final CampaignSnapshotCache campaignSnapshots;
+
+    @Value("${voice-campaign.worker.mode:fixed}")
+    private String mode;
 
     @Value("${voice-campaign.worker.pool-size:20}")
     private int poolSize;
 
+    @Value("${voice-campaign.worker.max-concurrent-calls:1000}")
+    private int maxConcurrentCalls;
+
+    @Value("${voice-campaign.worker.dispatcher-threads:2}")
+    private int dispatcherThreads;
+
+    @Value("${voice-campaign.worker.dequeue-batch-size:1}")
+    private int dequeueBatchSize;
+
+    @Value("${voice-campaign.worker.initiate-batch-size:1}")
+    private int initiateBatchSize;
+
     @Value("${voice-campaign.worker.queue-poll-timeout-ms:1000}")
     private long queuePollTimeoutMs;
 
@@ -56,20 +119,43 @@ public class CallWorkerPool {
     @Value("${voice-campaign.worker.shutdown-termination-seconds:10}")
     private int shutdownTerminationSeconds;
 
-    private static final String CALL_QUEUE_KEY = "call:queue";
     private static final String WORKER_ACTIVE_COUNT_KEY = "worker:active_count";
+    private static final String VIRTUAL_MODE = "virtual";
+    private static final String ASYNC_MODE = "async";
+    private static final CompletionStage<Void> SKIPPED = CompletableFuture.completedFuture(null);
 
+    private CallQueue callQueue;
     private ExecutorService workerPool;
+    private ExecutorService callExecutor;
+    private Semaphore callPermits;
+    private int callCapacity;
     private final AtomicBoolean running = new AtomicBoolean(false);
     private final AtomicInteger activeWorkers = new AtomicInteger(0);
 
     @PostConstruct
     public void init() {
-        workerPool = Executors.newFixedThreadPool(poolSize);
+        callQueue = callQueueFactory.getQueue();
         running.set(true);
         
         // Initialize active count in Redis
         redisTemplate.opsForValue().set(WORKER_ACTIVE_COUNT_KEY, "0");
+
+        if (VIRTUAL_MODE.equalsIgnoreCase(mode)) {
+            startDispatchers(maxConcurrentCalls, newThreadPerCallExecutor());
+            return;
+        }
+        if (ASYNC_MODE.equalsIgnoreCase(mode)) {
+            startDispatchers(maxConcurrentCalls, Executors.newFixedThreadPool(dispatcherThreads));
+            return;
+        }
+        if (dequeueBatchSize > 1) {
+            startDispatchers(poolSize, Executors.newFixedThreadPool(poolSize));
+            return;
+        }
+
+        callCapacity = poolSize;
+        concurrencyLimiter.configure(poolSize);
+        workerPool = Executors.newFixedThreadPool(poolSize);
         
         // Start worker threads
         for (int i = 0; i < poolSize; i++) {
@@ -80,6 +166,36 @@ public class CallWorkerPool {
         log.info("Started CallWorkerPool with {} workers", poolSize);
     }
 
+    private void startDispatchers(int capacity, ExecutorService executor) {
+        callCapacity = capacity;
+        callPermits = new Semaphore(capacity);
+        concurrencyLimiter.configure(capacity);
+        callExecutor = executor;
+        workerPool = Executors.newFixedThreadPool(dispatcherThreads);
+        for (int i = 0; i < dispatcherThreads; i++) {
+            final int dispatcherId = i;
+            workerPool.submit(() -> runDispatcher(dispatcherId));
+        }
+        log.info("Started CallWorkerPool in {} mode: {} dispatchers, up to {} concurrent calls, "
+                        + "dequeue batch {}, initiate batch {}",
+                mode, dispatcherThreads, capacity, Math.max(1, dequeueBatchSize), Math.max(1, initiateBatchSize));
+    }
+
+    /**
+     * Returns a virtual-thread-per-task executor when running on Java 21+. Older runtimes get the
+     * {@code async} mode's pool of {@code dispatcher-threads} threads instead of a platform thread
+     * per call, which at {@code max-concurrent-calls} in flight would mean as many parked threads.
+     */
+    private ExecutorService newThreadPerCallExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            log.warn("Virtual threads require Java 21+ (running {}), running virtual mode as async mode",
+                    Runtime.version());
+            return Executors.newFixedThreadPool(dispatcherThreads);
+        }
+    }
+
     @PreDestroy
     public void shutdown() {
         log.info("Initiating graceful shutdown of CallWorkerPool...");
@@ -104,16 +220,10 @@ public class CallWorkerPool {
             log.warn("Forcing shutdown with {} workers still active", activeWorkers.get());
         }
         
-        // 3. Shutdown the thread pool
-        workerPool.shutdown();
-        try {
-            if (!workerPool.awaitTermination(shutdownTerminationSeconds, TimeUnit.SECONDS)) {
-                log.warn("Workers did not terminate in time, forcing shutdown");
-                workerPool.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            workerPool.shutdownNow();
-            Thread.currentThread().interrupt();
+        // 3. Shutdown the thread pools
+        terminate(workerPool);
+        if (callExecutor != null) {
+            terminate(callExecutor);
         }
         
         // 4. Clear worker active count in Redis
@@ -122,14 +232,36 @@ public class CallWorkerPool {
         log.info("CallWorkerPool shutdown complete");
     }
 
+    private void terminate(ExecutorService executor) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(shutdownTerminationSeconds, TimeUnit.SECONDS)) {
+                log.warn("Workers did not terminate in time, forcing shutdown");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
     private void runWorker(int workerId) {
         log.debug("Worker {} started", workerId);
         
         while (running.get()) {
+            try {
+                // Idle while the adaptive limit is reached
+                if (concurrencyLimiter.acquire(1, queuePollTimeoutMs) == 0) {
+                    continue;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+
             try {
                 // Block and wait for a job from the queue
-                String callRequestId = redisTemplate.opsForList().rightPop(
-                        CALL_QUEUE_KEY, queuePollTimeoutMs, TimeUnit.MILLISECONDS);
+                UUID callRequestId = callQueue.pop(queuePollTimeoutMs);
                 
                 if (callRequestId == null) {
                     // No job available, continue polling
@@ -137,62 +269,352 @@ public class CallWorkerPool {
                 }
 
                 // Mark worker as active
-                incrementActiveWorkers();
+                incrementActiveWorkers(1);
                 
                 try {
-                    processCall(workerId, UUID.fromString(callRequestId));
+                    // One call at a time per worker: wait for the initiation to complete
+                    processCall(workerId, callRequestId).toCompletableFuture().join();
+                    callQueue.acknowledge(callRequestId);
                 } finally {
-                    decrementActiveWorkers();
+                    decrementActiveWorkers(1);
                 }
                 
             } catch (Exception e) {
                 if (running.get()) {
                     log.error("Worker {} error: {}", workerId, e.getMessage(), e);
                 }
+            } finally {
+                concurrencyLimiter.release(1);
             }
         }
         
         log.debug("Worker {} stopped", workerId);
     }
 
-    private void processCall(int workerId, UUID callRequestId) {
-        Optional<CallRequest> callRequestOpt = callRequestRepository.findByIdWithCampaign(callRequestId);
+    /**
+     * Dispatcher loop: takes up to {@code dequeue-batch-size} permits, pops as many calls, loads them
+     * in one query and runs each on its own executor task.
+     */
+    private void runDispatcher(int dispatcherId) {
+        log.debug("Dispatcher {} started", dispatcherId);
+
+        while (running.get()) {
+            int permits;
+            try {
+                permits = acquirePermits();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (permits == 0) {
+                continue;
+            }
+
+            int handedOff = 0;
+            try {
+                List<UUID> callRequestIds = callQueue.popBatch(permits, queuePollTimeoutMs);
+                if (!callRequestIds.isEmpty()) {
+                    handedOff = dispatchBatch(dispatcherId, callRequestIds);
+                }
+            } catch (Exception e) {
+                if (running.get()) {
+                    log.error("Dispatcher {} error: {}", dispatcherId, e.getMessage(), e);
+                }
+            } finally {
+                releasePermits(permits - handedOff);
+            }
+        }
+
+        log.debug("Dispatcher {} stopped", dispatcherId);
+    }
+
+    /**
+     * Waits for one permit, then takes up to {@code dequeue-batch-size - 1} more without waiting,
+     * trimmed to what the adaptive concurrency limit allows.
+     *
+     * @return the number of permits taken, 0 if none became available within the poll timeout
+     */
+    private int acquirePermits() throws InterruptedException {
+        if (!callPermits.tryAcquire(queuePollTimeoutMs, TimeUnit.MILLISECONDS)) {
+            return 0;
+        }
+        int permits = 1;
+        while (permits < dequeueBatchSize && callPermits.tryAcquire()) {
+            permits++;
+        }
+        int granted = 0;
+        try {
+            granted = concurrencyLimiter.acquire(permits, queuePollTimeoutMs);
+        } finally {
+            callPermits.release(permits - granted);
+        }
+        return granted;
+    }
+
+    private void releasePermits(int permits) {
+        callPermits.release(permits);
+        concurrencyLimiter.release(permits);
+    }
+
+    /**
+     * Loads popped calls in a single query, resolves their campaigns from the snapshot cache and
+     * hands them to the call executor in dequeue order, one by one or in micro-batches of
+     * {@code initiate-batch-size}.
+     *
+     * @return the number of calls handed off, each holding one permit until it completes
+     */
+    private int dispatchBatch(int dispatcherId, List<UUID> callRequestIds) {
+        Map<UUID, CallRequest> loaded = new HashMap<>();
+        for (CallRequest callRequest : callRequestRepository.findAllById(callRequestIds)) {
+            loaded.put(callRequest.getId(), callRequest);
+        }
+        Map<UUID, CampaignSnapshot> campaigns = campaignSnapshots.getAll(loaded.values().stream()
+                .map(callRequest -> callRequest.getCampaign().getId())
+                .collect(Collectors.toSet()));
+
+        List<CallRequest> batch = new ArrayList<>(loaded.size());
+        for (UUID callRequestId : callRequestIds) {
+            CallRequest callRequest = loaded.get(callRequestId);
+            if (callRequest == null) {
+                log.warn("Dispatcher {} call {} not found, skipping", dispatcherId, callRequestId);
+                callQueue.acknowledge(callRequestId);
+            } else {
+                batch.add(callRequest);
+            }
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        // Counted before hand-off so graceful shutdown waits for them
+        incrementActiveWorkers(batch.size());
+        int handedOff = 0;
+        try {
+            if (initiateBatchSize > 1) {
+                for (int from = 0; from < batch.size(); from += initiateBatchSize) {
+                    List<CallRequest> chunk = batch.subList(from, Math.min(batch.size(), from + initiateBatchSize));
+                    callExecutor.execute(() -> runCalls(dispatcherId, chunk, campaigns));
+                    handedOff += chunk.size();
+                }
+            } else {
+                for (CallRequest callRequest : batch) {
+                    CampaignSnapshot campaign = campaigns.get(callRequest.getCampaign().getId());
+                    callExecutor.execute(() -> runCall(dispatcherId, callRequest, campaign));
+                    handedOff++;
+                }
+            }
+        } catch (RejectedExecutionException e) {
+            List<CallRequest> rejected = batch.subList(handedOff, batch.size());
+            decrementActiveWorkers(rejected.size());
+            log.warn("Dispatcher {} could not start {} calls, executor is shutting down", dispatcherId, rejected.size());
+            rejected.forEach(callRequest -> metricsService.callDequeued(callRequest.getCampaign().getId(), false));
+            List<UUID> rejectedIds = rejected.stream().map(CallRequest::getId).toList();
+            claimService.releaseClaims(rejectedIds);
+            rejectedIds.forEach(callQueue::acknowledge);
+        }
+        return handedOff;
+    }
+
+    /**
+     * Starts one call; its permit and active count are released once the call's initiation
+     * completes, not when this task returns.
+     */
+    private void runCall(int dispatcherId, CallRequest callRequest, CampaignSnapshot campaign) {
+        CompletionStage<Void> call;
+        try {
+            call = processCall(dispatcherId, callRequest, campaign);
+        } catch (Exception e) {
+            call = CompletableFuture.failedFuture(e);
+        }
+        call.whenComplete((ignored, error) -> {
+            try {
+                if (error == null) {
+                    callQueue.acknowledge(callRequest.getId());
+                } else {
+                    log.error("Call {} error: {}", callRequest.getId(), error.getMessage(), error);
+                }
+            } finally {
+                decrementActiveWorkers(1);
+                releasePermits(1);
+            }
+        });
+    }
+
+    /**
+     * Starts a micro-batch of calls; like {@link #runCall}, their permits and active count are
+     * released once the batch's initiation completes.
+     */
+    private void runCalls(int dispatcherId, List<CallRequest> callRequests, Map<UUID, CampaignSnapshot> campaigns) {
+        CompletionStage<Void> calls;
+        try {
+            calls = processCalls(dispatcherId, callRequests, campaigns);
+        } catch (Exception e) {
+            calls = CompletableFuture.failedFuture(e);
+        }
+        calls.whenComplete((ignored, error) -> {
+            try {
+                if (error == null) {
+                    callRequests.forEach(callRequest -> callQueue.acknowledge(callRequest.getId()));
+                } else {
+                    log.error("Batch of {} calls error: {}", callRequests.size(), error.getMessage(), error);
+                }
+            } finally {
+                decrementActiveWorkers(callRequests.size());
+                releasePermits(callRequests.size());
+            }
+        });
+    }
+
+    private CompletionStage<Void> processCall(int workerId, UUID callRequestId) {
+        Optional<CallRequest> callRequestOpt = callRequestRepository.findById(callRequestId);
         
         if (callRequestOpt.isEmpty()) {
             log.warn("Worker {} call {} not found, skipping", workerId, callRequestId);
-            return;
+            return SKIPPED;
         }
         
         CallRequest callRequest = callRequestOpt.get();
+        return processCall(workerId, callRequest,
+                campaignSnapshots.get(callRequest.getCampaign().getId()).orElse(null));
+    }
+
+    /**
+     * Dials a call if it is still due and this worker claims it, returning a stage that completes once
+     * its initiation has been handled; skipped calls return an already completed stage.
+     */
+    private CompletionStage<Void> processCall(int workerId, CallRequest callRequest, CampaignSnapshot campaign) {
+        if (!isDialable(workerId, callRequest, campaign)
+                || claim(workerId, List.of(callRequest), Map.of(campaign.id(), campaign)).isEmpty()) {
+            return SKIPPED;
+        }
+        UUID callRequestId = callRequest.getId();
         UUID campaignId = callRequest.getCampaign().getId();
+
+        // Queued count, active slot and worker count move together in one round trip
+        metricsService.callDequeued(campaignId, true);
         
-        decrementQueuedCount(campaignId);
-        metricsService.incrementActiveSlots(campaignId);
-        
+        CompletionStage<Void> execution;
+        try {
+            execution = callService.executeCall(callRequest, campaign);
+        } catch (Exception e) {
+            execution = CompletableFuture.failedFuture(e);
+        }
+        return execution.handle((ignored, error) -> {
+            if (error != null) {
+                log.error("Worker {} failed to execute call {}: {}", workerId, callRequestId, error.getMessage());
+            }
+            metricsService.callDispatched(campaignId, error != null);
+            return null;
+        });
+    }
+
+    /**
+     * Dials the calls of a micro-batch that are still due and claimed with one batch initiation.
+     */
+    private CompletionStage<Void> processCalls(int dispatcherId, List<CallRequest> callRequests,
+                                               Map<UUID, CampaignSnapshot> campaigns) {
+        List<CallRequest> due = new ArrayList<>(callRequests.size());
+        for (CallRequest callRequest : callRequests) {
+            if (isDialable(dispatcherId, callRequest, campaigns.get(callRequest.getCampaign().getId()))) {
+                due.add(callRequest);
+            }
+        }
+        List<CallRequest> dialable = due.isEmpty() ? due : claim(dispatcherId, due, campaigns);
+        if (dialable.isEmpty()) {
+            return SKIPPED;
+        }
+        dialable.forEach(callRequest -> metricsService.callDequeued(callRequest.getCampaign().getId(), true));
+
+        CompletionStage<Void> execution;
         try {
-            callService.executeCall(callRequest);
+            execution = callService.executeCalls(dialable, campaigns);
         } catch (Exception e) {
-            log.error("Worker {} failed to execute call {}: {}", workerId, callRequestId, e.getMessage());
-            metricsService.releaseSlot(campaignId);
+            execution = CompletableFuture.failedFuture(e);
         }
+        return execution.handle((ignored, error) -> {
+            if (error != null) {
+                log.error("Dispatcher {} failed to execute batch of {} calls: {}",
+                        dispatcherId, dialable.size(), error.getMessage());
+            }
+            dialable.forEach(callRequest ->
+                    metricsService.callDispatched(callRequest.getCampaign().getId(), error != null));
+            return null;
+        });
     }
-    
-    private void decrementQueuedCount(UUID campaignId) {
-        String key = String.format("campaign:%s:queued", campaignId);
-        Long newValue = redisTemplate.opsForValue().decrement(key);
-        if (newValue != null && newValue < 0) {
-            redisTemplate.opsForValue().set(key, "0");
+
+    /**
+     * Returns whether a dequeued call should be dialed; a call that should not is accounted as
+     * dequeued without dialing, and given back if its campaign is paused.
+     */
+    private boolean isDialable(int workerId, CallRequest callRequest, CampaignSnapshot campaign) {
+        UUID callRequestId = callRequest.getId();
+        // Only the campaign's ID is read from the entity; its settings come from the snapshot
+        UUID campaignId = callRequest.getCampaign().getId();
+
+        if (campaign == null) {
+            log.warn("Worker {} call {} belongs to unknown campaign {}, skipping", workerId, callRequestId, campaignId);
+            metricsService.callDequeued(campaignId, false);
+            return false;
+        }
+
+        // Only dial calls that are still claimed for dispatch; a cancelled or already
+        // dispatched call must not be dialed again
+        if (callRequest.getStatus() != CallStatus.SCHEDULED) {
+            log.debug("Worker {} call {} is {} (not SCHEDULED), skipping", 
+                    workerId, callRequestId, callRequest.getStatus());
+            metricsService.callDequeued(campaignId, false);
+            return false;
+        }
+
+        // A campaign paused after this call was queued gets the call back as PENDING/FAILED
+        if (campaign.status() == CampaignStatus.PAUSED) {
+            log.debug("Worker {} call {} belongs to paused campaign {}, releasing", workerId, callRequestId, campaignId);
+            metricsService.callDequeued(campaignId, false);
+            claimService.releaseClaims(List.of(callRequestId));
+            return false;
         }
+        return true;
     }
 
     /**
-     * Enqueues a call request ID to the Redis queue for worker processing.
-     * 
-     * @param callRequestId the UUID of the call request to enqueue
+     * Claims due calls for dialing, returning those claimed. The entity read when the call was
+     * dequeued may be stale: a queue entry redelivered while its first delivery is being dialed still
+     * reads SCHEDULED, and only the guarded SCHEDULED to DIALING update tells the two apart. A call
+     * not claimed is accounted as dequeued without dialing.
      */
-    public void enqueueCall(UUID callRequestId) {
-        redisTemplate.opsForList().leftPush(CALL_QUEUE_KEY, callRequestId.toString());
-        log.debug("Enqueued call {}", callRequestId);
+    private List<CallRequest> claim(int workerId, List<CallRequest> callRequests, Map<UUID, CampaignSnapshot> campaigns) {
+        Set<UUID> claimed = callService.claimForDialing(callRequests, campaigns);
+        List<CallRequest> dialable = new ArrayList<>(claimed.size());
+        for (CallRequest callRequest : callRequests) {
+            if (claimed.contains(callRequest.getId())) {
+                dialable.add(callRequest);
+            } else {
+                log.debug("Worker {} call {} was claimed elsewhere or released, skipping", workerId, callRequest.getId());
+                metricsService.callDequeued(callRequest.getCampaign().getId(), false);
+            }
+        }
+        return dialable;
+    }
+
+    /**
+     * Enqueues a batch of call request IDs for one campaign and increments the campaign's queued
+     * count, in a single Redis round trip.
+     *
+     * @param campaignId     the campaign the calls belong to
+     * @param callRequestIds the call request IDs to enqueue
+     * @param fencingToken   the scheduler term issuing the batch, or {@code LeaderElection.NO_FENCING}
+     * @return false if the batch was rejected because {@code fencingToken} has been superseded
+     */
+    public boolean enqueueCalls(UUID campaignId, List<UUID> callRequestIds, long fencingToken) {
+        if (!callQueue.push(campaignId, callRequestIds, fencingToken)) {
+            log.warn("Rejected {} calls for campaign {}: scheduler term {} has been superseded",
+                    callRequestIds.size(), campaignId, fencingToken);
+            return false;
+        }
+        if (!callRequestIds.isEmpty()) {
+            log.debug("Enqueued {} calls for campaign {}", callRequestIds.size(), campaignId);
+        }
+        return true;
     }
 
     /**
@@ -201,8 +623,32 @@ public class CallWorkerPool {
      * @return the queue depth
      */
     public long getQueueDepth() {
-        Long size = redisTemplate.opsForList().size(CALL_QUEUE_KEY);
-        return size != null ? size : 0;
+        return callQueue.depth();
+    }
+
+    /**
+     * Returns the number of call IDs of one campaign waiting in the Redis queue.
+     *
+     * @param campaignId the campaign
+     * @return the campaign's queue depth
+     */
+    public long getQueueDepth(UUID campaignId) {
+        return callQueue.depth(campaignId);
+    }
+
+    /**
+     * Periodically repairs queue bookkeeping left behind by workers that died mid-dequeue.
+     */
+    @Scheduled(fixedDelayString = "${voice-campaign.worker.queue-repair-interval-ms:5000}")
+    public void repairQueue() {
+        if (!running.get()) {
+            return;
+        }
+        try {
+            callQueue.repair();
+        } catch (Exception e) {
+            log.warn("Call queue repair failed: {}", e.getMessage());
+        }
     }
 
     /**
@@ -215,21 +661,21 @@ public class CallWorkerPool {
     }
 
     /**
-     * Returns the configured worker pool size.
+     * Returns the configured worker capacity: the pool size in fixed mode, the maximum number of
+     * concurrent calls in virtual and async mode.
      * 
-     * @return the total number of worker threads
+     * @return the maximum number of calls processed at once
      */
     public int getPoolSize() {
-        return poolSize;
+        return callCapacity;
     }
 
-    private void incrementActiveWorkers() {
-        activeWorkers.incrementAndGet();
-        redisTemplate.opsForValue().increment(WORKER_ACTIVE_COUNT_KEY);
+    // The shared worker:active_count is kept by the dequeued/dispatched transitions instead
+    private void incrementActiveWorkers(int count) {
+        activeWorkers.addAndGet(count);
     }
 
-    private void decrementActiveWorkers() {
-        activeWorkers.decrementAndGet();
-        redisTemplate.opsForValue().decrement(WORKER_ACTIVE_COUNT_KEY);
+    private void decrementActiveWorkers(int count) {
+        activeWorkers.addAndGet(-count);
     }
 }
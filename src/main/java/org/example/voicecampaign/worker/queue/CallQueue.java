@@ -0,0 +1,117 @@
+package org.example.voicecampaign.worker.queue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Redis-backed hand-off of call request IDs from the scheduler to the worker pool.
+ *
+ * <p>Implementations define the queue topology and are selected by
+ * {@code voice-campaign.worker.queue-topology}, see {@link CallQueueFactory}. Every implementation
+ * keeps the per-campaign {@code campaign:{id}:queued} counter in step with what it pushes.</p>
+ */
+public interface CallQueue {
+
+    /**
+     * Returns the topology name for configuration purposes.
+     */
+    String getName();
+
+    /**
+     * Pushes a batch of call request IDs for one campaign and increments its queued count, in a
+     * single round trip.
+     *
+     * @param campaignId     the campaign the calls belong to
+     * @param callRequestIds the call request IDs to enqueue
+     * @param fencingToken   the scheduler term issuing the batch, or {@code LeaderElection.NO_FENCING}
+     * @return false if the batch was rejected because {@code fencingToken} has been superseded
+     */
+    boolean push(UUID campaignId, List<UUID> callRequestIds, long fencingToken);
+
+    /**
+     * Blocks until a call request ID is available or the timeout elapses.
+     *
+     * @param timeoutMs maximum time to wait
+     * @return the next call request ID, or null if none was available
+     */
+    UUID pop(long timeoutMs);
+
+    /**
+     * Blocks until at least one call request ID is available or the timeout elapses, then takes up
+     * to {@code maxCount} IDs without waiting further.
+     *
+     * @param maxCount  maximum number of IDs to take
+     * @param timeoutMs maximum time to wait for the first ID
+     * @return the IDs taken in dequeue order, empty if none was available
+     */
+    default List<UUID> popBatch(int maxCount, long timeoutMs) {
+        UUID callRequestId = pop(timeoutMs);
+        return callRequestId != null ? List.of(callRequestId) : List.of();
+    }
+
+    /**
+     * Confirms that a dequeued call's state has been persisted. Durable queues redeliver calls that
+     * are not acknowledged in time; other queues forget a call as soon as it is popped.
+     *
+     * @param callRequestId a call request ID returned by {@link #pop} or {@link #popBatch}
+     */
+    default void acknowledge(UUID callRequestId) {
+    }
+
+    /**
+     * Returns whether queued calls survive a restart, in which case startup sync keeps the queue
+     * and only releases claims of calls missing from it.
+     */
+    default boolean isDurable() {
+        return false;
+    }
+
+    /**
+     * Returns every call request ID held by a durable queue, delivered but unacknowledged ones
+     * included, mapped to its campaign ID.
+     */
+    default Map<UUID, UUID> queuedCalls() {
+        return Map.of();
+    }
+
+    /**
+     * Returns the ID of every call held by the queue, for releasing the claims of calls missing from
+     * it while other nodes keep working. A durable queue includes delivered but unacknowledged calls.
+     */
+    default Set<UUID> queuedCallIds() {
+        return queuedCalls().keySet();
+    }
+
+    /**
+     * Returns the total number of call request IDs waiting in the queue.
+     */
+    long depth();
+
+    /**
+     * Returns the number of call request IDs of one campaign waiting in the queue.
+     */
+    long depth(UUID campaignId);
+
+    /**
+     * Removes every waiting call request ID of a campaign, e.g. when it is paused, and decrements
+     * its queued count accordingly.
+     *
+     * @return the removed IDs, whose SCHEDULED claims the caller should release; empty if the
+     *         topology cannot remove a single campaign's entries
+     */
+    List<UUID> drain(UUID campaignId);
+
+    /**
+     * Deletes all queue state, e.g. on startup before claims are released.
+     */
+    void clear();
+
+    /**
+     * Repairs bookkeeping that can be left inconsistent by a worker dying mid-dequeue. Safe to run
+     * concurrently from every node.
+     */
+    default void repair() {
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.voicecampaign.worker.queue;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Factory for selecting the active call queue topology based on configuration.
+ */
+@Component
+@Slf4j
+public class CallQueueFactory {
+
+    private final Map<String, CallQueue> queues;
+    private final CallQueue queue;
+
+    public CallQueueFactory(
+            List<CallQueue> queueList,
+            @Value("${voice-campaign.worker.queue-topology:shared}") String topology) {
+
+        this.queues = queueList.stream()
+                .collect(Collectors.toMap(CallQueue::getName, Function.identity()));
+
+        CallQueue selected = queues.get(topology);
+        if (selected == null) {
+            log.warn("Queue topology '{}' not found, falling back to shared", topology);
+            selected = queues.get("shared");
+        }
+        this.queue = selected;
+
+        log.info("Call queue topology: {} (available: {})", queue.getName(), queues.keySet());
+    }
+
+    /**
+     * Returns the configured call queue.
+     */
+    public CallQueue getQueue() {
+        return queue;
+    }
+
+    /**
+     * Returns every available topology, e.g. to clear state left by a previously configured one.
+     */
+    public List<CallQueue> getAllQueues() {
+        return List.copyOf(queues.values());
+    }
+}
@@ -0,0 +1,322 @@
+package org.example.voicecampaign.worker.queue;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.example.voicecampaign.config.RedisScripts.listScript;
+
+/**
+ * One list per campaign ({@code campaign:{id}:queue}), dequeued round-robin through a ready ring.
+ *
+ * <p>Every campaign with waiting calls has exactly one token (its ID) in the {@code call:ready} list;
+ * {@code call:ready:set} records which campaigns hold a token. A worker blocks on the ready list with
+ * BRPOP, takes one call from that campaign's list and, if more remain, puts the token back at the
+ * tail. Dequeue is therefore per-call round-robin across campaigns at O(1) cost, a large allocation
+ * to one campaign never blocks the others, and a paused campaign's list can be drained on its own.
+ * A blocked worker wakes as soon as any campaign gets work, since it only ever waits on one key.</p>
+ *
+ * <p>A worker dying between popping a token and returning it would strand the campaign, so
+ * {@link #repair()} re-issues tokens for campaigns that have waiting calls but have had no token
+ * for two consecutive runs. Should a token still be duplicated, that campaign merely gets a double
+ * share until its list runs empty.</p>
+ *
+ * <p>Scripts are passed every key they touch. Batch takes and repairs therefore read the ring's
+ * next tokens or the ready set first, and leave campaigns they were not given keys for to the
+ * next call.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PerCampaignCallQueue implements CallQueue {
+
+    private static final String CAMPAIGN_QUEUE_KEY = "campaign:%s:queue";
+    private static final String CAMPAIGN_QUEUE_KEYS_GLOB = "campaign:*:queue";
+    private static final String CAMPAIGN_QUEUED_KEY = "campaign:%s:queued";
+    private static final String READY_KEY = "call:ready";
+    private static final String READY_SET_KEY = "call:ready:set";
+    private static final String READY_SUSPECTS_KEY = "call:ready:suspects";
+    private static final String DEPTH_KEY = "call:queue:depth";
+    private static final String SCHEDULER_FENCE_KEY = "leader:scheduler:fence";
+
+    /**
+     * Pushes ARGV[3..n] onto the campaign's list (ARGV[2] is the campaign ID), bumps its queued count
+     * and the total depth, and issues a ready token if the campaign has none. Fenced like
+     * {@link SharedCallQueue}; returns -1 when fenced off.
+     */
+    private static final RedisScript<Long> PUSH_SCRIPT = new DefaultRedisScript<>("""
+            if ARGV[1] ~= '0' and redis.call('GET', KEYS[3]) ~= ARGV[1] then
+                return -1
+            end
+            for i = 3, #ARGV, 1000 do
+                redis.call('LPUSH', KEYS[1], unpack(ARGV, i, math.min(i + 999, #ARGV)))
+            end
+            local pushed = #ARGV - 2
+            redis.call('INCRBY', KEYS[6], pushed)
+            if redis.call('SADD', KEYS[4], ARGV[2]) == 1 then
+                redis.call('LPUSH', KEYS[5], ARGV[2])
+            end
+            return redis.call('INCRBY', KEYS[2], pushed)
+            """, Long.class);
+
+    /**
+     * Takes one call from the campaign whose token was just popped and hands the token back to the
+     * tail of the ring, or retires it if the campaign's list is now empty.
+     */
+    private static final RedisScript<String> TAKE_SCRIPT = new DefaultRedisScript<>("""
+            local id = redis.call('RPOP', KEYS[1])
+            if id then
+                redis.call('DECR', KEYS[4])
+            end
+            if redis.call('LLEN', KEYS[1]) > 0 then
+                redis.call('LPUSH', KEYS[3], ARGV[1])
+            else
+                redis.call('SREM', KEYS[2], ARGV[1])
+            end
+            return id
+            """, String.class);
+
+    /**
+     * Batch form of {@link #TAKE_SCRIPT}: starting with the popped token ARGV[2], takes one call per
+     * token and moves on to the next token in the ring, until ARGV[1] calls are taken or the ring is
+     * empty. Calls are therefore still taken round-robin across campaigns. ARGV[2..n] are the
+     * campaigns the batch may reach, with their lists in KEYS[4..n+2]; a token of any other campaign
+     * is put back at the tail of the ring and ends the batch.
+     */
+    private static final RedisScript<List<String>> TAKE_BATCH_SCRIPT = listScript("""
+            local queues = {}
+            for i = 2, #ARGV do
+                queues[ARGV[i]] = KEYS[i + 2]
+            end
+            local ids = {}
+            local campaign = ARGV[2]
+            local max = tonumber(ARGV[1])
+            while campaign do
+                local queue = queues[campaign]
+                if not queue then
+                    redis.call('RPUSH', KEYS[2], campaign)
+                    break
+                end
+                local id = redis.call('RPOP', queue)
+                if id then
+                    ids[#ids + 1] = id
+                end
+                if redis.call('LLEN', queue) > 0 then
+                    redis.call('LPUSH', KEYS[2], campaign)
+                else
+                    redis.call('SREM', KEYS[1], campaign)
+                end
+                if #ids >= max then
+                    break
+                end
+                campaign = redis.call('RPOP', KEYS[2])
+            end
+            if #ids > 0 then
+                redis.call('DECRBY', KEYS[3], #ids)
+            end
+            return ids
+            """);
+
+    private static final RedisScript<List<String>> DRAIN_SCRIPT = listScript("""
+            local ids = redis.call('LRANGE', KEYS[1], 0, -1)
+            if #ids > 0 then
+                redis.call('DEL', KEYS[1])
+                redis.call('DECRBY', KEYS[2], #ids)
+                redis.call('DECRBY', KEYS[3], #ids)
+            end
+            return ids
+            """);
+
+    /**
+     * Re-issues tokens for campaigns marked ready whose token is missing from the ring, and forgets
+     * those whose list is empty. A worker legitimately holds a token for one round trip, so only
+     * campaigns already found missing on the previous run (KEYS[3]) are touched. ARGV[1..n] are the
+     * campaigns read from the ready set beforehand, with their lists in KEYS[4..n+3]; campaigns
+     * marked ready since are checked on the next run.
+     */
+    private static final RedisScript<Long> REPAIR_SCRIPT = new DefaultRedisScript<>("""
+            local queues = {}
+            for i = 1, #ARGV do
+                queues[ARGV[i]] = KEYS[i + 3]
+            end
+            local inRing = {}
+            for _, c in ipairs(redis.call('LRANGE', KEYS[2], 0, -1)) do
+                inRing[c] = true
+            end
+            local suspects = {}
+            for _, c in ipairs(redis.call('SMEMBERS', KEYS[3])) do
+                suspects[c] = true
+            end
+            redis.call('DEL', KEYS[3])
+            local repaired = 0
+            for _, c in ipairs(redis.call('SMEMBERS', KEYS[1])) do
+                if queues[c] and not inRing[c] then
+                    if not suspects[c] then
+                        redis.call('SADD', KEYS[3], c)
+                    elseif redis.call('LLEN', queues[c]) > 0 then
+                        redis.call('LPUSH', KEYS[2], c)
+                        repaired = repaired + 1
+                    else
+                        redis.call('SREM', KEYS[1], c)
+                    end
+                end
+            end
+            return repaired
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Override
+    public String getName() {
+        return "per-campaign";
+    }
+
+    @Override
+    public boolean push(UUID campaignId, List<UUID> callRequestIds, long fencingToken) {
+        if (callRequestIds.isEmpty()) {
+            return true;
+        }
+        Object[] args = new Object[callRequestIds.size() + 2];
+        args[0] = String.valueOf(fencingToken);
+        args[1] = campaignId.toString();
+        for (int i = 0; i < callRequestIds.size(); i++) {
+            args[i + 2] = callRequestIds.get(i).toString();
+        }
+        Long result = redisTemplate.execute(PUSH_SCRIPT, List.of(
+                String.format(CAMPAIGN_QUEUE_KEY, campaignId),
+                String.format(CAMPAIGN_QUEUED_KEY, campaignId),
+                SCHEDULER_FENCE_KEY,
+                READY_SET_KEY,
+                READY_KEY,
+                DEPTH_KEY), args);
+        return result == null || result >= 0;
+    }
+
+    @Override
+    public UUID pop(long timeoutMs) {
+        String campaignId = redisTemplate.opsForList().rightPop(READY_KEY, timeoutMs, TimeUnit.MILLISECONDS);
+        if (campaignId == null) {
+            return null;
+        }
+        String callRequestId = redisTemplate.execute(TAKE_SCRIPT, List.of(
+                String.format(CAMPAIGN_QUEUE_KEY, campaignId),
+                READY_SET_KEY,
+                READY_KEY,
+                DEPTH_KEY), campaignId);
+        return callRequestId != null ? UUID.fromString(callRequestId) : null;
+    }
+
+    /**
+     * Waits with BRPOP for a ready token, reads the tokens the batch may move on to, then takes the
+     * batch round-robin across campaigns in one script call.
+     */
+    @Override
+    public List<UUID> popBatch(int maxCount, long timeoutMs) {
+        String campaignId = redisTemplate.opsForList().rightPop(READY_KEY, timeoutMs, TimeUnit.MILLISECONDS);
+        if (campaignId == null) {
+            return List.of();
+        }
+        int max = Math.max(1, maxCount);
+        Set<String> campaigns = new LinkedHashSet<>();
+        campaigns.add(campaignId);
+        if (max > 1) {
+            // The next tokens sit at the tail, where RPOP takes them from
+            List<String> next = redisTemplate.opsForList().range(READY_KEY, -(max - 1), -1);
+            if (next != null) {
+                for (int i = next.size() - 1; i >= 0; i--) {
+                    campaigns.add(next.get(i));
+                }
+            }
+        }
+        List<String> keys = new ArrayList<>(campaigns.size() + 3);
+        keys.addAll(List.of(READY_SET_KEY, READY_KEY, DEPTH_KEY));
+        List<Object> args = new ArrayList<>(campaigns.size() + 1);
+        args.add(String.valueOf(max));
+        for (String campaign : campaigns) {
+            keys.add(String.format(CAMPAIGN_QUEUE_KEY, campaign));
+            args.add(campaign);
+        }
+        List<String> ids = redisTemplate.execute(TAKE_BATCH_SCRIPT, keys, args.toArray());
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return ids.stream().map(UUID::fromString).toList();
+    }
+
+    @Override
+    public long depth() {
+        String value = redisTemplate.opsForValue().get(DEPTH_KEY);
+        return value != null ? Math.max(0, Long.parseLong(value)) : 0;
+    }
+
+    @Override
+    public long depth(UUID campaignId) {
+        Long size = redisTemplate.opsForList().size(String.format(CAMPAIGN_QUEUE_KEY, campaignId));
+        return size != null ? size : 0;
+    }
+
+    @Override
+    public List<UUID> drain(UUID campaignId) {
+        List<String> ids = redisTemplate.execute(DRAIN_SCRIPT, List.of(
+                String.format(CAMPAIGN_QUEUE_KEY, campaignId),
+                String.format(CAMPAIGN_QUEUED_KEY, campaignId),
+                DEPTH_KEY));
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        log.debug("Drained {} queued calls of campaign {}", ids.size(), campaignId);
+        return ids.stream().map(UUID::fromString).toList();
+    }
+
+    @Override
+    public Set<UUID> queuedCallIds() {
+        Set<UUID> ids = new HashSet<>();
+        Set<String> queueKeys = redisTemplate.keys(CAMPAIGN_QUEUE_KEYS_GLOB);
+        if (queueKeys == null) {
+            return ids;
+        }
+        for (String queueKey : queueKeys) {
+            List<String> queued = redisTemplate.opsForList().range(queueKey, 0, -1);
+            if (queued != null) {
+                queued.forEach(id -> ids.add(UUID.fromString(id)));
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public void clear() {
+        Set<String> queueKeys = redisTemplate.keys(CAMPAIGN_QUEUE_KEYS_GLOB);
+        if (queueKeys != null && !queueKeys.isEmpty()) {
+            redisTemplate.delete(queueKeys);
+            log.info("Cleared {} stale per-campaign queues", queueKeys.size());
+        }
+        redisTemplate.delete(List.of(READY_KEY, READY_SET_KEY, READY_SUSPECTS_KEY, DEPTH_KEY));
+    }
+
+    @Override
+    public void repair() {
+        Set<String> ready = redisTemplate.opsForSet().members(READY_SET_KEY);
+        if (ready == null || ready.isEmpty()) {
+            return;
+        }
+        List<String> keys = new ArrayList<>(ready.size() + 3);
+        keys.addAll(List.of(READY_SET_KEY, READY_KEY, READY_SUSPECTS_KEY));
+        ready.forEach(campaign -> keys.add(String.format(CAMPAIGN_QUEUE_KEY, campaign)));
+        Long repaired = redisTemplate.execute(REPAIR_SCRIPT, keys, ready.toArray());
+        if (repaired != null && repaired > 0) {
+            log.warn("Re-issued {} lost campaign queue tokens", repaired);
+        }
+    }
+}
@@ -0,0 +1,361 @@
+package org.example.voicecampaign.worker.queue;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import static org.example.voicecampaign.config.RedisScripts.listScript;
+
+/**
+ * Reliable queue on a Redis Stream ({@code call:stream}) read through the {@code call-workers}
+ * consumer group.
+ *
+ * <p>Enqueue is XADD, dequeue XREADGROUP. A delivered entry stays pending in the group until the
+ * worker {@linkplain #acknowledge acknowledges} it, after the call's state has been persisted, so a
+ * node dying between dequeue and persisting no longer loses the call. {@link #repair()} moves entries
+ * that have been pending longer than the visibility timeout back to the tail of the stream with
+ * XAUTOCLAIM, where any node picks them up again, and gives their campaigns' queued counts back.</p>
+ *
+ * <p>Dialing a call can outlast the visibility timeout (a slow provider, a wait for a rate limiter
+ * permit), so every {@link #repair()} first resets the idle time of the entries this node is still
+ * working on with XCLAIM: only the entries of a node that stopped repairing, typically because it
+ * died, are reclaimed. The visibility timeout must therefore exceed the repair interval by a safe
+ * margin. Delivery is still at-least-once; a worker only dials a call it moves from SCHEDULED to
+ * DIALING, which makes redelivery of a call being or already dispatched a no-op.</p>
+ *
+ * <p>Like {@link SharedCallQueue} the stream is FIFO across campaigns and cannot drain a single
+ * campaign. Being {@linkplain #isDurable() durable}, it survives restarts: startup sync keeps its
+ * entries instead of wiping the queue.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StreamCallQueue implements CallQueue {
+
+    private static final String STREAM_KEY = "call:stream";
+    private static final String GROUP = "call-workers";
+    private static final String CALL_FIELD = "call";
+    private static final String CAMPAIGN_FIELD = "campaign";
+    private static final String CAMPAIGN_QUEUED_KEY = "campaign:%s:queued";
+    private static final String SCHEDULER_FENCE_KEY = "leader:scheduler:fence";
+    private static final int RECLAIM_BATCH = 1000;
+    private static final int HEARTBEAT_BATCH = 1000;
+    private static final long CONSUMER_EXPIRY_MS = 3_600_000;
+
+    /** Where XREADGROUP reads, passed as an array since the read takes generic varargs. */
+    @SuppressWarnings("unchecked")
+    private static final StreamOffset<String>[] NEXT_UNDELIVERED = (StreamOffset<String>[]) new StreamOffset<?>[]{
+            StreamOffset.create(STREAM_KEY, ReadOffset.lastConsumed())};
+
+    /**
+     * Creates the consumer group (and stream) if missing, then XADDs ARGV[4..n] as entries of
+     * campaign ARGV[2] and bumps its queued count. Fenced like {@link SharedCallQueue}; returns -1
+     * when fenced off.
+     */
+    private static final RedisScript<Long> PUSH_SCRIPT = new DefaultRedisScript<>("""
+            if ARGV[1] ~= '0' and redis.call('GET', KEYS[3]) ~= ARGV[1] then
+                return -1
+            end
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                pcall(redis.call, 'XGROUP', 'CREATE', KEYS[1], ARGV[3], '0', 'MKSTREAM')
+            end
+            for i = 4, #ARGV do
+                redis.call('XADD', KEYS[1], '*', 'call', ARGV[i], 'campaign', ARGV[2])
+            end
+            return redis.call('INCRBY', KEYS[2], #ARGV - 3)
+            """, Long.class);
+
+    private static final RedisScript<Long> CREATE_GROUP_SCRIPT = new DefaultRedisScript<>("""
+            local ok = pcall(redis.call, 'XGROUP', 'CREATE', KEYS[1], ARGV[1], '0', 'MKSTREAM')
+            return ok and 1 or 0
+            """, Long.class);
+
+    private static final RedisScript<Long> ACK_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('XACK', KEYS[1], ARGV[1], ARGV[2])
+            return redis.call('XDEL', KEYS[1], ARGV[2])
+            """, Long.class);
+
+    /**
+     * Entries not yet delivered: the stream length minus entries delivered but not yet acknowledged.
+     */
+    private static final RedisScript<Long> DEPTH_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return 0
+            end
+            local ok, summary = pcall(redis.call, 'XPENDING', KEYS[1], ARGV[1])
+            local pending = ok and summary[1] or 0
+            return redis.call('XLEN', KEYS[1]) - pending
+            """, Long.class);
+
+    /**
+     * Returns {@code call, campaign} pairs of every entry, delivered or not, paging through XRANGE.
+     */
+    private static final RedisScript<List<String>> SNAPSHOT_SCRIPT = listScript("""
+            local result = {}
+            local start = '-'
+            while true do
+                local entries = redis.call('XRANGE', KEYS[1], start, '+', 'COUNT', 1000)
+                if #entries == 0 then
+                    break
+                end
+                for _, entry in ipairs(entries) do
+                    local fields = {}
+                    for i = 1, #entry[2], 2 do
+                        fields[entry[2][i]] = entry[2][i + 1]
+                    end
+                    result[#result + 1] = fields['call']
+                    result[#result + 1] = fields['campaign']
+                end
+                start = '(' .. entries[#entries][1]
+            end
+            return result
+            """);
+
+    /**
+     * Resets the idle time of entries ARGV[3..n] still pending for consumer ARGV[2], without counting
+     * a delivery, so they are not reclaimed while being worked on. Entries acknowledged or reclaimed
+     * meanwhile are skipped. Returns the number of entries refreshed.
+     */
+    private static final RedisScript<Long> HEARTBEAT_SCRIPT = new DefaultRedisScript<>("""
+            local args = {'XCLAIM', KEYS[1], ARGV[1], ARGV[2], '0'}
+            for i = 3, #ARGV do
+                args[#args + 1] = ARGV[i]
+            end
+            args[#args + 1] = 'JUSTID'
+            local ok, claimed = pcall(redis.call, unpack(args))
+            return ok and #claimed or 0
+            """, Long.class);
+
+    /**
+     * Re-adds up to ARGV[4] entries pending for longer than ARGV[3] ms at the tail of the stream and
+     * retires the stale deliveries, then removes consumers (other than ARGV[2]) with nothing pending
+     * that have been idle for more than ARGV[5] ms. Returns the campaign of every entry re-added, whose
+     * queued count the caller gives back.
+     */
+    private static final RedisScript<List<String>> RECLAIM_SCRIPT = listScript("""
+            local moved = {}
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return moved
+            end
+            local cursor = '0-0'
+            local budget = tonumber(ARGV[4])
+            repeat
+                local ok, result = pcall(redis.call, 'XAUTOCLAIM', KEYS[1], ARGV[1], ARGV[2], ARGV[3], cursor,
+                        'COUNT', math.min(budget, 100))
+                if not ok then
+                    return moved
+                end
+                cursor = result[1]
+                for _, entry in ipairs(result[2]) do
+                    if entry[2] then
+                        redis.call('XADD', KEYS[1], '*', unpack(entry[2]))
+                        for i = 1, #entry[2], 2 do
+                            if entry[2][i] == 'campaign' then
+                                moved[#moved + 1] = entry[2][i + 1]
+                            end
+                        end
+                    end
+                    redis.call('XACK', KEYS[1], ARGV[1], entry[1])
+                    redis.call('XDEL', KEYS[1], entry[1])
+                    budget = budget - 1
+                end
+            until cursor == '0-0' or budget <= 0
+            for _, info in ipairs(redis.call('XINFO', 'CONSUMERS', KEYS[1], ARGV[1])) do
+                local consumer = {}
+                for i = 1, #info, 2 do
+                    consumer[info[i]] = info[i + 1]
+                end
+                if consumer['name'] ~= ARGV[2] and consumer['pending'] == 0
+                        and consumer['idle'] > tonumber(ARGV[5]) then
+                    redis.call('XGROUP', 'DELCONSUMER', KEYS[1], ARGV[1], consumer['name'])
+                end
+            end
+            return moved
+            """);
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Value("${voice-campaign.worker.stream.visibility-timeout-ms:15000}")
+    private long visibilityTimeoutMs;
+
+    @Value("${voice-campaign.worker.queue-repair-interval-ms:5000}")
+    private long repairIntervalMs;
+
+    private final String consumerName = ManagementFactory.getRuntimeMXBean().getName() + ":" + UUID.randomUUID();
+
+    /** Stream entry ID of every call delivered to this node and not yet acknowledged. */
+    private final Map<UUID, String> deliveries = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void checkVisibilityTimeout() {
+        if (visibilityTimeoutMs <= 2 * repairIntervalMs) {
+            log.warn("Stream visibility timeout of {} ms leaves little margin over the {} ms queue repair interval; "
+                    + "calls being dialed may be redelivered", visibilityTimeoutMs, repairIntervalMs);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "stream";
+    }
+
+    @Override
+    public boolean isDurable() {
+        return true;
+    }
+
+    @Override
+    public boolean push(UUID campaignId, List<UUID> callRequestIds, long fencingToken) {
+        if (callRequestIds.isEmpty()) {
+            return true;
+        }
+        Object[] args = new Object[callRequestIds.size() + 3];
+        args[0] = String.valueOf(fencingToken);
+        args[1] = campaignId.toString();
+        args[2] = GROUP;
+        for (int i = 0; i < callRequestIds.size(); i++) {
+            args[i + 3] = callRequestIds.get(i).toString();
+        }
+        Long result = redisTemplate.execute(PUSH_SCRIPT,
+                List.of(STREAM_KEY, String.format(CAMPAIGN_QUEUED_KEY, campaignId), SCHEDULER_FENCE_KEY), args);
+        return result == null || result >= 0;
+    }
+
+    @Override
+    public UUID pop(long timeoutMs) {
+        List<UUID> ids = popBatch(1, timeoutMs);
+        return ids.isEmpty() ? null : ids.get(0);
+    }
+
+    @Override
+    public List<UUID> popBatch(int maxCount, long timeoutMs) {
+        List<MapRecord<String, Object, Object>> records;
+        try {
+            records = redisTemplate.opsForStream().read(
+                    Consumer.from(GROUP, consumerName),
+                    StreamReadOptions.empty().count(Math.max(1, maxCount)).block(Duration.ofMillis(timeoutMs)),
+                    NEXT_UNDELIVERED);
+        } catch (DataAccessException e) {
+            if (e.getMessage() == null || !e.getMessage().contains("NOGROUP")) {
+                throw e;
+            }
+            // Stream not created yet, or cleared since; nothing can be waiting in it
+            redisTemplate.execute(CREATE_GROUP_SCRIPT, List.of(STREAM_KEY), GROUP);
+            return List.of();
+        }
+        if (records == null || records.isEmpty()) {
+            return List.of();
+        }
+        List<UUID> ids = new ArrayList<>(records.size());
+        for (MapRecord<String, Object, Object> record : records) {
+            UUID callRequestId = UUID.fromString((String) record.getValue().get(CALL_FIELD));
+            deliveries.put(callRequestId, record.getId().getValue());
+            ids.add(callRequestId);
+        }
+        return ids;
+    }
+
+    @Override
+    public void acknowledge(UUID callRequestId) {
+        String entryId = deliveries.remove(callRequestId);
+        if (entryId != null) {
+            redisTemplate.execute(ACK_SCRIPT, List.of(STREAM_KEY), GROUP, entryId);
+        }
+    }
+
+    @Override
+    public long depth() {
+        Long depth = redisTemplate.execute(DEPTH_SCRIPT, List.of(STREAM_KEY), GROUP);
+        return depth != null ? Math.max(0, depth) : 0;
+    }
+
+    @Override
+    public long depth(UUID campaignId) {
+        // Entries are not separable by campaign; the queued counter tracks the same thing
+        String value = redisTemplate.opsForValue().get(String.format(CAMPAIGN_QUEUED_KEY, campaignId));
+        return value != null ? Math.max(0, Long.parseLong(value)) : 0;
+    }
+
+    @Override
+    public List<UUID> drain(UUID campaignId) {
+        return List.of();
+    }
+
+    @Override
+    public Map<UUID, UUID> queuedCalls() {
+        List<String> pairs = redisTemplate.execute(SNAPSHOT_SCRIPT, List.of(STREAM_KEY));
+        if (pairs == null) {
+            return Map.of();
+        }
+        Map<UUID, UUID> queued = new HashMap<>(pairs.size());
+        for (int i = 0; i + 1 < pairs.size(); i += 2) {
+            queued.put(UUID.fromString(pairs.get(i)), UUID.fromString(pairs.get(i + 1)));
+        }
+        return queued;
+    }
+
+    @Override
+    public void clear() {
+        Long size = redisTemplate.opsForStream().size(STREAM_KEY);
+        if (size != null && size > 0) {
+            log.info("Cleared {} stale entries from call stream", size);
+        }
+        redisTemplate.delete(STREAM_KEY);
+        deliveries.clear();
+    }
+
+    @Override
+    public void repair() {
+        heartbeat();
+        List<String> requeued = redisTemplate.execute(RECLAIM_SCRIPT, List.of(STREAM_KEY),
+                GROUP, consumerName, String.valueOf(visibilityTimeoutMs), String.valueOf(RECLAIM_BATCH),
+                String.valueOf(CONSUMER_EXPIRY_MS));
+        if (requeued == null || requeued.isEmpty()) {
+            return;
+        }
+        log.warn("Requeued {} call stream entries not acknowledged within {} ms", requeued.size(), visibilityTimeoutMs);
+        // Their first delivery was counted off as dequeued
+        requeued.stream()
+                .collect(Collectors.groupingBy(campaignId -> campaignId, Collectors.counting()))
+                .forEach((campaignId, count) ->
+                        redisTemplate.opsForValue().increment(String.format(CAMPAIGN_QUEUED_KEY, campaignId), count));
+    }
+
+    /**
+     * Keeps the entries delivered to this node and not yet acknowledged from being reclaimed.
+     */
+    private void heartbeat() {
+        List<String> entryIds = new ArrayList<>(deliveries.values());
+        for (int from = 0; from < entryIds.size(); from += HEARTBEAT_BATCH) {
+            List<String> chunk = entryIds.subList(from, Math.min(from + HEARTBEAT_BATCH, entryIds.size()));
+            Object[] args = new Object[chunk.size() + 2];
+            args[0] = GROUP;
+            args[1] = consumerName;
+            for (int i = 0; i < chunk.size(); i++) {
+                args[i + 2] = chunk.get(i);
+            }
+            redisTemplate.execute(HEARTBEAT_SCRIPT, List.of(STREAM_KEY), args);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.voicecampaign;
+
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Embedded Redis on a free local port for tests that run the Lua scripts, so they need no Redis of
+ * their own. Tests using it are skipped where no Redis binary can be started.
+ */
+public class EmbeddedRedis implements AutoCloseable {
+
+    private final RedisServer server;
+    private final LettuceConnectionFactory connectionFactory;
+    private final StringRedisTemplate template;
+
+    private EmbeddedRedis(RedisServer server, int port) {
+        this.server = server;
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        template = new StringRedisTemplate(connectionFactory);
+    }
+
+    /**
+     * Starts a server, skipping the calling test class if none can be started.
+     */
+    public static EmbeddedRedis startOrSkip() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        RedisServer server;
+        try {
+            server = new RedisServer(port);
+            server.start();
+        } catch (Exception e) {
+            server = null;
+        }
+        assumeTrue(server != null, "embedded Redis could not be started");
+        return new EmbeddedRedis(server, port);
+    }
+
+    public StringRedisTemplate template() {
+        return template;
+    }
+
+    /**
+     * Deletes every key, for a clean slate between tests.
+     */
+    public void flush() {
+        template.delete(template.keys("*"));
+    }
+
+    @Override
+    public void close() {
+        connectionFactory.destroy();
+        server.stop();
+    }
+}
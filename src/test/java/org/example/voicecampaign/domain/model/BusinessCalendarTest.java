@@ -0,0 +1,78 @@
+package org.example.voicecampaign.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BusinessCalendarTest {
+
+    // 2024-01-01 is a Monday
+    private static final Instant MONDAY_NOON_UTC = Instant.parse("2024-01-01T12:00:00Z");
+
+    @Test
+    void weekdayWindow_shouldBeOpenOnlyInsideHoursWithInclusiveEnd() {
+        BusinessCalendar calendar = BusinessCalendar.compile(BusinessHours.builder().build());
+
+        assertThat(calendar.isOpen(MONDAY_NOON_UTC)).isTrue();
+        assertThat(calendar.isOpen(Instant.parse("2024-01-01T08:59:59Z"))).isFalse();
+        assertThat(calendar.isOpen(Instant.parse("2024-01-01T09:00:00Z"))).isTrue();
+        assertThat(calendar.isOpen(Instant.parse("2024-01-01T18:00:00Z"))).isTrue();
+        assertThat(calendar.isOpen(Instant.parse("2024-01-01T18:00:01Z"))).isFalse();
+        assertThat(calendar.isOpen(Instant.parse("2024-01-06T12:00:00Z"))).isFalse();
+    }
+
+    @Test
+    void nextOpenAndClose_shouldSkipWeekend() {
+        BusinessCalendar calendar = BusinessCalendar.compile(BusinessHours.builder().build());
+        Instant fridayEvening = Instant.parse("2024-01-05T19:00:00Z");
+
+        assertThat(calendar.nextOpen(fridayEvening)).isEqualTo(Instant.parse("2024-01-08T09:00:00Z"));
+        assertThat(calendar.nextClose(MONDAY_NOON_UTC)).isEqualTo(Instant.parse("2024-01-01T18:00:00.001Z"));
+        assertThat(calendar.nextOpen(MONDAY_NOON_UTC)).isEqualTo(MONDAY_NOON_UTC);
+    }
+
+    @Test
+    void timezone_shouldBeAppliedIncludingDaylightSaving() {
+        BusinessCalendar calendar = BusinessCalendar.compile(BusinessHours.builder()
+                .timezone("America/New_York")
+                .build());
+
+        // 12:00 UTC is 07:00 EST in January and 08:00 EDT in July
+        assertThat(calendar.isOpen(MONDAY_NOON_UTC)).isFalse();
+        assertThat(calendar.nextOpen(MONDAY_NOON_UTC)).isEqualTo(Instant.parse("2024-01-01T14:00:00Z"));
+        assertThat(calendar.nextOpen(Instant.parse("2024-07-01T12:00:00Z")))
+                .isEqualTo(Instant.parse("2024-07-01T13:00:00Z"));
+    }
+
+    @Test
+    void overnightWindow_shouldSpanMidnightAndMergeAcrossAllowedDays() {
+        BusinessCalendar calendar = BusinessCalendar.compile(BusinessHours.builder()
+                .startTime(LocalTime.of(22, 0))
+                .endTime(LocalTime.of(6, 0))
+                .allowedDays("MONDAY,TUESDAY")
+                .build());
+
+        assertThat(calendar.isOpen(Instant.parse("2024-01-01T23:00:00Z"))).isTrue();
+        assertThat(calendar.isOpen(Instant.parse("2024-01-02T03:00:00Z"))).isTrue();
+        assertThat(calendar.isOpen(Instant.parse("2024-01-02T12:00:00Z"))).isFalse();
+        // Wednesday is not allowed, so Tuesday night closes at midnight
+        assertThat(calendar.nextClose(Instant.parse("2024-01-02T23:00:00Z")))
+                .isEqualTo(Instant.parse("2024-01-03T00:00:00Z"));
+        assertThat(calendar.nextClose(Instant.parse("2024-01-01T23:00:00Z")))
+                .isEqualTo(Instant.parse("2024-01-02T06:00:00.001Z"));
+    }
+
+    @Test
+    void allDayAndInvalidConfiguration_shouldAlwaysBeOpen() {
+        BusinessCalendar allDay = BusinessCalendar.compile(BusinessHours.allDay());
+        BusinessCalendar invalidZone = BusinessCalendar.compile(BusinessHours.builder().timezone("Not/AZone").build());
+
+        assertThat(allDay.isAlwaysOpen()).isTrue();
+        assertThat(allDay.nextClose(MONDAY_NOON_UTC)).isNull();
+        assertThat(invalidZone.isOpen(Instant.parse("2024-01-06T03:00:00Z"))).isTrue();
+        assertThat(BusinessCalendar.compile(null).isOpen(MONDAY_NOON_UTC)).isTrue();
+    }
+}
@@ -0,0 +1,167 @@
+package org.example.voicecampaign.repository;
+
+import org.example.voicecampaign.domain.entity.CallRequest;
+import org.example.voicecampaign.domain.entity.Campaign;
+import org.example.voicecampaign.domain.model.CallStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class CallRequestBatchRepositoryTest {
+
+    @Autowired
+    private CallRequestRepository callRequestRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Campaign campaign;
+
+    @BeforeEach
+    void setUp() {
+        campaign = entityManager.persistAndFlush(Campaign.builder().name("Redelivery").build());
+    }
+
+    @Test
+    void markDialing_shouldClaimARedeliveredCallOnlyOnce() {
+        CallRequest call = persist(CallStatus.SCHEDULED);
+        Instant deadline = Instant.now().plusSeconds(120);
+
+        // The first delivery claims the call; a redelivery of the same entry reads it too late
+        assertThat(callRequestRepository.markDialing(Map.of(call.getId(), deadline))).containsExactly(call.getId());
+        assertThat(callRequestRepository.markDialing(Map.of(call.getId(), deadline))).isEmpty();
+
+        assertThat(reload(call).getStatus()).isEqualTo(CallStatus.DIALING);
+        assertThat(reload(call).getExpectedCallbackBy()).isNotNull();
+    }
+
+    @Test
+    void markDialing_shouldSkipCallsNoLongerScheduled() {
+        CallRequest scheduled = persist(CallStatus.SCHEDULED);
+        CallRequest released = persist(CallStatus.PENDING);
+        CallRequest inProgress = persist(CallStatus.IN_PROGRESS);
+        Instant deadline = Instant.now().plusSeconds(120);
+
+        assertThat(callRequestRepository.markDialing(Map.of(
+                scheduled.getId(), deadline, released.getId(), deadline, inProgress.getId(), deadline)))
+                .containsExactly(scheduled.getId());
+    }
+
+    @Test
+    void markInProgress_shouldOnlyMoveClaimedCalls() {
+        CallRequest claimed = persist(CallStatus.SCHEDULED);
+        CallRequest unclaimed = persist(CallStatus.SCHEDULED);
+        callRequestRepository.markDialing(Map.of(claimed.getId(), Instant.now().plusSeconds(120)));
+        Instant deadline = Instant.now().plusSeconds(120);
+
+        assertThat(callRequestRepository.markInProgress(List.of(
+                new CallRequestBatchRepository.InitiatedCall(claimed.getId(), "ext-1", deadline),
+                new CallRequestBatchRepository.InitiatedCall(unclaimed.getId(), "ext-2", deadline))))
+                .containsExactly(claimed.getId());
+
+        CallRequest saved = reload(claimed);
+        assertThat(saved.getStatus()).isEqualTo(CallStatus.IN_PROGRESS);
+        assertThat(saved.getExternalCallId()).isEqualTo("ext-1");
+        assertThat(reload(unclaimed).getStatus()).isEqualTo(CallStatus.SCHEDULED);
+    }
+
+    @Test
+    void findTimedOutCalls_shouldIncludeCallsLeftDialing() {
+        CallRequest call = persist(CallStatus.SCHEDULED);
+        callRequestRepository.markDialing(Map.of(call.getId(), Instant.now().minusSeconds(1)));
+
+        List<Object[]> timedOut = callRequestRepository.findTimedOutCalls(Instant.now(),
+                PageRequest.of(0, 10));
+
+        assertThat(timedOut).hasSize(1);
+        assertThat(timedOut.get(0)[0]).isEqualTo(call.getId());
+        assertThat(timedOut.get(0)[2]).isNull();
+    }
+
+    @Test
+    void findTimedOutCallsAfter_shouldContinuePastTheCursorOnEqualDeadlines() {
+        Instant deadline = Instant.now().minusSeconds(1);
+        List<CallRequest> calls = List.of(persist(CallStatus.SCHEDULED), persist(CallStatus.SCHEDULED),
+                persist(CallStatus.SCHEDULED));
+        // Claimed in one batch, so all three share the deadline
+        callRequestRepository.markDialing(Map.of(calls.get(0).getId(), deadline, calls.get(1).getId(), deadline,
+                calls.get(2).getId(), deadline));
+
+        List<Object[]> first = callRequestRepository.findTimedOutCalls(Instant.now(), PageRequest.of(0, 2));
+        Object[] last = first.get(1);
+        List<Object[]> rest = callRequestRepository.findTimedOutCallsAfter(Instant.now(), (Instant) last[4],
+                (UUID) last[0], PageRequest.of(0, 2));
+
+        assertThat(first).hasSize(2);
+        assertThat(rest).hasSize(1);
+        assertThat(List.of(first.get(0)[0], first.get(1)[0], rest.get(0)[0]))
+                .containsExactlyInAnyOrderElementsOf(calls.stream().map(CallRequest::getId).toList());
+    }
+
+    @Test
+    void lockPendingCallsByIds_shouldLockInCreationOrder() {
+        Instant now = Instant.now();
+        CallRequest newest = persist(CallStatus.PENDING, now);
+        CallRequest oldest = persist(CallStatus.PENDING, now.minusSeconds(2));
+        CallRequest middle = persist(CallStatus.PENDING, now.minusSeconds(1));
+
+        List<CallRequest> locked = callRequestRepository.lockPendingCallsByIds(
+                List.of(newest.getId(), middle.getId(), oldest.getId()), now);
+
+        assertThat(locked).extracting(CallRequest::getId)
+                .containsExactly(oldest.getId(), middle.getId(), newest.getId());
+    }
+
+    @Test
+    void deferByIds_shouldReturnCallsToPendingAndClaimThemAsRetriesOnceDue() {
+        Instant now = Instant.now();
+        CallRequest call = persist(CallStatus.SCHEDULED, now.minusSeconds(1));
+        Instant nextRetryAt = now.plusSeconds(5);
+
+        callRequestRepository.deferByIds(List.of(call.getId()), nextRetryAt, now);
+        entityManager.clear();
+
+        assertThat(callRequestRepository.findById(call.getId())).get()
+                .extracting(CallRequest::getStatus).isEqualTo(CallStatus.PENDING);
+        // Not claimable as a pending call before or after it is due
+        assertThat(callRequestRepository.lockPendingCallsByIds(List.of(call.getId()), now)).isEmpty();
+        assertThat(callRequestRepository.lockRetryableCallsByIds(List.of(call.getId()), now)).isEmpty();
+        assertThat(callRequestRepository.lockRetryableCallsByIds(List.of(call.getId()), nextRetryAt))
+                .extracting(CallRequest::getId).containsExactly(call.getId());
+    }
+
+    private CallRequest persist(CallStatus status, Instant createdAt) {
+        return entityManager.persistAndFlush(CallRequest.builder()
+                .campaign(campaign)
+                .phoneNumber("+14155550100")
+                .status(status)
+                .createdAt(createdAt)
+                .build());
+    }
+
+    private CallRequest persist(CallStatus status) {
+        return entityManager.persistAndFlush(CallRequest.builder()
+                .campaign(campaign)
+                .phoneNumber("+14155550100")
+                .status(status)
+                .build());
+    }
+
+    private CallRequest reload(CallRequest call) {
+        entityManager.clear();
+        return entityManager.find(CallRequest.class, call.getId());
+    }
+}
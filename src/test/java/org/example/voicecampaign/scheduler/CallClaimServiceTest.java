@@ -0,0 +1,158 @@
+package org.example.voicecampaign.scheduler;
+
+import org.example.voicecampaign.domain.entity.CallRequest;
+import org.example.voicecampaign.domain.model.CallStatus;
+import org.example.voicecampaign.repository.CallRequestRepository;
+import org.example.voicecampaign.scheduler.DelayedRetryQueue.DueRetry;
+import org.example.voicecampaign.service.TelephonyRouteGuards;
+import org.example.voicecampaign.worker.queue.CallQueueFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CallClaimServiceTest {
+
+    @Mock
+    private CallRequestRepository callRequestRepository;
+
+    @Mock
+    private CallQueueFactory callQueueFactory;
+
+    @Mock
+    private DelayedRetryQueue delayedRetryQueue;
+
+    @Mock
+    private PendingCallBuffer pendingCallBuffer;
+
+    @Mock
+    private TelephonyRouteGuards routeGuards;
+
+    private CallClaimService claimService;
+
+    private final UUID campaignId = UUID.randomUUID();
+    private final DueRetry first = new DueRetry(UUID.randomUUID(), 1000);
+    private final DueRetry second = new DueRetry(UUID.randomUUID(), 2000);
+    private final DueRetry third = new DueRetry(UUID.randomUUID(), 3000);
+
+    @BeforeEach
+    void setUp() {
+        claimService = new CallClaimService(callRequestRepository, callQueueFactory, delayedRetryQueue,
+                pendingCallBuffer, routeGuards);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void claimRetries_shouldPutEveryTakenRetryBackWhenTheClaimRollsBack() {
+        givenDueRetries();
+        when(callRequestRepository.lockRetryableCallsByIds(anyList(), any()))
+                .thenReturn(List.of(call(first), call(second), call(third)));
+        when(callRequestRepository.updateStatusByIds(anyList(), eq(CallStatus.SCHEDULED), any()))
+                .thenThrow(new QueryTimeoutException("statement timeout"));
+
+        assertThatThrownBy(() -> claimService.claimRetries(campaignId, 3)).isInstanceOf(QueryTimeoutException.class);
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        verify(delayedRetryQueue).putBack(campaignId, List.of(first, second, third));
+    }
+
+    @Test
+    void claimRetries_shouldPutBackOnlyStillDueRetriesLockedElsewhereAfterCommit() {
+        givenDueRetries();
+        when(callRequestRepository.lockRetryableCallsByIds(anyList(), any())).thenReturn(List.of(call(first)));
+        // The second row is locked by another transaction; the third is no longer a due retry
+        when(callRequestRepository.findDueRetryIds(eq(List.of(second.callId(), third.callId())), any()))
+                .thenReturn(List.of(second.callId()));
+
+        List<UUID> claimed = claimService.claimRetries(campaignId, 3);
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(claimed).containsExactly(first.callId());
+        verify(delayedRetryQueue).putBack(campaignId, List.of(second));
+    }
+
+    @Test
+    void claimRetries_shouldPutNothingBackWhenEveryRetryIsClaimed() {
+        givenDueRetries();
+        when(callRequestRepository.lockRetryableCallsByIds(anyList(), any()))
+                .thenReturn(List.of(call(first), call(second), call(third)));
+
+        claimService.claimRetries(campaignId, 3);
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        verify(delayedRetryQueue).putBack(campaignId, List.of());
+        verify(callRequestRepository, never()).findDueRetryIds(anyList(), any());
+    }
+
+    @Test
+    void claimPending_shouldPutEveryTakenCallBackWhenTheClaimRollsBack() {
+        List<UUID> taken = List.of(UUID.randomUUID(), UUID.randomUUID());
+        when(pendingCallBuffer.isEnabled()).thenReturn(true);
+        when(pendingCallBuffer.take(campaignId, 2)).thenReturn(taken);
+        when(callRequestRepository.lockPendingCallsByIds(eq(taken), any()))
+                .thenReturn(List.of(pending(taken.get(0)), pending(taken.get(1))));
+        when(callRequestRepository.updateStatusByIds(anyList(), eq(CallStatus.SCHEDULED), any()))
+                .thenThrow(new QueryTimeoutException("statement timeout"));
+
+        assertThatThrownBy(() -> claimService.claimPending(campaignId, 2)).isInstanceOf(QueryTimeoutException.class);
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        verify(pendingCallBuffer).putBack(campaignId, taken);
+    }
+
+    @Test
+    void claimPending_shouldPutBackOnlyStillPendingCallsLockedElsewhereAfterCommit() {
+        UUID claimed = UUID.randomUUID();
+        UUID lockedElsewhere = UUID.randomUUID();
+        UUID stale = UUID.randomUUID();
+        when(pendingCallBuffer.isEnabled()).thenReturn(true);
+        when(pendingCallBuffer.take(campaignId, 3)).thenReturn(List.of(claimed, lockedElsewhere, stale));
+        when(callRequestRepository.lockPendingCallsByIds(anyList(), any())).thenReturn(List.of(pending(claimed)));
+        when(callRequestRepository.findPendingIds(eq(List.of(lockedElsewhere, stale)), any()))
+                .thenReturn(List.of(lockedElsewhere));
+
+        List<UUID> result = claimService.claimPending(campaignId, 3);
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        assertThat(result).containsExactly(claimed);
+        verify(pendingCallBuffer).putBack(campaignId, List.of(lockedElsewhere));
+    }
+
+    private void givenDueRetries() {
+        when(delayedRetryQueue.isEnabled()).thenReturn(true);
+        when(delayedRetryQueue.takeDue(campaignId, 3)).thenReturn(List.of(first, second, third));
+    }
+
+    private static CallRequest pending(UUID id) {
+        return CallRequest.builder().id(id).phoneNumber("+14155550100").status(CallStatus.PENDING).build();
+    }
+
+    private static CallRequest call(DueRetry retry) {
+        return CallRequest.builder().id(retry.callId()).phoneNumber("+14155550100").status(CallStatus.FAILED).build();
+    }
+
+    private static void complete(int status) {
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.afterCompletion(status));
+    }
+}
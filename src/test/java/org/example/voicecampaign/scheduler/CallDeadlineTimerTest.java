@@ -0,0 +1,131 @@
+package org.example.voicecampaign.scheduler;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.voicecampaign.scheduler.CallDeadlineTimer.Deadline;
+import org.example.voicecampaign.service.CallService;
+import org.example.voicecampaign.service.CallService.TimedOutCall;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CallDeadlineTimerTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private CallService callService;
+
+    @Mock
+    private LeaderElection leaderElection;
+
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    private CallDeadlineTimer timer;
+
+    private final UUID campaignId = UUID.randomUUID();
+    private final Deadline answered = new Deadline(UUID.randomUUID(), campaignId, 0, "ext-1");
+    private final Deadline lost = new Deadline(UUID.randomUUID(), campaignId, 1, "ext-2");
+
+    @BeforeEach
+    void setUp() {
+        timer = new CallDeadlineTimer(redisTemplate, callService, leaderElection, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(timer, "enabled", true);
+        ReflectionTestUtils.setField(timer, "schedulerEnabled", true);
+        ReflectionTestUtils.setField(timer, "tickMs", 10L);
+        ReflectionTestUtils.setField(timer, "wheelSize", 64);
+        ReflectionTestUtils.setField(timer, "batchSize", 500);
+        ReflectionTestUtils.setField(timer, "orphanGraceMs", 5000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (ReflectionTestUtils.getField(timer, "wheel") != null) {
+            timer.stop();
+        }
+    }
+
+    @Test
+    void sweepOrphans_shouldOnlyFailDeadlinesWhoseEntryItRemoved() {
+        when(leaderElection.isLeader(LeaderRole.WATCHDOG)).thenReturn(true);
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(zSetOperations.rangeByScore(eq("call:deadlines"), anyDouble(), anyDouble(), anyLong(), anyLong()))
+                .thenReturn(new LinkedHashSet<>(List.of(member(answered), member(lost))));
+        // The callback of the first call was applied on another node, which removed its entry
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of("call:deadlines")), any(Object[].class)))
+                .thenReturn(List.of(member(lost)));
+
+        timer.sweepOrphans();
+
+        verify(callService).handleTimedOutCalls(eq(campaignId), eq(List.of(new TimedOutCall(
+                lost.callRequestId(), lost.externalCallId(), lost.attempt()))), any());
+    }
+
+    @Test
+    void sweepOrphans_shouldFailNothingWhenEveryEntryIsGone() {
+        when(leaderElection.isLeader(LeaderRole.WATCHDOG)).thenReturn(true);
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(zSetOperations.rangeByScore(eq("call:deadlines"), anyDouble(), anyDouble(), anyLong(), anyLong()))
+                .thenReturn(new LinkedHashSet<>(List.of(member(answered))));
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(List.of());
+
+        timer.sweepOrphans();
+
+        verifyNoInteractions(callService);
+    }
+
+    @Test
+    void expiredDeadline_shouldBeDroppedWhenItsCallbackWasAppliedOnAnotherNode() {
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(List.of());
+        timer.start();
+
+        timer.arm(Map.of(answered, Instant.now()));
+
+        verify(redisTemplate, timeout(2000)).execute(any(RedisScript.class), eq(List.of("call:deadlines")),
+                eq(member(answered)));
+        verifyNoInteractions(callService);
+    }
+
+    @Test
+    void expiredDeadline_shouldStillBeFailedWhenRedisIsUnreachable() {
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenThrow(new RedisConnectionFailureException("down"));
+        timer.start();
+
+        timer.arm(Map.of(lost, Instant.now()));
+
+        // The update re-checks the call, so handling it unclaimed is safe
+        verify(callService, timeout(2000)).handleTimedOutCalls(eq(campaignId), eq(List.of(new TimedOutCall(
+                lost.callRequestId(), lost.externalCallId(), lost.attempt()))), any());
+    }
+
+    private static String member(Deadline deadline) {
+        return deadline.campaignId() + ":" + deadline.callRequestId() + ":" + deadline.attempt() + ":"
+                + deadline.externalCallId();
+    }
+}
@@ -0,0 +1,157 @@
+package org.example.voicecampaign.scheduler;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.voicecampaign.domain.entity.Campaign;
+import org.example.voicecampaign.domain.model.CampaignStatus;
+import org.example.voicecampaign.repository.CampaignRepository;
+import org.example.voicecampaign.scheduler.strategy.SchedulingContext;
+import org.example.voicecampaign.scheduler.strategy.SchedulingStrategy;
+import org.example.voicecampaign.scheduler.strategy.SchedulingStrategyFactory;
+import org.example.voicecampaign.service.CampaignSnapshotCache;
+import org.example.voicecampaign.worker.CallWorkerPool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CallQueueServiceTest {
+
+    @Mock
+    private CampaignRepository campaignRepository;
+
+    @Mock
+    private CallWorkerPool workerPool;
+
+    @Mock
+    private SchedulingStrategyFactory strategyFactory;
+
+    @Mock
+    private SchedulingSnapshotProvider snapshotProvider;
+
+    @Mock
+    private CallClaimService claimService;
+
+    @Mock
+    private SchedulerWakeup wakeup;
+
+    @Mock
+    private BusinessHoursIndex businessHoursIndex;
+
+    @Mock
+    private LeaderElection leaderElection;
+
+    @Mock
+    private DelayedRetryQueue delayedRetryQueue;
+
+    @Mock
+    private CampaignSnapshotCache campaignSnapshots;
+
+    private CallQueueService callQueueService;
+
+    private final Campaign campaign = Campaign.builder()
+            .id(UUID.randomUUID()).name("Enqueue").status(CampaignStatus.IN_PROGRESS).concurrencyLimit(10).build();
+    private final SchedulingContext context = SchedulingContext.builder()
+            .remainingCallsPerCampaign(Map.of())
+            .activeSlotsPerCampaign(Map.of())
+            .queuedCountPerCampaign(Map.of())
+            .build();
+    private final List<UUID> retries = List.of(UUID.randomUUID());
+    private final List<UUID> pending = List.of(UUID.randomUUID(), UUID.randomUUID());
+
+    @BeforeEach
+    void setUp() {
+        callQueueService = new CallQueueService(campaignRepository, workerPool, strategyFactory, snapshotProvider,
+                claimService, wakeup, businessHoursIndex, leaderElection, delayedRetryQueue, campaignSnapshots,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void enqueueCallsForCampaign_shouldReleaseTheClaimsWhenTheEnqueueFails() {
+        claimCalls();
+        List<UUID> claimed = List.of(retries.get(0), pending.get(0), pending.get(1));
+        when(workerPool.enqueueCalls(eq(campaign.getId()), eq(claimed), anyLong()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        assertThatThrownBy(() -> callQueueService.enqueueCallsForCampaign(campaign, 3, context))
+                .isInstanceOf(RedisConnectionFailureException.class);
+
+        verify(claimService).releaseClaims(claimed);
+    }
+
+    @Test
+    void enqueueCallsForCampaign_shouldKeepTheClaimsOfEnqueuedCalls() {
+        claimCalls();
+        when(workerPool.enqueueCalls(eq(campaign.getId()), anyList(), anyLong())).thenReturn(true);
+
+        callQueueService.enqueueCallsForCampaign(campaign, 3, context);
+
+        verify(claimService, never()).releaseClaims(anyList());
+    }
+
+    @Test
+    void wakeupListener_shouldRunOneTargetedFillForRepeatedPublishedWakeups() {
+        RedisMessageListenerContainer listenerContainer = mock(RedisMessageListenerContainer.class);
+        SchedulerWakeup realWakeup = new SchedulerWakeup(leaderElection, mock(StringRedisTemplate.class),
+                listenerContainer);
+        when(leaderElection.isEnabled()).thenReturn(true);
+        when(leaderElection.isLeader(LeaderRole.SCHEDULER)).thenReturn(true);
+        realWakeup.subscribe();
+        ArgumentCaptor<MessageListener> listener = ArgumentCaptor.forClass(MessageListener.class);
+        verify(listenerContainer).addMessageListener(listener.capture(), any(ChannelTopic.class));
+
+        when(campaignRepository.findAllById(Set.of(campaign.getId()))).thenReturn(List.of(campaign));
+        when(businessHoursIndex.isOpen(eq(campaign), any(Instant.class))).thenReturn(true);
+        when(snapshotProvider.snapshot(List.of(campaign), true)).thenReturn(context);
+        when(strategyFactory.getStrategy()).thenReturn(mock(SchedulingStrategy.class));
+        CallQueueService listening = new CallQueueService(campaignRepository, workerPool, strategyFactory,
+                snapshotProvider, claimService, realWakeup, businessHoursIndex, leaderElection, delayedRetryQueue,
+                campaignSnapshots, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(listening, "schedulerEnabled", true);
+        ReflectionTestUtils.setField(listening, "eventDriven", true);
+        ReflectionTestUtils.setField(listening, "fallbackRateMs", 100L);
+        ReflectionTestUtils.setField(listening, "batchSize", 10);
+        ReflectionTestUtils.setField(listening, "maxQueueDepth", 100);
+
+        // Released slots of the campaign on other nodes, before the leader gets round to it
+        for (int i = 0; i < 3; i++) {
+            listener.getValue().onMessage(new DefaultMessage("scheduler:wakeup".getBytes(StandardCharsets.UTF_8),
+                    campaign.getId().toString().getBytes(StandardCharsets.UTF_8)), null);
+        }
+        listening.startWakeupListener();
+        try {
+            verify(snapshotProvider, timeout(2000)).snapshot(List.of(campaign), true);
+            verify(campaignRepository, after(300).times(1)).findAllById(any());
+        } finally {
+            listening.stopWakeupListener();
+            realWakeup.shutdown();
+        }
+    }
+
+    private void claimCalls() {
+        when(claimService.claimRetries(campaign.getId(), 3)).thenReturn(retries);
+        when(claimService.claimPending(campaign.getId(), 2)).thenReturn(pending);
+    }
+}
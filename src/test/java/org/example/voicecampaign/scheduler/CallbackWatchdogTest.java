@@ -0,0 +1,95 @@
+package org.example.voicecampaign.scheduler;
+
+import org.example.voicecampaign.repository.CallRequestRepository;
+import org.example.voicecampaign.service.CallService;
+import org.example.voicecampaign.service.CallService.TimedOutCall;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CallbackWatchdogTest {
+
+    @Mock
+    private CallRequestRepository callRequestRepository;
+
+    @Mock
+    private CallService callService;
+
+    @Mock
+    private LeaderElection leaderElection;
+
+    private CallbackWatchdog watchdog;
+
+    private final Instant deadline = Instant.now().minusSeconds(60);
+
+    @BeforeEach
+    void setUp() {
+        watchdog = new CallbackWatchdog(callRequestRepository, callService, leaderElection);
+        ReflectionTestUtils.setField(watchdog, "schedulerEnabled", true);
+        ReflectionTestUtils.setField(watchdog, "pageSize", 2);
+        ReflectionTestUtils.setField(watchdog, "maxPages", 5);
+        when(leaderElection.isLeader(LeaderRole.WATCHDOG)).thenReturn(true);
+    }
+
+    @Test
+    void checkForTimedOutCalls_shouldReachHealthyCampaignsBehindAFailingOne() {
+        UUID failing = UUID.randomUUID();
+        UUID healthy = UUID.randomUUID();
+        Object[] first = row(failing, "ext-1");
+        Object[] second = row(failing, "ext-2");
+        Object[] third = row(healthy, "ext-3");
+        when(callRequestRepository.findTimedOutCalls(any(), any(Pageable.class))).thenReturn(pageOf(first, second));
+        when(callRequestRepository.findTimedOutCallsAfter(any(), eq(deadline), eq((UUID) second[0]), any(Pageable.class)))
+                .thenReturn(pageOf(third));
+        when(callService.handleTimedOutCalls(eq(failing), anyList(), any()))
+                .thenThrow(new QueryTimeoutException("statement timeout"));
+        when(callService.handleTimedOutCalls(eq(healthy), anyList(), any())).thenReturn(1);
+
+        watchdog.checkForTimedOutCalls();
+
+        // The failing campaign's calls are read once, not again ahead of the healthy one
+        verify(callRequestRepository).findTimedOutCalls(any(), any(Pageable.class));
+        verify(callService).handleTimedOutCalls(eq(healthy),
+                eq(List.of(new TimedOutCall((UUID) third[0], "ext-3", 0))), any());
+    }
+
+    @Test
+    void checkForTimedOutCalls_shouldStopAfterMaxPages() {
+        UUID failing = UUID.randomUUID();
+        when(callRequestRepository.findTimedOutCalls(any(), any(Pageable.class)))
+                .thenReturn(pageOf(row(failing, "ext-1"), row(failing, "ext-2")));
+        when(callRequestRepository.findTimedOutCallsAfter(any(), any(), any(), any(Pageable.class)))
+                .thenAnswer(invocation -> pageOf(row(failing, "ext-n"), row(failing, "ext-m")));
+        when(callService.handleTimedOutCalls(eq(failing), anyList(), any()))
+                .thenThrow(new QueryTimeoutException("statement timeout"));
+
+        watchdog.checkForTimedOutCalls();
+
+        verify(callRequestRepository, times(4)).findTimedOutCallsAfter(any(), any(), any(), any(Pageable.class));
+        verify(callService, times(5)).handleTimedOutCalls(eq(failing), anyList(), any());
+    }
+
+    private Object[] row(UUID campaignId, String externalCallId) {
+        return new Object[]{UUID.randomUUID(), campaignId, externalCallId, 0, deadline};
+    }
+
+    private static List<Object[]> pageOf(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+}
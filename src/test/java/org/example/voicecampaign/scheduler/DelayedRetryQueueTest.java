@@ -0,0 +1,77 @@
+package org.example.voicecampaign.scheduler;
+
+import org.example.voicecampaign.repository.CallRequestRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DelayedRetryQueueTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private CallRequestRepository callRequestRepository;
+
+    @Mock
+    private LeaderElection leaderElection;
+
+    @Mock
+    private ZSetOperations<String, String> zSetOperations;
+
+    private DelayedRetryQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        queue = new DelayedRetryQueue(redisTemplate, callRequestRepository, leaderElection);
+        ReflectionTestUtils.setField(queue, "enabled", true);
+        ReflectionTestUtils.setField(queue, "promoteBatchSize", 3);
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOperations);
+    }
+
+    @Test
+    void promoteDue_shouldPassTheDueSetOfEveryCampaignItMovesAsKeys() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        when(zSetOperations.rangeByScore(eq("call:retry:delayed"), anyDouble(), anyDouble(), anyLong(), anyLong()))
+                .thenReturn(new LinkedHashSet<>(List.of(first + ":" + UUID.randomUUID(),
+                        second + ":" + UUID.randomUUID(), first + ":" + UUID.randomUUID())))
+                .thenReturn(new LinkedHashSet<>());
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenReturn(3L);
+
+        int roundTrips = queue.promoteDue();
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("call:retry:delayed",
+                "campaign:" + first + ":retry:due", "campaign:" + second + ":retry:due")), any(Object[].class));
+        // A full batch reads again, and the empty read ends promotion
+        assertThat(roundTrips).isEqualTo(3);
+    }
+
+    @Test
+    void promoteDue_shouldSkipTheScriptWhenNothingIsDue() {
+        when(zSetOperations.rangeByScore(eq("call:retry:delayed"), anyDouble(), anyDouble(), anyLong(), anyLong()))
+                .thenReturn(new LinkedHashSet<>());
+
+        assertThat(queue.promoteDue()).isEqualTo(1);
+        verify(redisTemplate, never()).execute(any(RedisScript.class), anyList(), any(Object[].class));
+    }
+}
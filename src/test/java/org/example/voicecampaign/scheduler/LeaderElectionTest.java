@@ -0,0 +1,191 @@
+package org.example.voicecampaign.scheduler;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class LeaderElectionTest {
+
+    private static final long LEASE_TTL_MS = 600;
+    private static final long RENEW_INTERVAL_MS = 150;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private final LeaseStore leases = new LeaseStore();
+    private final List<LeaderElection> nodes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .thenAnswer(invocation -> leases.execute(invocation.getArgument(0), invocation.getArgument(1),
+                        (String) invocation.getArguments()[2], invocation.getArguments().length > 3
+                                ? Long.parseLong((String) invocation.getArguments()[3]) : 0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodes.forEach(LeaderElection::stop);
+    }
+
+    @Test
+    void start_shouldGiveEachRoleToOneNodeWithAFencingToken() {
+        LeaderElection first = startNode();
+        LeaderElection second = startNode();
+
+        assertThat(first.isLeader(LeaderRole.SCHEDULER)).isTrue();
+        assertThat(first.isLeader(LeaderRole.WATCHDOG)).isTrue();
+        assertThat(first.fencingToken(LeaderRole.SCHEDULER)).isEqualTo(1);
+        assertThat(second.isLeader(LeaderRole.SCHEDULER)).isFalse();
+        assertThat(second.fencingToken(LeaderRole.SCHEDULER)).isEqualTo(-1);
+    }
+
+    @Test
+    void stop_shouldHandLeadershipOverWithANewerFencingToken() {
+        LeaderElection leader = startNode();
+        LeaderElection standby = startNode();
+        long term = leader.fencingToken(LeaderRole.SCHEDULER);
+
+        leader.stop();
+
+        awaitTrue(() -> standby.isLeader(LeaderRole.SCHEDULER), 2 * RENEW_INTERVAL_MS + 500);
+        assertThat(standby.fencingToken(LeaderRole.SCHEDULER)).isGreaterThan(term);
+        // Writes fenced with the old term are rejected from now on
+        assertThat(leases.fence("scheduler")).isEqualTo(standby.fencingToken(LeaderRole.SCHEDULER));
+        assertThat(leader.fencingToken(LeaderRole.SCHEDULER)).isEqualTo(-1);
+    }
+
+    @Test
+    void crashedLeader_shouldBeReplacedWithinLeaseTtlPlusRenewInterval() {
+        LeaderElection leader = startNode();
+        LeaderElection standby = startNode();
+
+        // Dies without releasing its leases
+        ((ScheduledExecutorService) ReflectionTestUtils.getField(leader, "renewer")).shutdownNow();
+        long crashedAt = System.nanoTime();
+
+        awaitTrue(() -> standby.isLeader(LeaderRole.SCHEDULER), LEASE_TTL_MS + RENEW_INTERVAL_MS + 1000);
+        long failoverMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - crashedAt);
+        // The lease was renewed at most one interval before the crash, so it cannot expire sooner
+        // than TTL minus that interval; slack covers scheduling delays of the test machine
+        assertThat(failoverMs).isBetween(LEASE_TTL_MS - RENEW_INTERVAL_MS, LEASE_TTL_MS + RENEW_INTERVAL_MS + 250);
+    }
+
+    @Test
+    void stalledLeader_shouldStopActingBeforeItsLeaseCanBeTaken() {
+        LeaderElection leader = startNode();
+        LeaderElection standby = startNode();
+        String leaderId = (String) ReflectionTestUtils.getField(leader, "nodeId");
+
+        // Cut off from Redis: renewals fail, the lease runs out
+        leases.unreachable.add(leaderId);
+
+        awaitTrue(() -> standby.isLeader(LeaderRole.SCHEDULER), LEASE_TTL_MS + RENEW_INTERVAL_MS + 1000);
+        assertThat(leader.isLeader(LeaderRole.SCHEDULER)).isFalse();
+        assertThat(leader.fencingToken(LeaderRole.SCHEDULER)).isEqualTo(-1);
+        // The leader gave up before the standby took over, never both at once
+        assertThat(leases.firstAcquiredAfterLapse).isTrue();
+    }
+
+    private LeaderElection startNode() {
+        LeaderElection node = new LeaderElection(redisTemplate);
+        ReflectionTestUtils.setField(node, "enabled", true);
+        ReflectionTestUtils.setField(node, "leaseTtlMs", LEASE_TTL_MS);
+        ReflectionTestUtils.setField(node, "renewIntervalMs", RENEW_INTERVAL_MS);
+        node.start();
+        nodes.add(node);
+        leases.nodes.add(node);
+        return node;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition, long timeoutMs) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met within %d ms", timeoutMs).isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+
+    /**
+     * In-memory stand-in for the lease scripts, with Redis' expiry semantics.
+     */
+    private static class LeaseStore {
+
+        private final Map<String, String> holders = new HashMap<>();
+        private final Map<String, Long> expiresAt = new HashMap<>();
+        private final Map<String, Long> fences = new HashMap<>();
+        private final Set<String> unreachable = ConcurrentHashMap.newKeySet();
+        private final List<LeaderElection> nodes = new ArrayList<>();
+        private volatile boolean firstAcquiredAfterLapse = true;
+
+        synchronized Object execute(RedisScript<?> script, List<String> keys, String nodeId, long ttlMs) {
+            if (unreachable.contains(nodeId)) {
+                throw new RedisConnectionFailureException("unreachable");
+            }
+            String leaseKey = keys.get(0);
+            long now = System.nanoTime();
+            Long expiry = expiresAt.get(leaseKey);
+            if (expiry != null && now >= expiry) {
+                holders.remove(leaseKey);
+                expiresAt.remove(leaseKey);
+            }
+            String holder = holders.get(leaseKey);
+            if (!script.getScriptAsString().contains("PEXPIRE")) {
+                // Release
+                if (nodeId.equals(holder)) {
+                    holders.remove(leaseKey);
+                    expiresAt.remove(leaseKey);
+                    return 1L;
+                }
+                return 0L;
+            }
+            String fenceKey = keys.get(1);
+            if (holder != null && !holder.equals(nodeId)) {
+                return 0L;
+            }
+            if (holder == null) {
+                String role = fenceKey.split(":")[1].toUpperCase();
+                for (LeaderElection node : nodes) {
+                    if (!ReflectionTestUtils.getField(node, "nodeId").equals(nodeId)
+                            && node.isLeader(LeaderRole.valueOf(role))) {
+                        firstAcquiredAfterLapse = false;
+                    }
+                }
+                holders.put(leaseKey, nodeId);
+                fences.merge(fenceKey, 1L, Long::sum);
+            }
+            expiresAt.put(leaseKey, now + TimeUnit.MILLISECONDS.toNanos(ttlMs));
+            return fences.get(fenceKey);
+        }
+
+        synchronized long fence(String role) {
+            return fences.getOrDefault("leader:" + role + ":fence", 0L);
+        }
+    }
+}
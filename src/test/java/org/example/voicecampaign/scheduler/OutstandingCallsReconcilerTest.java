@@ -0,0 +1,159 @@
+package org.example.voicecampaign.scheduler;
+
+import org.example.voicecampaign.EmbeddedRedis;
+import org.example.voicecampaign.domain.entity.Campaign;
+import org.example.voicecampaign.domain.model.CallStatus;
+import org.example.voicecampaign.domain.model.CampaignStatus;
+import org.example.voicecampaign.repository.CallRequestRepository;
+import org.example.voicecampaign.repository.CampaignRepository;
+import org.example.voicecampaign.service.CallService;
+import org.example.voicecampaign.service.CampaignMetricsService;
+import org.example.voicecampaign.worker.queue.CallQueueFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the outstanding count scripts against an embedded Redis, skipped where no Redis binary can be
+ * started.
+ */
+class OutstandingCallsReconcilerTest {
+
+    private static EmbeddedRedis redis;
+    private static StringRedisTemplate redisTemplate;
+
+    private final CampaignRepository campaignRepository = mock(CampaignRepository.class);
+    private final CallRequestRepository callRequestRepository = mock(CallRequestRepository.class);
+    private final CallService callService = mock(CallService.class);
+    private final LeaderElection leaderElection = mock(LeaderElection.class);
+
+    private CampaignMetricsService metricsService;
+    private OutstandingCallsReconciler reconciler;
+
+    private final Campaign running = Campaign.builder()
+            .id(UUID.randomUUID()).name("Running").status(CampaignStatus.IN_PROGRESS).build();
+    private final Campaign paused = Campaign.builder()
+            .id(UUID.randomUUID()).name("Paused").status(CampaignStatus.PAUSED).build();
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        redis = EmbeddedRedis.startOrSkip();
+        redisTemplate = redis.template();
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        if (redis != null) {
+            redis.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        redis.flush();
+        metricsService = new CampaignMetricsService(redisTemplate, callRequestRepository,
+                mock(SchedulerWakeup.class), mock(CallQueueFactory.class));
+        reconciler = new OutstandingCallsReconciler(campaignRepository, callRequestRepository, metricsService,
+                callService, leaderElection);
+        ReflectionTestUtils.setField(reconciler, "schedulerEnabled", true);
+        when(leaderElection.isLeader(LeaderRole.SCHEDULER)).thenReturn(true);
+        when(campaignRepository.findActiveCampaigns(anyList())).thenReturn(List.of(running, paused));
+    }
+
+    @Test
+    void reconcile_shouldCorrectCountsThatDriftedFromTheDatabase() {
+        metricsService.setOutstanding(running.getId(), 5);
+        countsInDatabase(new Object[]{running.getId(), 3L}, new Object[]{paused.getId(), 2L});
+
+        reconciler.reconcile();
+
+        assertThat(metricsService.getOutstanding(List.of(running.getId(), paused.getId()))).containsExactly("3", "2");
+        verify(callService, never()).checkCampaignCompletion(any());
+    }
+
+    @Test
+    void reconcile_shouldCountOutstandingCallsInEveryOutstandingStatus() {
+        countsInDatabase(new Object[]{running.getId(), 1L}, new Object[]{paused.getId(), 1L});
+
+        reconciler.reconcile();
+
+        verify(callRequestRepository).countByCampaignIdsAndStatuses(List.of(running.getId(), paused.getId()),
+                CallStatus.OUTSTANDING);
+    }
+
+    @Test
+    void reconcile_shouldCompleteRunningCampaignsWithNothingOutstanding() {
+        metricsService.setOutstanding(running.getId(), 1);
+        metricsService.setOutstanding(paused.getId(), 1);
+        countsInDatabase();
+
+        reconciler.reconcile();
+
+        assertThat(metricsService.getOutstanding(List.of(running.getId(), paused.getId()))).containsExactly("0", "0");
+        verify(callService).checkCampaignCompletion(running.getId());
+        verify(callService, never()).checkCampaignCompletion(paused.getId());
+    }
+
+    @Test
+    void reconcile_shouldDoNothingWhenNotTheLeader() {
+        when(leaderElection.isLeader(LeaderRole.SCHEDULER)).thenReturn(false);
+
+        reconciler.reconcile();
+
+        verifyNoInteractions(campaignRepository, callRequestRepository, callService);
+    }
+
+    @Test
+    void reconcileOutstanding_shouldLeaveACountThatMovedSinceItWasRead() {
+        metricsService.setOutstanding(running.getId(), 5);
+        String observed = metricsService.getOutstanding(List.of(running.getId())).get(0);
+        metricsService.callsFinished(running.getId(), 1);
+
+        assertThat(metricsService.reconcileOutstanding(running.getId(), observed, 3)).isFalse();
+        assertThat(metricsService.getOutstanding(List.of(running.getId()))).containsExactly("4");
+    }
+
+    @Test
+    void callsFinished_shouldReportZeroOnlyToTheCallerThatTookTheLastCall() {
+        metricsService.setOutstanding(running.getId(), 2);
+
+        assertThat(metricsService.callsFinished(running.getId(), 1)).isEqualTo(1);
+        assertThat(metricsService.callsFinished(running.getId(), 1)).isZero();
+        assertThat(metricsService.callsFinished(running.getId(), 1)).isEqualTo(-1);
+        assertThat(metricsService.getOutstanding(List.of(running.getId()))).containsExactly("0");
+    }
+
+    @Test
+    void callsFinished_shouldClampAtZeroWhenMoreCallsFinishThanAreCounted() {
+        metricsService.setOutstanding(running.getId(), 1);
+
+        assertThat(metricsService.callsFinished(running.getId(), 3)).isZero();
+        assertThat(metricsService.getOutstanding(List.of(running.getId()))).containsExactly("0");
+    }
+
+    @Test
+    void callsFinished_shouldReportAMissingCountAsUnknown() {
+        assertThat(metricsService.callsFinished(running.getId(), 1)).isEqualTo(-1);
+        assertThat(metricsService.getOutstanding(List.of(running.getId()))).containsOnlyNulls();
+    }
+
+    private void countsInDatabase(Object[]... rows) {
+        List<Object[]> counts = new ArrayList<>(List.of(rows));
+        when(callRequestRepository.countByCampaignIdsAndStatuses(anyList(), eq(CallStatus.OUTSTANDING)))
+                .thenReturn(counts);
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.voicecampaign.scheduler;
+
+import org.example.voicecampaign.repository.CallRequestRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PendingCallBufferTest {
+
+    @Mock
+    private CallRequestRepository callRequestRepository;
+
+    private PendingCallBuffer buffer;
+
+    private final UUID campaignId = UUID.randomUUID();
+    private final List<UUID> pending = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID(),
+            UUID.randomUUID());
+
+    @BeforeEach
+    void setUp() {
+        buffer = new PendingCallBuffer(callRequestRepository);
+        ReflectionTestUtils.setField(buffer, "enabled", true);
+        ReflectionTestUtils.setField(buffer, "chunkSize", 10);
+        ReflectionTestUtils.setField(buffer, "lowWatermark", 0);
+        Instant createdAt = Instant.now();
+        when(callRequestRepository.findPendingKeysetPage(eq(campaignId), any(), any(), any(), any(Pageable.class)))
+                .thenReturn(pending.stream().map(id -> new Object[]{id, createdAt}).toList());
+    }
+
+    @Test
+    void putBack_shouldReturnUnclaimedCallsToTheFrontInOrder() {
+        List<UUID> taken = buffer.take(campaignId, 3);
+
+        buffer.putBack(campaignId, taken.subList(1, 3));
+
+        // Put back ahead of the call never taken, keeping their turn
+        assertThat(buffer.take(campaignId, 3)).containsExactly(pending.get(1), pending.get(2), pending.get(3));
+    }
+
+    @Test
+    void putBack_shouldSkipADroppedBuffer() {
+        List<UUID> taken = buffer.take(campaignId, 2);
+        buffer.invalidate(campaignId);
+
+        buffer.putBack(campaignId, taken);
+
+        // Rebuilt from the database rather than from the stale IDs
+        assertThat(buffer.take(campaignId, 4)).containsExactlyElementsOf(pending);
+        verify(callRequestRepository, times(2)).findPendingKeysetPage(eq(campaignId), any(), any(), any(), any(Pageable.class));
+    }
+}
@@ -0,0 +1,144 @@
+package org.example.voicecampaign.scheduler;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SchedulerWakeupTest {
+
+    private static final String CHANNEL = "scheduler:wakeup";
+
+    @Mock
+    private LeaderElection leaderElection;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private SchedulerWakeup wakeup;
+
+    private final UUID campaignId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        wakeup = new SchedulerWakeup(leaderElection, redisTemplate, listenerContainer);
+    }
+
+    @AfterEach
+    void tearDown() {
+        wakeup.shutdown();
+    }
+
+    @Test
+    void signal_shouldCoalesceRepeatedSignalsUntilDrained() throws InterruptedException {
+        wakeup.signal(campaignId);
+        wakeup.signal(campaignId);
+        wakeup.signal(campaignId);
+
+        assertThat(wakeup.await(0)).isTrue();
+        assertThat(wakeup.drain()).containsExactly(campaignId);
+        assertThat(wakeup.await(0)).isFalse();
+        assertThat(wakeup.drain()).isEmpty();
+    }
+
+    @Test
+    void signal_shouldBeDeliveredOnlyOnceTheTransactionCommits() throws InterruptedException {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            wakeup.signal(campaignId);
+
+            assertThat(wakeup.await(0)).isFalse();
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(wakeup.await(0)).isTrue();
+        assertThat(wakeup.drain()).containsExactly(campaignId);
+    }
+
+    @Test
+    void signal_shouldBePublishedToTheLeaderFromOtherNodes() throws InterruptedException {
+        when(leaderElection.isEnabled()).thenReturn(true);
+        when(leaderElection.isLeader(LeaderRole.SCHEDULER)).thenReturn(false);
+
+        wakeup.signal(campaignId);
+
+        verify(redisTemplate).convertAndSend(CHANNEL, campaignId.toString());
+        assertThat(wakeup.await(0)).isFalse();
+    }
+
+    @Test
+    void publishedWakeups_shouldBeDeliveredOnceOnTheLeader() throws InterruptedException {
+        when(leaderElection.isEnabled()).thenReturn(true);
+        when(leaderElection.isLeader(LeaderRole.SCHEDULER)).thenReturn(true);
+        MessageListener listener = subscribe();
+
+        listener.onMessage(message(campaignId), null);
+        listener.onMessage(message(campaignId), null);
+
+        assertThat(wakeup.await(0)).isTrue();
+        assertThat(wakeup.drain()).containsExactly(campaignId);
+        assertThat(wakeup.await(0)).isFalse();
+    }
+
+    @Test
+    void publishedWakeups_shouldBeIgnoredByFollowers() throws InterruptedException {
+        when(leaderElection.isEnabled()).thenReturn(true);
+        when(leaderElection.isLeader(LeaderRole.SCHEDULER)).thenReturn(false);
+        MessageListener listener = subscribe();
+
+        listener.onMessage(message(campaignId), null);
+
+        assertThat(wakeup.await(0)).isFalse();
+    }
+
+    @Test
+    void signalAt_shouldArmOneTimerForABurst() throws InterruptedException {
+        Instant dueAt = Instant.now().plusMillis(150);
+
+        wakeup.signalAt(campaignId, dueAt);
+        wakeup.signalAt(campaignId, dueAt);
+        wakeup.signalAt(campaignId, dueAt);
+
+        assertThat(wakeup.await(0)).isFalse();
+        assertThat(wakeup.await(2000)).isTrue();
+        assertThat(wakeup.drain()).containsExactly(campaignId);
+        assertThat(wakeup.await(300)).isFalse();
+    }
+
+    private MessageListener subscribe() {
+        wakeup.subscribe();
+        ArgumentCaptor<MessageListener> listener = ArgumentCaptor.forClass(MessageListener.class);
+        verify(listenerContainer).addMessageListener(listener.capture(), any(ChannelTopic.class));
+        return listener.getValue();
+    }
+
+    private static DefaultMessage message(UUID campaignId) {
+        return new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8),
+                campaignId.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
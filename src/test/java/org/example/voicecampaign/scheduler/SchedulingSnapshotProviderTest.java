@@ -0,0 +1,82 @@
+package org.example.voicecampaign.scheduler;
+
+import org.example.voicecampaign.domain.entity.Campaign;
+import org.example.voicecampaign.domain.model.CallStatus;
+import org.example.voicecampaign.repository.CallRequestRepository;
+import org.example.voicecampaign.scheduler.strategy.SchedulingContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SchedulingSnapshotProviderTest {
+
+    @Mock
+    private CallRequestRepository callRequestRepository;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private SchedulingSnapshotProvider snapshotProvider;
+
+    private final Campaign first = Campaign.builder().id(UUID.randomUUID()).name("First").build();
+    private final Campaign second = Campaign.builder().id(UUID.randomUUID()).name("Second").build();
+
+    @BeforeEach
+    void setUp() {
+        snapshotProvider = new SchedulingSnapshotProvider(callRequestRepository, redisTemplate);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        List<Object[]> remaining = List.of(new Object[]{first.getId(), 40L});
+        when(callRequestRepository.countByCampaignIdsAndStatuses(List.of(first.getId(), second.getId()),
+                List.of(CallStatus.PENDING, CallStatus.FAILED))).thenReturn(remaining);
+    }
+
+    @Test
+    void snapshot_shouldReadBothCountersOfEveryCampaignWithOneMget() {
+        when(valueOperations.multiGet(List.of(
+                "campaign:" + first.getId() + ":active_slots",
+                "campaign:" + second.getId() + ":active_slots",
+                "campaign:" + first.getId() + ":queued",
+                "campaign:" + second.getId() + ":queued")))
+                .thenReturn(List.of("3", "5", "2", "7"));
+
+        SchedulingContext context = snapshotProvider.snapshot(List.of(first, second), false);
+
+        assertThat(context.getRemainingCalls(first)).isEqualTo(40);
+        assertThat(context.getRemainingCalls(second)).isZero();
+        assertThat(context.getActiveSlots(first)).isEqualTo(3);
+        assertThat(context.getActiveSlots(second)).isEqualTo(5);
+        assertThat(context.getQueuedCount(first)).isEqualTo(2);
+        assertThat(context.getQueuedCount(second)).isEqualTo(7);
+        assertThat(context.isTargeted()).isFalse();
+        verify(valueOperations, times(SchedulingSnapshotProvider.REDIS_COMMANDS_PER_SNAPSHOT)).multiGet(anyList());
+    }
+
+    @Test
+    void snapshot_shouldReadMissingNegativeAndInvalidCountersAsZero() {
+        when(valueOperations.multiGet(anyList())).thenReturn(Arrays.asList(null, "-2", "x", "1"));
+
+        SchedulingContext context = snapshotProvider.snapshot(List.of(first, second), true);
+
+        assertThat(context.getActiveSlots(first)).isZero();
+        assertThat(context.getActiveSlots(second)).isZero();
+        assertThat(context.getQueuedCount(first)).isZero();
+        assertThat(context.getQueuedCount(second)).isEqualTo(1);
+        assertThat(context.isTargeted()).isTrue();
+    }
+}
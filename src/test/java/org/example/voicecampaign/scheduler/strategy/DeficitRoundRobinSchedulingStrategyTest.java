@@ -0,0 +1,167 @@
+package org.example.voicecampaign.scheduler.strategy;
+
+import org.example.voicecampaign.domain.entity.Campaign;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeficitRoundRobinSchedulingStrategyTest {
+
+    private DeficitRoundRobinSchedulingStrategy strategy;
+
+    @BeforeEach
+    void setUp() {
+        strategy = new DeficitRoundRobinSchedulingStrategy();
+    }
+
+    @Test
+    void moreCampaignsThanSlots_shouldNeverOverAllocateAndShareEvenly() {
+        List<Campaign> campaigns = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            campaigns.add(campaign(5, 10));
+        }
+        SchedulingContext context = context(campaigns, 1000L);
+        Map<Campaign, Integer> totals = new HashMap<>();
+
+        for (int tick = 0; tick < 100; tick++) {
+            Map<Campaign, Integer> allocation = strategy.distribute(campaigns, 10, context);
+            assertThat(allocation.values().stream().mapToInt(Integer::intValue).sum()).isEqualTo(10);
+            allocation.forEach((c, slots) -> totals.merge(c, slots, Integer::sum));
+        }
+
+        // 1000 slots over 50 equal campaigns: every campaign gets exactly its share of 20
+        assertThat(totals).hasSize(50);
+        assertThat(totals.values()).allMatch(total -> total == 20);
+    }
+
+    @Test
+    void priorities_shouldWeightLongRunShare() {
+        Campaign high = campaign(8, 100);
+        Campaign low = campaign(2, 100);
+        List<Campaign> campaigns = List.of(high, low);
+        SchedulingContext context = context(campaigns, 1000L);
+        int highTotal = 0;
+        int lowTotal = 0;
+
+        for (int tick = 0; tick < 50; tick++) {
+            Map<Campaign, Integer> allocation = strategy.distribute(campaigns, 7, context);
+            highTotal += allocation.getOrDefault(high, 0);
+            lowTotal += allocation.getOrDefault(low, 0);
+        }
+
+        assertThat(highTotal + lowTotal).isEqualTo(350);
+        assertThat(highTotal).isBetween(278, 282);
+    }
+
+    @Test
+    void campaignHeldBackByCapacity_shouldBeCompensatedUpToItsLimit() {
+        Campaign blocked = campaign(5, 4);
+        Campaign other = campaign(5, 100);
+        List<Campaign> campaigns = List.of(blocked, other);
+        Map<UUID, Integer> activeSlots = new HashMap<>(Map.of(blocked.getId(), 4));
+        SchedulingContext context = context(campaigns, 1000L, activeSlots);
+
+        for (int tick = 0; tick < 10; tick++) {
+            Map<Campaign, Integer> allocation = strategy.distribute(campaigns, 2, context);
+            assertThat(allocation).doesNotContainKey(blocked);
+            assertThat(allocation.get(other)).isEqualTo(2);
+        }
+
+        // Capacity frees up: the carried credit (capped at the limit of 4) is spent at once
+        activeSlots.put(blocked.getId(), 0);
+        Map<Campaign, Integer> allocation = strategy.distribute(campaigns, 4, context);
+        assertThat(allocation.get(blocked)).isEqualTo(4);
+        assertThat(allocation).doesNotContainKey(other);
+    }
+
+    @Test
+    void campaignWithoutRemainingCalls_shouldGetNothingAndLeaveSlotsToOthers() {
+        Campaign done = campaign(5, 10);
+        Campaign busy = campaign(5, 10);
+        List<Campaign> campaigns = List.of(done, busy);
+        SchedulingContext context = SchedulingContext.builder()
+                .remainingCallsPerCampaign(Map.of(done.getId(), 0L, busy.getId(), 100L))
+                .activeSlotsPerCampaign(Map.of())
+                .queuedCountPerCampaign(Map.of())
+                .build();
+
+        Map<Campaign, Integer> allocation = strategy.distribute(campaigns, 6, context);
+
+        assertThat(allocation).containsOnlyKeys(busy);
+        assertThat(allocation.get(busy)).isEqualTo(6);
+    }
+
+    @Test
+    void targetedFills_shouldEarnOnlyTheCampaignsShareOfAFullCycle() {
+        Campaign woken = campaign(5, 100);
+        Campaign other = campaign(5, 100);
+        List<Campaign> campaigns = List.of(woken, other);
+        SchedulingContext full = context(campaigns, 1000L);
+        SchedulingContext targeted = context(List.of(woken), 1000L, Map.of(), true);
+        int wokenTotal = 0;
+        int otherTotal = 0;
+
+        for (int round = 0; round < 20; round++) {
+            Map<Campaign, Integer> allocation = strategy.distribute(campaigns, 10, full);
+            assertThat(allocation.get(woken)).isEqualTo(5);
+            assertThat(allocation.get(other)).isEqualTo(5);
+
+            // Half of the total weight: half the slots, not all of them
+            Map<Campaign, Integer> refill = strategy.distribute(List.of(woken), 10, targeted);
+            assertThat(refill).containsOnlyKeys(woken);
+            assertThat(refill.get(woken)).isEqualTo(5);
+
+            wokenTotal += allocation.get(woken) + refill.get(woken);
+            otherTotal += allocation.get(other);
+        }
+
+        assertThat(wokenTotal).isEqualTo(200);
+        assertThat(otherTotal).isEqualTo(100);
+    }
+
+    @Test
+    void targetedFillBeforeAnyFullCycle_shouldShareByTheCampaignsItSees() {
+        Campaign woken = campaign(5, 100);
+
+        Map<Campaign, Integer> allocation = strategy.distribute(List.of(woken), 6,
+                context(List.of(woken), 1000L, Map.of(), true));
+
+        assertThat(allocation.get(woken)).isEqualTo(6);
+    }
+
+    private static Campaign campaign(int priority, int concurrencyLimit) {
+        return Campaign.builder()
+                .id(UUID.randomUUID())
+                .name("campaign")
+                .priority(priority)
+                .concurrencyLimit(concurrencyLimit)
+                .build();
+    }
+
+    private static SchedulingContext context(List<Campaign> campaigns, long remaining) {
+        return context(campaigns, remaining, Map.of());
+    }
+
+    private static SchedulingContext context(List<Campaign> campaigns, long remaining, Map<UUID, Integer> activeSlots) {
+        return context(campaigns, remaining, activeSlots, false);
+    }
+
+    private static SchedulingContext context(List<Campaign> campaigns, long remaining, Map<UUID, Integer> activeSlots,
+                                             boolean targeted) {
+        Map<UUID, Long> remainingCalls = new HashMap<>();
+        campaigns.forEach(c -> remainingCalls.put(c.getId(), remaining));
+        return SchedulingContext.builder()
+                .remainingCallsPerCampaign(remainingCalls)
+                .activeSlotsPerCampaign(activeSlots)
+                .queuedCountPerCampaign(Map.of())
+                .targeted(targeted)
+                .build();
+    }
+}
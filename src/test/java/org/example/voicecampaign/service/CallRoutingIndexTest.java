@@ -0,0 +1,90 @@
+package org.example.voicecampaign.service;
+
+import org.example.voicecampaign.EmbeddedRedis;
+import org.example.voicecampaign.service.CallRoutingIndex.CallRoute;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the routing index against an embedded Redis, skipped where no Redis binary can be started.
+ */
+class CallRoutingIndexTest {
+
+    private static EmbeddedRedis redis;
+    private static StringRedisTemplate redisTemplate;
+
+    private CallRoutingIndex routingIndex;
+
+    private final CallRoute first = new CallRoute(UUID.randomUUID(), UUID.randomUUID(), 0);
+    private final CallRoute second = new CallRoute(UUID.randomUUID(), UUID.randomUUID(), 2);
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        redis = EmbeddedRedis.startOrSkip();
+        redisTemplate = redis.template();
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        if (redis != null) {
+            redis.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        redis.flush();
+        routingIndex = new CallRoutingIndex(redisTemplate);
+        ReflectionTestUtils.setField(routingIndex, "enabled", true);
+        ReflectionTestUtils.setField(routingIndex, "ttlMs", 60000L);
+    }
+
+    @Test
+    void put_shouldIndexEveryRouteWithTheTtl() {
+        routingIndex.put(Map.of("ext-1", first, "ext-2", second));
+
+        assertThat(routingIndex.get(List.of("ext-1", "ext-2", "ext-3")))
+                .containsOnly(Map.entry("ext-1", first), Map.entry("ext-2", second));
+        assertThat(redisTemplate.getExpire("call:route:ext-1", TimeUnit.MILLISECONDS)).isBetween(1L, 60000L);
+        assertThat(redisTemplate.getExpire("call:route:ext-2", TimeUnit.MILLISECONDS)).isBetween(1L, 60000L);
+    }
+
+    @Test
+    void get_shouldSkipInvalidEntries() {
+        redisTemplate.opsForValue().set("call:route:ext-1", "not-a-route");
+        redisTemplate.opsForValue().set("call:route:ext-2", "x:y:z");
+
+        assertThat(routingIndex.get(List.of("ext-1", "ext-2"))).isEmpty();
+    }
+
+    @Test
+    void remove_shouldDropAppliedRoutes() {
+        routingIndex.put(Map.of("ext-1", first, "ext-2", second));
+
+        routingIndex.remove(List.of("ext-1"));
+
+        assertThat(routingIndex.get(List.of("ext-1", "ext-2"))).containsOnly(Map.entry("ext-2", second));
+    }
+
+    @Test
+    void disabledIndex_shouldNeitherWriteNorRead() {
+        ReflectionTestUtils.setField(routingIndex, "enabled", false);
+
+        routingIndex.put(Map.of("ext-1", first));
+
+        assertThat(redisTemplate.hasKey("call:route:ext-1")).isFalse();
+        assertThat(routingIndex.get(List.of("ext-1"))).isEmpty();
+    }
+}
@@ -0,0 +1,138 @@
+package org.example.voicecampaign.service;
+
+import org.example.voicecampaign.domain.model.CampaignSnapshot;
+import org.example.voicecampaign.domain.model.CampaignStatus;
+import org.example.voicecampaign.dto.CallbackRequest;
+import org.example.voicecampaign.dto.CallbackRequest.CallbackStatus;
+import org.example.voicecampaign.repository.CallRequestRepository;
+import org.example.voicecampaign.repository.CampaignRepository;
+import org.example.voicecampaign.scheduler.CallDeadlineTimer;
+import org.example.voicecampaign.scheduler.DelayedRetryQueue;
+import org.example.voicecampaign.scheduler.SchedulerWakeup;
+import org.example.voicecampaign.service.CallRoutingIndex.CallRoute;
+import org.example.voicecampaign.worker.AdaptiveConcurrencyLimiter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CallServiceTest {
+
+    @Mock
+    private CallRequestRepository callRequestRepository;
+
+    @Mock
+    private CampaignRepository campaignRepository;
+
+    @Mock
+    private CampaignMetricsService metricsService;
+
+    @Mock
+    private TelephonyService telephonyService;
+
+    @Mock
+    private SchedulerWakeup schedulerWakeup;
+
+    @Mock
+    private DelayedRetryQueue delayedRetryQueue;
+
+    @Mock
+    private AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+    @Mock
+    private CampaignSnapshotCache campaignSnapshots;
+
+    @Mock
+    private TelephonyRouteGuards routeGuards;
+
+    @Mock
+    private CallRoutingIndex routingIndex;
+
+    @Mock
+    private CallDeadlineTimer deadlineTimer;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CallService callService;
+
+    private final UUID campaignId = UUID.randomUUID();
+    private final CallRoute answered = new CallRoute(UUID.randomUUID(), campaignId, 0);
+    private final CallRoute unanswered = new CallRoute(UUID.randomUUID(), campaignId, 0);
+    private final List<CallbackRequest> batch = List.of(
+            CallbackRequest.builder().externalCallId("ext-1").status(CallbackStatus.COMPLETED).durationSeconds(30).build(),
+            CallbackRequest.builder().externalCallId("ext-2").status(CallbackStatus.NO_ANSWER).failureReason("no answer").build());
+
+    @BeforeEach
+    void setUp() {
+        callService = new CallService(callRequestRepository, campaignRepository, metricsService, telephonyService,
+                schedulerWakeup, delayedRetryQueue, concurrencyLimiter, campaignSnapshots, routeGuards, routingIndex,
+                deadlineTimer, transactionManager);
+        when(routingIndex.get(anyCollection())).thenReturn(Map.of("ext-1", answered, "ext-2", unanswered));
+        when(campaignSnapshots.get(campaignId)).thenReturn(Optional.of(
+                new CampaignSnapshot(campaignId, CampaignStatus.IN_PROGRESS, 10, 3, 1000, 2.0, 5000, 60000, 1)));
+        when(callRequestRepository.completeInProgress(eq(answered.callRequestId()), eq("ext-1"), eq(30), any()))
+                .thenReturn(1);
+        when(callRequestRepository.failInProgress(eq(unanswered.callRequestId()), eq("ext-2"), eq("no answer"), any(), any()))
+                .thenReturn(1);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void handleCallbacks_shouldCountAReplayedBatchOnce() {
+        when(metricsService.callsFinished(campaignId, 1)).thenReturn(5L);
+
+        // The first attempt fails to commit and the buffer replays the batch
+        callService.handleCallbacks(batch);
+        complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        verifyNoInteractions(metricsService, schedulerWakeup, delayedRetryQueue, deadlineTimer);
+
+        callService.handleCallbacks(batch);
+        complete(TransactionSynchronization.STATUS_COMMITTED);
+
+        verify(metricsService).incrementMetric(campaignId, "completed", 1L);
+        verify(metricsService).incrementMetric(campaignId, "retries", 1L);
+        verify(metricsService, never()).incrementMetric(eq(campaignId), eq("permanently_failed"), anyLong());
+        verify(metricsService).releaseSlots(campaignId, 2);
+        verify(metricsService).callsFinished(campaignId, 1);
+        verify(delayedRetryQueue).schedule(eq(campaignId), eq(List.of(unanswered.callRequestId())), any());
+        verify(schedulerWakeup).signalAt(eq(campaignId), any());
+        verify(deadlineTimer).disarm(anyList());
+        verify(metricsService, never()).incrementMetric(any(), anyString());
+    }
+
+    private static void complete(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(sync -> sync.afterCompletion(status));
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+    }
+}
@@ -0,0 +1,127 @@
+package org.example.voicecampaign.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.voicecampaign.dto.CallbackRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CallbackBufferTest {
+
+    @Mock
+    private CallService callService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CallbackBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new CallbackBuffer(callService, meterRegistry);
+        ReflectionTestUtils.setField(buffer, "enabled", true);
+        ReflectionTestUtils.setField(buffer, "capacity", 5);
+        ReflectionTestUtils.setField(buffer, "batchSize", 2);
+        ReflectionTestUtils.setField(buffer, "drainerThreads", 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        buffer.stop();
+    }
+
+    @Test
+    void submit_shouldAdmitRequestsWholeOrNotAtAll() {
+        buffer.start();
+
+        assertThat(buffer.submit(callbacks(3))).isTrue();
+        assertThat(buffer.submit(callbacks(3))).isFalse();
+        assertThat(buffer.submit(callbacks(2))).isTrue();
+
+        assertThat(meterRegistry.get("voice.campaign.callbacks.buffered").gauge().value()).isEqualTo(5);
+    }
+
+    @Test
+    void submit_shouldRefuseAndCountCallbacksOnceFull() {
+        buffer.start();
+        buffer.submit(callbacks(5));
+
+        assertThat(buffer.submit(callbacks(1))).isFalse();
+        assertThat(buffer.submit(callbacks(2))).isFalse();
+
+        assertThat(meterRegistry.get("voice.campaign.callbacks.rejected").counter().count()).isEqualTo(3);
+        verifyNoInteractions(callService);
+    }
+
+    @Test
+    void submit_shouldRefuseWhenNotStarted() {
+        assertThat(buffer.submit(callbacks(1))).isFalse();
+    }
+
+    @Test
+    void drain_shouldApplyCallbacksInBatches() {
+        List<List<CallbackRequest>> batches = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(invocation -> {
+            // The drainer reuses its batch list, so keep a copy
+            batches.add(List.copyOf(invocation.<List<CallbackRequest>>getArgument(0)));
+            return null;
+        }).when(callService).handleCallbacks(anyList());
+        ReflectionTestUtils.setField(buffer, "drainerThreads", 1);
+        buffer.start();
+        List<CallbackRequest> submitted = callbacks(5);
+
+        buffer.submit(submitted);
+        buffer.stop();
+
+        assertThat(batches).allSatisfy(batch -> assertThat(batch).hasSizeBetween(1, 2));
+        assertThat(batches.stream().flatMap(List::stream).toList()).containsExactlyElementsOf(submitted);
+        assertThat(meterRegistry.get("voice.campaign.callbacks.buffered").gauge().value()).isZero();
+        verify(callService, never()).handleCallback(any());
+    }
+
+    @Test
+    void drain_shouldReplayAFailedBatchOneByOne() {
+        doThrow(new IllegalStateException("deadlock")).when(callService).handleCallbacks(anyList());
+        doThrow(new IllegalStateException("bad row")).doNothing().when(callService).handleCallback(any());
+        ReflectionTestUtils.setField(buffer, "drainerThreads", 1);
+        buffer.start();
+        List<CallbackRequest> submitted = callbacks(2);
+
+        buffer.submit(submitted);
+        buffer.stop();
+
+        verify(callService).handleCallback(submitted.get(0));
+        verify(callService).handleCallback(submitted.get(1));
+    }
+
+    @Test
+    void stop_shouldStopAdmitting() {
+        buffer.start();
+        buffer.stop();
+
+        assertThat(buffer.submit(callbacks(1))).isFalse();
+    }
+
+    private static List<CallbackRequest> callbacks(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> CallbackRequest.builder()
+                        .externalCallId("ext-" + UUID.randomUUID())
+                        .status(CallbackRequest.CallbackStatus.COMPLETED)
+                        .build())
+                .toList();
+    }
+}
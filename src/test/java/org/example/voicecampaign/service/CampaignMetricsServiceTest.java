@@ -0,0 +1,102 @@
+package org.example.voicecampaign.service;
+
+import org.example.voicecampaign.EmbeddedRedis;
+import org.example.voicecampaign.repository.CallRequestRepository;
+import org.example.voicecampaign.scheduler.SchedulerWakeup;
+import org.example.voicecampaign.worker.queue.CallQueueFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.IOException;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Runs the slot and queue counter scripts against an embedded Redis, skipped where no Redis binary
+ * can be started.
+ */
+class CampaignMetricsServiceTest {
+
+    private static EmbeddedRedis redis;
+    private static StringRedisTemplate redisTemplate;
+
+    private CampaignMetricsService metricsService;
+
+    private final UUID campaignId = UUID.randomUUID();
+    private final String activeSlotsKey = "campaign:" + campaignId + ":active_slots";
+    private final String queuedKey = "campaign:" + campaignId + ":queued";
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        redis = EmbeddedRedis.startOrSkip();
+        redisTemplate = redis.template();
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        if (redis != null) {
+            redis.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        redis.flush();
+        metricsService = new CampaignMetricsService(redisTemplate, mock(CallRequestRepository.class),
+                mock(SchedulerWakeup.class), mock(CallQueueFactory.class));
+    }
+
+    @Test
+    void callDequeued_shouldClampTheQueuedCountAtZero() {
+        metricsService.callDequeued(campaignId, false);
+        metricsService.callDequeued(campaignId, false);
+
+        assertThat(redisTemplate.opsForValue().get(queuedKey)).isEqualTo("0");
+        assertThat(redisTemplate.opsForValue().get(activeSlotsKey)).isNull();
+    }
+
+    @Test
+    void callDequeued_shouldTakeASlotAndCountTheWorkerWhenDialing() {
+        redisTemplate.opsForValue().set(queuedKey, "2");
+
+        metricsService.callDequeued(campaignId, true);
+
+        assertThat(redisTemplate.opsForValue().get(queuedKey)).isEqualTo("1");
+        assertThat(metricsService.getActiveSlots(campaignId)).isEqualTo(1);
+        assertThat(redisTemplate.opsForValue().get("worker:active_count")).isEqualTo("1");
+    }
+
+    @Test
+    void releaseSlot_shouldClampTheActiveSlotsAtZero() {
+        metricsService.callDequeued(campaignId, true);
+
+        metricsService.releaseSlot(campaignId);
+        metricsService.releaseSlot(campaignId);
+
+        assertThat(metricsService.getActiveSlots(campaignId)).isZero();
+        assertThat(redisTemplate.opsForValue().get(activeSlotsKey)).isEqualTo("0");
+    }
+
+    @Test
+    void callDispatched_shouldClampTheActiveWorkersAtZero() {
+        metricsService.callDispatched(campaignId, false);
+
+        assertThat(redisTemplate.opsForValue().get("worker:active_count")).isEqualTo("0");
+        assertThat(redisTemplate.opsForValue().get(activeSlotsKey)).isNull();
+    }
+
+    @Test
+    void releaseSlots_shouldClampTheActiveSlotsAtZero() {
+        redisTemplate.opsForValue().set(activeSlotsKey, "2");
+
+        metricsService.releaseSlots(campaignId, 5);
+
+        assertThat(metricsService.getActiveSlots(campaignId)).isZero();
+        assertThat(redisTemplate.opsForValue().get(activeSlotsKey)).isEqualTo("0");
+    }
+}
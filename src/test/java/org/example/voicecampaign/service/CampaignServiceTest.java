@@ -8,6 +8,8 @@ import org.example.voicecampaign.exception.CampaignNotFoundException;
 import org.example.voicecampaign.exception.InvalidOperationException;
 import org.example.voicecampaign.repository.CallRequestRepository;
 import org.example.voicecampaign.repository.CampaignRepository;
+import org.example.voicecampaign.scheduler.CallClaimService;
+import org.example.voicecampaign.scheduler.SchedulerWakeup;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -34,11 +36,21 @@ class CampaignServiceTest {
     @Mock
     private CampaignMetricsService metricsService;
 
+    @Mock
+    private SchedulerWakeup schedulerWakeup;
+
+    @Mock
+    private CallClaimService claimService;
+
+    @Mock
+    private CampaignSnapshotCache campaignSnapshots;
+
     private CampaignService campaignService;
 
     @BeforeEach
     void setUp() {
-        campaignService = new CampaignService(campaignRepository, callRequestRepository, metricsService);
+        campaignService = new CampaignService(campaignRepository, callRequestRepository, metricsService, schedulerWakeup,
+                claimService, campaignSnapshots);
     }
 
     @Test
@@ -98,6 +110,8 @@ class CampaignServiceTest {
 
         assertThat(response.getStatus()).isEqualTo(CampaignStatus.IN_PROGRESS);
         verify(metricsService).resetActiveSlots(campaignId);
+        verify(schedulerWakeup).signal(campaignId);
+        verify(campaignSnapshots).invalidate(campaign);
     }
 
     @Test
@@ -132,5 +146,7 @@ class CampaignServiceTest {
         CampaignResponse response = campaignService.pauseCampaign(campaignId);
 
         assertThat(response.getStatus()).isEqualTo(CampaignStatus.PAUSED);
+        verify(claimService).withdrawQueued(campaignId);
+        verify(campaignSnapshots).invalidate(campaign);
     }
 }
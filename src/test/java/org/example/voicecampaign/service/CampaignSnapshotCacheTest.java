@@ -0,0 +1,141 @@
+package org.example.voicecampaign.service;
+
+import org.example.voicecampaign.domain.entity.Campaign;
+import org.example.voicecampaign.domain.model.CampaignSnapshot;
+import org.example.voicecampaign.domain.model.CampaignStatus;
+import org.example.voicecampaign.repository.CampaignRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CampaignSnapshotCacheTest {
+
+    private static final String CHANNEL = "campaign:snapshot:invalidate";
+
+    @Mock
+    private CampaignRepository campaignRepository;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private RedisMessageListenerContainer listenerContainer;
+
+    private CampaignSnapshotCache cache;
+    private MessageListener invalidationListener;
+
+    private final UUID campaignId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        cache = new CampaignSnapshotCache(campaignRepository, redisTemplate, listenerContainer, 60000, 100);
+        cache.subscribe();
+        ArgumentCaptor<MessageListener> listener = ArgumentCaptor.forClass(MessageListener.class);
+        verify(listenerContainer).addMessageListener(listener.capture(), any(ChannelTopic.class));
+        invalidationListener = listener.getValue();
+    }
+
+    @Test
+    void get_shouldLoadACampaignOnlyOnce() {
+        when(campaignRepository.findById(campaignId)).thenReturn(Optional.of(campaign(CampaignStatus.IN_PROGRESS, 1000)));
+
+        cache.get(campaignId);
+        cache.get(campaignId);
+
+        verify(campaignRepository, times(1)).findById(campaignId);
+    }
+
+    @Test
+    void invalidate_shouldEvictAStaleSnapshotAndTellOtherNodes() {
+        when(campaignRepository.findById(campaignId)).thenReturn(
+                Optional.of(campaign(CampaignStatus.IN_PROGRESS, 1000)),
+                Optional.of(campaign(CampaignStatus.PAUSED, 2000)));
+        cache.get(campaignId);
+
+        cache.invalidate(campaign(CampaignStatus.PAUSED, 2000));
+
+        assertThat(cache.get(campaignId)).get().extracting(CampaignSnapshot::status).isEqualTo(CampaignStatus.PAUSED);
+        verify(redisTemplate).convertAndSend(CHANNEL, campaignId + ":2000");
+    }
+
+    @Test
+    void invalidate_shouldEvictOnlyOnceTheTransactionCommits() {
+        when(campaignRepository.findById(campaignId)).thenReturn(
+                Optional.of(campaign(CampaignStatus.IN_PROGRESS, 1000)),
+                Optional.of(campaign(CampaignStatus.PAUSED, 2000)));
+        cache.get(campaignId);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidate(campaign(CampaignStatus.PAUSED, 2000));
+
+            assertThat(cache.get(campaignId)).get().extracting(CampaignSnapshot::status).isEqualTo(CampaignStatus.IN_PROGRESS);
+            verify(redisTemplate, never()).convertAndSend(anyString(), any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(cache.get(campaignId)).get().extracting(CampaignSnapshot::status).isEqualTo(CampaignStatus.PAUSED);
+    }
+
+    @Test
+    void invalidationMessage_shouldDropTheEntry() {
+        when(campaignRepository.findById(campaignId)).thenReturn(
+                Optional.of(campaign(CampaignStatus.IN_PROGRESS, 1000)),
+                Optional.of(campaign(CampaignStatus.CANCELLED, 2000)));
+        cache.get(campaignId);
+
+        receive(campaignId + ":2000");
+
+        assertThat(cache.get(campaignId)).get().extracting(CampaignSnapshot::status).isEqualTo(CampaignStatus.CANCELLED);
+        verify(campaignRepository, times(2)).findById(campaignId);
+    }
+
+    @Test
+    void invalidationMessage_shouldKeepASnapshotLoadedAfterTheChange() {
+        when(campaignRepository.findById(campaignId)).thenReturn(Optional.of(campaign(CampaignStatus.PAUSED, 3000)));
+        cache.get(campaignId);
+
+        // A late message for an older change
+        receive(campaignId + ":2000");
+        cache.get(campaignId);
+
+        verify(campaignRepository, times(1)).findById(campaignId);
+    }
+
+    private void receive(String body) {
+        invalidationListener.onMessage(new DefaultMessage(CHANNEL.getBytes(StandardCharsets.UTF_8),
+                body.getBytes(StandardCharsets.UTF_8)), null);
+    }
+
+    private Campaign campaign(CampaignStatus status, long version) {
+        return Campaign.builder()
+                .id(campaignId)
+                .name("Cached")
+                .status(status)
+                .updatedAt(Instant.ofEpochMilli(version))
+                .build();
+    }
+}
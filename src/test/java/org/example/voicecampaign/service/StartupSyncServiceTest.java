@@ -0,0 +1,137 @@
+package org.example.voicecampaign.service;
+
+import org.example.voicecampaign.domain.model.CallStatus;
+import org.example.voicecampaign.repository.CallRequestRepository;
+import org.example.voicecampaign.repository.CampaignRepository;
+import org.example.voicecampaign.scheduler.CallClaimService;
+import org.example.voicecampaign.scheduler.LeaderElection;
+import org.example.voicecampaign.scheduler.LeaderRole;
+import org.example.voicecampaign.scheduler.NodeRegistry;
+import org.example.voicecampaign.worker.queue.CallQueue;
+import org.example.voicecampaign.worker.queue.CallQueueFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StartupSyncServiceTest {
+
+    @Mock
+    private CampaignRepository campaignRepository;
+
+    @Mock
+    private CallRequestRepository callRequestRepository;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private CallClaimService claimService;
+
+    @Mock
+    private LeaderElection leaderElection;
+
+    @Mock
+    private CallQueueFactory callQueueFactory;
+
+    @Mock
+    private NodeRegistry nodeRegistry;
+
+    @Mock
+    private CallQueue callQueue;
+
+    private StartupSyncService startupSyncService;
+
+    @BeforeEach
+    void setUp() {
+        startupSyncService = new StartupSyncService(campaignRepository, callRequestRepository, redisTemplate,
+                claimService, leaderElection, callQueueFactory, nodeRegistry);
+    }
+
+    @Test
+    void syncOnStartup_shouldResetRedisStateOnColdStart() {
+        when(leaderElection.isLeader(LeaderRole.SCHEDULER)).thenReturn(true);
+        when(callQueueFactory.getQueue()).thenReturn(callQueue);
+        when(callQueueFactory.getAllQueues()).thenReturn(List.of(callQueue));
+        when(nodeRegistry.otherLiveNodes()).thenReturn(0L);
+        when(redisTemplate.keys(anyString())).thenReturn(Set.of());
+        when(campaignRepository.findActiveCampaigns(any())).thenReturn(List.of());
+
+        startupSyncService.syncOnStartup();
+
+        verify(callQueue).clear();
+        verify(claimService).releaseAllClaims();
+    }
+
+    @Test
+    void syncOnStartup_shouldOnlyReleaseOrphanedClaimsWhileOtherNodesAreLive() {
+        UUID queued = UUID.randomUUID();
+        UUID orphaned = UUID.randomUUID();
+        when(leaderElection.isLeader(LeaderRole.SCHEDULER)).thenReturn(true);
+        when(callQueueFactory.getQueue()).thenReturn(callQueue);
+        when(nodeRegistry.otherLiveNodes()).thenReturn(2L);
+        when(callRequestRepository.findIdsByStatus(CallStatus.SCHEDULED)).thenReturn(List.of(queued, orphaned));
+        when(callQueue.queuedCallIds()).thenReturn(Set.of(queued));
+
+        startupSyncService.syncOnStartup();
+
+        verify(claimService).releaseClaims(List.of(orphaned));
+        verify(claimService, never()).releaseAllClaims();
+        verify(callQueue, never()).clear();
+        // Queued counts and slots of the live nodes are left alone
+        verifyNoInteractions(redisTemplate, campaignRepository);
+    }
+
+    @Test
+    void syncOnStartup_shouldKeepRedisStateWhenLivenessIsUnknown() {
+        when(leaderElection.isLeader(LeaderRole.SCHEDULER)).thenReturn(true);
+        when(callQueueFactory.getQueue()).thenReturn(callQueue);
+        when(nodeRegistry.otherLiveNodes()).thenThrow(new RedisConnectionFailureException("down"));
+        when(callRequestRepository.findIdsByStatus(CallStatus.SCHEDULED)).thenReturn(List.of());
+        when(callQueue.queuedCallIds()).thenReturn(Set.of());
+
+        startupSyncService.syncOnStartup();
+
+        verify(callQueue, never()).clear();
+        verify(claimService, never()).releaseAllClaims();
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void syncOnStartup_shouldResetWhenForcedEvenWithLiveNodes() {
+        ReflectionTestUtils.setField(startupSyncService, "forceReset", true);
+        when(leaderElection.isLeader(LeaderRole.SCHEDULER)).thenReturn(true);
+        when(callQueueFactory.getQueue()).thenReturn(callQueue);
+        when(callQueueFactory.getAllQueues()).thenReturn(List.of(callQueue));
+        when(redisTemplate.keys(anyString())).thenReturn(Set.of());
+        when(campaignRepository.findActiveCampaigns(any())).thenReturn(List.of());
+
+        startupSyncService.syncOnStartup();
+
+        verify(callQueue).clear();
+        verify(claimService).releaseAllClaims();
+        verifyNoInteractions(nodeRegistry);
+    }
+
+    @Test
+    void syncOnStartup_shouldSkipOnFollowers() {
+        when(leaderElection.isLeader(LeaderRole.SCHEDULER)).thenReturn(false);
+
+        startupSyncService.syncOnStartup();
+
+        verifyNoInteractions(nodeRegistry, claimService, callQueueFactory, redisTemplate);
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.voicecampaign.service;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.voicecampaign.telephony.CallInitiation;
+import org.example.voicecampaign.telephony.RouteUnavailableException;
+import org.example.voicecampaign.telephony.TelephonyProvider;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TelephonyServiceTest {
+
+    @Mock
+    private TelephonyProvider provider;
+
+    private RateLimiter globalRateLimiter;
+    private TelephonyService telephonyService;
+
+    @BeforeEach
+    void setUp() {
+        CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+        RateLimiterRegistry rateLimiterRegistry = RateLimiterRegistry.of(RateLimiterConfig.custom()
+                .limitForPeriod(100)
+                .limitRefreshPeriod(Duration.ofHours(1))
+                .timeoutDuration(Duration.ZERO)
+                .build());
+        // The provider account allows a single call for the whole test
+        globalRateLimiter = rateLimiterRegistry.rateLimiter(TelephonyRouteGuards.GLOBAL_INSTANCE,
+                RateLimiterConfig.custom()
+                        .limitForPeriod(1)
+                        .limitRefreshPeriod(Duration.ofHours(1))
+                        .timeoutDuration(Duration.ZERO)
+                        .build());
+        TelephonyRouteGuards routeGuards = new TelephonyRouteGuards(circuitBreakerRegistry, rateLimiterRegistry,
+                new SimpleMeterRegistry(), true, "", 2, 100, 60000, 5000);
+        when(provider.getName()).thenReturn("mock");
+        telephonyService = new TelephonyService(List.of(provider), circuitBreakerRegistry, rateLimiterRegistry,
+                routeGuards, "mock", 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        telephonyService.shutdown();
+    }
+
+    @Test
+    void initiateCall_shouldDeferACallTheGlobalRateLimiterRefuses() {
+        globalRateLimiter.acquirePermission();
+
+        CompletionStage<String> result = telephonyService.initiateCall("+15550100", UUID.randomUUID());
+
+        // Deferred by CallService like a route refusal, without spending a retry
+        assertThatThrownBy(() -> result.toCompletableFuture().join())
+                .hasCauseInstanceOf(RouteUnavailableException.class);
+        verify(provider, never()).initiateCalls(anyList());
+    }
+
+    @Test
+    void initiateCall_shouldPlaceACallTheGlobalRateLimiterPermits() {
+        when(provider.initiateCalls(anyList())).thenReturn(List.of(CompletableFuture.completedFuture("ext-1")));
+
+        CompletionStage<String> result = telephonyService.initiateCall("+15550100", UUID.randomUUID());
+
+        assertThat(result.toCompletableFuture().join()).isEqualTo("ext-1");
+    }
+
+    @Test
+    void initiateCalls_shouldSendOnlyThePermittedCallsOfABatchAndKeepTheirOrder() {
+        List<CallInitiation> calls = List.of(
+                new CallInitiation(UUID.randomUUID(), "+15550100"),
+                new CallInitiation(UUID.randomUUID(), "+15550101"),
+                new CallInitiation(UUID.randomUUID(), "+15550102"));
+        when(provider.initiateCalls(List.of(calls.get(0))))
+                .thenReturn(List.of(CompletableFuture.completedFuture("ext-1")));
+
+        // The global limiter permits the first call only, so the others are deferred in place
+        List<CompletionStage<String>> results = telephonyService.initiateCalls(calls);
+
+        assertThat(results).hasSize(3);
+        assertThat(results.get(0).toCompletableFuture().join()).isEqualTo("ext-1");
+        assertThatThrownBy(() -> results.get(1).toCompletableFuture().join())
+                .hasCauseInstanceOf(RouteUnavailableException.class);
+        assertThatThrownBy(() -> results.get(2).toCompletableFuture().join())
+                .hasCauseInstanceOf(RouteUnavailableException.class);
+        verify(provider).initiateCalls(List.of(calls.get(0)));
+    }
+}
@@ -0,0 +1,58 @@
+package org.example.voicecampaign.telephony;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HashedTimingWheelTest {
+
+    @Test
+    void schedule_shouldExpireInDeadlineOrderAcrossRounds() throws Exception {
+        List<Integer> expired = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(3);
+        // 8 buckets of 5ms: the 120ms timeout needs three rounds of the wheel
+        try (HashedTimingWheel<Integer> wheel = new HashedTimingWheel<>("test-wheel", 5, 8,
+                value -> {
+                    expired.add(value);
+                    done.countDown();
+                }, Runnable::run)) {
+            wheel.schedule(120, 120, TimeUnit.MILLISECONDS);
+            wheel.schedule(10, 10, TimeUnit.MILLISECONDS);
+            wheel.schedule(50, 50, TimeUnit.MILLISECONDS);
+
+            assertThat(done.await(2, TimeUnit.SECONDS)).isTrue();
+            assertThat(expired).containsExactly(10, 50, 120);
+            assertThat(wheel.pending()).isZero();
+        }
+    }
+
+    @Test
+    void cancel_shouldDropTimeoutAndPendingCount() throws Exception {
+        List<String> expired = new CopyOnWriteArrayList<>();
+        CountDownLatch passed = new CountDownLatch(1);
+        try (HashedTimingWheel<String> wheel = new HashedTimingWheel<>("test-wheel", 5, 64,
+                value -> {
+                    expired.add(value);
+                    if (value.equals("later")) {
+                        passed.countDown();
+                    }
+                }, Runnable::run)) {
+            HashedTimingWheel.Timeout cancelled = wheel.schedule("cancelled", 30, TimeUnit.MILLISECONDS);
+            wheel.schedule("kept", 30, TimeUnit.MILLISECONDS);
+            cancelled.cancel();
+            assertThat(wheel.pending()).isEqualTo(1);
+            // Expires after the cancelled deadline, so once it fires the cancelled one would have too
+            wheel.schedule("later", 60, TimeUnit.MILLISECONDS);
+
+            assertThat(passed.await(2, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(expired).containsExactly("kept", "later");
+            assertThat(wheel.pending()).isZero();
+        }
+    }
+}
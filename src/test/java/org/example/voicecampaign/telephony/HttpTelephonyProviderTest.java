@@ -0,0 +1,85 @@
+package org.example.voicecampaign.telephony;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HttpTelephonyProviderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private StubTelephonyProviderServer stub;
+    private HttpTelephonyProvider provider;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new StubTelephonyProviderServer();
+        provider = new HttpTelephonyProvider(objectMapper, stub.baseUrl() + "/", "secret",
+                "http://localhost:8081/api/v1/calls/callback", 2000, 5000, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        provider.shutdown();
+        stub.close();
+    }
+
+    @Test
+    void initiateCall_shouldPostCallAndCompleteWithProviderCallId() throws Exception {
+        UUID callRequestId = UUID.randomUUID();
+
+        String externalCallId = provider.initiateCall("+14155550100", callRequestId)
+                .toCompletableFuture().get(5, TimeUnit.SECONDS);
+
+        assertThat(externalCallId).startsWith("stub-");
+        JsonNode request = objectMapper.readTree(stub.requestBodies().get(0));
+        assertThat(request.get("to").asText()).isEqualTo("+14155550100");
+        assertThat(request.get("reference").asText()).isEqualTo(callRequestId.toString());
+        assertThat(request.get("callbackUrl").asText()).isEqualTo("http://localhost:8081/api/v1/calls/callback");
+        assertThat(stub.authorizations()).containsExactly("Bearer secret");
+    }
+
+    @Test
+    void initiateCall_shouldFailWithStatusWhenProviderRejects() {
+        stub.respondWith(503);
+
+        CompletableFuture<String> initiation = provider.initiateCall("+14155550100", UUID.randomUUID())
+                .toCompletableFuture();
+
+        assertThatThrownBy(() -> initiation.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .cause()
+                .isInstanceOfSatisfying(TelephonyException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(503));
+    }
+
+    @Test
+    void initiateCall_shouldKeepManyInitiationsInFlightOnTwoThreads() throws Exception {
+        stub.delay(500);
+        int calls = 100;
+
+        long start = System.nanoTime();
+        List<CompletableFuture<String>> initiations = new ArrayList<>(calls);
+        for (int i = 0; i < calls; i++) {
+            initiations.add(provider.initiateCall("+1415555" + String.format("%04d", i), UUID.randomUUID())
+                    .toCompletableFuture());
+        }
+
+        CompletableFuture.allOf(initiations.toArray(CompletableFuture[]::new)).get(10, TimeUnit.SECONDS);
+
+        // Sequentially this would take calls * 500ms; concurrently about one round trip
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(5000);
+        assertThat(initiations).allSatisfy(initiation -> assertThat(initiation.join()).startsWith("stub-"));
+    }
+}
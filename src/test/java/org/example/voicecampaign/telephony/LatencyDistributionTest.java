@@ -0,0 +1,52 @@
+package org.example.voicecampaign.telephony;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LatencyDistributionTest {
+
+    private static final int SAMPLES = 20_000;
+
+    @Test
+    void fixed_shouldAlwaysReturnTheMedian() {
+        LatencyDistribution distribution = new LatencyDistribution("FIXED", 150, 0.5, 0, 0);
+
+        assertThat(LongStream.generate(distribution::sample).limit(100)).containsOnly(150L);
+    }
+
+    @Test
+    void lognormal_shouldCenterOnTheMedianWithALongRightTail() {
+        long[] samples = samples(new LatencyDistribution("lognormal", 1000, 0.5, 0, 0));
+
+        assertThat(samples[0]).isNotNegative();
+        assertThat(samples[SAMPLES / 2]).isBetween(950L, 1050L);
+        // e^(0.5 * 1.645) ~ 2.28 above the median at the 95th percentile, 0.44 below at the 5th
+        assertThat(samples[SAMPLES * 95 / 100]).isBetween(2100L, 2450L);
+        assertThat(samples[SAMPLES * 5 / 100]).isBetween(410L, 470L);
+    }
+
+    @Test
+    void bimodal_shouldDrawTheSecondModeWithItsWeight() {
+        long[] samples = samples(new LatencyDistribution("bimodal", 1000, 0.1, 60000, 0.3));
+
+        long second = Arrays.stream(samples).filter(sample -> sample > 10000).count();
+        assertThat(second).isBetween((long) (SAMPLES * 0.28), (long) (SAMPLES * 0.32));
+    }
+
+    @Test
+    void constructor_shouldRejectUnknownTypes() {
+        assertThatThrownBy(() -> new LatencyDistribution("uniform", 100, 0, 0, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static long[] samples(LatencyDistribution distribution) {
+        long[] samples = LongStream.generate(distribution::sample).limit(SAMPLES).toArray();
+        Arrays.sort(samples);
+        return samples;
+    }
+}
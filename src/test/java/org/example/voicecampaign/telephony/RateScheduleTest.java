@@ -0,0 +1,39 @@
+package org.example.voicecampaign.telephony;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class RateScheduleTest {
+
+    @Test
+    void parse_shouldReadAConstantRate() {
+        RateSchedule schedule = RateSchedule.parse(" 0.05 ");
+
+        assertThat(schedule.rateAt(0)).isEqualTo(0.05);
+        assertThat(schedule.rateAt(3_600_000)).isEqualTo(0.05);
+    }
+
+    @Test
+    void rateAt_shouldInterpolateBetweenPointsAndRepeat() {
+        RateSchedule schedule = RateSchedule.parse("0:0.05, 300000:0.40, 600000:0.05");
+
+        assertThat(schedule.rateAt(0)).isEqualTo(0.05);
+        assertThat(schedule.rateAt(150_000)).isCloseTo(0.225, within(1e-9));
+        assertThat(schedule.rateAt(300_000)).isEqualTo(0.40);
+        assertThat(schedule.rateAt(450_000)).isCloseTo(0.225, within(1e-9));
+        // The cycle restarts after the last offset
+        assertThat(schedule.rateAt(600_000)).isEqualTo(0.05);
+        assertThat(schedule.rateAt(900_000)).isEqualTo(0.40);
+    }
+
+    @Test
+    void parse_shouldRejectInvalidSchedules() {
+        assertThatThrownBy(() -> RateSchedule.parse("1.5")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RateSchedule.parse("100:0.1,200:0.2")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RateSchedule.parse("0:0.1,0:0.2")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RateSchedule.parse("0:0.1,100")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.voicecampaign.telephony;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RouteTableTest {
+
+    @Test
+    void routeOf_shouldUseLongestMatchingPrefix() {
+        RouteTable table = RouteTable.parse("1:nanp, 44:uk, 4420:uk-london", 2);
+
+        assertThat(table.routeOf("+14155550100")).isEqualTo("nanp");
+        assertThat(table.routeOf("+442071234567")).isEqualTo("uk-london");
+        assertThat(table.routeOf("447700900123")).isEqualTo("uk");
+    }
+
+    @Test
+    void routeOf_shouldFallBackToLeadingDigits() {
+        RouteTable table = RouteTable.parse("", 2);
+
+        assertThat(table.routeOf("+919876543210")).isEqualTo("+91");
+        assertThat(table.routeOf("919876543210")).isEqualTo("+91");
+    }
+
+    @Test
+    void parse_shouldRejectMalformedEntries() {
+        assertThatThrownBy(() -> RouteTable.parse("44", 2)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> RouteTable.parse("44:", 2)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
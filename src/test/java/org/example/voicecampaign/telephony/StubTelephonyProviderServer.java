@@ -0,0 +1,89 @@
+package org.example.voicecampaign.telephony;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Local stand-in for a telephony provider speaking the API {@link HttpTelephonyProvider} expects:
+ * {@code POST /v1/calls} answers {@code {"callId": ...}} after an optional delay, or a configured
+ * error status.
+ */
+class StubTelephonyProviderServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final List<String> requestBodies = new CopyOnWriteArrayList<>();
+    private final List<String> authorizations = new CopyOnWriteArrayList<>();
+
+    private volatile int status = 200;
+    private volatile long delayMs;
+
+    StubTelephonyProviderServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1000);
+        server.createContext("/v1/calls", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    StubTelephonyProviderServer respondWith(int status) {
+        this.status = status;
+        return this;
+    }
+
+    StubTelephonyProviderServer delay(long delayMs) {
+        this.delayMs = delayMs;
+        return this;
+    }
+
+    List<String> requestBodies() {
+        return requestBodies;
+    }
+
+    List<String> authorizations() {
+        return authorizations;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requestBodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+            if (authorization != null) {
+                authorizations.add(authorization);
+            }
+            if (delayMs > 0) {
+                Thread.sleep(delayMs);
+            }
+            byte[] body = status < 300
+                    ? ("{\"callId\":\"stub-" + UUID.randomUUID() + "\"}").getBytes(StandardCharsets.UTF_8)
+                    : "{\"error\":\"unavailable\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,143 @@
+package org.example.voicecampaign.worker;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private CircuitBreaker circuitBreaker;
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .minimumNumberOfCalls(4)
+                .slidingWindowSize(4)
+                .failureRateThreshold(100)
+                .build());
+        circuitBreaker = registry.circuitBreaker("telephonyService");
+        limiter = new AdaptiveConcurrencyLimiter(registry, mock(DataSource.class), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(limiter, "enabled", true);
+        ReflectionTestUtils.setField(limiter, "initialLimit", 10);
+        ReflectionTestUtils.setField(limiter, "minLimit", 4);
+        ReflectionTestUtils.setField(limiter, "increaseStep", 2);
+        ReflectionTestUtils.setField(limiter, "decreaseRatio", 0.5);
+        ReflectionTestUtils.setField(limiter, "targetLatencyMs", 1000L);
+        ReflectionTestUtils.setField(limiter, "maxFailureRate", 25f);
+        ReflectionTestUtils.setField(limiter, "maxPendingConnections", 0);
+        limiter.configure(100);
+    }
+
+    @Test
+    void acquire_shouldGrantNoMoreThanTheLimit() throws InterruptedException {
+        assertThat(limiter.acquire(15, 0)).isEqualTo(10);
+        assertThat(limiter.acquire(1, 0)).isZero();
+
+        limiter.release(3);
+
+        assertThat(limiter.acquire(5, 0)).isEqualTo(3);
+        assertThat(limiter.getInFlight()).isEqualTo(10);
+    }
+
+    @Test
+    void adjust_shouldRaiseTheLimitAdditivelyWhenDispatchWasHeldBack() throws InterruptedException {
+        limiter.acquire(15, 0);
+
+        limiter.adjust();
+
+        assertThat(limiter.getLimit()).isEqualTo(12);
+    }
+
+    @Test
+    void adjust_shouldKeepTheLimitWhenItWasNotReached() throws InterruptedException {
+        limiter.acquire(5, 0);
+
+        limiter.adjust();
+
+        assertThat(limiter.getLimit()).isEqualTo(10);
+    }
+
+    @Test
+    void adjust_shouldNotRaiseTheLimitAboveThePoolCapacity() throws InterruptedException {
+        limiter.configure(11);
+        limiter.acquire(15, 0);
+
+        limiter.adjust();
+        limiter.acquire(15, 0);
+        limiter.adjust();
+
+        assertThat(limiter.getLimit()).isEqualTo(11);
+    }
+
+    @Test
+    void adjust_shouldCutTheLimitMultiplicativelyWhenLatencyExceedsTheTarget() {
+        limiter.recordLatency(TimeUnit.MILLISECONDS.toNanos(1500));
+        limiter.recordLatency(TimeUnit.MILLISECONDS.toNanos(1500));
+
+        limiter.adjust();
+
+        assertThat(limiter.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    void adjust_shouldNotCutTheLimitBelowTheMinimum() {
+        limiter.recordLatency(TimeUnit.SECONDS.toNanos(2));
+        limiter.adjust();
+        limiter.recordLatency(TimeUnit.SECONDS.toNanos(2));
+        limiter.adjust();
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+    }
+
+    @Test
+    void adjust_shouldOnlyCountLatencyOfTheLastInterval() {
+        limiter.recordLatency(TimeUnit.SECONDS.toNanos(2));
+        limiter.adjust();
+
+        limiter.adjust();
+
+        assertThat(limiter.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    void adjust_shouldCutTheLimitWhenTheTelephonyBreakerIsOpen() throws InterruptedException {
+        limiter.acquire(15, 0);
+        circuitBreaker.transitionToOpenState();
+
+        limiter.adjust();
+
+        assertThat(limiter.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    void adjust_shouldCutTheLimitWhenTheTelephonyFailureRateIsTooHigh() {
+        circuitBreaker.onSuccess(0, TimeUnit.NANOSECONDS);
+        circuitBreaker.onSuccess(0, TimeUnit.NANOSECONDS);
+        circuitBreaker.onError(0, TimeUnit.NANOSECONDS, new IllegalStateException("busy"));
+        circuitBreaker.onError(0, TimeUnit.NANOSECONDS, new IllegalStateException("busy"));
+
+        limiter.adjust();
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(limiter.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    void acquire_shouldGrantEverythingWhenDisabled() throws InterruptedException {
+        ReflectionTestUtils.setField(limiter, "enabled", false);
+
+        assertThat(limiter.acquire(500, 0)).isEqualTo(500);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+}
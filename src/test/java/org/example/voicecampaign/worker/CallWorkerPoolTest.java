@@ -0,0 +1,119 @@
+package org.example.voicecampaign.worker;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.voicecampaign.domain.entity.CallRequest;
+import org.example.voicecampaign.domain.entity.Campaign;
+import org.example.voicecampaign.domain.model.CallStatus;
+import org.example.voicecampaign.domain.model.CampaignSnapshot;
+import org.example.voicecampaign.domain.model.CampaignStatus;
+import org.example.voicecampaign.repository.CallRequestRepository;
+import org.example.voicecampaign.scheduler.CallClaimService;
+import org.example.voicecampaign.service.CallService;
+import org.example.voicecampaign.service.CampaignMetricsService;
+import org.example.voicecampaign.service.CampaignSnapshotCache;
+import org.example.voicecampaign.worker.queue.CallQueue;
+import org.example.voicecampaign.worker.queue.CallQueueFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CallWorkerPoolTest {
+
+    @Mock
+    private CallService callService;
+
+    @Mock
+    private CampaignMetricsService metricsService;
+
+    @Mock
+    private CallRequestRepository callRequestRepository;
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private CallQueueFactory callQueueFactory;
+
+    @Mock
+    private CallQueue callQueue;
+
+    @Mock
+    private CallClaimService claimService;
+
+    @Mock
+    private CampaignSnapshotCache campaignSnapshots;
+
+    private CallWorkerPool workerPool;
+
+    private final Campaign campaign = Campaign.builder().id(UUID.randomUUID()).name("Campaign").build();
+    private final CampaignSnapshot snapshot =
+            new CampaignSnapshot(campaign.getId(), CampaignStatus.IN_PROGRESS, 10, 3, 1000, 2.0, 5000, 60000, 1);
+    private final CallRequest callRequest = CallRequest.builder()
+            .id(UUID.randomUUID())
+            .campaign(campaign)
+            .phoneNumber("+14155550100")
+            .status(CallStatus.SCHEDULED)
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter(
+                CircuitBreakerRegistry.ofDefaults(), mock(DataSource.class), new SimpleMeterRegistry());
+        workerPool = new CallWorkerPool(callService, metricsService, callRequestRepository, redisTemplate,
+                callQueueFactory, claimService, concurrencyLimiter, campaignSnapshots);
+        ReflectionTestUtils.setField(workerPool, "mode", "virtual");
+        ReflectionTestUtils.setField(workerPool, "maxConcurrentCalls", 10);
+        ReflectionTestUtils.setField(workerPool, "dispatcherThreads", 1);
+        ReflectionTestUtils.setField(workerPool, "dequeueBatchSize", 1);
+        ReflectionTestUtils.setField(workerPool, "initiateBatchSize", 1);
+        ReflectionTestUtils.setField(workerPool, "queuePollTimeoutMs", 50L);
+        ReflectionTestUtils.setField(workerPool, "shutdownWaitSeconds", 1);
+        ReflectionTestUtils.setField(workerPool, "shutdownTerminationSeconds", 1);
+        when(callQueueFactory.getQueue()).thenReturn(callQueue);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @AfterEach
+    void tearDown() {
+        workerPool.shutdown();
+    }
+
+    @Test
+    void virtualMode_shouldDialAndAcknowledgeCallsOnAnyJavaVersion() {
+        // Runs on virtual threads on Java 21+ and on the async mode's pool on older runtimes
+        when(callQueue.popBatch(anyInt(), anyLong())).thenReturn(List.of(callRequest.getId())).thenReturn(List.of());
+        when(callRequestRepository.findAllById(List.of(callRequest.getId()))).thenReturn(List.of(callRequest));
+        when(campaignSnapshots.getAll(Set.of(campaign.getId()))).thenReturn(Map.of(campaign.getId(), snapshot));
+        when(callService.claimForDialing(List.of(callRequest), Map.of(campaign.getId(), snapshot)))
+                .thenReturn(Set.of(callRequest.getId()));
+        when(callService.executeCall(callRequest, snapshot)).thenReturn(CompletableFuture.completedFuture(null));
+
+        workerPool.init();
+
+        verify(callQueue, timeout(2000)).acknowledge(callRequest.getId());
+        verify(metricsService).callDequeued(campaign.getId(), true);
+        verify(metricsService).callDispatched(campaign.getId(), false);
+    }
+}
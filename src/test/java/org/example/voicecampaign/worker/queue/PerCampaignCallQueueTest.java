@@ -0,0 +1,116 @@
+package org.example.voicecampaign.worker.queue;
+
+import org.example.voicecampaign.EmbeddedRedis;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the ready ring's Lua scripts against an embedded Redis, skipped where no Redis binary can be
+ * started.
+ */
+class PerCampaignCallQueueTest {
+
+    private static EmbeddedRedis redis;
+    private static StringRedisTemplate redisTemplate;
+
+    private PerCampaignCallQueue queue;
+
+    private final UUID first = UUID.randomUUID();
+    private final UUID second = UUID.randomUUID();
+    private final UUID third = UUID.randomUUID();
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        redis = EmbeddedRedis.startOrSkip();
+        redisTemplate = redis.template();
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        if (redis != null) {
+            redis.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        redis.flush();
+        queue = new PerCampaignCallQueue(redisTemplate);
+    }
+
+    @Test
+    void popBatch_shouldTakeOneCallPerCampaignInTurn() {
+        List<UUID> firstCalls = List.of(UUID.randomUUID(), UUID.randomUUID());
+        List<UUID> secondCalls = List.of(UUID.randomUUID(), UUID.randomUUID());
+        queue.push(first, firstCalls, 0);
+        queue.push(second, secondCalls, 0);
+
+        List<UUID> taken = queue.popBatch(4, 100);
+
+        assertThat(taken).containsExactly(firstCalls.get(0), secondCalls.get(0), firstCalls.get(1), secondCalls.get(1));
+        assertThat(queue.depth()).isZero();
+        assertThat(redisTemplate.opsForSet().members("call:ready:set")).isEmpty();
+        assertThat(redisTemplate.opsForList().size("call:ready")).isZero();
+    }
+
+    @Test
+    void popBatch_shouldLeaveCampaignsBeyondTheBatchInTheRing() {
+        UUID firstCall = UUID.randomUUID();
+        UUID secondCall = UUID.randomUUID();
+        UUID thirdCall = UUID.randomUUID();
+        queue.push(first, List.of(firstCall), 0);
+        queue.push(second, List.of(secondCall), 0);
+        queue.push(third, List.of(thirdCall), 0);
+
+        assertThat(queue.popBatch(2, 100)).containsExactly(firstCall, secondCall);
+
+        assertThat(queue.depth()).isEqualTo(1);
+        assertThat(queue.depth(third)).isEqualTo(1);
+        assertThat(queue.popBatch(2, 100)).containsExactly(thirdCall);
+    }
+
+    @Test
+    void pop_shouldHandTheTokenBackWhileCallsRemain() {
+        List<UUID> calls = List.of(UUID.randomUUID(), UUID.randomUUID());
+        queue.push(first, calls, 0);
+
+        assertThat(queue.pop(100)).isEqualTo(calls.get(0));
+        assertThat(redisTemplate.opsForList().range("call:ready", 0, -1)).containsExactly(first.toString());
+
+        assertThat(queue.pop(100)).isEqualTo(calls.get(1));
+        assertThat(redisTemplate.opsForList().size("call:ready")).isZero();
+        assertThat(redisTemplate.opsForSet().members("call:ready:set")).isEmpty();
+    }
+
+    @Test
+    void repair_shouldReissueATokenMissingForTwoRuns() {
+        UUID call = UUID.randomUUID();
+        queue.push(first, List.of(call), 0);
+        // A worker died between popping the token and handing it back
+        redisTemplate.opsForList().rightPop("call:ready");
+
+        queue.repair();
+        assertThat(redisTemplate.opsForList().size("call:ready")).isZero();
+        queue.repair();
+
+        assertThat(queue.pop(100)).isEqualTo(call);
+    }
+
+    @Test
+    void push_shouldBeRejectedWhenFencedOff() {
+        redisTemplate.opsForValue().set("leader:scheduler:fence", "7");
+
+        assertThat(queue.push(first, List.of(UUID.randomUUID()), 6)).isFalse();
+        assertThat(queue.push(first, List.of(UUID.randomUUID()), 7)).isTrue();
+        assertThat(queue.depth(first)).isEqualTo(1);
+    }
+}
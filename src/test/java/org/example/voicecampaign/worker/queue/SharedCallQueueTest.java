@@ -0,0 +1,95 @@
+package org.example.voicecampaign.worker.queue;
+
+import org.example.voicecampaign.EmbeddedRedis;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the shared queue's push script and batched pop against an embedded Redis, skipped where no Redis
+ * binary can be started.
+ */
+class SharedCallQueueTest {
+
+    private static EmbeddedRedis redis;
+    private static StringRedisTemplate redisTemplate;
+
+    private SharedCallQueue queue;
+
+    private final UUID campaignId = UUID.randomUUID();
+
+    @BeforeAll
+    static void startRedis() throws IOException {
+        redis = EmbeddedRedis.startOrSkip();
+        redisTemplate = redis.template();
+    }
+
+    @AfterAll
+    static void stopRedis() {
+        if (redis != null) {
+            redis.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        redis.flush();
+        queue = new SharedCallQueue(redisTemplate);
+    }
+
+    @Test
+    void push_shouldQueueACampaignsCallsInOrderAndCountThem() {
+        List<UUID> calls = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+
+        assertThat(queue.push(campaignId, calls, 0)).isTrue();
+
+        assertThat(queue.depth()).isEqualTo(3);
+        assertThat(queue.depth(campaignId)).isEqualTo(3);
+        assertThat(queue.pop(100)).isEqualTo(calls.get(0));
+        assertThat(queue.pop(100)).isEqualTo(calls.get(1));
+        assertThat(queue.pop(100)).isEqualTo(calls.get(2));
+    }
+
+    @Test
+    void push_shouldQueueBatchesBeyondTheUnpackChunk() {
+        List<UUID> calls = Stream.generate(UUID::randomUUID).limit(2500).toList();
+
+        assertThat(queue.push(campaignId, calls, 0)).isTrue();
+
+        assertThat(queue.depth()).isEqualTo(2500);
+        assertThat(queue.depth(campaignId)).isEqualTo(2500);
+        assertThat(queue.queuedCallIds()).containsExactlyInAnyOrderElementsOf(calls);
+    }
+
+    @Test
+    void popBatch_shouldTakeUpToMaxCountInQueueOrder() {
+        List<UUID> calls = Stream.generate(UUID::randomUUID).limit(5).toList();
+        queue.push(campaignId, calls, 0);
+
+        assertThat(queue.popBatch(3, 100)).containsExactlyElementsOf(calls.subList(0, 3));
+        assertThat(queue.popBatch(3, 100)).containsExactlyElementsOf(calls.subList(3, 5));
+        assertThat(queue.popBatch(3, 100)).isEmpty();
+        assertThat(queue.depth()).isZero();
+    }
+
+    @Test
+    void push_shouldBeRejectedWhenFencedOff() {
+        redisTemplate.opsForValue().set("leader:scheduler:fence", "7");
+
+        assertThat(queue.push(campaignId, List.of(UUID.randomUUID()), 6)).isFalse();
+        assertThat(queue.depth()).isZero();
+        assertThat(queue.depth(campaignId)).isZero();
+
+        assertThat(queue.push(campaignId, List.of(UUID.randomUUID()), 7)).isTrue();
+        assertThat(queue.depth(campaignId)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,123 @@
+package org.example.voicecampaign.worker.queue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.core.StreamOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StreamCallQueueTest {
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private StreamOperations<String, Object, Object> streamOperations;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private StreamCallQueue queue;
+
+    // Script (by its first Redis command) and arguments of every script run, in order
+    private final List<String> scripts = new ArrayList<>();
+    private final List<List<Object>> scriptArgs = new ArrayList<>();
+    private List<String> reclaimed = List.of();
+
+    @BeforeEach
+    void setUp() {
+        queue = new StreamCallQueue(redisTemplate);
+        ReflectionTestUtils.setField(queue, "visibilityTimeoutMs", 15000L);
+        ReflectionTestUtils.setField(queue, "repairIntervalMs", 5000L);
+
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenAnswer(invocation -> {
+            String script = ((RedisScript<?>) invocation.getArgument(0)).getScriptAsString();
+            Object[] arguments = invocation.getArguments();
+            scriptArgs.add(Arrays.asList(Arrays.copyOfRange(arguments, 2, arguments.length)));
+            if (script.contains("XAUTOCLAIM")) {
+                scripts.add("reclaim");
+                return reclaimed;
+            }
+            scripts.add(script.contains("XCLAIM") ? "heartbeat" : "ack");
+            return 1L;
+        });
+    }
+
+    @Test
+    void repair_shouldKeepUnacknowledgedDeliveriesFromBeingReclaimed() {
+        UUID dialing = UUID.randomUUID();
+        UUID dialed = UUID.randomUUID();
+        deliver(record(dialing, "1-0"), record(dialed, "2-0"));
+        queue.acknowledge(dialed);
+
+        queue.repair();
+
+        // The entry still being dialed is refreshed before any other node's reclaim can see it idle
+        assertThat(scripts).containsExactly("ack", "heartbeat", "reclaim");
+        List<Object> heartbeat = scriptArgs.get(1);
+        assertThat(heartbeat.get(0)).isEqualTo("call-workers");
+        assertThat(heartbeat.subList(2, heartbeat.size())).containsExactly("1-0");
+    }
+
+    @Test
+    void repair_shouldGiveRequeuedEntriesBackToTheirCampaignsQueuedCount() {
+        UUID campaignA = UUID.randomUUID();
+        UUID campaignB = UUID.randomUUID();
+        reclaimed = List.of(campaignA.toString(), campaignB.toString(), campaignA.toString());
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+
+        queue.repair();
+
+        // Nothing delivered to this node, so nothing to refresh
+        assertThat(scripts).containsExactly("reclaim");
+        verify(valueOperations).increment("campaign:" + campaignA + ":queued", 2L);
+        verify(valueOperations).increment("campaign:" + campaignB + ":queued", 1L);
+        verifyNoMoreInteractions(valueOperations);
+    }
+
+    @Test
+    void repair_shouldNotTouchQueuedCountsWhenNothingWasReclaimed() {
+        deliver(record(UUID.randomUUID(), "1-0"));
+
+        queue.repair();
+
+        assertThat(scripts).containsExactly("heartbeat", "reclaim");
+        verify(redisTemplate, never()).opsForValue();
+    }
+
+    @SafeVarargs
+    private void deliver(MapRecord<String, Object, Object>... records) {
+        when(redisTemplate.opsForStream()).thenReturn(streamOperations);
+        when(streamOperations.read(any(Consumer.class), any(StreamReadOptions.class), any(StreamOffset.class)))
+                .thenReturn(List.of(records));
+        assertThat(queue.popBatch(records.length, 100)).hasSize(records.length);
+    }
+
+    private static MapRecord<String, Object, Object> record(UUID callRequestId, String entryId) {
+        return MapRecord.<String, Object, Object>create("call:stream",
+                        Map.<Object, Object>of("call", callRequestId.toString(), "campaign", UUID.randomUUID().toString()))
+                .withId(RecordId.of(entryId));
+    }
+}